@@ -0,0 +1,118 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory catalog and repository stand-ins for benchmarks.
+ *
+ * Why not MySQL or H2:
+ * Benchmarks must measure our code, not the database. Every repository the
+ * benchmarked service needs is replaced by a dynamic proxy that answers from
+ * plain Java collections, so a run needs nothing but a JVM.
+ *
+ * Why dynamic proxies instead of Mockito:
+ * A proxy call is a handful of nanoseconds and allocation-free apart from the
+ * argument array; mock frameworks record every invocation and would dominate
+ * the measurements.
+ */
+public final class InMemoryFixtures {
+
+    private InMemoryFixtures() {
+    }
+
+    /**
+     * A show with seatCount seats spread round-robin over seatTypeCount seat types.
+     */
+    public static final class Catalog {
+        public final Show show = new Show();
+        public final List<SeatType> seatTypes = new ArrayList<>();
+        public final List<ShowSeatType> prices = new ArrayList<>();
+        public final List<ShowSeat> showSeats = new ArrayList<>();
+    }
+
+    /**
+     * Builds a catalog with IDs assigned, as if loaded from the database.
+     *
+     * @param showId ID of the show
+     * @param seatCount Number of ShowSeats
+     * @param seatTypeCount Number of seat types (and price rows)
+     * @return Catalog with every seat AVAILABLE
+     */
+    public static Catalog catalog(long showId, int seatCount, int seatTypeCount) {
+        Catalog catalog = new Catalog();
+        catalog.show.setId(showId);
+
+        for (int t = 0; t < seatTypeCount; t++) {
+            SeatType seatType = new SeatType();
+            seatType.setId((long) t + 1);
+            seatType.setName("TYPE_" + t);
+            catalog.seatTypes.add(seatType);
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(catalog.show);
+            price.setSeatType(seatType);
+            price.setPrice(150 + 50 * t);
+            catalog.prices.add(price);
+        }
+
+        for (int s = 0; s < seatCount; s++) {
+            Seat seat = new Seat();
+            seat.setId(showId * 100_000 + s);
+            seat.setSeatType(catalog.seatTypes.get(s % seatTypeCount));
+            seat.setRowNum(s / 20);
+            seat.setColNum(s % 20);
+
+            ShowSeat showSeat = new ShowSeat();
+            showSeat.setId(showId * 100_000 + s);
+            showSeat.setSeat(seat);
+            showSeat.setShow(catalog.show);
+            showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+            catalog.showSeats.add(showSeat);
+        }
+        return catalog;
+    }
+
+    /**
+     * Creates a repository whose methods are answered by the given functions.
+     *
+     * Unlisted methods throw UnsupportedOperationException, so a benchmark
+     * silently hitting an unexpected query fails loudly instead.
+     *
+     * Example:
+     * ShowSeatTypeRespository prices = InMemoryFixtures.repository(ShowSeatTypeRespository.class,
+     *         Map.of("findAllByShow", args -> catalog.prices));
+     *
+     * @param repositoryType Repository interface
+     * @param answers Method name → answer computed from the call arguments
+     * @return Proxy implementing the repository
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> repositoryType.getSimpleName() + "(in-memory)";
+                        };
+                    }
+                    throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+                });
+    }
+}
@@ -0,0 +1,67 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.UserRepository;
+import MyFirstProject.demo.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification cost of UserService.login().
+ *
+ * BCrypt is deliberately slow; this benchmark tells how many logins per
+ * second a single core can verify. bcryptMatches is one plain
+ * BCryptPasswordEncoder.matches() call, the baseline a login should cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordVerificationBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private UserService userService;
+    private BCryptPasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder();
+        storedHash = encoder.encode(PASSWORD);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setPassword(storedHash);
+        UserRepository users = InMemoryFixtures.repository(UserRepository.class,
+                Map.of("findByEmail", args -> Optional.of(user)));
+        userService = new UserService(users);
+    }
+
+    @Benchmark
+    public boolean login() throws Exception {
+        return userService.login(EMAIL, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,71 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.configs.InvalidationProperties;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.services.PriceCalculator;
+import MyFirstProject.demo.services.ShowReadCache;
+import MyFirstProject.demo.services.invalidation.InvalidationBus;
+import MyFirstProject.demo.services.invalidation.LoopbackInvalidationTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PriceCalculator.calculatePrice() for different booking sizes and price tables.
+ *
+ * Prices come from ShowReadCache (loaded once in setUp, then cache hits), so
+ * this measures the per-seat lookup cost: one hash lookup per seat, independent
+ * of the number of seat types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceCalculatorBenchmark {
+
+    @Param({"1", "4", "10", "50"})
+    int seats;
+
+    @Param({"1", "4", "16"})
+    int seatTypes;
+
+    private PriceCalculator priceCalculator;
+    private InMemoryFixtures.Catalog catalog;
+    private List<ShowSeat> booked;
+
+    @Setup
+    public void setUp() {
+        catalog = InMemoryFixtures.catalog(1L, Math.max(seats, seatTypes), seatTypes);
+        ShowSeatTypeRespository prices = InMemoryFixtures.repository(ShowSeatTypeRespository.class,
+                Map.of("findAllByShow", args -> catalog.prices));
+        priceCalculator = new PriceCalculator(new ShowReadCache(
+                InMemoryFixtures.repository(ShowRepository.class, Map.of()),
+                InMemoryFixtures.repository(ShowSeatRepository.class, Map.of()),
+                prices,
+                new InvalidationBus(new InvalidationProperties(), new LoopbackInvalidationTransport())));
+        // Take seats from the end so the most expensive types (last in the price table) are included
+        booked = catalog.showSeats.subList(catalog.showSeats.size() - seats, catalog.showSeats.size());
+    }
+
+    @Benchmark
+    public int calculatePrice() {
+        return priceCalculator.calculatePrice(catalog.show, booked);
+    }
+}
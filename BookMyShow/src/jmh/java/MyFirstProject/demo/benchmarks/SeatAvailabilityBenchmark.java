@@ -0,0 +1,71 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.dtos.SeatAvailabilityCountDTO;
+import MyFirstProject.demo.dtos.ShowAvailabilityDTO;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Seats left" lookups for a listing page, served from SeatAvailabilityService counters.
+ *
+ * Counters are loaded once in setUp (the in-memory repository plays the
+ * grouped COUNT query), so the benchmark measures the cached read path that
+ * every listing page hits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatAvailabilityBenchmark {
+
+    @Param({"20", "100"})
+    int showsPerPage;
+
+    private SeatAvailabilityService seatAvailabilityService;
+    private List<Long> showIds;
+
+    @Setup
+    public void setUp() {
+        ShowSeatRepository showSeats = InMemoryFixtures.repository(ShowSeatRepository.class,
+                Map.of("countByShowIdsAndSeatStatus", args -> {
+                    List<SeatAvailabilityCountDTO> rows = new ArrayList<>();
+                    for (Object showId : (Collection<?>) args[0]) {
+                        for (long seatTypeId = 1; seatTypeId <= 4; seatTypeId++) {
+                            rows.add(new SeatAvailabilityCountDTO((Long) showId, seatTypeId, 50));
+                        }
+                    }
+                    return rows;
+                }));
+        seatAvailabilityService = new SeatAvailabilityService(showSeats, event -> { });
+
+        showIds = new ArrayList<>();
+        for (long showId = 1; showId <= showsPerPage; showId++) {
+            showIds.add(showId);
+        }
+        seatAvailabilityService.getAvailability(showIds);
+    }
+
+    @Benchmark
+    public Map<Long, ShowAvailabilityDTO> listingPage() {
+        return seatAvailabilityService.getAvailability(showIds);
+    }
+}
@@ -0,0 +1,135 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.configs.InvalidationProperties;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.repositories.OutboxEventRepository;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.repositories.UserRepository;
+import MyFirstProject.demo.services.BookingMetrics;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.PriceCalculator;
+import MyFirstProject.demo.services.ShowReadCache;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.invalidation.InvalidationBus;
+import MyFirstProject.demo.services.invalidation.LoopbackInvalidationTransport;
+import MyFirstProject.demo.services.outbox.OutboxService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat availability check and claim inside BookingServices.bookMovie().
+ *
+ * The repositories answer from memory, so the numbers are the Java-side cost
+ * of a booking (lookups, status checks, claims, counter updates, pricing,
+ * metrics) without any database round trip.
+ *
+ * Benchmarks:
+ * - claimSeats: happy path, all requested seats AVAILABLE
+ * - rejectTakenSeat: first seat already BLOCKED → ShowSeatNotAvailableException
+ *   (what most requests hit during a flash sale)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatClaimBenchmark {
+
+    @Param({"1", "4", "10"})
+    int seats;
+
+    private BookingServices bookingServices;
+    private InMemoryFixtures.Catalog catalog;
+    private List<Long> requestedSeatIds;
+    private List<Long> takenSeatIds;
+
+    @Setup
+    public void setUp() {
+        catalog = InMemoryFixtures.catalog(1L, 200, 4);
+        Map<Long, ShowSeat> seatsById = new HashMap<>();
+        for (ShowSeat showSeat : catalog.showSeats) {
+            seatsById.put(showSeat.getId(), showSeat);
+        }
+        User user = new User();
+        user.setId(1L);
+
+        UserRepository users = InMemoryFixtures.repository(UserRepository.class,
+                Map.of("findById", args -> Optional.of(user)));
+        ShowRepository shows = InMemoryFixtures.repository(ShowRepository.class,
+                Map.of("findById", args -> Optional.of(catalog.show)));
+        ShowSeatRepository showSeats = InMemoryFixtures.repository(ShowSeatRepository.class, Map.of(
+                "findAllById", args -> {
+                    List<ShowSeat> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        found.add(seatsById.get((Long) id));
+                    }
+                    return found;
+                },
+                "save", args -> args[0]));
+        BookingRepository bookings = InMemoryFixtures.repository(BookingRepository.class,
+                Map.of("save", args -> args[0]));
+        OutboxEventRepository outbox = InMemoryFixtures.repository(OutboxEventRepository.class,
+                Map.of("save", args -> args[0]));
+        ShowSeatTypeRespository prices = InMemoryFixtures.repository(ShowSeatTypeRespository.class,
+                Map.of("findAllByShow", args -> catalog.prices));
+
+        bookingServices = new BookingServices(users, showSeats, shows, bookings,
+                new PriceCalculator(new ShowReadCache(shows, showSeats, prices,
+                        new InvalidationBus(new InvalidationProperties(), new LoopbackInvalidationTransport()))),
+                new SeatAvailabilityService(showSeats, event -> { }), new BookingMetrics(), new OutboxService(outbox));
+
+        requestedSeatIds = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            requestedSeatIds.add(catalog.showSeats.get(i).getId());
+        }
+        takenSeatIds = new ArrayList<>();
+        for (int i = 100; i < 100 + seats; i++) {
+            takenSeatIds.add(catalog.showSeats.get(i).getId());
+        }
+        catalog.showSeats.get(100).setSeatStatus(SeatStatus.BLOCKED);
+    }
+
+    @Benchmark
+    public Booking claimSeats() throws Exception {
+        Booking booking = bookingServices.bookMovie(1L, 1L, requestedSeatIds);
+        // Hand the seats back so every invocation claims AVAILABLE seats
+        for (ShowSeat showSeat : booking.getSeats()) {
+            showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+        }
+        return booking;
+    }
+
+    @Benchmark
+    public Exception rejectTakenSeat() throws Exception {
+        try {
+            bookingServices.bookMovie(1L, 1L, takenSeatIds);
+            throw new IllegalStateException("seat 100 should be taken");
+        } catch (ShowSeatNotAvailableException e) {
+            return e;
+        }
+    }
+}
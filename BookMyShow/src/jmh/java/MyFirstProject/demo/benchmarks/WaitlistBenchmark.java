@@ -0,0 +1,75 @@
+package MyFirstProject.demo.benchmarks;
+
+import MyFirstProject.demo.services.waitlist.ShowWaitlist;
+import MyFirstProject.demo.services.waitlist.Waiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waitlist matching on one sold-out show with a long line.
+ *
+ * Every operation keeps the line at its size: a matched waiter is replaced by
+ * a new one at the back, a leaving waiter by a joining one. Waiters ask for
+ * 1-4 seats of one of three seat types, like a real queue for a premiere.
+ *
+ * matchReleasedSeats is what the matcher thread does per released batch;
+ * joinAndLeave is the request-thread cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitlistBenchmark {
+
+    private static final int MAX_SEATS_PER_REQUEST = 10;
+
+    @Param({"1000", "100000"})
+    int waiters;
+
+    private ShowWaitlist waitlist;
+    private SplittableRandom random;
+    private long nextWaiterId;
+
+    @Setup
+    public void setUp() {
+        waitlist = new ShowWaitlist(MAX_SEATS_PER_REQUEST);
+        random = new SplittableRandom(42);
+        for (int i = 0; i < waiters; i++) {
+            waitlist.add(newWaiter());
+        }
+    }
+
+    @Benchmark
+    public Waiter matchReleasedSeats() {
+        // Two seats of a random type came back
+        Waiter matched = waitlist.pollFirstFitting(1 + random.nextInt(3), 2);
+        waitlist.add(newWaiter());
+        return matched;
+    }
+
+    @Benchmark
+    public Waiter joinAndLeave() {
+        Waiter joined = newWaiter();
+        waitlist.add(joined);
+        return waitlist.remove(joined.getId());
+    }
+
+    private Waiter newWaiter() {
+        long id = ++nextWaiterId;
+        return new Waiter(id, id, 1 + random.nextInt(3), 1 + random.nextInt(4));
+    }
+}
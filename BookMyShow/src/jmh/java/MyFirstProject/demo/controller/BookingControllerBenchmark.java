@@ -0,0 +1,117 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.configs.BookingRetryProperties;
+import MyFirstProject.demo.configs.ClusterProperties;
+import MyFirstProject.demo.configs.ConcurrencyLimitProperties;
+import MyFirstProject.demo.configs.HotShowProperties;
+import MyFirstProject.demo.configs.IdempotencyProperties;
+import MyFirstProject.demo.configs.WaitingRoomProperties;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.services.BookingMetrics;
+import MyFirstProject.demo.services.BookingRetryService;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.admission.ConcurrencyLimiters;
+import MyFirstProject.demo.services.admission.WaitingRoomService;
+import MyFirstProject.demo.services.cluster.LocalCluster;
+import MyFirstProject.demo.services.cluster.ShowOwnership;
+import MyFirstProject.demo.services.cluster.ShowRouter;
+import MyFirstProject.demo.services.hotshows.HotShowTracker;
+import MyFirstProject.demo.services.idempotency.IdempotencyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request → response DTO mapping in BookingController.bookMovie().
+ *
+ * The service is replaced by a stub that answers instantly, so this is the
+ * controller's own cost: DTO extraction and population, metrics recording and,
+ * on the failure path, exception handling.
+ *
+ * Lives in the controller package because BookingController's constructor
+ * is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingControllerBenchmark {
+
+    private BookingController succeedingController;
+    private BookingController conflictingController;
+    private BookMovieRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        Booking booking = new Booking();
+        booking.setId(42L);
+        booking.setPrice(900);
+
+        BookingServices succeeding = new BookingServices(null, null, null, null, null, null, null, null) {
+            @Override
+            public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList) {
+                return booking;
+            }
+        };
+        // Preallocated: measures the controller's catch path, not the service's stack trace capture
+        ShowSeatNotAvailableException conflict = new ShowSeatNotAvailableException("Seat not available");
+        BookingServices conflicting = new BookingServices(null, null, null, null, null, null, null, null) {
+            @Override
+            public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList)
+                    throws ShowSeatNotAvailableException {
+                throw conflict;
+            }
+        };
+
+        // Waiting room disabled (the default): admission costs one boolean check
+        BookingMetrics metrics = new BookingMetrics();
+        WaitingRoomService waitingRoom = new WaitingRoomService(new WaitingRoomProperties(), metrics);
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(new ConcurrencyLimitProperties());
+        // No idempotency key in the request: one null check
+        IdempotencyService idempotency = new IdempotencyService(null, new IdempotencyProperties());
+        // Every request counts show 7: the candidate-refresh path of the tracker
+        HotShowTracker hotShows = new HotShowTracker(new HotShowProperties(), event -> { });
+        // Cluster mode off (the default): routing costs one boolean check
+        ClusterProperties cluster = new ClusterProperties();
+        LocalCluster members = new LocalCluster();
+        ShowRouter router = new ShowRouter(cluster,
+                new ShowOwnership(cluster, members, new SeatAvailabilityService(null, event -> { })), members);
+        BookingMetrics conflictMetrics = new BookingMetrics();
+        BookingRetryProperties retries = new BookingRetryProperties();
+        succeedingController = new BookingController(new BookingRetryService(succeeding, metrics, retries),
+                null, metrics, waitingRoom, limiters, idempotency, hotShows, router);
+        conflictingController = new BookingController(new BookingRetryService(conflicting, conflictMetrics, retries),
+                null, conflictMetrics, waitingRoom, limiters, idempotency, hotShows, router);
+
+        request = new BookMovieRequestDTO();
+        request.setUserId(1L);
+        request.setShowId(7L);
+        request.setShowsSeatId(List.of(1001L, 1002L, 1003L));
+    }
+
+    @Benchmark
+    public BookMovieResponseDTO bookMovieSuccess() {
+        return succeedingController.bookMovie(request);
+    }
+
+    @Benchmark
+    public BookMovieResponseDTO bookMovieSeatConflict() {
+        return conflictingController.bookMovie(request);
+    }
+}
@@ -0,0 +1,29 @@
+package MyFirstProject.demo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Entry point of the BookMyShow backend.
+ *
+ * Annotations:
+ * - @SpringBootApplication: Component scan + auto-configuration for MyFirstProject.demo.*
+ * - @EnableJpaAuditing: Activates the AuditingEntityListener declared on BaseModel,
+ *   so createdAt/updatedAt are actually populated
+ * - @ConfigurationPropertiesScan: Binds bookmyshow.* settings (configs package)
+ * - @EnableScheduling: Runs background jobs such as seat hold expiry and
+ *   availability counter reconciliation
+ */
+@SpringBootApplication
+@EnableJpaAuditing
+@ConfigurationPropertiesScan
+@EnableScheduling
+public class BookMyShowApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(BookMyShowApplication.class, args);
+    }
+}
@@ -0,0 +1,41 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for retrying bookMovie transactions that lost a lock race (prefix: bookmyshow.booking-retry).
+ *
+ * Example (application.properties):
+ * bookmyshow.booking-retry.max-attempts=4
+ * bookmyshow.booking-retry.base-backoff-ms=10
+ * bookmyshow.booking-retry.max-backoff-ms=200
+ * bookmyshow.booking-retry.deadline-ms=2000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.booking-retry")
+public class BookingRetryProperties {
+
+    /**
+     * Transaction executions per request, the first one included (1 = no retries).
+     */
+    private int maxAttempts = 4;
+
+    /**
+     * Shortest pause before a retry.
+     */
+    private long baseBackoffMs = 10;
+
+    /**
+     * Longest pause before a retry.
+     */
+    private long maxBackoffMs = 200;
+
+    /**
+     * Time budget of one request across all attempts: no retry is started
+     * if its pause would end after the deadline.
+     */
+    private long deadlineMs = 2_000;
+}
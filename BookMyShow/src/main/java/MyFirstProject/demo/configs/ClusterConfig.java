@@ -0,0 +1,26 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.services.cluster.ClusterMembership;
+import MyFirstProject.demo.services.cluster.LocalCluster;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the cluster membership and transport that ShowOwnership and ShowRouter use.
+ *
+ * Today this is LocalCluster with only this node as a member, so every show
+ * is local. Declaring another ClusterMembership / ClusterTransport bean
+ * (service discovery, HTTP forwarding) replaces it without touching the router.
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ClusterMembership.class)
+    public LocalCluster localCluster(ClusterProperties clusterProperties) {
+        LocalCluster cluster = new LocalCluster();
+        cluster.join(clusterProperties.getNodeId());
+        return cluster;
+    }
+}
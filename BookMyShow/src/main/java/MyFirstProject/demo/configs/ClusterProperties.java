@@ -0,0 +1,35 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for cluster mode: show ownership by consistent hashing (prefix: bookmyshow.cluster).
+ *
+ * Example (application.properties):
+ * bookmyshow.cluster.enabled=true
+ * bookmyshow.cluster.node-id=booking-2
+ * bookmyshow.cluster.virtual-nodes=128
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.cluster")
+public class ClusterProperties {
+
+    /**
+     * When false, every show is handled on the node the request landed on.
+     */
+    private boolean enabled = false;
+
+    /**
+     * This node's ID in the membership; must be unique and stable across restarts.
+     */
+    private String nodeId = "node-1";
+
+    /**
+     * Points per node on the hash ring. More points spread shows more evenly
+     * (128 keeps every node within about ±10% of its fair share).
+     */
+    private int virtualNodes = 128;
+}
@@ -0,0 +1,85 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.models.TrafficClass;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the adaptive concurrency limits (prefix: bookmyshow.concurrency-limits).
+ *
+ * Example (application.properties):
+ * bookmyshow.concurrency-limits.booking.initial-limit=20
+ * bookmyshow.concurrency-limits.booking.latency-threshold-ms=500
+ * bookmyshow.concurrency-limits.login.max-limit=16
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.concurrency-limits")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * When false, nothing is shed (limits are still tracked).
+     */
+    private boolean enabled = true;
+
+    /**
+     * bookMovie and cancelBooking: bounded by database row locks and connections.
+     */
+    private Limit booking = new Limit(20, 2, 200, 500);
+
+    /**
+     * signUp / login: bounded by CPU (BCrypt).
+     */
+    private Limit login = new Limit(8, 1, 64, 500);
+
+    /**
+     * Seats left, seat maps, booking history: mostly cache hits.
+     */
+    private Limit browsing = new Limit(100, 10, 1_000, 200);
+
+    /**
+     * @param trafficClass Kind of request
+     * @return Limit settings of that kind
+     */
+    public Limit get(TrafficClass trafficClass) {
+        return switch (trafficClass) {
+            case BOOKING -> booking;
+            case LOGIN -> login;
+            case BROWSING -> browsing;
+        };
+    }
+
+    /**
+     * AIMD settings of one traffic class.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /** Concurrent requests allowed at startup. */
+        private int initialLimit;
+
+        /** The limit never drops below this. */
+        private int minLimit;
+
+        /** The limit never grows above this (keep it at or below the pool that serves the class). */
+        private int maxLimit;
+
+        /** A request slower than this counts as a congestion signal. */
+        private long latencyThresholdMs;
+
+        /** Multiplier applied to the limit on a congestion signal. */
+        private double backoffRatio = 0.9;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThresholdMs = latencyThresholdMs;
+        }
+    }
+}
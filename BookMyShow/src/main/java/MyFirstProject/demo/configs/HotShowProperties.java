@@ -0,0 +1,59 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for hot show detection (prefix: bookmyshow.hot-shows).
+ *
+ * Example (application.properties):
+ * bookmyshow.hot-shows.top-k=20
+ * bookmyshow.hot-shows.window-ms=10000
+ * bookmyshow.hot-shows.promote-hits=500
+ * bookmyshow.hot-shows.demote-hits=100
+ *
+ * Hits are decayed counts: every window all counts are halved, so a show
+ * receiving r requests per window settles at about 2r.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.hot-shows")
+public class HotShowProperties {
+
+    /**
+     * When false, requests are not counted and no show is ever hot.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Shows tracked as heavy-hitter candidates (and reported to operations).
+     */
+    private int topK = 20;
+
+    /**
+     * Count-min sketch rows.
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Count-min sketch counters per row.
+     */
+    private int sketchWidth = 4_096;
+
+    /**
+     * How often hot shows are re-evaluated and all counts halved.
+     */
+    private long windowMs = 10_000;
+
+    /**
+     * A top-k show with at least this many hits becomes hot.
+     */
+    private long promoteHits = 500;
+
+    /**
+     * A hot show with fewer hits than this stops being hot (below promoteHits,
+     * so a show hovering around the threshold doesn't flap).
+     */
+    private long demoteHits = 100;
+}
@@ -0,0 +1,46 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for idempotency keys of bookMovie and signUp (prefix: bookmyshow.idempotency).
+ *
+ * Example (application.properties):
+ * bookmyshow.idempotency.max-entries=100000
+ * bookmyshow.idempotency.ttl-seconds=3600
+ * bookmyshow.idempotency.durable=true
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Keys remembered in memory; the oldest are forgotten first (memory bound).
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * How long a completed request's response is replayed for its key.
+     */
+    private long ttlSeconds = 3_600;
+
+    /**
+     * How long a duplicate waits for the first request with its key before
+     * getting IN_PROGRESS.
+     */
+    private long inFlightWaitMs = 10_000;
+
+    /**
+     * When true, booking responses are also written to the idempotency_record
+     * table, so duplicates are recognised after a restart and on other instances.
+     */
+    private boolean durable = false;
+
+    /**
+     * How often expired idempotency_record rows are deleted.
+     */
+    private long purgeIntervalMs = 600_000;
+}
@@ -0,0 +1,24 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.services.invalidation.InvalidationTransport;
+import MyFirstProject.demo.services.invalidation.LoopbackInvalidationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the InvalidationTransport that InvalidationBus broadcasts on.
+ *
+ * Today this is the in-process loopback (a single node hears only itself).
+ * Declaring another InvalidationTransport bean (e.g. a broker topic or
+ * Redis pub/sub) replaces it without touching the bus.
+ */
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    public LoopbackInvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+}
@@ -0,0 +1,25 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for cross-node cache invalidation (prefix: bookmyshow.invalidation).
+ *
+ * Example (application.properties):
+ * bookmyshow.invalidation.flush-interval-ms=50
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.invalidation")
+public class InvalidationProperties {
+
+    /**
+     * How long local edits are collected before being broadcast as one batch.
+     * Repeated edits of the same entity within the interval go out as one
+     * invalidation carrying the newest version. Other nodes may serve the old
+     * data for at most about this long after the edit commits.
+     */
+    private long flushIntervalMs = 50;
+}
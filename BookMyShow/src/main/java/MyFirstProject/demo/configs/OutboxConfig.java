@@ -0,0 +1,23 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.services.outbox.InMemoryOutboxSink;
+import MyFirstProject.demo.services.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the OutboxSink that OutboxRelay publishes booking events to.
+ *
+ * Today this is the bounded in-process sink. Declaring another OutboxSink
+ * bean (e.g. a broker producer) replaces it without touching the relay.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public InMemoryOutboxSink inMemoryOutboxSink(OutboxProperties outboxProperties) {
+        return new InMemoryOutboxSink(outboxProperties.getSinkCapacity());
+    }
+}
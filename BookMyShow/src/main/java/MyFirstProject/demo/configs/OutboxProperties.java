@@ -0,0 +1,35 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the booking event outbox (prefix: bookmyshow.outbox).
+ *
+ * Example (application.properties):
+ * bookmyshow.outbox.relay-interval-ms=200
+ * bookmyshow.outbox.batch-size=500
+ * bookmyshow.outbox.sink-capacity=10000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.outbox")
+public class OutboxProperties {
+
+    /**
+     * Pause between relay runs once the outbox is drained (or the sink is full).
+     */
+    private long relayIntervalMs = 200;
+
+    /**
+     * Events loaded, published and deleted per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Capacity of the in-process sink; when full, the relay leaves events in
+     * the outbox until consumers catch up.
+     */
+    private int sinkCapacity = 10_000;
+}
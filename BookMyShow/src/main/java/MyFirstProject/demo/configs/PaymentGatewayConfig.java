@@ -0,0 +1,29 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.services.payment.PaymentGatewayRegistry;
+import MyFirstProject.demo.services.payment.StubPaymentGateway;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers one PaymentGateway per PaymentProvider.
+ *
+ * Today every provider is backed by a local stub with configurable latency
+ * and failure rate, so the whole confirmation path can be exercised offline.
+ * A real integration replaces the stub for its provider without touching the pipeline.
+ */
+@Configuration
+public class PaymentGatewayConfig {
+
+    @Bean
+    public PaymentGatewayRegistry paymentGatewayRegistry(PaymentProperties paymentProperties) {
+        PaymentGatewayRegistry registry = new PaymentGatewayRegistry();
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            PaymentProperties.Stub settings = paymentProperties.getStub()
+                    .getOrDefault(provider, new PaymentProperties.Stub());
+            registry.register(new StubPaymentGateway(provider, settings));
+        }
+        return registry;
+    }
+}
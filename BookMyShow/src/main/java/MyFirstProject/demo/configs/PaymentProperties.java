@@ -0,0 +1,135 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.models.PaymentProvider;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the asynchronous payment pipeline (prefix: bookmyshow.payments).
+ *
+ * Example (application.properties):
+ * bookmyshow.payments.worker-threads=8
+ * bookmyshow.payments.queue-capacity=10000
+ * bookmyshow.payments.batch-size=100
+ * bookmyshow.payments.stub.paypal.latency-ms=400
+ * bookmyshow.payments.stub.paypal.failure-rate=0.10
+ * bookmyshow.payments.callback-secrets.razorpay=${RAZORPAY_CALLBACK_SECRET}
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.payments")
+public class PaymentProperties {
+
+    /**
+     * Number of worker threads talking to payment providers.
+     * Provider calls are slow I/O, so this bounds how many run at once.
+     */
+    private int workerThreads = 8;
+
+    /**
+     * Max queued payment commands. When full, new initiations are rejected
+     * instead of letting memory grow without limit.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Max outcomes applied to Booking/ShowSeat in one database transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Max time an outcome waits for its batch to fill up before being applied anyway.
+     */
+    private long batchMaxWaitMs = 50;
+
+    /**
+     * Local stub provider settings, one entry per PaymentProvider.
+     * Used for offline load tests of end-to-end confirmation throughput.
+     */
+    private Map<PaymentProvider, Stub> stub = new EnumMap<>(PaymentProvider.class);
+
+    /**
+     * Total time budget for charging one booking, across all providers tried.
+     */
+    private long chargeDeadlineMs = 3_000;
+
+    /**
+     * Bulkhead, timeout and circuit breaker settings, one entry per PaymentProvider.
+     */
+    private Map<PaymentProvider, Resilience> resilience = new EnumMap<>(PaymentProvider.class);
+
+    /**
+     * Settings of the background refund processor.
+     */
+    private Refunds refunds = new Refunds();
+
+    /**
+     * HMAC key per provider for callback signatures (shared with the provider).
+     * Callbacks from a provider without a key are all rejected.
+     */
+    private Map<PaymentProvider, String> callbackSecrets = new EnumMap<>(PaymentProvider.class);
+
+    /**
+     * Behaviour of one local stub provider.
+     */
+    @Getter
+    @Setter
+    public static class Stub {
+
+        /** Base latency of a charge call in milliseconds. */
+        private long latencyMs = 200;
+
+        /** Random extra latency added on top of latencyMs (0..jitter). */
+        private long latencyJitterMs = 100;
+
+        /** Fraction of charges that fail (0.0 - 1.0). */
+        private double failureRate = 0.05;
+    }
+
+    /**
+     * Isolation settings for one provider.
+     */
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        /** Bulkhead size: max calls in flight to this provider. */
+        private int maxConcurrentCalls = 16;
+
+        /** Max time a caller waits for a free bulkhead slot before giving up on this provider. */
+        private long bulkheadMaxWaitMs = 20;
+
+        /** Max time a single call may take before it counts as failed. */
+        private long timeoutMs = 1_000;
+
+        /** Number of most recent calls the breaker failure rate is computed over. */
+        private int slidingWindowSize = 20;
+
+        /** Failure rate (0.0 - 1.0) that opens the breaker. */
+        private double failureRateThreshold = 0.5;
+
+        /** Time the breaker stays OPEN before letting probes through. */
+        private long openDurationMs = 5_000;
+
+        /** Successful probes needed in HALF_OPEN to close the breaker. */
+        private int halfOpenProbes = 3;
+    }
+
+    /**
+     * Refund processing settings.
+     */
+    @Getter
+    @Setter
+    public static class Refunds {
+
+        /** Max refunds loaded and marked per database round trip. */
+        private int batchSize = 200;
+
+        /** Refund calls sent to providers in parallel. */
+        private int workerThreads = 8;
+    }
+}
@@ -0,0 +1,48 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the local seat state snapshot and journal (prefix: bookmyshow.seat-state).
+ *
+ * Example (application.properties):
+ * bookmyshow.seat-state.enabled=true
+ * bookmyshow.seat-state.directory=data/seat-state
+ * bookmyshow.seat-state.checkpoint-interval-ms=300000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.seat-state")
+public class SeatStateProperties {
+
+    /**
+     * Off by default: needs a local disk that survives restarts, and must stay
+     * off for throw-away databases (the embedded profile), whose state would
+     * not match the files.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of seat-state.snapshot and seat-state.journal.
+     */
+    private String directory = "data/seat-state";
+
+    /**
+     * Size of the memory-mapped journal. 64 MB holds about 2.6 million changes.
+     */
+    private int journalCapacityBytes = 64 * 1024 * 1024;
+
+    /**
+     * How often written journal pages are forced to disk. A process crash loses
+     * nothing (the pages are in the OS page cache); a machine crash loses at most this much.
+     */
+    private long flushIntervalMs = 1_000;
+
+    /**
+     * How often a new snapshot is written and the journal restarted. Also
+     * happens early when the journal is half full.
+     */
+    private long checkpointIntervalMs = 300_000;
+}
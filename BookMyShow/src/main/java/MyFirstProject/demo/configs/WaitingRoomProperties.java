@@ -0,0 +1,78 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the virtual waiting room in front of bookMovie (prefix: bookmyshow.waiting-room).
+ *
+ * Example (application.properties):
+ * bookmyshow.waiting-room.enabled=true
+ * bookmyshow.waiting-room.initial-admits-per-second=50
+ * bookmyshow.waiting-room.burst=20
+ * bookmyshow.waiting-room.secret=change-me
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.waiting-room")
+public class WaitingRoomProperties {
+
+    /**
+     * When false, bookMovie doesn't ask for an admission ticket.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Admissions per second across all shows before any throughput has been measured.
+     */
+    private double initialAdmitsPerSecond = 50;
+
+    /**
+     * Lower bound of the tuned rate: the line always moves.
+     */
+    private double minAdmitsPerSecond = 5;
+
+    /**
+     * Upper bound of the tuned rate.
+     */
+    private double maxAdmitsPerSecond = 2_000;
+
+    /**
+     * While the database keeps up, the rate is at least measured bookMovie throughput x headroom.
+     * Above 1 so the rate can grow towards what the database can really take.
+     */
+    private double headroom = 1.2;
+
+    /**
+     * Admissions per second added each interval in which the admissions were used
+     * and the database kept up (additive probe upwards).
+     */
+    private double additiveIncrease = 5;
+
+    /**
+     * Rate multiplier after an interval with lock timeouts, deadlocks or serialization failures.
+     */
+    private double backoff = 0.7;
+
+    /**
+     * Token bucket size per show: admissions that can go through at once after a quiet period.
+     */
+    private int burst = 20;
+
+    /**
+     * How often throughput is measured and rates are retuned.
+     */
+    private long tuningIntervalMs = 1_000;
+
+    /**
+     * How long an admission ticket lets its user call bookMovie.
+     */
+    private long ticketTtlSeconds = 300;
+
+    /**
+     * HMAC key for tickets. Must be the same on every instance; when empty a
+     * random key is generated, which only works with a single instance.
+     */
+    private String secret = "";
+}
@@ -0,0 +1,28 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for show waitlists (prefix: bookmyshow.waitlist).
+ *
+ * Example (application.properties):
+ * bookmyshow.waitlist.max-waiters-per-show=200000
+ * bookmyshow.waitlist.max-seats-per-request=10
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.waitlist")
+public class WaitlistProperties {
+
+    /**
+     * Joins beyond this many waiters on one show are refused (memory bound).
+     */
+    private int maxWaitersPerShow = 200_000;
+
+    /**
+     * Largest number of seats one waiter can ask for.
+     */
+    private int maxSeatsPerRequest = 10;
+}
@@ -0,0 +1,46 @@
+package MyFirstProject.demo.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the startup cache warm-up (prefix: bookmyshow.warmup).
+ *
+ * Example (application.properties):
+ * bookmyshow.warmup.horizon-ms=21600000
+ * bookmyshow.warmup.parallelism=4
+ * bookmyshow.warmup.timeout-ms=30000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.warmup")
+public class WarmupProperties {
+
+    /**
+     * Turns the warm-up off (e.g. for one-off admin runs).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Shows starting within this time from now are warmed.
+     */
+    private long horizonMs = 6 * 3600_000L;
+
+    /**
+     * Upper bound on shows warmed, soonest first.
+     */
+    private int maxShows = 500;
+
+    /**
+     * Fork/join pool size. Every task holds a database connection while it
+     * runs, so keep this well below the connection pool size.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Readiness is held back at most this long; after that the node starts
+     * serving with whatever was loaded so far.
+     */
+    private long timeoutMs = 30_000;
+}
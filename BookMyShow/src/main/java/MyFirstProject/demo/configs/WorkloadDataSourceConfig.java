@@ -0,0 +1,30 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.services.workload.WorkloadPools;
+import MyFirstProject.demo.services.workload.WorkloadRoutingDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Spring Boot's single connection pool with one pool per Workload.
+ *
+ * JPA, transactions and repositories use the routing DataSource as usual;
+ * @WorkloadPool on a service decides which pool its transactions draw from.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public WorkloadPools workloadPools(DataSourceProperties dataSourceProperties,
+                                       WorkloadPoolProperties workloadPoolProperties) {
+        return new WorkloadPools(dataSourceProperties, workloadPoolProperties);
+    }
+
+    @Bean
+    public DataSource dataSource(WorkloadPools workloadPools, WorkloadPoolProperties workloadPoolProperties) {
+        return new WorkloadRoutingDataSource(workloadPools, workloadPoolProperties.getDefaultWorkload());
+    }
+}
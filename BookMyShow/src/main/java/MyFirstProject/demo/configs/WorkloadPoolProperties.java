@@ -0,0 +1,82 @@
+package MyFirstProject.demo.configs;
+
+import MyFirstProject.demo.models.Workload;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the per-workload connection pools (prefix: bookmyshow.workload-pools).
+ *
+ * URL, user and password come from spring.datasource.*; every pool connects
+ * to the same database. spring.datasource.hikari.* is not used.
+ *
+ * Example (application.properties):
+ * bookmyshow.workload-pools.booking.maximum-pool-size=30
+ * bookmyshow.workload-pools.batch.connection-timeout-ms=60000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookmyshow.workload-pools")
+public class WorkloadPoolProperties {
+
+    /**
+     * Pool used by code that isn't annotated with @WorkloadPool.
+     */
+    private Workload defaultWorkload = Workload.BOOKING;
+
+    /**
+     * bookMovie and cancellations: short transactions, must never wait behind other work.
+     */
+    private Pool booking = new Pool(20, 2_000);
+
+    /**
+     * Seat maps, seats left, booking history: mostly served from caches.
+     */
+    private Pool browsing = new Pool(10, 1_000);
+
+    /**
+     * signUp / login user lookups.
+     */
+    private Pool login = new Pool(5, 2_000);
+
+    /**
+     * Scheduled and background jobs: few connections, long waits are acceptable.
+     */
+    private Pool batch = new Pool(4, 30_000);
+
+    /**
+     * @param workload Kind of database work
+     * @return Pool settings of that kind
+     */
+    public Pool get(Workload workload) {
+        return switch (workload) {
+            case BOOKING -> booking;
+            case BROWSING -> browsing;
+            case LOGIN -> login;
+            case BATCH -> batch;
+        };
+    }
+
+    /**
+     * Hikari settings of one workload's pool.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /** Connections the pool may open. */
+        private int maximumPoolSize;
+
+        /** A caller waiting longer than this for a connection gets an exception. */
+        private long connectionTimeoutMs;
+
+        public Pool() {
+        }
+
+        public Pool(int maximumPoolSize, long connectionTimeoutMs) {
+            this.maximumPoolSize = maximumPoolSize;
+            this.connectionTimeoutMs = connectionTimeoutMs;
+        }
+    }
+}
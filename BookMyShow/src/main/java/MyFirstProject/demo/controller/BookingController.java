@@ -2,12 +2,29 @@ package MyFirstProject.demo.controller;
 
 import MyFirstProject.demo.dtos.BookMovieRequestDTO;
 import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.CancelBookingRequestDTO;
+import MyFirstProject.demo.dtos.CancelBookingResponseDTO;
+import MyFirstProject.demo.exceptions.ServiceOverloadedException;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
 import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingPhase;
 import MyFirstProject.demo.models.ResponseStatus;
-import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.models.TrafficClass;
+import MyFirstProject.demo.services.BookingMetrics;
+import MyFirstProject.demo.services.BookingRetryService;
+import MyFirstProject.demo.services.CancellationService;
+import MyFirstProject.demo.services.admission.ConcurrencyLimiters;
+import MyFirstProject.demo.services.admission.ConcurrencyPermit;
+import MyFirstProject.demo.services.admission.WaitingRoomService;
+import MyFirstProject.demo.services.cluster.ClusterOperation;
+import MyFirstProject.demo.services.cluster.ShowRouter;
+import MyFirstProject.demo.services.hotshows.HotShowTracker;
+import MyFirstProject.demo.services.idempotency.IdempotencyService;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Controller;
 
 /**
@@ -30,17 +47,72 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class BookingController {
 
-    // Service layer dependency for booking business logic
-    private BookingServices bookingServices;
+    // Service layer dependency for booking business logic (retries lost lock races)
+    private BookingRetryService bookingRetryService;
+
+    // Service layer dependency for cancellations and refunds
+    private CancellationService cancellationService;
+
+    // Records outcome and end-to-end latency of every booking attempt
+    private BookingMetrics bookingMetrics;
+
+    // Admission control: only users admitted by the show's waiting room reach bookMovie
+    private WaitingRoomService waitingRoomService;
+
+    // Load shedding: adaptive limit on booking requests in flight
+    private ConcurrencyLimiters concurrencyLimiters;
+
+    // Resubmissions with the same idempotency key get the first response
+    private IdempotencyService idempotencyService;
+
+    // Counts booking requests per show to find the hot ones
+    private HotShowTracker hotShowTracker;
+
+    // Sends bookings for shows owned by another node to that node
+    private ShowRouter showRouter;
 
     /**
-     * Constructor-based dependency injection for BookingServices.
+     * Constructor-based dependency injection.
      *
-     * @param bookingServices Service that contains booking business logic and concurrency control
+     * @param bookingRetryService Booking transaction with bounded retries of deadlocks and lock timeouts
+     * @param cancellationService Service that cancels bookings and queues refunds
+     * @param bookingMetrics Booking path metrics (latency, failure causes, seat conflicts)
+     * @param waitingRoomService Checks admission tickets before bookMovie runs
+     * @param concurrencyLimiters Adaptive concurrency limits (BOOKING class)
+     * @param idempotencyService Replays the response of an earlier request with the same idempotency key
+     * @param hotShowTracker Heavy-hitter detection over requested shows
+     * @param showRouter Forwards bookings to the node owning the show
      */
     @Autowired
-    BookingController(BookingServices bookingServices) {
-        this.bookingServices = bookingServices;
+    BookingController(BookingRetryService bookingRetryService,
+                      CancellationService cancellationService,
+                      BookingMetrics bookingMetrics,
+                      WaitingRoomService waitingRoomService,
+                      ConcurrencyLimiters concurrencyLimiters,
+                      IdempotencyService idempotencyService,
+                      HotShowTracker hotShowTracker,
+                      ShowRouter showRouter) {
+        this.bookingRetryService = bookingRetryService;
+        this.cancellationService = cancellationService;
+        this.bookingMetrics = bookingMetrics;
+        this.waitingRoomService = waitingRoomService;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.idempotencyService = idempotencyService;
+        this.hotShowTracker = hotShowTracker;
+        this.showRouter = showRouter;
+    }
+
+    /**
+     * Opens this node to bookings forwarded by other nodes, once the controller is fully built.
+     *
+     * Forwarded requests skip routing: they were sent here because this node
+     * owns the show, and are booked here even if the ring changed meanwhile
+     * (one hop at most). Only ClusterTransport reaches this entry point, so a
+     * client can't claim a request was already forwarded.
+     */
+    @PostConstruct
+    public void listen() {
+        showRouter.listen(ClusterOperation.BOOK_MOVIE, this::bookForwarded);
     }
 
     /**
@@ -59,10 +131,41 @@ public class BookingController {
      * - Provides flexibility to change internal models without breaking API
      * - Reduces data exposure (only send necessary fields to client)
      *
+     * Admission:
+     * While the waiting room is enabled, a request without a valid admission
+     * ticket for this user and show gets FAILURE at once: it never opens a
+     * transaction and is not counted as a booking attempt.
+     * An admission books once: a SUCCESS spends it, and a second request with
+     * the same ticket while the first one runs gets FAILURE.
+     *
+     * Load shedding:
+     * When the BOOKING concurrency limit is reached, the request gets
+     * OVERLOADED at once (retry later) instead of queuing for a connection.
+     * Lock timeouts and deadlocks shrink the limit.
+     *
+     * Retries:
+     * Deadlocks and lock wait timeouts are retried inside BookingRetryService
+     * (jittered backoff, bounded attempts and deadline), so the client only
+     * sees FAILURE for them once those retries are used up.
+     *
+     * Cluster mode:
+     * With bookmyshow.cluster.enabled, each show is owned by one booking node
+     * (consistent hashing, ShowOwnership). A request for a show owned by
+     * another node is forwarded there first, so idempotency, admission and
+     * the show's in-memory state are all handled on its owner.
+     *
+     * Idempotency:
+     * A request carrying the idempotencyKey of an earlier successful booking
+     * gets that booking's response back, before admission and load shedding,
+     * without touching ShowSeat. While the earlier request still runs, the
+     * duplicate waits for it (IN_PROGRESS if it takes too long).
+     *
      * Error Handling:
      * - All exceptions are caught and converted to FAILURE response
      * - Prevents internal error details from being exposed to client
      * - Client receives structured error response instead of stack traces
+     * - The exception type is still counted in BookingMetrics, so operators can
+     *   tell seat conflicts from lock timeouts from invalid input
      *
      * Example Request:
      * {
@@ -88,15 +191,64 @@ public class BookingController {
      * @param bookMovieRequestDTO DTO containing booking request details
      * @return BookMovieResponseDTO containing booking result and status
      */
-    BookMovieResponseDTO bookMovie(BookMovieRequestDTO bookMovieRequestDTO) {
+    public BookMovieResponseDTO bookMovie(BookMovieRequestDTO bookMovieRequestDTO) {
+        return showRouter.bookMovie(bookMovieRequestDTO,
+                () -> idempotencyService.bookMovie(bookMovieRequestDTO, () -> book(bookMovieRequestDTO)));
+    }
+
+    // Entry point for bookings other nodes forward here
+    private BookMovieResponseDTO bookForwarded(BookMovieRequestDTO bookMovieRequestDTO) {
+        return idempotencyService.bookMovie(bookMovieRequestDTO, () -> book(bookMovieRequestDTO));
+    }
+
+    // The booking itself, run once per idempotency key
+    private BookMovieResponseDTO book(BookMovieRequestDTO bookMovieRequestDTO) {
 
         // Create response DTO object to be populated and returned
         BookMovieResponseDTO bookMovieResponseDTO = new BookMovieResponseDTO();
 
+        // Demand counts towards hot show detection, admitted or not
+        hotShowTracker.record(bookMovieRequestDTO.getShowId());
+
+        // Step 0: Only admitted traffic reaches the database
+        if (!waitingRoomService.claimAdmission(bookMovieRequestDTO.getAdmissionTicket(),
+                bookMovieRequestDTO.getUserId(), bookMovieRequestDTO.getShowId())) {
+            bookMovieResponseDTO.setResponseStatus(ResponseStatus.FAILURE);
+            return bookMovieResponseDTO;
+        }
+
+        // A successful booking spends the admission; anything else leaves it for the next try
+        try {
+            bookAdmitted(bookMovieRequestDTO, bookMovieResponseDTO);
+        } finally {
+            waitingRoomService.releaseAdmission(bookMovieRequestDTO.getAdmissionTicket(),
+                    bookMovieRequestDTO.getUserId(), bookMovieRequestDTO.getShowId(),
+                    bookMovieResponseDTO.getResponseStatus() == ResponseStatus.SUCCESS);
+        }
+
+        // Return the response DTO to the client
+        return bookMovieResponseDTO;
+    }
+
+    // Everything after admission: load shedding, the booking itself, metrics
+    private void bookAdmitted(BookMovieRequestDTO bookMovieRequestDTO, BookMovieResponseDTO bookMovieResponseDTO) {
+
+        // Step 0b: Shed what the database can't take right now
+        ConcurrencyPermit permit;
+        try {
+            permit = concurrencyLimiters.acquire(TrafficClass.BOOKING);
+        } catch (ServiceOverloadedException e) {
+            bookMovieResponseDTO.setResponseStatus(ResponseStatus.OVERLOADED);
+            return;
+        }
+
+        long start = System.nanoTime();
+        bookingMetrics.recordAttempt(bookMovieRequestDTO.getShowId());
+
         try {
             // Step 1: Extract data from request DTO
             // This separates external API structure from internal method signatures
-            Booking booking = bookingServices.bookMovie(
+            Booking booking = bookingRetryService.bookMovie(
                     bookMovieRequestDTO.getUserId(),
                     bookMovieRequestDTO.getShowId(),
                     bookMovieRequestDTO.getShowsSeatId()
@@ -106,6 +258,7 @@ public class BookingController {
             bookMovieResponseDTO.setBookingId(booking.getId());
             bookMovieResponseDTO.setResponseStatus(ResponseStatus.SUCCESS);
             bookMovieResponseDTO.setTotalAmount(booking.getPrice());
+            bookingMetrics.recordSuccess();
 
         } catch (Exception e){
             // Step 3: Handle any exceptions from the service layer
@@ -117,14 +270,58 @@ public class BookingController {
 
             // Convert exception to user-friendly failure response
             bookMovieResponseDTO.setResponseStatus(ResponseStatus.FAILURE);
+            bookingMetrics.recordFailure(bookMovieRequestDTO.getShowId(), e,
+                    e instanceof ShowSeatNotAvailableException);
+            if (e instanceof ConcurrencyFailureException) {
+                permit.dropped(); // lock timeout / deadlock even after retries: the database is saturated
+            }
 
             // Note: In production, you might want to:
             // - Log the exception for debugging
             // - Return specific error messages based on exception type
             // - Use proper HTTP status codes (400, 404, 500, etc.)
+        } finally {
+            permit.close();
         }
 
-        // Return the response DTO to the client
-        return bookMovieResponseDTO;
+        // End-to-end time including the transaction commit
+        bookingMetrics.recordPhase(BookingPhase.TOTAL, start);
+    }
+
+    /**
+     * Handles a user cancelling one of their bookings.
+     *
+     * Example Request:
+     * { "userId": 123, "bookingId": 999 }
+     *
+     * Example Success Response:
+     * { "bookingId": 999, "seatsReleased": 3, "refundAmount": 900, "responseStatus": "SUCCESS" }
+     *
+     * Example Failure Response (not the user's booking, already cancelled, ...):
+     * { "bookingId": 999, "seatsReleased": 0, "refundAmount": 0, "responseStatus": "FAILURE" }
+     *
+     * Under overload: same shape with "responseStatus": "OVERLOADED".
+     *
+     * @param cancelBookingRequestDTO DTO containing the user and booking IDs
+     * @return CancelBookingResponseDTO containing released seats, refund amount and status
+     */
+    public CancelBookingResponseDTO cancelBooking(CancelBookingRequestDTO cancelBookingRequestDTO) {
+        CancelBookingResponseDTO cancelBookingResponseDTO;
+        try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.BOOKING)) {
+            cancelBookingResponseDTO = cancellationService.cancelBooking(
+                    cancelBookingRequestDTO.getUserId(),
+                    cancelBookingRequestDTO.getBookingId()
+            );
+            cancelBookingResponseDTO.setResponseStatus(ResponseStatus.SUCCESS);
+        } catch (ServiceOverloadedException e) {
+            cancelBookingResponseDTO = new CancelBookingResponseDTO();
+            cancelBookingResponseDTO.setBookingId(cancelBookingRequestDTO.getBookingId());
+            cancelBookingResponseDTO.setResponseStatus(ResponseStatus.OVERLOADED);
+        } catch (Exception e) {
+            cancelBookingResponseDTO = new CancelBookingResponseDTO();
+            cancelBookingResponseDTO.setBookingId(cancelBookingRequestDTO.getBookingId());
+            cancelBookingResponseDTO.setResponseStatus(ResponseStatus.FAILURE);
+        }
+        return cancelBookingResponseDTO;
     }
 }
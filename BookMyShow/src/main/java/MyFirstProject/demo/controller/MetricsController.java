@@ -0,0 +1,168 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.dtos.BookingMetricsDTO;
+import MyFirstProject.demo.dtos.ConcurrencyLimitDTO;
+import MyFirstProject.demo.dtos.ConnectionPoolStatsDTO;
+import MyFirstProject.demo.dtos.HotShowDTO;
+import MyFirstProject.demo.dtos.InvalidationStatsDTO;
+import MyFirstProject.demo.dtos.SeatStateRecoveryReportDTO;
+import MyFirstProject.demo.dtos.SingleFlightStatsDTO;
+import MyFirstProject.demo.dtos.WarmupReportDTO;
+import MyFirstProject.demo.services.BookingMetrics;
+import MyFirstProject.demo.services.CacheWarmupService;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.ShowReadCache;
+import MyFirstProject.demo.services.admission.ConcurrencyLimiters;
+import MyFirstProject.demo.services.hotshows.HotShowTracker;
+import MyFirstProject.demo.services.invalidation.InvalidationBus;
+import MyFirstProject.demo.services.seatstate.SeatStateRecoveryService;
+import MyFirstProject.demo.services.workload.WorkloadPools;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller class that exports operational metrics.
+ *
+ * Responsibilities:
+ * - Structured snapshot for dashboards and tests
+ * - Prometheus text format for scraping
+ * - Result of the startup cache warm-up and seat state recovery
+ * - Adaptive concurrency limits and shed counts per traffic class
+ * - Coalescing of concurrent show read misses (thundering herd protection)
+ * - The most requested (hot) shows right now
+ */
+@Controller
+public class MetricsController {
+
+    private BookingMetrics bookingMetrics;
+    private CacheWarmupService cacheWarmupService;
+    private SeatStateRecoveryService seatStateRecoveryService;
+    private ConcurrencyLimiters concurrencyLimiters;
+    private ShowReadCache showReadCache;
+    private SeatAvailabilityService seatAvailabilityService;
+    private HotShowTracker hotShowTracker;
+    private InvalidationBus invalidationBus;
+    private WorkloadPools workloadPools;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingMetrics Booking path metrics
+     * @param cacheWarmupService Startup cache warm-up
+     * @param seatStateRecoveryService Startup restore of the seats left counters
+     * @param concurrencyLimiters Adaptive concurrency limits
+     * @param showReadCache Show, price and seat map loads (coalesced)
+     * @param seatAvailabilityService Seats left counter loads (coalesced)
+     * @param hotShowTracker Heavy-hitter detection over requested shows
+     * @param invalidationBus Cross-node cache invalidation traffic
+     * @param workloadPools Connection pools per workload
+     */
+    @Autowired
+    public MetricsController(BookingMetrics bookingMetrics,
+                             CacheWarmupService cacheWarmupService,
+                             SeatStateRecoveryService seatStateRecoveryService,
+                             ConcurrencyLimiters concurrencyLimiters,
+                             ShowReadCache showReadCache,
+                             SeatAvailabilityService seatAvailabilityService,
+                             HotShowTracker hotShowTracker,
+                             InvalidationBus invalidationBus,
+                             WorkloadPools workloadPools) {
+        this.bookingMetrics = bookingMetrics;
+        this.cacheWarmupService = cacheWarmupService;
+        this.seatStateRecoveryService = seatStateRecoveryService;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.showReadCache = showReadCache;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.hotShowTracker = hotShowTracker;
+        this.invalidationBus = invalidationBus;
+        this.workloadPools = workloadPools;
+    }
+
+    /**
+     * @return Per-phase latency, failure causes, seat conflicts per show and retry counts
+     */
+    public BookingMetricsDTO getBookingMetrics() {
+        return bookingMetrics.snapshot();
+    }
+
+    /**
+     * @return Same metrics in Prometheus text exposition format
+     */
+    public String exportPrometheus() {
+        return bookingMetrics.exportPrometheus();
+    }
+
+    /**
+     * @return Shows, seats and bytes loaded by the startup warm-up and how long it took (null before it ran)
+     */
+    public WarmupReportDTO getWarmupReport() {
+        return cacheWarmupService.getLastReport();
+    }
+
+    /**
+     * @return Whether the seats left counters came from the local snapshot and journal or the database
+     *         (null when bookmyshow.seat-state.enabled is off)
+     */
+    public SeatStateRecoveryReportDTO getSeatStateRecoveryReport() {
+        return seatStateRecoveryService.getLastReport();
+    }
+
+    /**
+     * @return Current limit, requests in flight and requests shed, per traffic class
+     */
+    public List<ConcurrencyLimitDTO> getConcurrencyLimits() {
+        return concurrencyLimiters.snapshot();
+    }
+
+    /**
+     * @return Calls, loads and coalescing ratio per show read kind (SHOW, PRICES, SEAT_LAYOUT, AVAILABILITY)
+     */
+    public List<SingleFlightStatsDTO> getShowReadCoalescing() {
+        List<SingleFlightStatsDTO> stats = new ArrayList<>(showReadCache.getLoadCoalescing());
+        stats.add(seatAvailabilityService.getLoadCoalescing());
+        return stats;
+    }
+
+    /**
+     * Live top-N of the most requested shows (booking and seat map requests).
+     *
+     * Example:
+     * [ { "showId": 7, "estimatedHits": 18450, "hot": true },
+     *   { "showId": 12, "estimatedHits": 2210, "hot": true },
+     *   { "showId": 3, "estimatedHits": 95, "hot": false } ]
+     *
+     * @param limit Shows to return (at most bookmyshow.hot-shows.top-k are tracked)
+     * @return Shows, highest estimated hits first
+     */
+    public List<HotShowDTO> getHotShows(int limit) {
+        return hotShowTracker.getTopShows(limit);
+    }
+
+    /**
+     * Cross-node cache invalidation traffic of this node.
+     *
+     * Example:
+     * { "published": 500, "sent": 12, "received": 40, "applied": 28, "ignored": 12 }
+     *
+     * @return Invalidation bus counters since startup
+     */
+    public InvalidationStatsDTO getInvalidationStats() {
+        return invalidationBus.getStats();
+    }
+
+    /**
+     * Saturation of the connection pool of every workload (BOOKING, BROWSING, LOGIN, BATCH).
+     *
+     * Example:
+     * [ { "workload": "BOOKING", "maximumPoolSize": 20, "active": 3, "waiting": 0, "saturation": 0.15, ... },
+     *   { "workload": "BATCH", "maximumPoolSize": 4, "active": 4, "waiting": 2, "saturation": 1.0, ... } ]
+     *
+     * @return One entry per pool
+     */
+    public List<ConnectionPoolStatsDTO> getConnectionPools() {
+        return workloadPools.snapshot();
+    }
+}
@@ -0,0 +1,158 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.dtos.InitiatePaymentRequestDTO;
+import MyFirstProject.demo.dtos.InitiatePaymentResponseDTO;
+import MyFirstProject.demo.dtos.PaymentCallbackDTO;
+import MyFirstProject.demo.dtos.PaymentPipelineStatsDTO;
+import MyFirstProject.demo.dtos.PaymentProviderHealthDTO;
+import MyFirstProject.demo.dtos.ReconciliationReportDTO;
+import MyFirstProject.demo.exceptions.InvalidPaymentCallbackException;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.payment.PaymentCallbackVerifier;
+import MyFirstProject.demo.services.payment.PaymentPipeline;
+import MyFirstProject.demo.services.payment.PaymentReconciliationService;
+import MyFirstProject.demo.services.payment.ResilientPaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Controller class that handles payment requests and provider callbacks.
+ *
+ * Responsibilities:
+ * - Starts payment for a PENDING booking (returns immediately)
+ * - Accepts signed provider callbacks (webhooks) with the final payment status
+ * - Exposes pipeline statistics and per-provider health
+ * - Runs settlement file reconciliation
+ *
+ * Nothing here waits on a payment provider: all work is handed to PaymentPipeline.
+ */
+@Controller
+public class PaymentController {
+
+    private PaymentPipeline paymentPipeline;
+    private ResilientPaymentService resilientPaymentService;
+    private PaymentReconciliationService paymentReconciliationService;
+    private PaymentCallbackVerifier paymentCallbackVerifier;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param paymentPipeline Asynchronous payment confirmation pipeline
+     * @param resilientPaymentService Resilience layer holding provider breakers and histograms
+     * @param paymentReconciliationService Streaming reconciliation engine
+     * @param paymentCallbackVerifier Checks provider callback signatures
+     */
+    @Autowired
+    public PaymentController(PaymentPipeline paymentPipeline,
+                             ResilientPaymentService resilientPaymentService,
+                             PaymentReconciliationService paymentReconciliationService,
+                             PaymentCallbackVerifier paymentCallbackVerifier) {
+        this.paymentPipeline = paymentPipeline;
+        this.resilientPaymentService = resilientPaymentService;
+        this.paymentReconciliationService = paymentReconciliationService;
+        this.paymentCallbackVerifier = paymentCallbackVerifier;
+    }
+
+    /**
+     * Starts payment of a booking.
+     *
+     * Example Success Response:
+     * { "bookingId": 999, "responseStatus": "PENDING" }
+     *
+     * Example Failure Response (pipeline saturated, or an earlier charge of the booking is not settled yet):
+     * { "bookingId": 999, "responseStatus": "FAILURE" }
+     *
+     * @param requestDTO Booking, provider and payment method
+     * @return PENDING if queued, FAILURE otherwise
+     */
+    public InitiatePaymentResponseDTO initiatePayment(InitiatePaymentRequestDTO requestDTO) {
+        InitiatePaymentResponseDTO responseDTO = new InitiatePaymentResponseDTO();
+        responseDTO.setBookingId(requestDTO.getBookingId());
+
+        boolean queued = requestDTO.getBookingId() != null
+                && requestDTO.getPaymentProvider() != null
+                && paymentPipeline.initiate(requestDTO.getBookingId(),
+                        requestDTO.getPaymentProvider(),
+                        requestDTO.getPaymentMethod());
+
+        responseDTO.setResponseStatus(queued ? ResponseStatus.PENDING : ResponseStatus.FAILURE);
+        return responseDTO;
+    }
+
+    /**
+     * Receives a provider callback.
+     *
+     * The signature is checked before anything is queued, so a forged
+     * callback never reaches the payment pipeline.
+     *
+     * @param callbackDTO Final payment status sent by the provider, with its signature
+     * @return true if accepted; false tells the provider to redeliver later
+     * @throws InvalidPaymentCallbackException if the callback is unsigned or its signature doesn't match
+     */
+    public boolean onProviderCallback(PaymentCallbackDTO callbackDTO) throws InvalidPaymentCallbackException {
+        paymentCallbackVerifier.verify(callbackDTO);
+        return paymentPipeline.onProviderCallback(
+                callbackDTO.getBookingId(),
+                callbackDTO.getPaymentProvider(),
+                callbackDTO.getPaymentMethod(),
+                callbackDTO.getPaymentStatus(),
+                callbackDTO.getReferenceNumber(),
+                callbackDTO.getAmount());
+    }
+
+    /**
+     * @return Current payment pipeline counters
+     */
+    public PaymentPipelineStatsDTO getPipelineStats() {
+        return paymentPipeline.getStats();
+    }
+
+    /**
+     * @return Circuit breaker state, bulkhead usage and latency histogram per provider
+     */
+    public List<PaymentProviderHealthDTO> getProviderHealth() {
+        return resilientPaymentService.getHealth();
+    }
+
+    /**
+     * Reconciles a provider settlement file and writes every mismatch as a CSV line.
+     *
+     * Output line format:
+     * mismatchType,referenceNumber,paymentId,recordedAmount,settledAmount,recordedStatus,settledStatus
+     *
+     * @param settlementFile Settlement file received from the provider
+     * @param paymentProvider Provider that produced the file
+     * @param from Start of the settlement period (inclusive)
+     * @param to End of the settlement period (exclusive)
+     * @param mismatchFile File the mismatches are written to
+     * @return Totals for the run
+     * @throws IOException if either file cannot be read or written
+     */
+    public ReconciliationReportDTO reconcileSettlementFile(Path settlementFile, PaymentProvider paymentProvider,
+                                                           Date from, Date to, Path mismatchFile) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(mismatchFile)) {
+            return paymentReconciliationService.reconcile(settlementFile, paymentProvider, from, to, mismatch -> {
+                try {
+                    writer.write(mismatch.getMismatchType() + "," + mismatch.getReferenceNumber() + ","
+                            + mismatch.getPaymentId() + "," + mismatch.getRecordedAmount() + ","
+                            + mismatch.getSettledAmount() + "," + mismatch.getRecordedStatus() + ","
+                            + mismatch.getSettledStatus());
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.dtos.SeatLayoutRowDTO;
+import MyFirstProject.demo.dtos.ShowAvailabilityDTO;
+import MyFirstProject.demo.dtos.ShowCancellationReportDTO;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+import MyFirstProject.demo.exceptions.ServiceOverloadedException;
+import MyFirstProject.demo.models.TrafficClass;
+import MyFirstProject.demo.services.CancellationService;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.ShowReadCache;
+import MyFirstProject.demo.services.admission.ConcurrencyLimiters;
+import MyFirstProject.demo.services.admission.ConcurrencyPermit;
+import MyFirstProject.demo.services.cluster.ClusterOperation;
+import MyFirstProject.demo.services.cluster.ShowRouter;
+import MyFirstProject.demo.services.hotshows.HotShowTracker;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller class that handles show-level requests.
+ *
+ * Responsibilities:
+ * - Serves "seats left" information for many shows in one call
+ *   (reads maintained counters, never ShowSeat rows directly)
+ * - Serves the seat map layout of a show (cached, see ShowReadCache)
+ * - Cancels a whole show (operations use, e.g. projector failure)
+ *
+ * Listing reads run under the BROWSING concurrency limit and throw
+ * ServiceOverloadedException when it is reached.
+ *
+ * Cluster mode:
+ * A show cancellation runs on the node owning the show (ShowRouter.route),
+ * where the show's counters and waitlist live.
+ */
+@Controller
+public class ShowController {
+
+    private SeatAvailabilityService seatAvailabilityService;
+    private CancellationService cancellationService;
+    private ShowReadCache showReadCache;
+    private ConcurrencyLimiters concurrencyLimiters;
+    private HotShowTracker hotShowTracker;
+    private ShowRouter showRouter;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param seatAvailabilityService Service holding per-show availability counters
+     * @param cancellationService Service that cancels bookings and queues refunds
+     * @param showReadCache Cache of seat map layouts and prices
+     * @param concurrencyLimiters Adaptive concurrency limits (BROWSING class)
+     * @param hotShowTracker Counts seat map requests per show to find the hot ones
+     * @param showRouter Runs show cancellations on the node owning the show
+     */
+    @Autowired
+    public ShowController(SeatAvailabilityService seatAvailabilityService,
+                          CancellationService cancellationService,
+                          ShowReadCache showReadCache,
+                          ConcurrencyLimiters concurrencyLimiters,
+                          HotShowTracker hotShowTracker,
+                          ShowRouter showRouter) {
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.cancellationService = cancellationService;
+        this.showReadCache = showReadCache;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.hotShowTracker = hotShowTracker;
+        this.showRouter = showRouter;
+    }
+
+    /**
+     * Serves show cancellations other nodes send for shows this node owns.
+     */
+    @PostConstruct
+    public void listen() {
+        showRouter.listen(ClusterOperation.CANCEL_SHOW, this::cancel);
+    }
+
+    /**
+     * Returns seats left for every show on a listing page.
+     *
+     * Example Request: [7, 8, 9]
+     *
+     * Example Response:
+     * [
+     *   { "showId": 7, "totalAvailable": 142, "availableBySeatType": { "1": 130, "3": 12 } },
+     *   { "showId": 8, "totalAvailable": 0,   "availableBySeatType": {} },
+     *   ...
+     * ]
+     *
+     * @param showIds IDs of the shows displayed on the page
+     * @return Availability per show, in request order
+     * @throws ServiceOverloadedException if the BROWSING concurrency limit is reached
+     */
+    public List<ShowAvailabilityDTO> getAvailability(List<Long> showIds) throws ServiceOverloadedException {
+        try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.BROWSING)) {
+            return new ArrayList<>(seatAvailabilityService.getAvailability(showIds).values());
+        }
+    }
+
+    /**
+     * Returns the seat map layout of a show (positions and seat types, no statuses).
+     *
+     * Example Response:
+     * [
+     *   { "showSeatId": 4701, "seatName": "A1", "rowNum": 0, "colNum": 0, "seatTypeId": 1 },
+     *   { "showSeatId": 4702, "seatName": "A2", "rowNum": 0, "colNum": 1, "seatTypeId": 1 },
+     *   ...
+     * ]
+     *
+     * @param showId Show whose seat map is rendered
+     * @return Layout rows in row/column order
+     * @throws InvalidShowException if the show doesn't exist
+     * @throws ServiceOverloadedException if the BROWSING concurrency limit is reached
+     */
+    public List<SeatLayoutRowDTO> getSeatLayout(Long showId) throws InvalidShowException, ServiceOverloadedException {
+        hotShowTracker.record(showId);
+        try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.BROWSING)) {
+            return showReadCache.getSeatLayout(showId);
+        }
+    }
+
+    /**
+     * Cancels a show: every booking is cancelled, every seat released and
+     * every successful payment queued for refund.
+     *
+     * Example Response:
+     * { "showId": 7, "bookingsCancelled": 250, "seatsReleased": 1000, "refundsQueued": 250, "elapsedMillis": 41 }
+     *
+     * @param showId Show to cancel
+     * @return Counts and completion time of the cancellation
+     * @throws InvalidShowException if the show doesn't exist
+     * @throws NodeUnavailableException if the owner of the show can't be reached (nothing was cancelled)
+     */
+    public ShowCancellationReportDTO cancelShow(Long showId) throws InvalidShowException, NodeUnavailableException {
+        ShowCancellationReportDTO report = showRouter.route(showId, ClusterOperation.CANCEL_SHOW, showId, this::cancel);
+        if (report == null) {
+            throw new InvalidShowException("Show not found with ID: " + showId);
+        }
+        return report;
+    }
+
+    // Runs on the show's owner; null if the show doesn't exist
+    private ShowCancellationReportDTO cancel(Long showId) {
+        try {
+            return cancellationService.cancelShow(showId);
+        } catch (InvalidShowException e) {
+            return null;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package MyFirstProject.demo.controller;
 
+import MyFirstProject.demo.dtos.BookingHistoryPageDTO;
 import MyFirstProject.demo.dtos.SignUpRequestDTO;
 import MyFirstProject.demo.dtos.SignUpResponseDTO;
+import MyFirstProject.demo.exceptions.ServiceOverloadedException;
 import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.models.TrafficClass;
 import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.services.BookingHistoryService;
 import MyFirstProject.demo.services.UserService;
+import MyFirstProject.demo.services.admission.ConcurrencyLimiters;
+import MyFirstProject.demo.services.admission.ConcurrencyPermit;
+import MyFirstProject.demo.services.idempotency.IdempotencyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 
+import java.util.Date;
+
 /**
  * Controller class that handles HTTP requests related to user authentication and registration.
  *
@@ -16,6 +25,7 @@ import org.springframework.stereotype.Controller;
  * - Validates request data using DTOs
  * - Delegates authentication logic to UserService
  * - Converts service responses to client-friendly DTOs
+ * - Serves a user's booking history page by page
  * - Handles exceptions and provides appropriate error responses
  *
  * Security Considerations:
@@ -29,15 +39,32 @@ public class UserController {
     // Service layer dependency for user operations
     private UserService userService;
 
+    private BookingHistoryService bookingHistoryService;
+
+    // Load shedding: separate adaptive limits for LOGIN (BCrypt) and BROWSING (history)
+    private ConcurrencyLimiters concurrencyLimiters;
+
+    // Resubmitted sign-ups (same idempotency key) don't hash the password again
+    private IdempotencyService idempotencyService;
+
     /**
      * Constructor-based dependency injection for UserService.
      * Spring automatically injects the UserService bean at runtime.
      *
      * @param userService Service containing user authentication and registration logic
+     * @param bookingHistoryService Service serving keyset-paginated booking history
+     * @param concurrencyLimiters Adaptive concurrency limits per traffic class
+     * @param idempotencyService Replays the response of an earlier sign-up with the same idempotency key
      */
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          BookingHistoryService bookingHistoryService,
+                          ConcurrencyLimiters concurrencyLimiters,
+                          IdempotencyService idempotencyService) {
         this.userService = userService;
+        this.bookingHistoryService = bookingHistoryService;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -84,16 +111,28 @@ public class UserController {
      *   "responseStatus": "FAILURE"
      * }
      *
+     * Under overload (LOGIN concurrency limit reached, nothing hashed):
+     * { "userId": null, "responseStatus": "OVERLOADED" }
+     *
+     * Idempotency:
+     * A resubmission with the idempotencyKey (and credentials) of an earlier
+     * successful sign-up gets its response back without another BCrypt round.
+     *
      * @param signUpRequestDTO DTO containing user credentials (email and password)
      * @return SignUpResponseDTO containing registration result and user ID
      */
     public SignUpResponseDTO signUp(SignUpRequestDTO signUpRequestDTO) {
+        return idempotencyService.signUp(signUpRequestDTO, () -> register(signUpRequestDTO));
+    }
+
+    // The sign-up itself, run once per idempotency key
+    private SignUpResponseDTO register(SignUpRequestDTO signUpRequestDTO) {
 
         // Declare variables for user and response
         User user;
         SignUpResponseDTO signUpResponseDTO = new SignUpResponseDTO();
 
-        try {
+        try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.LOGIN)) {
             // Step 1: Call service layer to handle sign-up logic
             // Service will either create new user or attempt login for existing user
             user = userService.signUp(
@@ -105,6 +144,11 @@ public class UserController {
             signUpResponseDTO.setResponseStatus(ResponseStatus.SUCCESS);
             signUpResponseDTO.setUserId(user.getId());
 
+        } catch (ServiceOverloadedException e) {
+            // Shed before any password hashing: the client should retry later
+            signUpResponseDTO.setResponseStatus(ResponseStatus.OVERLOADED);
+            signUpResponseDTO.setUserId(null);
+
         } catch (Exception e) {
             // Step 3: Handle any exceptions from service layer
             // Possible exceptions:
@@ -127,4 +171,36 @@ public class UserController {
         // Return the response DTO to the client
         return signUpResponseDTO;
     }
+
+    /**
+     * Returns one page of a user's bookings, newest first.
+     *
+     * First page: beforeTime and beforeId are null.
+     * Next page: pass back nextBeforeTime/nextBeforeId of the previous response.
+     *
+     * Example Response:
+     * {
+     *   "bookings": [
+     *     { "bookingId": 912, "timeOfBooking": "2025-10-11T18:02:11", "bookingStatus": "SUCCESS",
+     *       "price": 900, "showId": 7, "showStartTime": "2025-10-11T19:00:00",
+     *       "movieTitle": "Inception", "screenName": "Screen 1", "seatCount": 3 },
+     *     ...
+     *   ],
+     *   "nextBeforeTime": "2025-09-02T20:14:55",
+     *   "nextBeforeId": 640
+     * }
+     *
+     * @param userId User whose history is shown
+     * @param beforeTime Cursor time from the previous page, null for the first page
+     * @param beforeId Cursor booking ID from the previous page, null for the first page
+     * @param pageSize Rows per page (at most BookingHistoryService.MAX_PAGE_SIZE)
+     * @return Page of bookings and the cursor of the next page (null on the last page)
+     * @throws ServiceOverloadedException if the BROWSING concurrency limit is reached
+     */
+    public BookingHistoryPageDTO getBookingHistory(Long userId, Date beforeTime, Long beforeId, int pageSize)
+            throws ServiceOverloadedException {
+        try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.BROWSING)) {
+            return bookingHistoryService.getHistory(userId, beforeTime, beforeId, pageSize);
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.dtos.EnterWaitingRoomRequestDTO;
+import MyFirstProject.demo.dtos.WaitingRoomStatusDTO;
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.admission.WaitingRoomService;
+import MyFirstProject.demo.services.cluster.ClusterOperation;
+import MyFirstProject.demo.services.cluster.ShowRouter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Controller class for the virtual waiting room in front of bookMovie.
+ *
+ * Client flow during an on-sale:
+ * 1. enter(userId, showId) → queue ticket (or an admission ticket right away)
+ * 2. getStatus(queueTicket) every few seconds → position and estimated wait
+ * 3. Once responseStatus is SUCCESS, call BookingController.bookMovie with the admission ticket
+ *
+ * Cluster mode:
+ * A show's token bucket lives on the node owning the show, so enter and
+ * getStatus run there (ShowRouter.route). Every node must share
+ * bookmyshow.waiting-room.secret for the tickets to verify on the owner.
+ */
+@Controller
+public class WaitingRoomController {
+
+    private WaitingRoomService waitingRoomService;
+    private ShowRouter showRouter;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param waitingRoomService Service holding the per-show waiting rooms
+     * @param showRouter Runs enter/getStatus on the node owning the show
+     */
+    @Autowired
+    public WaitingRoomController(WaitingRoomService waitingRoomService, ShowRouter showRouter) {
+        this.waitingRoomService = waitingRoomService;
+        this.showRouter = showRouter;
+    }
+
+    /**
+     * Serves waiting room requests other nodes send for shows this node owns.
+     */
+    @PostConstruct
+    public void listen() {
+        showRouter.listen(ClusterOperation.ENTER_WAITING_ROOM,
+                request -> waitingRoomService.enter(request.getUserId(), request.getShowId()));
+        showRouter.listen(ClusterOperation.WAITING_ROOM_STATUS, this::status);
+    }
+
+    /**
+     * Puts the user in the show's line.
+     *
+     * @param userId User entering
+     * @param showId Show going on sale
+     * @return Queue ticket, position and estimated wait (SUCCESS with admission ticket if admitted at once),
+     *         OVERLOADED if the owner of the show can't be reached
+     */
+    public WaitingRoomStatusDTO enter(Long userId, Long showId) {
+        EnterWaitingRoomRequestDTO requestDTO = new EnterWaitingRoomRequestDTO();
+        requestDTO.setUserId(userId);
+        requestDTO.setShowId(showId);
+        try {
+            return showRouter.route(showId, ClusterOperation.ENTER_WAITING_ROOM, requestDTO,
+                    request -> waitingRoomService.enter(request.getUserId(), request.getShowId()));
+        } catch (NodeUnavailableException e) {
+            return failed(ResponseStatus.OVERLOADED);
+        }
+    }
+
+    /**
+     * Returns where the holder of a queue ticket stands.
+     *
+     * Example Failure Response (forged or edited ticket):
+     * { "showId": null, "position": 0, "responseStatus": "FAILURE" }
+     *
+     * @param queueTicket Ticket returned by enter
+     * @return PENDING with position and wait, SUCCESS with the admission ticket, or FAILURE
+     */
+    public WaitingRoomStatusDTO getStatus(String queueTicket) {
+        Long showId = waitingRoomService.showIdOf(queueTicket);
+        if (showId == null) {
+            return failed(ResponseStatus.FAILURE);
+        }
+        try {
+            return showRouter.route(showId, ClusterOperation.WAITING_ROOM_STATUS, queueTicket, this::status);
+        } catch (NodeUnavailableException e) {
+            return failed(ResponseStatus.OVERLOADED);
+        }
+    }
+
+    // Runs on the show's owner, which verifies the ticket
+    private WaitingRoomStatusDTO status(String queueTicket) {
+        try {
+            return waitingRoomService.getStatus(queueTicket);
+        } catch (Exception e) {
+            return failed(ResponseStatus.FAILURE);
+        }
+    }
+
+    private WaitingRoomStatusDTO failed(ResponseStatus responseStatus) {
+        WaitingRoomStatusDTO statusDTO = new WaitingRoomStatusDTO();
+        statusDTO.setResponseStatus(responseStatus);
+        return statusDTO;
+    }
+}
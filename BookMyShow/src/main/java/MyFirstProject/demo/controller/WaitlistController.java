@@ -0,0 +1,133 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.dtos.JoinWaitlistRequestDTO;
+import MyFirstProject.demo.dtos.JoinWaitlistResponseDTO;
+import MyFirstProject.demo.dtos.LeaveWaitlistRequestDTO;
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.cluster.ClusterOperation;
+import MyFirstProject.demo.services.cluster.ShowRouter;
+import MyFirstProject.demo.services.waitlist.Waiter;
+import MyFirstProject.demo.services.waitlist.WaitlistService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Controller class that handles show waitlist requests.
+ *
+ * Intended flow for a sold-out show:
+ * 1. bookMovie fails with a seat conflict
+ * 2. Client calls joinWaitlist once instead of retrying bookMovie
+ * 3. When seats come back, WaitlistService books them for the user and a
+ *    WAITLIST_ALLOCATED event tells the user to pay
+ *
+ * Cluster mode:
+ * A show's waitlist lives in the memory of the node owning the show, where
+ * its released seats arrive. Join and leave are therefore run on the owner
+ * (ShowRouter.route), whichever node received them.
+ */
+@Controller
+public class WaitlistController {
+
+    private WaitlistService waitlistService;
+    private ShowRouter showRouter;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param waitlistService Service holding the per-show waitlists
+     * @param showRouter Runs join/leave on the node owning the show
+     */
+    @Autowired
+    public WaitlistController(WaitlistService waitlistService, ShowRouter showRouter) {
+        this.waitlistService = waitlistService;
+        this.showRouter = showRouter;
+    }
+
+    /**
+     * Serves join/leave requests other nodes send for shows this node owns.
+     */
+    @PostConstruct
+    public void listen() {
+        showRouter.listen(ClusterOperation.JOIN_WAITLIST, this::join);
+        showRouter.listen(ClusterOperation.LEAVE_WAITLIST, this::leave);
+    }
+
+    /**
+     * Puts the user in line for seats of a show.
+     *
+     * Example Request:
+     * { "userId": 123, "showId": 456, "seatTypeId": 1, "seatCount": 2 }
+     *
+     * Example Failure Response (unknown show, bad seat count, waitlist full):
+     * { "waiterId": null, "waitersInLine": 0, "responseStatus": "FAILURE" }
+     *
+     * Owner of the show unreachable: same shape with "responseStatus": "OVERLOADED".
+     *
+     * @param joinWaitlistRequestDTO DTO containing user, show, seat type and count
+     * @return JoinWaitlistResponseDTO containing the waiter ID and status
+     */
+    public JoinWaitlistResponseDTO joinWaitlist(JoinWaitlistRequestDTO joinWaitlistRequestDTO) {
+        if (joinWaitlistRequestDTO.getShowId() == null) {
+            return join(joinWaitlistRequestDTO);
+        }
+        try {
+            return showRouter.route(joinWaitlistRequestDTO.getShowId(), ClusterOperation.JOIN_WAITLIST,
+                    joinWaitlistRequestDTO, this::join);
+        } catch (NodeUnavailableException e) {
+            JoinWaitlistResponseDTO responseDTO = new JoinWaitlistResponseDTO();
+            responseDTO.setResponseStatus(ResponseStatus.OVERLOADED);
+            return responseDTO;
+        }
+    }
+
+    // Runs on the show's owner
+    private JoinWaitlistResponseDTO join(JoinWaitlistRequestDTO joinWaitlistRequestDTO) {
+        JoinWaitlistResponseDTO responseDTO = new JoinWaitlistResponseDTO();
+        try {
+            Waiter waiter = waitlistService.join(
+                    joinWaitlistRequestDTO.getUserId(),
+                    joinWaitlistRequestDTO.getShowId(),
+                    joinWaitlistRequestDTO.getSeatTypeId(),
+                    joinWaitlistRequestDTO.getSeatCount()
+            );
+            responseDTO.setWaiterId(waiter.getId());
+            responseDTO.setWaitersInLine(waitlistService.getWaiting(joinWaitlistRequestDTO.getShowId()));
+            responseDTO.setResponseStatus(ResponseStatus.SUCCESS);
+        } catch (Exception e) {
+            responseDTO.setResponseStatus(ResponseStatus.FAILURE);
+        }
+        return responseDTO;
+    }
+
+    /**
+     * Takes the user out of line.
+     *
+     * @param userId User leaving (must own the waiter)
+     * @param showId Show of the waitlist
+     * @param waiterId Waiter ID returned by joinWaitlist
+     * @return SUCCESS if the user was still waiting, FAILURE otherwise (already allocated, unknown waiter),
+     *         OVERLOADED if the owner of the show can't be reached
+     */
+    public ResponseStatus leaveWaitlist(Long userId, Long showId, Long waiterId) {
+        LeaveWaitlistRequestDTO requestDTO = new LeaveWaitlistRequestDTO();
+        requestDTO.setUserId(userId);
+        requestDTO.setShowId(showId);
+        requestDTO.setWaiterId(waiterId);
+        if (showId == null) {
+            return leave(requestDTO);
+        }
+        try {
+            return showRouter.route(showId, ClusterOperation.LEAVE_WAITLIST, requestDTO, this::leave);
+        } catch (NodeUnavailableException e) {
+            return ResponseStatus.OVERLOADED;
+        }
+    }
+
+    // Runs on the show's owner
+    private ResponseStatus leave(LeaveWaitlistRequestDTO requestDTO) {
+        return waitlistService.leave(requestDTO.getUserId(), requestDTO.getShowId(), requestDTO.getWaiterId())
+                ? ResponseStatus.SUCCESS : ResponseStatus.FAILURE;
+    }
+}
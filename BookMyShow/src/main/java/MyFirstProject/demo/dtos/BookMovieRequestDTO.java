@@ -69,4 +69,31 @@ public class BookMovieRequestDTO {
      * Example: [1001, 1002, 1003] for seats A1, A2, A3
      */
     private List<Long> showsSeatId;
+
+    /**
+     * Admission ticket from the show's waiting room (WaitingRoomController).
+     *
+     * Required while bookmyshow.waiting-room.enabled is true; requests without
+     * a valid ticket for this user and show are refused before bookMovie runs.
+     */
+    private String admissionTicket;
+
+    /**
+     * Client-generated key (e.g. a UUID), the same for every resubmission of this booking.
+     *
+     * A resubmission with the same key gets the first request's response
+     * instead of blocking a second set of seats (IdempotencyService).
+     * Optional: without it, every request is booked on its own.
+     */
+    private String idempotencyKey;
+
+    /**
+     * ID of the node that forwarded this request to the show's owner (ShowRouter).
+     *
+     * Set on node-to-node forwards, for tracing only. Routing never reads it:
+     * whether a request was forwarded is decided by the entry point it came
+     * through (ClusterTransport or the client API), so a client-supplied value
+     * has no effect.
+     */
+    private String forwardedBy;
 }
@@ -64,6 +64,7 @@ public class BookMovieResponseDTO {
      * - SUCCESS: Booking created successfully, seats blocked
      * - FAILURE: Booking failed (seats unavailable, invalid user, etc.)
      * - PENDING: (Rarely used in response, more for booking entity status)
+     * - IN_PROGRESS: A request with the same idempotency key is still running
      *
      * Why enum instead of boolean:
      * - More descriptive than true/false
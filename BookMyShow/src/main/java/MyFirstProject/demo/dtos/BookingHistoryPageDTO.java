@@ -0,0 +1,24 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One page of booking history, newest first.
+ *
+ * The cursor is the (timeOfBooking, bookingId) of the last row. Pass it back
+ * as beforeTime/beforeId to get the next page; both are null on the last page.
+ */
+@Getter
+@Setter
+public class BookingHistoryPageDTO {
+
+    private List<BookingHistoryRowDTO> bookings;
+
+    private Date nextBeforeTime;
+
+    private Long nextBeforeId;
+}
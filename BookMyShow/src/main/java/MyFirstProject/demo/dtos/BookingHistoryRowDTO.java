@@ -0,0 +1,50 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.BookingStatus;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * One line of a user's booking history: only what the history screen displays.
+ *
+ * Why a projection and not the Booking entity:
+ * A Booking eagerly pulls Show, Movie, Screen and User, and its seats and
+ * payments are collections. The history screen needs a title, a screen name,
+ * a start time and a seat count, so the query selects exactly those columns.
+ */
+@Getter
+public class BookingHistoryRowDTO {
+
+    private final Long bookingId;
+
+    private final Date timeOfBooking;
+
+    private final BookingStatus bookingStatus;
+
+    private final int price;
+
+    private final Long showId;
+
+    private final Date showStartTime;
+
+    private final String movieTitle;
+
+    private final String screenName;
+
+    private final int seatCount;
+
+    public BookingHistoryRowDTO(Long bookingId, Date timeOfBooking, BookingStatus bookingStatus, int price,
+                                Long showId, Date showStartTime, String movieTitle, String screenName,
+                                int seatCount) {
+        this.bookingId = bookingId;
+        this.timeOfBooking = timeOfBooking;
+        this.bookingStatus = bookingStatus;
+        this.price = price;
+        this.showId = showId;
+        this.showStartTime = showStartTime;
+        this.movieTitle = movieTitle;
+        this.screenName = screenName;
+        this.seatCount = seatCount;
+    }
+}
@@ -0,0 +1,56 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the booking path metrics.
+ *
+ * Example:
+ * {
+ *   "attempts": 52000, "successes": 9100,
+ *   "phases": { "USER_LOOKUP": {...}, "SEAT_SAVE": {...}, "TOTAL": {...} },
+ *   "failuresByCause": { "ShowSeatNotAvailableException": 42100, "CannotAcquireLockException": 800 },
+ *   "retryableFailures": 800,
+ *   "transactionRetries": 950,
+ *   "retriedSuccesses": 610,
+ *   "retriesExhausted": 40,
+ *   "mostContendedShows": [ { "showId": 7, "attempts": 51000, "seatConflicts": 42000, "conflictRate": 0.82 } ],
+ *   "untrackedShowAttempts": 0
+ * }
+ */
+@Getter
+@Setter
+public class BookingMetricsDTO {
+
+    private long attempts;
+
+    private long successes;
+
+    // BookingPhase name → latency summary
+    private Map<String, LatencySummaryDTO> phases;
+
+    // Exception simple class name → count
+    private Map<String, Long> failuresByCause;
+
+    // Lock timeouts, deadlocks and serialization failures (worth retrying)
+    private long retryableFailures;
+
+    // Re-executions of a booking transaction after a retryable failure
+    private long transactionRetries;
+
+    // Requests booked after at least one retry
+    private long retriedSuccesses;
+
+    // Requests that were retried and still ended with a retryable failure
+    private long retriesExhausted;
+
+    // Shows with the most seat conflicts, highest first
+    private List<ShowContentionDTO> mostContendedShows;
+
+    // Attempts on shows beyond the tracking limit (not broken down per show)
+    private long untrackedShowAttempts;
+}
@@ -0,0 +1,19 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request to cancel one booking.
+ *
+ * userId must match the booking's owner; in production it should come
+ * from the authenticated session rather than the request body.
+ */
+@Getter
+@Setter
+public class CancelBookingRequestDTO {
+
+    private Long userId;
+
+    private Long bookingId;
+}
@@ -0,0 +1,27 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.ResponseStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Result of cancelling one booking.
+ *
+ * Example Success Response:
+ * { "bookingId": 999, "seatsReleased": 3, "refundAmount": 900, "responseStatus": "SUCCESS" }
+ *
+ * refundAmount is what was queued for refund; the money reaches the customer
+ * once RefundProcessor has sent it to the provider.
+ */
+@Getter
+@Setter
+public class CancelBookingResponseDTO {
+
+    private Long bookingId;
+
+    private int seatsReleased;
+
+    private int refundAmount;
+
+    private ResponseStatus responseStatus;
+}
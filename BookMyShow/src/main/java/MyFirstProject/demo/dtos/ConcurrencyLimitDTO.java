@@ -0,0 +1,26 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * State of the adaptive concurrency limit of one traffic class.
+ *
+ * Example:
+ * { "trafficClass": "BOOKING", "limit": 37.4, "inFlight": 35, "shed": 1820 }
+ *
+ * A limit pinned at its minimum with a growing shed count means the
+ * resource behind the class (database, CPU) is saturated.
+ */
+@Getter
+@Setter
+public class ConcurrencyLimitDTO {
+
+    private String trafficClass;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long shed;
+}
@@ -0,0 +1,44 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Saturation of one workload's connection pool.
+ *
+ * Example (a reconciliation job holding every batch connection):
+ * { "workload": "BATCH", "maximumPoolSize": 4, "active": 4, "idle": 0, "waiting": 3,
+ *   "saturation": 1.0, "acquisitions": 120, "timeouts": 2, "averageAcquireMs": 850.0, "maxAcquireMs": 30000.0 }
+ *
+ * waiting > 0 or timeouts growing means the pool is too small for its
+ * workload (or its queries are too slow); the other pools are unaffected.
+ */
+@Getter
+@Setter
+public class ConnectionPoolStatsDTO {
+
+    private String workload;
+
+    private int maximumPoolSize;
+
+    // Connections in use right now
+    private int active;
+
+    private int idle;
+
+    // Threads blocked waiting for a connection right now
+    private int waiting;
+
+    // active / maximumPoolSize
+    private double saturation;
+
+    // Connections handed out since startup
+    private long acquisitions;
+
+    // Callers that gave up after connectionTimeoutMs
+    private long timeouts;
+
+    private double averageAcquireMs;
+
+    private double maxAcquireMs;
+}
@@ -0,0 +1,16 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request to enter the waiting room of a show going on sale.
+ */
+@Getter
+@Setter
+public class EnterWaitingRoomRequestDTO {
+
+    private Long userId;
+
+    private Long showId;
+}
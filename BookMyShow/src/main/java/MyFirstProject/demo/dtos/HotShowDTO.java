@@ -0,0 +1,26 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One of the most requested shows right now.
+ *
+ * Example:
+ * { "showId": 7, "estimatedHits": 18450, "hot": true }
+ *
+ * estimatedHits is a decayed count of booking and seat map requests
+ * (halved every bookmyshow.hot-shows.window-ms); it may overcount slightly,
+ * never undercount.
+ */
+@Getter
+@Setter
+public class HotShowDTO {
+
+    private Long showId;
+
+    private long estimatedHits;
+
+    // Promoted: caches are kept warm for it
+    private boolean hot;
+}
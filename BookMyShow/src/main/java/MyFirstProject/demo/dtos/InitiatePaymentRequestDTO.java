@@ -0,0 +1,30 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for starting payment of a PENDING booking.
+ *
+ * Example Request:
+ * {
+ *   "bookingId": 999,
+ *   "paymentProvider": "RAZORPAY",
+ *   "paymentMethod": "CREDIT_CARD"
+ * }
+ *
+ * The amount is NOT taken from the client: it is read from the booking,
+ * so a client cannot pay less than the calculated price.
+ */
+@Getter
+@Setter
+public class InitiatePaymentRequestDTO {
+
+    private Long bookingId;
+
+    private PaymentProvider paymentProvider;
+
+    private PaymentMethod paymentMethod;
+}
@@ -0,0 +1,21 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.ResponseStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object returned when a payment is started.
+ *
+ * Possible values of responseStatus:
+ * - PENDING: Payment queued; booking is confirmed asynchronously
+ * - FAILURE: Pipeline saturated or invalid request; client may retry later
+ */
+@Getter
+@Setter
+public class InitiatePaymentResponseDTO {
+
+    private Long bookingId;
+
+    private ResponseStatus responseStatus;
+}
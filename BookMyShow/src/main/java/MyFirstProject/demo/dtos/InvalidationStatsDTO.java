@@ -0,0 +1,34 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Traffic of this node's InvalidationBus since startup.
+ *
+ * Example:
+ * { "published": 500, "sent": 12, "received": 40, "applied": 28, "ignored": 12 }
+ *
+ * published → sent: local edits collapsed by coalescing (a bulk repricing of
+ * one show is one message per flush). ignored: received versions this node
+ * already had, its own broadcasts included.
+ */
+@Getter
+@Setter
+public class InvalidationStatsDTO {
+
+    // Local edits handed to the bus
+    private long published;
+
+    // Invalidations broadcast after coalescing
+    private long sent;
+
+    // Invalidations received from the transport
+    private long received;
+
+    // Received invalidations newer than anything seen before
+    private long applied;
+
+    // Received invalidations that were duplicates or older
+    private long ignored;
+}
@@ -0,0 +1,23 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request to wait for seats of a sold-out show.
+ *
+ * All seatCount seats are of seatTypeId; when enough of them are released the
+ * seats are booked automatically (PENDING, awaiting payment).
+ */
+@Getter
+@Setter
+public class JoinWaitlistRequestDTO {
+
+    private Long userId;
+
+    private Long showId;
+
+    private Long seatTypeId;
+
+    private int seatCount;
+}
@@ -0,0 +1,25 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.ResponseStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Result of joining a show's waitlist.
+ *
+ * Example Success Response:
+ * { "waiterId": 5120, "waitersInLine": 318, "responseStatus": "SUCCESS" }
+ *
+ * waiterId is needed to leave the line. waitersInLine counts everyone waiting
+ * for the show (all seat types), including this user.
+ */
+@Getter
+@Setter
+public class JoinWaitlistResponseDTO {
+
+    private Long waiterId;
+
+    private int waitersInLine;
+
+    private ResponseStatus responseStatus;
+}
@@ -0,0 +1,27 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Snapshot of one LatencyHistogram.
+ *
+ * Example:
+ * { "count": 48210, "meanMillis": 3.1, "p50Millis": 2.048, "p99Millis": 16.384, "p999Millis": 65.536 }
+ *
+ * Percentiles are bucket upper bounds (see LatencyHistogram).
+ */
+@Getter
+@Setter
+public class LatencySummaryDTO {
+
+    private long count;
+
+    private double meanMillis;
+
+    private double p50Millis;
+
+    private double p99Millis;
+
+    private double p999Millis;
+}
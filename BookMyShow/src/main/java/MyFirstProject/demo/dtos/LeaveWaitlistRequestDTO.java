@@ -0,0 +1,20 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request to stop waiting for seats of a show.
+ *
+ * Only the user who joined (userId) can remove the waiter.
+ */
+@Getter
+@Setter
+public class LeaveWaitlistRequestDTO {
+
+    private Long userId;
+
+    private Long showId;
+
+    private Long waiterId;
+}
@@ -0,0 +1,32 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Booking state change as handed to an OutboxSink.
+ *
+ * Example:
+ * { "id": 5001, "eventType": "BOOKING_PENDING", "showId": 17, "bookingId": 42,
+ *   "payload": "user=7 seats=101,102 price=900", "createdAt": "2025-01-10T18:30:00Z" }
+ *
+ * Delivery is at least once: consumers use id to drop duplicates.
+ */
+@Getter
+@Setter
+public class OutboxEventDTO {
+
+    private Long id;
+
+    private String eventType;
+
+    private Long showId;
+
+    private Long bookingId;
+
+    private String payload;
+
+    private Date createdAt;
+}
@@ -0,0 +1,42 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for provider callbacks (webhooks).
+ *
+ * Example Callback (Razorpay):
+ * {
+ *   "bookingId": 999,
+ *   "paymentProvider": "RAZORPAY",
+ *   "paymentMethod": "DEBIT_CARD",
+ *   "paymentStatus": "SUCCESS",
+ *   "referenceNumber": 100042,
+ *   "amount": 900,
+ *   "signature": "q3Jx0..."
+ * }
+ *
+ * signature is the provider's HMAC-SHA256 over the other fields, see PaymentCallbackVerifier.
+ */
+@Getter
+@Setter
+public class PaymentCallbackDTO {
+
+    private Long bookingId;
+
+    private PaymentProvider paymentProvider;
+
+    private PaymentMethod paymentMethod;
+
+    private PaymentStatus paymentStatus;
+
+    private int referenceNumber;
+
+    private int amount;
+
+    private String signature;
+}
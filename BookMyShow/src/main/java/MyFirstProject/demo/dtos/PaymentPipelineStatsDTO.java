@@ -0,0 +1,37 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Snapshot of payment pipeline counters.
+ *
+ * Used to read end-to-end confirmation throughput during offline load tests:
+ * confirmed + failed over elapsed time = outcomes applied per second.
+ */
+@Getter
+@Setter
+public class PaymentPipelineStatsDTO {
+
+    private long submitted;
+
+    // Initiations refused because the command queue was full
+    private long rejected;
+
+    private long confirmed;
+
+    private long failed;
+
+    // Charges the provider received but did not answer in time (settled by callback or status poll)
+    private long pending;
+
+    // Number of database transactions used to apply outcomes
+    private long batches;
+
+    private int queuedCommands;
+
+    private int queuedOutcomes;
+
+    // Average time from initiate()/callback to outcome applied
+    private double avgConfirmationMillis;
+}
@@ -0,0 +1,53 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.PaymentProvider;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Health snapshot of one payment provider, as seen by the resilience layer.
+ *
+ * Example:
+ * {
+ *   "paymentProvider": "PAYPAL",
+ *   "circuitState": "OPEN",
+ *   "failureRate": 0.65,
+ *   "inFlight": 16, "maxConcurrentCalls": 16,
+ *   "calls": 1200, "failures": 3, "timeouts": 410, "rejections": 5200,
+ *   "meanMillis": 812.4, "p50Millis": 524.3, "p99Millis": 1048.6, "p999Millis": 1048.6
+ * }
+ *
+ * Latency percentiles are bucket upper bounds (see LatencyHistogram).
+ */
+@Getter
+@Setter
+public class PaymentProviderHealthDTO {
+
+    private PaymentProvider paymentProvider;
+
+    // CLOSED, OPEN or HALF_OPEN
+    private String circuitState;
+
+    private double failureRate;
+
+    private int inFlight;
+
+    private int maxConcurrentCalls;
+
+    private long calls;
+
+    private long failures;
+
+    private long timeouts;
+
+    // Calls refused by bulkhead or open breaker
+    private long rejections;
+
+    private double meanMillis;
+
+    private double p50Millis;
+
+    private double p99Millis;
+
+    private double p999Millis;
+}
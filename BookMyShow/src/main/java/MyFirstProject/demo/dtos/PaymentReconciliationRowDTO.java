@@ -0,0 +1,37 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.PaymentStatus;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of the Payment columns needed for reconciliation.
+ *
+ * Why a projection and not the Payment entity:
+ * Entities are tracked by the persistence context until it is cleared, so
+ * streaming a month of Payment entities still grows the heap. Projections
+ * are plain objects that become garbage as soon as they have been compared.
+ */
+@Getter
+public class PaymentReconciliationRowDTO {
+
+    private final Long paymentId;
+
+    private final int referenceNumber;
+
+    private final int amount;
+
+    private final PaymentStatus paymentStatus;
+
+    private final Date timeStamp;
+
+    public PaymentReconciliationRowDTO(Long paymentId, int referenceNumber, int amount,
+                                       PaymentStatus paymentStatus, Date timeStamp) {
+        this.paymentId = paymentId;
+        this.referenceNumber = referenceNumber;
+        this.amount = amount;
+        this.paymentStatus = paymentStatus;
+        this.timeStamp = timeStamp;
+    }
+}
@@ -0,0 +1,37 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.ReconciliationMismatchType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One difference between our Payment table and a provider settlement file.
+ *
+ * Examples:
+ * - AMOUNT_MISMATCH: ref 100042, ours 900, settled 850
+ * - MISSING_IN_SETTLEMENT: ref 100043 recorded as SUCCESS, provider never settled it
+ * - MISSING_IN_DATABASE: ref 100044 settled by provider, no Payment row
+ * - DUPLICATE: ref 100045 appears a second time, either as another Payment
+ *   row (paymentId set) or as another settlement line (paymentId null)
+ *
+ * Fields that do not apply to a mismatch type stay null.
+ */
+@Getter
+@Setter
+public class ReconciliationMismatchDTO {
+
+    private ReconciliationMismatchType mismatchType;
+
+    private int referenceNumber;
+
+    private Long paymentId;
+
+    private Integer recordedAmount;
+
+    private Integer settledAmount;
+
+    private PaymentStatus recordedStatus;
+
+    private PaymentStatus settledStatus;
+}
@@ -0,0 +1,30 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Summary of one reconciliation run.
+ *
+ * Individual mismatches are streamed to a consumer while the run is in
+ * progress; this report only carries the totals.
+ */
+@Getter
+@Setter
+public class ReconciliationReportDTO {
+
+    private long settlementLines;
+
+    private long malformedSettlementLines;
+
+    private long paymentsScanned;
+
+    private long matched;
+
+    // Included in mismatches
+    private long duplicates;
+
+    private long mismatches;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,33 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Projection row returned by the grouped availability query in ShowSeatRepository.
+ *
+ * One row = number of seats in a given status for one (show, seat type) pair.
+ *
+ * Why a constructor projection and not ShowSeat entities:
+ * - COUNT ... GROUP BY returns 3 numbers per row instead of hundreds of entities
+ * - Nothing is attached to the persistence context
+ *
+ * Example rows for Show#7:
+ * (7, Normal#1, 130), (7, Recliner#3, 12)
+ */
+@Getter
+@Setter
+public class SeatAvailabilityCountDTO {
+
+    private Long showId;
+
+    private Long seatTypeId;
+
+    private long seatCount;
+
+    public SeatAvailabilityCountDTO(Long showId, Long seatTypeId, long seatCount) {
+        this.showId = showId;
+        this.seatTypeId = seatTypeId;
+        this.seatCount = seatCount;
+    }
+}
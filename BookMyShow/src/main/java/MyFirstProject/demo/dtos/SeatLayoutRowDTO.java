@@ -0,0 +1,36 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Projection row for one seat of a show's seat map (layout only, no status).
+ *
+ * Layout never changes for a show, so these rows can be cached for the whole
+ * life of the show (see ShowReadCache). Seat status changes constantly and is
+ * served from SeatAvailabilityService instead.
+ *
+ * Example: (showSeatId 4711, "F12", row 5, col 11, Premium#2)
+ */
+@Getter
+@Setter
+public class SeatLayoutRowDTO {
+
+    private Long showSeatId;
+
+    private String seatName;
+
+    private int rowNum;
+
+    private int colNum;
+
+    private Long seatTypeId;
+
+    public SeatLayoutRowDTO(Long showSeatId, String seatName, int rowNum, int colNum, Long seatTypeId) {
+        this.showSeatId = showSeatId;
+        this.seatName = seatName;
+        this.rowNum = rowNum;
+        this.colNum = colNum;
+        this.seatTypeId = seatTypeId;
+    }
+}
@@ -0,0 +1,40 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of restoring the "seats left" counters at startup (see SeatStateRecoveryService).
+ *
+ * Example (restored):
+ * {
+ *   "restored": true, "fallbackReason": null, "snapshotGeneration": 41,
+ *   "showsRestored": 12000, "journalRecordsReplayed": 83412,
+ *   "tailDiscarded": true, "elapsedMillis": 240
+ * }
+ *
+ * Example (fallback):
+ * { "restored": false, "fallbackReason": "Snapshot checksum mismatch", ... }
+ *
+ * tailDiscarded: the slot after the last valid journal record held bytes
+ * that did not verify (a torn last write, or leftovers of an older generation)
+ * and was truncated.
+ */
+@Getter
+@Setter
+public class SeatStateRecoveryReportDTO {
+
+    private boolean restored;
+
+    private String fallbackReason;
+
+    private long snapshotGeneration;
+
+    private int showsRestored;
+
+    private int journalRecordsReplayed;
+
+    private boolean tailDiscarded;
+
+    private long elapsedMillis;
+}
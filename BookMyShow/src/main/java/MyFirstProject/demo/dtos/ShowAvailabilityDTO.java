@@ -0,0 +1,31 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Seats left for one show, as rendered on listing pages.
+ *
+ * Example:
+ * "142 seats left, 12 Recliner" →
+ * {
+ *   "showId": 7,
+ *   "totalAvailable": 142,
+ *   "availableBySeatType": { "1": 130, "3": 12 }
+ * }
+ *
+ * availableBySeatType is keyed by SeatType id; the listing page already
+ * knows the seat type names, so they are not repeated for every show.
+ */
+@Getter
+@Setter
+public class ShowAvailabilityDTO {
+
+    private Long showId;
+
+    private int totalAvailable;
+
+    private Map<Long, Integer> availableBySeatType;
+}
@@ -0,0 +1,28 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Summary of a whole-show cancellation.
+ *
+ * Example (fully sold 1,000-seat show):
+ * { "showId": 7, "bookingsCancelled": 250, "seatsReleased": 1000, "refundsQueued": 250, "elapsedMillis": 41 }
+ *
+ * elapsedMillis covers the whole cancellation including the commit,
+ * but not the provider refund calls (those run later in RefundProcessor).
+ */
+@Getter
+@Setter
+public class ShowCancellationReportDTO {
+
+    private Long showId;
+
+    private int bookingsCancelled;
+
+    private int seatsReleased;
+
+    private int refundsQueued;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,26 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Seat conflict statistics of one show.
+ *
+ * Example:
+ * { "showId": 7, "attempts": 5200, "seatConflicts": 3900, "conflictRate": 0.75 }
+ *
+ * A high conflict rate means many users are racing for the same seats
+ * (typically the first minutes of a blockbuster sale).
+ */
+@Getter
+@Setter
+public class ShowContentionDTO {
+
+    private Long showId;
+
+    private long attempts;
+
+    private long seatConflicts;
+
+    private double conflictRate;
+}
@@ -62,6 +62,13 @@ public class SignUpRequestDTO {
      */
     private String password;
 
+    /**
+     * Client-generated key, the same for every resubmission of this sign-up.
+     * Optional: a resubmission with the same key gets the first response
+     * without hashing the password again (IdempotencyService).
+     */
+    private String idempotencyKey;
+
     // Future enhancements:
     // - String confirmPassword (ensure user typed correctly)
     // - String name (user's display name)
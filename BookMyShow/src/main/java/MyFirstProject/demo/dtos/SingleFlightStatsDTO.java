@@ -0,0 +1,31 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request coalescing of one kind of show read (see SingleFlight).
+ *
+ * Example:
+ * { "name": "SEAT_LAYOUT", "calls": 2400, "loads": 3, "coalesced": 2397, "coalescingRatio": 0.99875 }
+ *
+ * Calls are cache misses only: reads answered from a cache never get here.
+ * A ratio near 1 during a rush means the herd was absorbed by a few queries.
+ */
+@Getter
+@Setter
+public class SingleFlightStatsDTO {
+
+    private String name;
+
+    // Loads asked for
+    private long calls;
+
+    // Loads that ran a query
+    private long loads;
+
+    // Calls that waited for another caller's load
+    private long coalesced;
+
+    private double coalescingRatio;
+}
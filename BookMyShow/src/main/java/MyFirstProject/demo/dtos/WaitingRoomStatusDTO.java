@@ -0,0 +1,37 @@
+package MyFirstProject.demo.dtos;
+
+import MyFirstProject.demo.models.ResponseStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Where a user stands in a show's waiting room.
+ *
+ * Example (still waiting):
+ * { "showId": 7, "position": 1840, "estimatedWaitSeconds": 37,
+ *   "queueTicket": "q.7.123.52011.Xk3...", "admissionTicket": null, "responseStatus": "PENDING" }
+ *
+ * Example (admitted):
+ * { "showId": 7, "position": 0, "estimatedWaitSeconds": 0,
+ *   "queueTicket": "q.7.123.52011.Xk3...", "admissionTicket": "a.7.123.1760190300.9fQ...",
+ *   "responseStatus": "SUCCESS" }
+ *
+ * Clients poll getStatus with the queueTicket (no sooner than about
+ * estimatedWaitSeconds / 2) and send the admissionTicket with bookMovie.
+ */
+@Getter
+@Setter
+public class WaitingRoomStatusDTO {
+
+    private Long showId;
+
+    private long position;
+
+    private long estimatedWaitSeconds;
+
+    private String queueTicket;
+
+    private String admissionTicket;
+
+    private ResponseStatus responseStatus;
+}
@@ -0,0 +1,38 @@
+package MyFirstProject.demo.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of the startup cache warm-up (see CacheWarmupService).
+ *
+ * Example:
+ * {
+ *   "showsFound": 180, "showsWarmed": 180, "showsFailed": 0,
+ *   "seatsLoaded": 43200, "pricesLoaded": 540, "bytesLoaded": 1641600,
+ *   "elapsedMillis": 2350, "timedOut": false
+ * }
+ *
+ * bytesLoaded is the approximate payload read from the database
+ * (8 bytes per id, 4 per int, 1 per name character), not heap usage.
+ */
+@Getter
+@Setter
+public class WarmupReportDTO {
+
+    private int showsFound;
+
+    private int showsWarmed;
+
+    private int showsFailed;
+
+    private long seatsLoaded;
+
+    private long pricesLoaded;
+
+    private long bytesLoaded;
+
+    private long elapsedMillis;
+
+    private boolean timedOut;
+}
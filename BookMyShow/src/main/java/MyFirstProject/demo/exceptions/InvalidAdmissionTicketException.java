@@ -0,0 +1,23 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a waiting room ticket cannot be trusted.
+ *
+ * When this exception is thrown:
+ * - The ticket is malformed (wrong number of parts, not a number)
+ * - The signature doesn't match (ticket forged or edited, e.g. a smaller queue position)
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * public WaitingRoomStatusDTO getStatus(String queueTicket) throws InvalidAdmissionTicketException
+ */
+public class InvalidAdmissionTicketException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public InvalidAdmissionTicketException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a booking does not exist or cannot be changed.
+ *
+ * When this exception is thrown:
+ * - Booking ID doesn't exist in database
+ * - Booking belongs to a different user than the one asking
+ * - Booking is already cancelled or failed, so there is nothing to cancel
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * public CancellationResultDTO cancelBooking(...) throws InvalidBookingException
+ */
+public class InvalidBookingException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public InvalidBookingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a payment provider callback cannot be trusted.
+ *
+ * When this exception is thrown:
+ * - The callback carries no signature
+ * - The signature doesn't match its fields (forged, or edited e.g. FAILED → SUCCESS)
+ * - No callback secret is configured for the provider it claims to come from
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * public boolean onProviderCallback(PaymentCallbackDTO callbackDTO) throws InvalidPaymentCallbackException
+ */
+public class InvalidPaymentCallbackException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public InvalidPaymentCallbackException(String message) {
+        super(message);
+    }
+}
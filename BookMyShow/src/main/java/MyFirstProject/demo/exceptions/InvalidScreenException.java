@@ -0,0 +1,22 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a screen, or a seat of it, does not exist.
+ *
+ * When this exception is thrown:
+ * - A seat layout edit names a screen ID or seat ID that isn't in the database
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * public void moveSeat(...) throws InvalidScreenException
+ */
+public class InvalidScreenException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public InvalidScreenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a request can't be forwarded to the node that owns its show.
+ *
+ * When this exception is thrown:
+ * - The owner left the cluster (or is unreachable) and this node's view of
+ *   the membership hasn't caught up yet
+ *
+ * The request was not executed anywhere, so retrying later is safe: by then
+ * the ring has been rebuilt and the show has a new owner.
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * BookMovieResponseDTO bookMovie(String nodeId, ...) throws NodeUnavailableException
+ */
+public class NodeUnavailableException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public NodeUnavailableException(String message) {
+        super(message);
+    }
+}
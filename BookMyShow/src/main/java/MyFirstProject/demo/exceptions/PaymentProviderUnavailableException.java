@@ -0,0 +1,32 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a payment provider cannot be used right now.
+ *
+ * When this exception is thrown:
+ * - Circuit breaker for the provider is OPEN (provider recently failing/slow)
+ * - Bulkhead is full (too many calls to this provider already in flight)
+ * - The call did not finish before its deadline
+ * - The provider call itself threw an error
+ *
+ * This is NOT a declined payment. A declined card is a normal answer from a
+ * healthy provider (PaymentStatus.FAILED); this exception means we did not get
+ * an answer at all and another provider may be tried.
+ */
+public class PaymentProviderUnavailableException extends Exception {
+
+    /**
+     * @param message Why the provider could not be used
+     */
+    public PaymentProviderUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * @param message Why the provider could not be used
+     * @param cause Underlying error from the provider call
+     */
+    public PaymentProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Thrown when the local seat state snapshot or journal cannot be trusted.
+ *
+ * When this exception is thrown:
+ * - A snapshot checksum or length does not match (partially written or damaged file)
+ * - A journal record in the middle of the file fails its checksum
+ * - The journal belongs to a newer checkpoint than the snapshot (checkpoint interrupted)
+ * - The journal filled up and dropped records
+ *
+ * Handling:
+ * SeatStateRecoveryService catches it, discards the files and lets the
+ * "seats left" counters load from the database as on a first start.
+ */
+public class SeatStateCorruptedException extends Exception {
+
+    /**
+     * @param message What did not verify, e.g. "Snapshot checksum mismatch"
+     */
+    public SeatStateCorruptedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package MyFirstProject.demo.exceptions;
+
+/**
+ * Custom exception thrown when a request is shed by the concurrency limiter.
+ *
+ * When this exception is thrown:
+ * - The request's traffic class already has as many requests in flight as
+ *   its current adaptive limit allows (see ConcurrencyLimiters)
+ *
+ * Nothing was done for the request, so retrying later (with backoff) is safe.
+ * Controllers that answer with a DTO report ResponseStatus.OVERLOADED instead.
+ *
+ * This is a checked exception, so callers must declare or handle it:
+ * public List<ShowAvailabilityDTO> getAvailability(...) throws ServiceOverloadedException
+ */
+public class ServiceOverloadedException extends Exception {
+
+    /**
+     * Constructor that accepts a custom error message.
+     *
+     * @param message Descriptive error message explaining what went wrong
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,48 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one BookingServices.bookMovie() call.
+ *
+ * Duration: from entering bookMovie() until the transaction completes
+ * (commit or rollback), so lock waits at commit time are included.
+ *
+ * Because JFR events carry their thread, CPU samples and lock waits recorded
+ * by the JVM on the same thread during this event belong to this show.
+ * JfrRecordingSummary uses that to attribute them per show.
+ */
+@Name(BookingEvent.NAME)
+@Label("Booking")
+@Category({"BookMyShow", "Booking"})
+@Description("One bookMovie() call, until its transaction completed")
+@StackTrace(false)
+public class BookingEvent extends Event {
+
+    public static final String NAME = "bookmyshow.Booking";
+
+    // Outcomes
+    public static final String BLOCKED = "BLOCKED";
+    public static final String SEAT_CONFLICT = "SEAT_CONFLICT";
+    public static final String INVALID_USER = "INVALID_USER";
+    public static final String INVALID_SHOW = "INVALID_SHOW";
+    public static final String ROLLED_BACK = "ROLLED_BACK";
+
+    @Label("Show ID")
+    public long showId;
+
+    @Label("User ID")
+    public long userId;
+
+    @Label("Seat Count")
+    public int seatCount;
+
+    @Label("Outcome")
+    @Description("BLOCKED, SEAT_CONFLICT, INVALID_USER, INVALID_SHOW or ROLLED_BACK (failed at or before commit)")
+    public String outcome;
+}
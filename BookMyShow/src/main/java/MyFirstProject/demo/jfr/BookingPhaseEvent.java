@@ -0,0 +1,32 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one phase of the booking path (see BookingPhase).
+ *
+ * Emitted by BookingMetrics.recordPhase(), which already measured the phase,
+ * so the time is carried in the elapsed field rather than the event duration.
+ */
+@Name(BookingPhaseEvent.NAME)
+@Label("Booking Phase")
+@Category({"BookMyShow", "Booking"})
+@Description("Time spent in one phase of bookMovie()")
+@StackTrace(false)
+public class BookingPhaseEvent extends Event {
+
+    public static final String NAME = "bookmyshow.BookingPhase";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    public long elapsed;
+}
@@ -0,0 +1,229 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline summary of a JFR recording taken from a running BookMyShow instance.
+ *
+ * Recording (always-on, low overhead):
+ * java -XX:StartFlightRecording=maxage=1h,filename=bookmyshow.jfr ... -jar demo.jar
+ * or on demand: jcmd <pid> JFR.start duration=5m filename=bookmyshow.jfr
+ *
+ * Summary:
+ * java -cp target/classes MyFirstProject.demo.jfr.JfrRecordingSummary bookmyshow.jfr
+ *
+ * What it prints:
+ * 1. Booking outcomes (BookingEvent)
+ * 2. Top contended shows: attempts, seat conflicts, rollbacks, p99 duration,
+ *    plus the JVM's CPU samples and lock/park time that fell inside bookings
+ *    of that show (matched by thread and time window)
+ * 3. Booking phases ordered by p99 (BookingPhaseEvent), slowest first
+ * 4. Price calculation and password hashing (PriceCalculationEvent, PasswordHashEvent)
+ *
+ * Percentiles are exact (samples are sorted); this is an offline tool, not a hot path.
+ */
+public class JfrRecordingSummary {
+
+    private static final int TOP_SHOWS = 10;
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final List<String> LOCK_EVENTS = List.of("jdk.JavaMonitorEnter", "jdk.JavaMonitorWait", "jdk.ThreadPark");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrRecordingSummary <recording.jfr>");
+            System.exit(2);
+        }
+        System.out.print(summarize(Path.of(args[0])));
+    }
+
+    /**
+     * Reads a recording and renders the summary.
+     *
+     * @param recording JFR file
+     * @return Human-readable report
+     * @throws IOException if the file cannot be read
+     */
+    public static String summarize(Path recording) throws IOException {
+
+        // Step 1: Keep only the events we report on
+        List<RecordedEvent> bookings = new ArrayList<>();
+        List<RecordedEvent> jvmEvents = new ArrayList<>();
+        Map<String, List<Long>> phaseNanos = new TreeMap<>();
+        List<Long> priceNanos = new ArrayList<>();
+        Map<String, List<Long>> hashNanos = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                switch (name) {
+                    case BookingEvent.NAME -> bookings.add(event);
+                    case BookingPhaseEvent.NAME -> phaseNanos.computeIfAbsent(event.getString("phase"),
+                            k -> new ArrayList<>()).add(event.getDuration("elapsed").toNanos());
+                    case PriceCalculationEvent.NAME -> priceNanos.add(event.getDuration().toNanos());
+                    case PasswordHashEvent.NAME -> hashNanos.computeIfAbsent(event.getString("operation"),
+                            k -> new ArrayList<>()).add(event.getDuration().toNanos());
+                    default -> {
+                        if (name.equals(EXECUTION_SAMPLE) || LOCK_EVENTS.contains(name)) {
+                            jvmEvents.add(event);
+                        }
+                    }
+                }
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+
+        // Step 2: Outcomes
+        Map<String, Integer> outcomes = new TreeMap<>();
+        for (RecordedEvent booking : bookings) {
+            outcomes.merge(String.valueOf(booking.getString("outcome")), 1, Integer::sum);
+        }
+        out.append("=== Bookings: ").append(bookings.size()).append(" ===\n");
+        outcomes.forEach((outcome, count) -> out.append(String.format("%-14s %8d%n", outcome, count)));
+
+        // Step 3: Per show, including JVM samples that happened inside its bookings
+        Map<Long, ShowStats> shows = new HashMap<>();
+        for (RecordedEvent booking : bookings) {
+            ShowStats stats = shows.computeIfAbsent(booking.getLong("showId"), ShowStats::new);
+            stats.attempts++;
+            String outcome = booking.getString("outcome");
+            if (BookingEvent.SEAT_CONFLICT.equals(outcome)) {
+                stats.seatConflicts++;
+            } else if (BookingEvent.ROLLED_BACK.equals(outcome)) {
+                stats.rolledBack++;
+            }
+            stats.durations.add(booking.getDuration().toNanos());
+        }
+        attributeJvmEvents(bookings, jvmEvents, shows);
+
+        List<ShowStats> contended = new ArrayList<>(shows.values());
+        contended.sort(Comparator.comparingLong((ShowStats s) -> s.seatConflicts + s.rolledBack)
+                .thenComparingLong(s -> s.lockWaitNanos).reversed());
+        out.append("\n=== Top contended shows ===\n");
+        out.append(String.format("%-10s %9s %10s %11s %10s %12s %13s%n",
+                "show", "attempts", "conflicts", "rolledBack", "p99 ms", "cpuSamples", "lockWait ms"));
+        for (ShowStats show : contended.subList(0, Math.min(TOP_SHOWS, contended.size()))) {
+            out.append(String.format("%-10d %9d %10d %11d %10.2f %12d %13.1f%n", show.showId, show.attempts,
+                    show.seatConflicts, show.rolledBack, percentileMillis(show.durations, 0.99),
+                    show.cpuSamples, show.lockWaitNanos / 1e6));
+        }
+
+        // Step 4: Phases, slowest p99 first
+        List<Map.Entry<String, List<Long>>> phases = new ArrayList<>(phaseNanos.entrySet());
+        phases.sort(Comparator.comparingDouble((Map.Entry<String, List<Long>> e) ->
+                percentileMillis(e.getValue(), 0.99)).reversed());
+        out.append("\n=== Slowest booking phases ===\n");
+        appendLatencyHeader(out);
+        for (Map.Entry<String, List<Long>> phase : phases) {
+            appendLatencyRow(out, phase.getKey(), phase.getValue());
+        }
+
+        // Step 5: Pricing and password hashing
+        out.append("\n=== Price calculation and password hashing ===\n");
+        appendLatencyHeader(out);
+        appendLatencyRow(out, "PRICE", priceNanos);
+        hashNanos.forEach((operation, nanos) -> appendLatencyRow(out, "BCRYPT_" + operation, nanos));
+        return out.toString();
+    }
+
+    /**
+     * Adds CPU samples and lock/park time to the show whose booking was running
+     * on the same thread at that moment. Bookings of one thread never overlap,
+     * so a binary search over their start times finds the candidate.
+     */
+    private static void attributeJvmEvents(List<RecordedEvent> bookings, List<RecordedEvent> jvmEvents,
+                                           Map<Long, ShowStats> shows) {
+        Map<Long, List<RecordedEvent>> bookingsByThread = new HashMap<>();
+        for (RecordedEvent booking : bookings) {
+            if (booking.getThread() != null) {
+                bookingsByThread.computeIfAbsent(booking.getThread().getJavaThreadId(), k -> new ArrayList<>())
+                        .add(booking);
+            }
+        }
+        Map<Long, long[]> startsByThread = new HashMap<>();
+        for (Map.Entry<Long, List<RecordedEvent>> entry : bookingsByThread.entrySet()) {
+            entry.getValue().sort(Comparator.comparing(RecordedEvent::getStartTime));
+            long[] starts = new long[entry.getValue().size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = epochNanos(entry.getValue().get(i).getStartTime());
+            }
+            startsByThread.put(entry.getKey(), starts);
+        }
+
+        for (RecordedEvent event : jvmEvents) {
+            boolean sample = event.getEventType().getName().equals(EXECUTION_SAMPLE);
+            RecordedThread thread = sample ? event.getThread("sampledThread") : event.getThread();
+            if (thread == null || !startsByThread.containsKey(thread.getJavaThreadId())) {
+                continue;
+            }
+            long[] starts = startsByThread.get(thread.getJavaThreadId());
+            long at = epochNanos(event.getStartTime());
+            int index = Arrays.binarySearch(starts, at);
+            index = index >= 0 ? index : -index - 2; // last booking started at or before the event
+            if (index < 0) {
+                continue;
+            }
+            RecordedEvent booking = bookingsByThread.get(thread.getJavaThreadId()).get(index);
+            if (at > epochNanos(booking.getEndTime())) {
+                continue; // thread was not booking at that moment
+            }
+            ShowStats show = shows.get(booking.getLong("showId"));
+            if (sample) {
+                show.cpuSamples++;
+            } else {
+                show.lockWaitNanos += event.getDuration().toNanos();
+            }
+        }
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static void appendLatencyHeader(StringBuilder out) {
+        out.append(String.format("%-20s %9s %10s %10s %10s%n", "name", "count", "p50 ms", "p99 ms", "max ms"));
+    }
+
+    private static void appendLatencyRow(StringBuilder out, String name, List<Long> nanos) {
+        out.append(String.format("%-20s %9d %10.2f %10.2f %10.2f%n", name, nanos.size(),
+                percentileMillis(nanos, 0.50), percentileMillis(nanos, 0.99), percentileMillis(nanos, 1.0)));
+    }
+
+    // Sorts in place
+    private static double percentileMillis(List<Long> nanos, double quantile) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        nanos.sort(null);
+        int index = (int) Math.min(nanos.size() - 1, Math.max(0, Math.ceil(quantile * nanos.size()) - 1));
+        return nanos.get(index) / 1e6;
+    }
+
+    private static class ShowStats {
+        final long showId;
+        final List<Long> durations = new ArrayList<>();
+        long attempts;
+        long seatConflicts;
+        long rolledBack;
+        long cpuSamples;
+        long lockWaitNanos;
+
+        ShowStats(long showId) {
+            this.showId = showId;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one BCrypt operation in UserService.
+ *
+ * BCrypt is deliberately slow (tens to hundreds of ms of pure CPU), so a login
+ * burst shows up as CPU saturation; these events tell it apart from booking load.
+ */
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Category({"BookMyShow", "Users"})
+@Description("One BCrypt encode or verify")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String NAME = "bookmyshow.PasswordHash";
+
+    // Operations
+    public static final String ENCODE = "ENCODE";
+    public static final String VERIFY = "VERIFY";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    @Description("Verify result; always true for ENCODE")
+    public boolean matched;
+}
@@ -0,0 +1,30 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one PriceCalculator.calculatePrice() call, including its price lookup query.
+ */
+@Name(PriceCalculationEvent.NAME)
+@Label("Price Calculation")
+@Category({"BookMyShow", "Booking"})
+@Description("Total price calculation for a set of seats")
+@StackTrace(false)
+public class PriceCalculationEvent extends Event {
+
+    public static final String NAME = "bookmyshow.PriceCalculation";
+
+    @Label("Show ID")
+    public long showId;
+
+    @Label("Seat Count")
+    public int seatCount;
+
+    @Label("Amount")
+    public int amount;
+}
@@ -25,11 +25,15 @@ import java.util.List;
  * 1. PENDING: Seats blocked, awaiting payment
  * 2. CONFIRMED: Payment successful, tickets issued
  * 3. CANCELLED: User cancelled or payment failed
+ *
+ * Index on (user, timeOfBooking, id): backs the keyset-paginated booking
+ * history (BookingRepository.findHistoryBefore) so each page is one index seek.
  */
 @Getter
 @Setter
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = @Index(name = "idx_booking_user_time", columnList = "user_id, timeOfBooking, id"))
 public class Booking extends BaseModel {
 
     /**
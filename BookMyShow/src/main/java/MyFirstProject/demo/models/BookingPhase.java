@@ -0,0 +1,16 @@
+package MyFirstProject.demo.models;
+
+/**
+ * Timed steps of BookingServices.bookMovie(), used by BookingMetrics.
+ *
+ * TOTAL is measured by the caller and includes the transaction commit.
+ */
+public enum BookingPhase {
+    USER_LOOKUP,
+    SHOW_LOOKUP,
+    SEAT_LOOKUP,
+    SEAT_SAVE,
+    PRICE_CALCULATION,
+    BOOKING_SAVE,
+    TOTAL,
+}
@@ -0,0 +1,11 @@
+package MyFirstProject.demo.models;
+
+/**
+ * Kinds of cached catalog data that can be invalidated across nodes (see InvalidationBus).
+ *
+ * Each is keyed by the ID of the entity carrying its version.
+ */
+public enum CachedEntityType {
+    SHOW_PRICES,    // ShowSeatType prices of a show; key: show ID, version: Show.priceVersion
+    SCREEN_LAYOUT,  // Seat rows/columns of a screen; key: screen ID, version: Screen.layoutVersion
+}
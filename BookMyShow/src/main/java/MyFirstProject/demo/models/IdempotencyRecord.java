@@ -0,0 +1,56 @@
+package MyFirstProject.demo.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Response of a successful bookMovie request, stored under its idempotency key
+ * (durable tier of IdempotencyService, bookmyshow.idempotency.durable=true).
+ *
+ * Table: idempotency_record
+ *
+ * Why a table:
+ * The in-memory store is empty after a restart and separate on every instance.
+ * A client resubmitting to another instance (or after a deploy) still gets its
+ * original booking back instead of blocking a second set of seats.
+ *
+ * Example row:
+ * - key "7:5f0c2a9e-...", fingerprint "3be1...", booking 42, amount 900, expires 2025-10-11 20:02
+ *
+ * Expired rows are deleted by IdempotencyService.purgeExpired().
+ * No foreign key to booking on purpose: the record must never lock booking rows.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+        @Index(name = "uk_idempotency_key", columnList = "idempotencyKey", unique = true),
+        @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord extends BaseModel {
+
+    /**
+     * User ID and the client's key ("7:5f0c2a9e-..."): one user can't replay another's response.
+     */
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 (hex) of the request: show and seats. A resubmission with the
+     * same key but other seats is refused instead of replayed.
+     */
+    @Column(length = 64, nullable = false)
+    private String requestFingerprint;
+
+    private Long bookingId;
+
+    private int totalAmount;
+
+    private Date expiresAt;
+}
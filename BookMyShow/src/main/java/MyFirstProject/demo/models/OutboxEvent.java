@@ -0,0 +1,53 @@
+package MyFirstProject.demo.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One booking state change waiting to be published (transactional outbox).
+ *
+ * Table: outbox_event
+ *
+ * Why a table:
+ * The row is inserted in the same transaction as the Booking/ShowSeat change
+ * it describes. Either both commit or neither does, so consumers never hear
+ * about a booking that was rolled back and never miss one that committed.
+ * OutboxRelay publishes the rows to an OutboxSink and deletes them.
+ *
+ * The table only holds events not yet published, so it stays small and
+ * consumers (emails, analytics, cache invalidation) never query booking or show_seat.
+ *
+ * Example rows:
+ * - #5001 BOOKING_PENDING   show 17, booking 42, "user=7 seats=101,102 price=900"
+ * - #5007 BOOKING_CONFIRMED show 17, booking 42, "user=7 seats=101,102 price=900"
+ *
+ * No foreign keys on purpose: the event must outlive, and never lock, the rows it refers to.
+ */
+@Getter
+@Setter
+@Entity
+public class OutboxEvent extends BaseModel {
+
+    @Enumerated(EnumType.ORDINAL)
+    private OutboxEventType eventType;
+
+    /**
+     * Events are delivered in order per show.
+     */
+    private Long showId;
+
+    /**
+     * Null for SHOW_CANCELLED.
+     */
+    private Long bookingId;
+
+    /**
+     * Space separated key=value pairs (user, seats, price, reason).
+     */
+    @Column(length = 2000)
+    private String payload;
+}
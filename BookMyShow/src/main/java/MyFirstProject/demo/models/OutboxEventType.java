@@ -0,0 +1,13 @@
+package MyFirstProject.demo.models;
+
+/**
+ * Booking state changes published through the transactional outbox (see OutboxEvent).
+ */
+public enum OutboxEventType {
+    BOOKING_PENDING,     // seats BLOCKED, booking waiting for payment
+    BOOKING_CONFIRMED,   // payment succeeded, seats OCCUPIED
+    BOOKING_FAILED,      // payment failed or hold expired, seats AVAILABLE again
+    BOOKING_CANCELLED,   // cancelled by the user, seats AVAILABLE again
+    SHOW_CANCELLED,      // every booking of the show cancelled at once
+    WAITLIST_ALLOCATED,  // released seats booked (PENDING) for a waitlisted user, who must now pay
+}
@@ -3,4 +3,5 @@ package MyFirstProject.demo.models;
 public enum PaymentStatus {
     SUCCESS,
     FAILED,
+    PENDING,
 }
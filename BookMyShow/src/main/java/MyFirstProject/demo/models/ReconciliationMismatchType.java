@@ -0,0 +1,9 @@
+package MyFirstProject.demo.models;
+
+public enum ReconciliationMismatchType {
+    MISSING_IN_SETTLEMENT,
+    MISSING_IN_DATABASE,
+    AMOUNT_MISMATCH,
+    STATUS_MISMATCH,
+    DUPLICATE,
+}
@@ -0,0 +1,72 @@
+package MyFirstProject.demo.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Money owed back to a customer for a cancelled booking.
+ *
+ * Table: refund
+ *
+ * Refunds are queued (status QUEUED) by CancellationService in the same
+ * transaction that cancels the booking, and sent to the payment provider
+ * later by RefundProcessor. Cancelling a show therefore never waits on
+ * thousands of slow provider calls.
+ *
+ * Example:
+ * Booking#42 paid ₹900 via RAZORPAY (reference 100042), show cancelled:
+ * - Refund#7: booking 42, payment 311, RAZORPAY, ref 100042, ₹900, QUEUED
+ * - ...later REFUNDED once Razorpay accepted the refund
+ *
+ * Provider and reference number are copied from the original payment so the
+ * processor does not need to load Payment or Booking rows at all.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "idx_refund_status", columnList = "refundStatus"))
+public class Refund extends BaseModel {
+
+    /**
+     * Cancelled booking this refund belongs to.
+     *
+     * LAZY: the processor only needs the copied payment fields below.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Booking booking;
+
+    /**
+     * Original successful payment that is being refunded.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Payment payment;
+
+    /**
+     * Provider that took the money (refunds go back through the same provider).
+     */
+    @Enumerated(EnumType.ORDINAL)
+    private PaymentProvider paymentProvider;
+
+    /**
+     * Provider reference of the original payment.
+     */
+    private int referenceNumber;
+
+    /**
+     * Amount to refund in smallest currency unit.
+     */
+    private int amount;
+
+    /**
+     * QUEUED → REFUNDED (provider accepted) or FAILED (provider declined).
+     */
+    @Enumerated(EnumType.ORDINAL)
+    private RefundStatus refundStatus;
+}
@@ -0,0 +1,7 @@
+package MyFirstProject.demo.models;
+
+public enum RefundStatus {
+    QUEUED,
+    REFUNDED,
+    FAILED,
+}
@@ -4,4 +4,6 @@ public enum ResponseStatus {
     SUCCESS,
     FAILURE,
     PENDING,
+    OVERLOADED,  // shed by the concurrency limiter before any work was done; retry later
+    IN_PROGRESS, // a request with the same idempotency key is still running; retry with the same key
 }
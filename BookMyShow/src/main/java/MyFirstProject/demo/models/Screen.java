@@ -68,4 +68,10 @@ public class Screen extends BaseModel {
     @Enumerated(EnumType.ORDINAL)
     @ElementCollection
     private List<ScreenFeatures> screenFeatures;
+
+    /**
+     * Bumped by every change to this screen's seat layout (CatalogService),
+     * in the same transaction; the version broadcast with its invalidation.
+     */
+    private long layoutVersion;
 }
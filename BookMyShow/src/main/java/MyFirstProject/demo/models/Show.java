@@ -1,7 +1,9 @@
 package MyFirstProject.demo.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -23,10 +25,13 @@ import java.util.Date;
  * Relationships:
  * - Many shows can screen the same Movie
  * - Many shows can be in the same Screen (at different times)
+ *
+ * Index on startTime: the startup warm-up selects "shows starting in the next hours".
  */
 @Getter
 @Setter
 @Entity(name = "Shows")  // Table name "Shows" (avoiding SQL keyword "Show")
+@Table(indexes = @Index(name = "idx_show_start_time", columnList = "startTime"))
 public class Show extends BaseModel {
 
     /**
@@ -82,4 +87,18 @@ public class Show extends BaseModel {
      * Example: "2025-10-11 22:00:00" (10 PM)
      */
     private Date endTime;
+
+    /**
+     * Bumped by every price change of this show (CatalogService), in the same
+     * transaction. Broadcast with the invalidation so other nodes can tell a
+     * newer price table from an older or duplicate message.
+     */
+    private long priceVersion;
+
+    /**
+     * Set by CancellationService.cancelShow in the same transaction that
+     * cancels the bookings and releases the seats. Those seats go back to
+     * AVAILABLE, so this flag is what stops them from being booked again.
+     */
+    private boolean cancelled;
 }
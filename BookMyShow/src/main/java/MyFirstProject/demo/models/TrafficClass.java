@@ -0,0 +1,14 @@
+package MyFirstProject.demo.models;
+
+/**
+ * Kinds of request that get their own concurrency limit (see ConcurrencyLimiters).
+ *
+ * Separate limits keep one kind from starving the others: a login storm
+ * (BCrypt, CPU bound) must not shed bookings, and a flash sale (row locks,
+ * database bound) must not make show listings fail.
+ */
+public enum TrafficClass {
+    BOOKING,   // bookMovie, cancelBooking
+    LOGIN,     // signUp / login (password hashing)
+    BROWSING,  // seats left, seat maps, booking history
+}
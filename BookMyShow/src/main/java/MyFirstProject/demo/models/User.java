@@ -29,16 +29,19 @@ public class User extends BaseModel {
     /**
      * All bookings made by this user.
      *
-     * @OneToMany: One user can have many bookings
-     * Bidirectional relationship with Booking entity
+     * @OneToMany(mappedBy = "user"): the inverse side of Booking.user, so the
+     * booking table's user_id column is the only link (no user_bookings join table)
      *
      * Example:
      * User john has bookings: [Booking#1, Booking#2, Booking#3]
      *
      * Lazy loading: Bookings are loaded only when accessed
-     * user.getBookings() → triggers database query
+     * user.getBookings() → loads EVERY booking of the user, each with its show
+     *
+     * Do not use this to render history: it is unbounded. Use
+     * BookingHistoryService, which pages with a keyset and selects display columns only.
      */
-    @OneToMany
+    @OneToMany(mappedBy = "user")
     private List<Booking> bookings;
 
     /**
@@ -0,0 +1,16 @@
+package MyFirstProject.demo.models;
+
+/**
+ * Kinds of database work that get their own connection pool (see WorkloadPool).
+ *
+ * Separate pools keep one kind from starving the others: a slow reconciliation
+ * or archival query can use up every BATCH connection, but bookMovie still
+ * finds a free BOOKING connection. The first three match the TrafficClass
+ * of the requests that use them; BATCH is scheduled and background jobs.
+ */
+public enum Workload {
+    BOOKING,   // bookMovie, cancellations (short write transactions, row locks)
+    BROWSING,  // seat maps, seats left, booking history (reads)
+    LOGIN,     // signUp / login user lookups
+    BATCH,     // reconciliation, expiry, refunds, outbox relay, warm-up, purges
+}
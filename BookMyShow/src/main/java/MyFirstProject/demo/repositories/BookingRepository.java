@@ -0,0 +1,214 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.dtos.BookingHistoryRowDTO;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for Booking entity database operations.
+ *
+ * Purpose:
+ * - Persists bookings created by BookingServices (PENDING)
+ * - Lets the payment pipeline move bookings to SUCCESS/FAILURE in batches
+ * - Lets the hold expiry job find abandoned PENDING bookings
+ * - Lets CancellationService cancel one booking or a whole show
+ * - Serves a user's booking history page by page (BookingHistoryService)
+ */
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    /**
+     * Reads only the price of a booking, if it is still in the given status.
+     *
+     * Why not findById():
+     * Booking eagerly pulls Show, Movie, Screen and User. Payment workers only
+     * need the amount to charge, so a scalar query avoids four joins.
+     *
+     * Why the status:
+     * Payment workers must not charge a booking that already expired, failed
+     * or was paid; they pass PENDING.
+     *
+     * SQL Generated:
+     * SELECT b.price FROM booking b WHERE b.id = ? AND b.booking_status = ?
+     *
+     * @param bookingId ID of the booking
+     * @param bookingStatus Status the booking must still have
+     * @return Price in smallest currency unit, empty if booking doesn't exist or has another status
+     */
+    @Query("select b.price from Booking b where b.id = :bookingId and b.bookingStatus = :bookingStatus")
+    Optional<Integer> findPriceByIdAndBookingStatus(@Param("bookingId") Long bookingId,
+                                                    @Param("bookingStatus") BookingStatus bookingStatus);
+
+    /**
+     * Finds and locks bookings that stayed in a status since before the given time.
+     *
+     * Used by SeatHoldExpiryService to expire PENDING bookings whose payment never arrived.
+     *
+     * Why lock:
+     * Without the lock, expiry could read PENDING while a payment batch or a
+     * cancellation commits, and then overwrite SUCCESS/CANCELLED with FAILURE.
+     *
+     * Why SKIP LOCKED:
+     * A locked booking is being confirmed or cancelled right now, so expiry has
+     * nothing to do with it. Skipping it keeps the scheduled job from queueing
+     * behind payment batches; if the booking is still PENDING afterwards, the
+     * next run picks it up.
+     *
+     * Why native SQL:
+     * Hibernate's H2 dialect drops SKIP LOCKED from a JPQL lock (it would wait
+     * instead), while MySQL 8 and H2 both accept it written out. bookingStatus
+     * is stored as its ordinal.
+     *
+     * SQL Generated:
+     * SELECT b.* FROM booking b WHERE b.booking_status = ? AND b.time_of_booking < ?
+     * FOR UPDATE SKIP LOCKED
+     *
+     * @param bookingStatus Status to look for (PENDING)
+     * @param timeOfBooking Cut-off time
+     * @return Locked bookings eligible for expiry (rows locked by other transactions are left out)
+     */
+    @Query(value = "select b.* from booking b " +
+            "where b.booking_status = :#{#bookingStatus.ordinal()} and b.time_of_booking < :timeOfBooking " +
+            "for update skip locked", nativeQuery = true)
+    List<Booking> findAllByBookingStatusAndTimeOfBookingBefore(@Param("bookingStatus") BookingStatus bookingStatus,
+                                                               @Param("timeOfBooking") Date timeOfBooking);
+
+    /**
+     * Loads one booking and locks its row until the transaction ends.
+     *
+     * Why lock:
+     * The payment pipeline may be confirming the same booking at this moment.
+     * Without the lock, cancellation and confirmation could both read PENDING
+     * and the last writer would silently win.
+     *
+     * SQL Generated:
+     * SELECT ... FROM booking b WHERE b.id = ? FOR UPDATE
+     *
+     * @param bookingId ID of the booking
+     * @return Locked booking, empty if it doesn't exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = :bookingId")
+    Optional<Booking> findByIdForUpdate(@Param("bookingId") Long bookingId);
+
+    /**
+     * Loads several bookings and locks their rows until the transaction ends.
+     *
+     * Used by PaymentBatchApplier for every booking in a batch. Without the
+     * lock, a batch could read PENDING, a cancellation or hold expiry could
+     * commit CANCELLED/FAILURE, and the batch would then overwrite it with
+     * SUCCESS on flush.
+     *
+     * Why ordered by id:
+     * Two transactions that lock overlapping sets of rows in the same order
+     * wait for each other instead of deadlocking.
+     *
+     * SQL Generated:
+     * SELECT ... FROM booking b WHERE b.id IN (?, ?, ...) ORDER BY b.id FOR UPDATE
+     *
+     * @param bookingIds IDs of the bookings
+     * @return Locked bookings that exist, ordered by id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :bookingIds order by b.id")
+    List<Booking> findAllByIdForUpdate(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Locks every booking of a show that is in one of the given statuses.
+     *
+     * Used before a whole-show cancellation so that no payment outcome can move
+     * a booking PENDING → SUCCESS between queuing refunds and cancelling.
+     * Outcomes that arrive meanwhile wait for the lock and then see CANCELLED.
+     *
+     * @param showId Show being cancelled
+     * @param bookingStatuses Statuses that will be cancelled
+     * @return IDs of the locked bookings
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id from Booking b where b.show.id = :showId and b.bookingStatus in :bookingStatuses")
+    List<Long> lockIdsByShowId(@Param("showId") Long showId,
+                               @Param("bookingStatuses") Collection<BookingStatus> bookingStatuses);
+
+    /**
+     * Cancels every booking of a show in one statement.
+     *
+     * SQL Generated:
+     * UPDATE booking SET booking_status = ?, updated_at = ?
+     * WHERE show_id = ? AND booking_status IN (?, ?)
+     *
+     * @param showId Show being cancelled
+     * @param bookingStatuses Statuses that get cancelled (SUCCESS, PENDING)
+     * @param cancelled New status (CANCELLED)
+     * @param now Timestamp written to updatedAt (auditing doesn't run for bulk updates)
+     * @return Number of bookings cancelled
+     */
+    @Modifying
+    @Query("update Booking b set b.bookingStatus = :cancelled, b.updatedAt = :now " +
+            "where b.show.id = :showId and b.bookingStatus in :bookingStatuses")
+    int cancelAllByShowId(@Param("showId") Long showId,
+                          @Param("bookingStatuses") Collection<BookingStatus> bookingStatuses,
+                          @Param("cancelled") BookingStatus cancelled,
+                          @Param("now") Date now);
+
+    /**
+     * Newest bookings of a user, as display rows (first page of the history).
+     *
+     * SQL Generated:
+     * SELECT b.id, b.time_of_booking, ..., m.title, sc.name,
+     *        (SELECT count(*) FROM booking_seats bs WHERE bs.booking_id = b.id)
+     * FROM booking b JOIN shows s ... JOIN movie m ... JOIN screen sc ...
+     * WHERE b.user_id = ?
+     * ORDER BY b.time_of_booking DESC, b.id DESC
+     * LIMIT ?
+     *
+     * @param userId User whose history is shown
+     * @param limit Page size (use page 0 only: pages after the first go through findHistoryBefore)
+     * @return Rows, newest first
+     */
+    @Query("select new MyFirstProject.demo.dtos.BookingHistoryRowDTO(" + HISTORY_COLUMNS + ") " +
+            "from Booking b join b.show s join s.movie m join s.screen sc " +
+            "where b.user.id = :userId " +
+            "order by b.timeOfBooking desc, b.id desc")
+    List<BookingHistoryRowDTO> findHistory(@Param("userId") Long userId, Pageable limit);
+
+    /**
+     * Bookings of a user strictly older than the cursor, as display rows.
+     *
+     * Keyset condition: (timeOfBooking, id) < (beforeTime, beforeId), written
+     * out because JPQL has no row-value comparison. With idx_booking_user_time
+     * the database seeks to the cursor and reads only limit rows, so page 100
+     * costs the same as page 1.
+     *
+     * @param userId User whose history is shown
+     * @param beforeTime timeOfBooking of the last row already shown
+     * @param beforeId ID of the last row already shown (tie-breaker for equal times)
+     * @param limit Page size (page 0)
+     * @return Rows, newest first
+     */
+    @Query("select new MyFirstProject.demo.dtos.BookingHistoryRowDTO(" + HISTORY_COLUMNS + ") " +
+            "from Booking b join b.show s join s.movie m join s.screen sc " +
+            "where b.user.id = :userId " +
+            "and (b.timeOfBooking < :beforeTime or (b.timeOfBooking = :beforeTime and b.id < :beforeId)) " +
+            "order by b.timeOfBooking desc, b.id desc")
+    List<BookingHistoryRowDTO> findHistoryBefore(@Param("userId") Long userId,
+                                                 @Param("beforeTime") Date beforeTime,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Pageable limit);
+
+    /** Display columns of a history row, in BookingHistoryRowDTO constructor order. */
+    String HISTORY_COLUMNS = "b.id, b.timeOfBooking, b.bookingStatus, b.price, " +
+            "s.id, s.startTime, m.title, sc.name, size(b.seats)";
+}
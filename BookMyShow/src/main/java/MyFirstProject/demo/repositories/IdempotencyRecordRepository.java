@@ -0,0 +1,44 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyRecord entity database operations.
+ *
+ * Purpose:
+ * - Looks up the stored response of an idempotency key (unique index)
+ * - Deletes expired records with one statement
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * SQL Generated:
+     * SELECT * FROM idempotency_record WHERE idempotency_key = ?
+     *
+     * @param idempotencyKey User ID and client key
+     * @return Stored response, if any (may be expired)
+     */
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * SQL Generated:
+     * DELETE FROM idempotency_record WHERE expires_at < ?
+     *
+     * @param now Current time
+     * @return Number of records deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
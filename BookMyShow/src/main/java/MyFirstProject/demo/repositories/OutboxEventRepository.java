@@ -0,0 +1,39 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity database operations.
+ *
+ * Purpose:
+ * - Inserts events alongside booking changes (save/saveAll)
+ * - Hands the oldest events to OutboxRelay, locked so two relays never publish the same rows
+ * - Deletes published events with one statement (deleteAllByIdInBatch)
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Loads and locks the oldest unpublished events.
+     *
+     * SQL Generated (roughly):
+     * SELECT * FROM outbox_event ORDER BY id LIMIT ? FOR UPDATE
+     *
+     * A relay on another node waits for the lock instead of publishing the
+     * same events out of order.
+     *
+     * @param pageable Batch size
+     * @return Up to pageable.getPageSize() events in insertion order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findOldestForUpdate(Pageable pageable);
+}
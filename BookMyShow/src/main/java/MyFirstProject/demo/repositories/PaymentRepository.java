@@ -0,0 +1,63 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.dtos.PaymentReconciliationRowDTO;
+import MyFirstProject.demo.models.Payment;
+import MyFirstProject.demo.models.PaymentProvider;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for Payment entity database operations.
+ *
+ * Payments are written in batches by the payment pipeline (saveAll),
+ * one row per provider attempt.
+ */
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    /**
+     * Rows fetched from the database per round trip while streaming.
+     */
+    int RECONCILIATION_FETCH_SIZE = 1000;
+
+    /**
+     * Streams the payments of one provider in a time range, for reconciliation.
+     *
+     * How memory stays flat:
+     * - Stream + fetch size: the JDBC driver reads the result with a forward-only
+     *   cursor, RECONCILIATION_FETCH_SIZE rows at a time (MySQL needs
+     *   useCursorFetch=true on the JDBC URL for this)
+     * - Constructor projection: rows are not entities, so nothing accumulates
+     *   in the persistence context
+     *
+     * Must be called inside a (read-only) transaction, and the stream must be closed.
+     *
+     * SQL Generated:
+     * SELECT p.id, p.reference_number, p.amount, p.payment_status, p.time_stamp
+     * FROM payment p
+     * WHERE p.payment_provider = ? AND p.time_stamp >= ? AND p.time_stamp < ?
+     *
+     * @param paymentProvider Provider whose settlement file is being reconciled
+     * @param from Start of the period (inclusive)
+     * @param to End of the period (exclusive)
+     * @return Lazily fetched stream of reconciliation rows
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RECONCILIATION_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new MyFirstProject.demo.dtos.PaymentReconciliationRowDTO(p.id, p.referenceNumber, p.amount, p.paymentStatus, p.timeStamp) " +
+            "from Payment p " +
+            "where p.paymentProvider = :paymentProvider and p.timeStamp >= :from and p.timeStamp < :to")
+    Stream<PaymentReconciliationRowDTO> streamForReconciliation(@Param("paymentProvider") PaymentProvider paymentProvider,
+                                                                @Param("from") Date from,
+                                                                @Param("to") Date to);
+}
@@ -0,0 +1,90 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.RefundStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for Refund entity database operations.
+ *
+ * Purpose:
+ * - Queues refunds for a whole cancelled show with one INSERT ... SELECT
+ * - Hands batches of QUEUED refunds to RefundProcessor
+ * - Marks processed batches with one UPDATE per outcome
+ */
+@Repository
+public interface RefundRepository extends JpaRepository<Refund, Long> {
+
+    /**
+     * Queues one refund for every successful payment of every paid booking of a show.
+     *
+     * Why INSERT ... SELECT:
+     * A sold-out show has ~1,000 paid bookings. Loading them, creating 1,000
+     * Refund entities and inserting them one by one means thousands of
+     * statements; here the database copies the rows in a single statement.
+     *
+     * Auditing listeners don't run for bulk statements, so createdAt/updatedAt
+     * are passed in explicitly.
+     *
+     * SQL Generated (roughly):
+     * INSERT INTO refund (booking_id, payment_id, payment_provider, reference_number, amount, refund_status, created_at, updated_at)
+     * SELECT b.id, p.id, p.payment_provider, p.reference_number, p.amount, ?, ?, ?
+     * FROM booking b JOIN booking_payments bp ON ... JOIN payment p ON ...
+     * WHERE b.show_id = ? AND b.booking_status = ? AND p.payment_status = ?
+     *
+     * @param showId Cancelled show
+     * @param bookingStatus Bookings to refund (SUCCESS)
+     * @param paymentStatus Payments to refund (SUCCESS)
+     * @param refundStatus Initial refund status (QUEUED)
+     * @param now Timestamp written to createdAt/updatedAt
+     * @return Number of refunds queued
+     */
+    @Modifying
+    @Query("insert into Refund (booking, payment, paymentProvider, referenceNumber, amount, refundStatus, createdAt, updatedAt) " +
+            "select b, p, p.paymentProvider, p.referenceNumber, p.amount, :refundStatus, :now, :now " +
+            "from Booking b join b.payments p " +
+            "where b.show.id = :showId and b.bookingStatus = :bookingStatus and p.paymentStatus = :paymentStatus")
+    int queueForShow(@Param("showId") Long showId,
+                     @Param("bookingStatus") BookingStatus bookingStatus,
+                     @Param("paymentStatus") PaymentStatus paymentStatus,
+                     @Param("refundStatus") RefundStatus refundStatus,
+                     @Param("now") Date now);
+
+    /**
+     * Loads the next batch of refunds in a status, oldest first.
+     *
+     * @param refundStatus Status to look for (QUEUED)
+     * @param pageable Batch size and ordering
+     * @return Up to pageable.getPageSize() refunds
+     */
+    List<Refund> findByRefundStatus(RefundStatus refundStatus, Pageable pageable);
+
+    /**
+     * Moves a batch of refunds to a new status in one statement.
+     *
+     * Runs in its own transaction when called outside one (RefundProcessor).
+     *
+     * @param refundIds Refunds to update
+     * @param refundStatus New status
+     * @param now Timestamp written to updatedAt
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("update Refund r set r.refundStatus = :refundStatus, r.updatedAt = :now where r.id in :refundIds")
+    int updateStatus(@Param("refundIds") Collection<Long> refundIds,
+                     @Param("refundStatus") RefundStatus refundStatus,
+                     @Param("now") Date now);
+}
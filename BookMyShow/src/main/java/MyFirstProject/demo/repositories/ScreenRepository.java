@@ -0,0 +1,39 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.models.Screen;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Screen entity database operations.
+ *
+ * Purpose:
+ * - Versions seat layout changes (CatalogService)
+ */
+@Repository
+public interface ScreenRepository extends JpaRepository<Screen, Long> {
+
+    /**
+     * Increments the layout version; the row lock it takes orders concurrent
+     * layout edits of the same screen, so every edit gets its own version.
+     *
+     * SQL Generated:
+     * UPDATE screen SET layout_version = layout_version + 1 WHERE id = ?
+     *
+     * @param screenId Screen whose layout changes
+     * @return 1, or 0 if the screen doesn't exist
+     */
+    @Modifying
+    @Query("update Screen s set s.layoutVersion = s.layoutVersion + 1 where s.id = :screenId")
+    int incrementLayoutVersion(@Param("screenId") Long screenId);
+
+    /**
+     * @param screenId Screen to read
+     * @return Current layout version
+     */
+    @Query("select s.layoutVersion from Screen s where s.id = :screenId")
+    long findLayoutVersion(@Param("screenId") Long screenId);
+}
@@ -0,0 +1,38 @@
+package MyFirstProject.demo.repositories;
+
+import MyFirstProject.demo.models.Seat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Seat entity database operations.
+ *
+ * Purpose:
+ * - Seat layout edits (CatalogService)
+ */
+@Repository
+public interface SeatRepository extends JpaRepository<Seat, Long> {
+
+    /**
+     * Moves a seat, but only if it belongs to the given screen (Screen.seats).
+     *
+     * SQL Generated:
+     * UPDATE seat SET row_num = ?, col_num = ? WHERE id = ?
+     * AND EXISTS (SELECT 1 FROM screen sc WHERE sc.id = ?
+     *             AND seat.id IN (SELECT ss.seats_id FROM screen_seats ss WHERE ss.screen_id = sc.id))
+     *
+     * @param screenId Screen the seat must belong to
+     * @param seatId Seat to move
+     * @param rowNum New row
+     * @param colNum New column
+     * @return 1, or 0 if the seat doesn't exist or belongs to another screen
+     */
+    @Modifying
+    @Query("update Seat s set s.rowNum = :rowNum, s.colNum = :colNum where s.id = :seatId " +
+            "and exists (select sc.id from Screen sc where sc.id = :screenId and s member of sc.seats)")
+    int updatePosition(@Param("screenId") Long screenId, @Param("seatId") Long seatId,
+                       @Param("rowNum") int rowNum, @Param("colNum") int colNum);
+}
@@ -1,9 +1,17 @@
 package MyFirstProject.demo.repositories;
 
 import MyFirstProject.demo.models.Show;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for Show entity database operations.
  *
@@ -26,4 +34,66 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ShowRepository extends JpaRepository<Show,Long> {
+
+    /**
+     * Finds shows starting in a time window, soonest first.
+     *
+     * Use Case:
+     * CacheWarmupService warms seat maps and prices of the shows that are about
+     * to sell, so a freshly started node doesn't send that traffic to the database.
+     *
+     * SQL Generated (roughly):
+     * SELECT ... FROM shows WHERE start_time >= ? AND start_time < ? ORDER BY start_time LIMIT ?
+     * (served by idx_show_start_time)
+     *
+     * @param from Window start (inclusive)
+     * @param to Window end (exclusive)
+     * @param pageable Limit on the number of shows
+     * @return Shows in the window
+     */
+    @Query("select s from Shows s where s.startTime >= :from and s.startTime < :to order by s.startTime")
+    List<Show> findStartingBetween(@Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    /**
+     * Increments the price version; the row lock it takes orders concurrent
+     * price edits of the same show, so every edit gets its own version.
+     *
+     * SQL Generated:
+     * UPDATE shows SET price_version = price_version + 1 WHERE id = ?
+     *
+     * @param showId Show being repriced
+     * @return 1, or 0 if the show doesn't exist
+     */
+    @Modifying
+    @Query("update Shows s set s.priceVersion = s.priceVersion + 1 where s.id = :showId")
+    int incrementPriceVersion(@Param("showId") Long showId);
+
+    /**
+     * Marks a show as cancelled. Runs first in a show cancellation: the row lock
+     * waits for bookings that already read the show, and bookings that read it
+     * afterwards see the flag.
+     *
+     * SQL Generated:
+     * UPDATE shows SET cancelled = true WHERE id = ?
+     *
+     * @param showId Show being cancelled
+     * @return 1, or 0 if the show doesn't exist
+     */
+    @Modifying
+    @Query("update Shows s set s.cancelled = true where s.id = :showId")
+    int markCancelled(@Param("showId") Long showId);
+
+    /**
+     * @param showId Show to read
+     * @return Whether the show is cancelled, empty if it doesn't exist
+     */
+    @Query("select s.cancelled from Shows s where s.id = :showId")
+    Optional<Boolean> findCancelledById(@Param("showId") Long showId);
+
+    /**
+     * @param showId Show to read
+     * @return Current price version
+     */
+    @Query("select s.priceVersion from Shows s where s.id = :showId")
+    long findPriceVersion(@Param("showId") Long showId);
 }
@@ -1,9 +1,18 @@
 package MyFirstProject.demo.repositories;
 
+import MyFirstProject.demo.dtos.SeatAvailabilityCountDTO;
+import MyFirstProject.demo.dtos.SeatLayoutRowDTO;
+import MyFirstProject.demo.models.SeatStatus;
 import MyFirstProject.demo.models.ShowSeat;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -40,7 +49,15 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
      * - If some IDs don't exist, they're simply not in the result
      *
      * SQL Generated:
-     * SELECT * FROM show_seat WHERE id IN (?, ?, ?)
+     * SELECT * FROM show_seat
+     * LEFT JOIN seat ... LEFT JOIN seat_type ...
+     * WHERE id IN (?, ?, ?)
+     *
+     * Why the seat and its type are fetched in the same query:
+     * PriceCalculator reads showSeat.getSeat().getSeatType() for every seat.
+     * Without the entity graph Hibernate loads each Seat with its own SELECT
+     * after the fact (N+1: 1 + 6 statements for a 6-seat booking).
+     * StatementBudgetTest guards this.
      *
      * Usage Example:
      * List<Long> seatIds = Arrays.asList(101L, 102L, 103L);
@@ -55,6 +72,7 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
      * @return List of ShowSeat entities matching the provided IDs
      */
     @Override
+    @EntityGraph(attributePaths = {"seat", "seat.seatType"})
     List<ShowSeat> findAllById(Iterable<Long> showSeatList);
 
     /**
@@ -88,9 +106,71 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
     @Override
     ShowSeat save(ShowSeat showSeat);
 
-    // Potential future methods:
-    // - List<ShowSeat> findByShowIdAndSeatStatus(Long showId, SeatStatus status)
-    //   → Find all available/blocked/occupied seats for a show
-    // - int countByShowIdAndSeatStatus(Long showId, SeatStatus status)
-    //   → Count available seats for a show
+    /**
+     * Counts seats in the given status for several shows at once, grouped by seat type.
+     *
+     * Used by SeatAvailabilityService to (re)build its counters for listing pages.
+     * One grouped query answers "how many seats are left" for a whole page of shows,
+     * instead of one COUNT per show.
+     *
+     * SQL Generated (roughly):
+     * SELECT ss.show_id, s.seat_type_id, COUNT(*)
+     * FROM show_seat ss JOIN seat s ON ss.seat_id = s.id
+     * WHERE ss.show_id IN (?, ?, ?) AND ss.seat_status = ?
+     * GROUP BY ss.show_id, s.seat_type_id
+     *
+     * @param showIds IDs of the shows to count
+     * @param seatStatus Status to count (normally AVAILABLE)
+     * @return One row per (show, seat type) that has at least one matching seat
+     */
+    @Query("select new MyFirstProject.demo.dtos.SeatAvailabilityCountDTO(ss.show.id, ss.seat.seatType.id, count(ss)) " +
+            "from ShowSeat ss " +
+            "where ss.show.id in :showIds and ss.seatStatus = :seatStatus " +
+            "group by ss.show.id, ss.seat.seatType.id")
+    List<SeatAvailabilityCountDTO> countByShowIdsAndSeatStatus(@Param("showIds") Collection<Long> showIds,
+                                                               @Param("seatStatus") SeatStatus seatStatus);
+
+    /**
+     * Loads the seat map layout of a show: one projection row per seat, in row/column order.
+     *
+     * Used by ShowReadCache. Statuses are deliberately not part of the row,
+     * because the layout is cached for the life of the show.
+     *
+     * SQL Generated (roughly):
+     * SELECT ss.id, s.name, s.row_num, s.col_num, s.seat_type_id
+     * FROM show_seat ss JOIN seat s ON ss.seat_id = s.id
+     * WHERE ss.show_id = ?
+     * ORDER BY s.row_num, s.col_num
+     *
+     * @param showId Show whose seat map is loaded
+     * @return Layout rows (nothing attached to the persistence context)
+     */
+    @Query("select new MyFirstProject.demo.dtos.SeatLayoutRowDTO(ss.id, s.name, s.rowNum, s.colNum, s.seatType.id) " +
+            "from ShowSeat ss join ss.seat s " +
+            "where ss.show.id = :showId " +
+            "order by s.rowNum, s.colNum")
+    List<SeatLayoutRowDTO> findLayoutByShowId(@Param("showId") Long showId);
+
+    /**
+     * Puts every seat of a show back to the given status in one statement.
+     *
+     * Used when a whole show is cancelled: instead of loading ~1,000 ShowSeat
+     * entities and flushing ~1,000 UPDATEs, the database changes them in place.
+     * Callers must evict the show's availability counters afterwards.
+     *
+     * SQL Generated:
+     * UPDATE show_seat SET seat_status = ?, updated_at = ?
+     * WHERE show_id = ? AND seat_status <> ?
+     *
+     * @param showId Show whose seats are released
+     * @param seatStatus Target status (AVAILABLE)
+     * @param now Timestamp written to updatedAt (auditing doesn't run for bulk updates)
+     * @return Number of seats that changed status
+     */
+    @Modifying
+    @Query("update ShowSeat ss set ss.seatStatus = :seatStatus, ss.updatedAt = :now " +
+            "where ss.show.id = :showId and ss.seatStatus <> :seatStatus")
+    int updateSeatStatusByShowId(@Param("showId") Long showId,
+                                 @Param("seatStatus") SeatStatus seatStatus,
+                                 @Param("now") Date now);
 }
@@ -2,7 +2,10 @@ package MyFirstProject.demo.repositories;
 
 import MyFirstProject.demo.models.Show;
 import MyFirstProject.demo.models.ShowSeatType;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -70,6 +73,25 @@ public interface ShowSeatTypeRespository extends Repository<ShowSeatType, Long>
      */
     List<ShowSeatType> findAllByShow(Show show);
 
+    /**
+     * Changes the price of one seat type in one show.
+     *
+     * Callers must bump Show.priceVersion in the same transaction and publish
+     * the invalidation (CatalogService), or other nodes keep the old price.
+     *
+     * SQL Generated:
+     * UPDATE show_seat_type SET price = ? WHERE show_id = ? AND seat_type_id = ?
+     *
+     * @param showId Show being repriced
+     * @param seatTypeId Seat type being repriced
+     * @param price New price
+     * @return Number of rows changed (0 if the show has no such seat type)
+     */
+    @Modifying
+    @Query("update ShowSeatType sst set sst.price = :price " +
+            "where sst.show.id = :showId and sst.seatType.id = :seatTypeId")
+    int updatePrice(@Param("showId") Long showId, @Param("seatTypeId") Long seatTypeId, @Param("price") int price);
+
     // Potential future methods:
     // - ShowSeatType findByShowAndSeatType(Show show, SeatType seatType)
     //   → Get price for specific seat type in a show
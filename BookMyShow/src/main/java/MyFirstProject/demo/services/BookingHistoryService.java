@@ -0,0 +1,83 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.BookingHistoryPageDTO;
+import MyFirstProject.demo.dtos.BookingHistoryRowDTO;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Serves a user's booking history one page at a time.
+ *
+ * Why keyset pagination and not OFFSET or User.bookings:
+ * - user.getBookings() loads every booking the user ever made, each with its
+ *   Show, Movie and Screen. A frequent moviegoer's history is years long.
+ * - OFFSET n makes the database read and throw away n rows, so page 50 is
+ *   fifty times slower than page 1.
+ * - "WHERE (timeOfBooking, id) < (cursor) ORDER BY timeOfBooking DESC, id DESC LIMIT n"
+ *   seeks straight into idx_booking_user_time and reads n rows, whatever the page.
+ *
+ * Why id in the cursor:
+ * Two bookings can share a timeOfBooking. Without the id tie-breaker a page
+ * boundary between them would skip or repeat one.
+ */
+@Service
+@WorkloadPool(Workload.BROWSING)
+public class BookingHistoryService {
+
+    /** Largest page a caller can ask for; keeps one request's rows bounded. */
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private BookingRepository bookingRepository;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingRepository Repository with the keyset history query
+     */
+    @Autowired
+    public BookingHistoryService(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Returns the bookings of a user made before the cursor, newest first.
+     *
+     * Flow:
+     * 1. Ask for pageSize + 1 rows (newest, or older than the cursor);
+     *    the extra row only tells us another page exists
+     * 2. Cursor of the next page = last row returned
+     *
+     * @param userId User whose history is shown
+     * @param beforeTime timeOfBooking of the last row of the previous page, null for the first page
+     * @param beforeId Booking ID of the last row of the previous page, null for the first page
+     * @param pageSize Rows wanted (capped at MAX_PAGE_SIZE)
+     * @return Page of history rows and the cursor of the next page
+     */
+    public BookingHistoryPageDTO getHistory(Long userId, Date beforeTime, Long beforeId, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        // Step 1: One extra row to know whether there is a next page
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<BookingHistoryRowDTO> rows = beforeTime == null || beforeId == null
+                ? bookingRepository.findHistory(userId, limit)
+                : bookingRepository.findHistoryBefore(userId, beforeTime, beforeId, limit);
+
+        // Step 2: Cursor of the next page
+        BookingHistoryPageDTO page = new BookingHistoryPageDTO();
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            BookingHistoryRowDTO last = rows.get(size - 1);
+            page.setNextBeforeTime(last.getTimeOfBooking());
+            page.setNextBeforeId(last.getBookingId());
+        }
+        page.setBookings(rows);
+        return page;
+    }
+}
@@ -0,0 +1,277 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.BookingMetricsDTO;
+import MyFirstProject.demo.dtos.LatencySummaryDTO;
+import MyFirstProject.demo.dtos.ShowContentionDTO;
+import MyFirstProject.demo.jfr.BookingPhaseEvent;
+import MyFirstProject.demo.models.BookingPhase;
+import MyFirstProject.demo.utils.LatencyHistogram;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on metrics for the booking path.
+ *
+ * What is measured:
+ * - Latency per phase of bookMovie() (user lookup, show lookup, seat lookup,
+ *   seat save, price calculation, booking save) and end-to-end including commit
+ * - Failure count per exception type (the controller turns them all into FAILURE)
+ * - Attempts and seat conflicts per show (ShowSeatNotAvailableException)
+ * - Retryable transaction failures (lock timeouts, deadlocks, serialization failures),
+ *   transaction retries and how retried requests ended (booked / gave up)
+ *
+ * Why cheap enough for production:
+ * - Recording is System.nanoTime() plus LongAdder / AtomicLongArray increments,
+ *   no locks and no allocation on the hot path (per-show counters are created once per show)
+ * - Histograms are fixed size (32 buckets each)
+ * - Per-show counters are capped at MAX_TRACKED_SHOWS; attempts on further shows
+ *   are only counted in total
+ */
+@Service
+public class BookingMetrics {
+
+    // Upper bound on per-show counter pairs kept in memory
+    static final int MAX_TRACKED_SHOWS = 10_000;
+
+    private static final int MOST_CONTENDED_LIMIT = 20;
+
+    private final Map<BookingPhase, LatencyHistogram> phaseLatencies = new EnumMap<>(BookingPhase.class);
+    private final Map<Class<?>, LongAdder> failuresByCause = new ConcurrentHashMap<>();
+    private final Map<Long, ShowCounters> showCounters = new ConcurrentHashMap<>();
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder retryableFailures = new LongAdder();
+    private final LongAdder transactionRetries = new LongAdder();
+    private final LongAdder retriedSuccesses = new LongAdder();
+    private final LongAdder retriesExhausted = new LongAdder();
+    private final LongAdder untrackedShowAttempts = new LongAdder();
+
+    public BookingMetrics() {
+        // Filled once, read-only afterwards, so the EnumMap is safe to share
+        for (BookingPhase phase : BookingPhase.values()) {
+            phaseLatencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records the duration of a phase that started at startNanos.
+     *
+     * Usage (chained through a method):
+     * long t = System.nanoTime();
+     * ... user lookup ...
+     * t = bookingMetrics.recordPhase(BookingPhase.USER_LOOKUP, t);
+     * ... show lookup ...
+     * t = bookingMetrics.recordPhase(BookingPhase.SHOW_LOOKUP, t);
+     *
+     * While a JFR recording is running, each phase is also emitted as a BookingPhaseEvent.
+     *
+     * @param phase Phase that just ended
+     * @param startNanos System.nanoTime() when the phase started
+     * @return System.nanoTime() now, i.e. the start of the next phase
+     */
+    public long recordPhase(BookingPhase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseLatencies.get(phase).record(now - startNanos);
+
+        BookingPhaseEvent event = new BookingPhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.elapsed = now - startNanos;
+            event.commit();
+        }
+        return now;
+    }
+
+    /**
+     * Counts one booking attempt for a show.
+     *
+     * @param showId Show the user is trying to book
+     */
+    public void recordAttempt(Long showId) {
+        attempts.increment();
+        ShowCounters counters = countersFor(showId);
+        if (counters == null) {
+            untrackedShowAttempts.increment();
+        } else {
+            counters.attempts.increment();
+        }
+    }
+
+    /**
+     * Counts a booking that was created successfully.
+     */
+    public void recordSuccess() {
+        successes.increment();
+    }
+
+    /**
+     * Counts a failed booking attempt by cause.
+     *
+     * @param showId Show the user was trying to book
+     * @param failure Exception that ended the attempt
+     * @param seatConflict true if the failure was a seat already taken by someone else
+     */
+    public void recordFailure(Long showId, Throwable failure, boolean seatConflict) {
+        failuresByCause.computeIfAbsent(failure.getClass(), k -> new LongAdder()).increment();
+        if (failure instanceof ConcurrencyFailureException) {
+            retryableFailures.increment();
+        }
+        if (seatConflict) {
+            ShowCounters counters = countersFor(showId);
+            if (counters != null) {
+                counters.seatConflicts.increment();
+            }
+        }
+    }
+
+    /**
+     * Counts one re-execution of a booking transaction after a retryable failure.
+     */
+    public void recordTransactionRetry() {
+        transactionRetries.increment();
+    }
+
+    /**
+     * Counts a request that was booked after at least one retry.
+     */
+    public void recordRetriedSuccess() {
+        retriedSuccesses.increment();
+    }
+
+    /**
+     * Counts a request that was retried and still failed with a lock race
+     * (attempts or deadline used up).
+     */
+    public void recordRetriesExhausted() {
+        retriesExhausted.increment();
+    }
+
+    /**
+     * @return Snapshot of all counters and histograms
+     */
+    public BookingMetricsDTO snapshot() {
+        BookingMetricsDTO dto = new BookingMetricsDTO();
+        dto.setAttempts(attempts.sum());
+        dto.setSuccesses(successes.sum());
+        dto.setRetryableFailures(retryableFailures.sum());
+        dto.setTransactionRetries(transactionRetries.sum());
+        dto.setRetriedSuccesses(retriedSuccesses.sum());
+        dto.setRetriesExhausted(retriesExhausted.sum());
+        dto.setUntrackedShowAttempts(untrackedShowAttempts.sum());
+
+        Map<String, LatencySummaryDTO> phases = new LinkedHashMap<>();
+        for (Map.Entry<BookingPhase, LatencyHistogram> entry : phaseLatencies.entrySet()) {
+            phases.put(entry.getKey().name(), summarize(entry.getValue()));
+        }
+        dto.setPhases(phases);
+
+        Map<String, Long> failures = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : failuresByCause.entrySet()) {
+            failures.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+        }
+        dto.setFailuresByCause(failures);
+
+        List<ShowContentionDTO> shows = new ArrayList<>();
+        for (Map.Entry<Long, ShowCounters> entry : showCounters.entrySet()) {
+            long conflicts = entry.getValue().seatConflicts.sum();
+            if (conflicts == 0) {
+                continue;
+            }
+            long showAttempts = entry.getValue().attempts.sum();
+            ShowContentionDTO show = new ShowContentionDTO();
+            show.setShowId(entry.getKey());
+            show.setAttempts(showAttempts);
+            show.setSeatConflicts(conflicts);
+            show.setConflictRate(showAttempts == 0 ? 0 : conflicts / (double) showAttempts);
+            shows.add(show);
+        }
+        shows.sort(Comparator.comparingLong(ShowContentionDTO::getSeatConflicts).reversed());
+        dto.setMostContendedShows(shows.size() > MOST_CONTENDED_LIMIT
+                ? new ArrayList<>(shows.subList(0, MOST_CONTENDED_LIMIT)) : shows);
+        return dto;
+    }
+
+    /**
+     * Renders the snapshot in Prometheus text exposition format, for scraping.
+     *
+     * Example output:
+     * bookmyshow_booking_attempts_total 52000
+     * bookmyshow_booking_phase_seconds{phase="SEAT_SAVE",quantile="0.99"} 0.016384
+     * bookmyshow_booking_failures_total{cause="ShowSeatNotAvailableException"} 42100
+     *
+     * @return Metrics as text
+     */
+    public String exportPrometheus() {
+        BookingMetricsDTO dto = snapshot();
+        StringBuilder out = new StringBuilder(2048);
+        out.append("bookmyshow_booking_attempts_total ").append(dto.getAttempts()).append('\n');
+        out.append("bookmyshow_booking_successes_total ").append(dto.getSuccesses()).append('\n');
+        out.append("bookmyshow_booking_retryable_failures_total ").append(dto.getRetryableFailures()).append('\n');
+        out.append("bookmyshow_booking_transaction_retries_total ").append(dto.getTransactionRetries()).append('\n');
+        out.append("bookmyshow_booking_retried_successes_total ").append(dto.getRetriedSuccesses()).append('\n');
+        out.append("bookmyshow_booking_retries_exhausted_total ").append(dto.getRetriesExhausted()).append('\n');
+
+        for (Map.Entry<String, LatencySummaryDTO> entry : dto.getPhases().entrySet()) {
+            LatencySummaryDTO summary = entry.getValue();
+            String phase = "{phase=\"" + entry.getKey() + "\"";
+            out.append("bookmyshow_booking_phase_seconds").append(phase).append(",quantile=\"0.5\"} ")
+                    .append(summary.getP50Millis() / 1000).append('\n');
+            out.append("bookmyshow_booking_phase_seconds").append(phase).append(",quantile=\"0.99\"} ")
+                    .append(summary.getP99Millis() / 1000).append('\n');
+            out.append("bookmyshow_booking_phase_seconds").append(phase).append(",quantile=\"0.999\"} ")
+                    .append(summary.getP999Millis() / 1000).append('\n');
+            out.append("bookmyshow_booking_phase_seconds_count").append(phase).append("} ")
+                    .append(summary.getCount()).append('\n');
+        }
+
+        for (Map.Entry<String, Long> entry : dto.getFailuresByCause().entrySet()) {
+            out.append("bookmyshow_booking_failures_total{cause=\"").append(entry.getKey()).append("\"} ")
+                    .append(entry.getValue()).append('\n');
+        }
+
+        for (ShowContentionDTO show : dto.getMostContendedShows()) {
+            out.append("bookmyshow_show_seat_conflicts_total{show=\"").append(show.getShowId()).append("\"} ")
+                    .append(show.getSeatConflicts()).append('\n');
+            out.append("bookmyshow_show_booking_attempts_total{show=\"").append(show.getShowId()).append("\"} ")
+                    .append(show.getAttempts()).append('\n');
+        }
+        return out.toString();
+    }
+
+    // Returns null once MAX_TRACKED_SHOWS shows are tracked and this one isn't among them
+    private ShowCounters countersFor(Long showId) {
+        if (showId == null) {
+            return null;
+        }
+        ShowCounters counters = showCounters.get(showId);
+        if (counters == null && showCounters.size() < MAX_TRACKED_SHOWS) {
+            counters = showCounters.computeIfAbsent(showId, k -> new ShowCounters());
+        }
+        return counters;
+    }
+
+    private LatencySummaryDTO summarize(LatencyHistogram histogram) {
+        LatencySummaryDTO summary = new LatencySummaryDTO();
+        summary.setCount(histogram.getCount());
+        summary.setMeanMillis(histogram.getMeanMillis());
+        summary.setP50Millis(histogram.percentileMillis(0.50));
+        summary.setP99Millis(histogram.percentileMillis(0.99));
+        summary.setP999Millis(histogram.percentileMillis(0.999));
+        return summary;
+    }
+
+    private static class ShowCounters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder seatConflicts = new LongAdder();
+    }
+}
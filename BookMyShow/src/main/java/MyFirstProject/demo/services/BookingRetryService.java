@@ -0,0 +1,149 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.configs.BookingRetryProperties;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.exceptions.InvalidUserException;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-runs the bookMovie transaction when it lost a lock race.
+ *
+ * Why:
+ * Under SERIALIZABLE isolation on MySQL, two bookings touching the same rows
+ * (or the same index gaps) regularly end in a deadlock or a lock wait timeout.
+ * The database rolled the loser back and nothing of it is left, so running it
+ * again a moment later usually succeeds. Returning FAILURE instead makes every
+ * client retry at once and pile onto the same locks.
+ *
+ * What is retried:
+ * Only ConcurrencyFailureException (deadlock loser, lock wait timeout,
+ * serialization failure, pessimistic lock failure). A seat that is really
+ * taken (ShowSeatNotAvailableException), an unknown user or show, and every
+ * other error go back to the caller after the first attempt. A retry re-reads
+ * the seats, so a seat the winner took ends as ShowSeatNotAvailableException.
+ *
+ * Backoff (decorrelated jitter):
+ * pause = min(maxBackoff, random(baseBackoff, previousPause * 3))
+ * Losers of the same deadlock pick different pauses, so they don't meet again
+ * on the next attempt, and the pauses grow while the contention lasts.
+ *
+ * Bounds:
+ * - At most maxAttempts executions per request
+ * - No retry whose pause would end after the request's deadline
+ * - No retry inside a caller's transaction (e.g. the waitlist allocation):
+ *   that transaction is already marked rollback-only, only its owner can rerun it
+ *
+ * Example:
+ * attempt 1 → CannotAcquireLockException, pause 23 ms
+ * attempt 2 → DeadlockLoserDataAccessException, pause 51 ms
+ * attempt 3 → Booking (counted as a retried success)
+ */
+@Service
+@WorkloadPool(Workload.BOOKING)
+public class BookingRetryService {
+
+    private BookingServices bookingServices;
+    private BookingMetrics bookingMetrics;
+    private BookingRetryProperties bookingRetryProperties;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingServices Transactional booking (each call is one transaction)
+     * @param bookingMetrics Counts retries and how retried requests ended
+     * @param bookingRetryProperties Attempts, backoff and deadline
+     */
+    @Autowired
+    public BookingRetryService(BookingServices bookingServices,
+                               BookingMetrics bookingMetrics,
+                               BookingRetryProperties bookingRetryProperties) {
+        this.bookingServices = bookingServices;
+        this.bookingMetrics = bookingMetrics;
+        this.bookingRetryProperties = bookingRetryProperties;
+    }
+
+    /**
+     * Books seats like BookingServices.bookMovie, retrying transient lock failures.
+     *
+     * Flow:
+     * 1. Run the booking transaction
+     * 2. On a ConcurrencyFailureException: give up if attempts or deadline are used up,
+     *    otherwise sleep the jittered pause and go to 1
+     * 3. Any other outcome is returned / thrown as is
+     *
+     * @param userId The ID of the user making the booking
+     * @param showId The ID of the movie show to book
+     * @param showSeatList List of seat IDs the user wants to book
+     * @return Booking with PENDING status
+     * @throws InvalidUserException If the user ID doesn't exist
+     * @throws InvalidShowException If the show ID doesn't exist
+     * @throws ShowSeatNotAvailableException If any requested seat is already booked or blocked
+     * @throws ConcurrencyFailureException If the last allowed attempt also lost a lock race
+     */
+    public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList)
+            throws InvalidUserException, ShowSeatNotAvailableException, InvalidShowException {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(bookingRetryProperties.getDeadlineMs());
+        boolean retryAllowed = !TransactionSynchronizationManager.isActualTransactionActive();
+        long pauseMs = bookingRetryProperties.getBaseBackoffMs();
+        int attempt = 1;
+
+        while (true) {
+            try {
+                // Step 1: One transaction
+                Booking booking = bookingServices.bookMovie(userId, showId, showSeatList);
+                if (attempt > 1) {
+                    bookingMetrics.recordRetriedSuccess();
+                }
+                return booking;
+            } catch (ConcurrencyFailureException e) {
+                // Step 2: Lost a lock race; the transaction was rolled back
+                if (!retryAllowed) {
+                    throw e;
+                }
+                pauseMs = nextPauseMs(pauseMs);
+                long pauseEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMs);
+                if (attempt >= bookingRetryProperties.getMaxAttempts() || pauseEnd - deadline > 0) {
+                    if (attempt > 1) {
+                        bookingMetrics.recordRetriesExhausted();
+                    }
+                    throw e;
+                }
+                if (!sleep(pauseMs)) {
+                    throw e; // interrupted: the caller is shutting down
+                }
+                bookingMetrics.recordTransactionRetry();
+                attempt++;
+            }
+        }
+    }
+
+    // Decorrelated jitter: random between base and 3x the previous pause, capped
+    private long nextPauseMs(long previousPauseMs) {
+        long base = bookingRetryProperties.getBaseBackoffMs();
+        long upper = Math.max(base, previousPauseMs * 3);
+        long pause = upper > base ? ThreadLocalRandom.current().nextLong(base, upper + 1) : base;
+        return Math.min(bookingRetryProperties.getMaxBackoffMs(), pause);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -3,14 +3,19 @@ package MyFirstProject.demo.services;
 import MyFirstProject.demo.exceptions.InvalidShowException;
 import MyFirstProject.demo.exceptions.InvalidUserException;
 import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.jfr.BookingEvent;
+import MyFirstProject.demo.repositories.BookingRepository;
 import MyFirstProject.demo.repositories.ShowRepository;
 import MyFirstProject.demo.repositories.ShowSeatRepository;
 import MyFirstProject.demo.repositories.UserRepository;
+import MyFirstProject.demo.services.outbox.OutboxService;
 import MyFirstProject.demo.models.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -35,7 +40,11 @@ public class BookingServices {
     private UserRepository userRepository;
     private ShowRepository showRepository;
     private ShowSeatRepository showSeatRepository;
+    private BookingRepository bookingRepository;
     private PriceCalculator priceCalculator;
+    private SeatAvailabilityService seatAvailabilityService;
+    private BookingMetrics bookingMetrics;
+    private OutboxService outboxService;
 
     /**
      * Constructor-based dependency injection for all required repositories and services.
@@ -44,17 +53,29 @@ public class BookingServices {
      * @param userRepository Repository for user-related database operations
      * @param showSeatRepository Repository for show seat operations
      * @param showRepository Repository for show/movie operations
+     * @param bookingRepository Repository used to persist the PENDING booking
      * @param priceCalculator Service to calculate total booking price
+     * @param seatAvailabilityService Listing-page counters that follow every seat status change
+     * @param bookingMetrics Per-phase latency histograms of bookMovie()
+     * @param outboxService Transactional outbox the BOOKING_PENDING event is written to
      */
     @Autowired
     public BookingServices(UserRepository userRepository,
                            ShowSeatRepository showSeatRepository,
                            ShowRepository showRepository,
-                           PriceCalculator priceCalculator) {
+                           BookingRepository bookingRepository,
+                           PriceCalculator priceCalculator,
+                           SeatAvailabilityService seatAvailabilityService,
+                           BookingMetrics bookingMetrics,
+                           OutboxService outboxService) {
         this.userRepository = userRepository;
         this.showSeatRepository = showSeatRepository;
         this.showRepository = showRepository;
+        this.bookingRepository = bookingRepository;
         this.priceCalculator = priceCalculator;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.bookingMetrics = bookingMetrics;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -76,44 +97,66 @@ public class BookingServices {
      *
      * Transaction Flow:
      * 1. Validate user exists
-     * 2. Validate show exists
+     * 2. Validate show exists and is not cancelled
      * 3. Fetch all requested seats
      * 4. Check if all seats are available (CRITICAL SECTION - protected by transaction)
      * 5. Mark seats as BLOCKED (prevents other transactions from booking)
      * 6. Create booking with PENDING status
      * 7. Calculate and set total price
-     * 8. Transaction commits (or rolls back on any exception)
+     * 8. Persist the booking (so payment can reference its ID)
+     * 9. Write a BOOKING_PENDING event to the outbox
+     * 10. Transaction commits (or rolls back on any exception)
+     *
+     * Each step's duration is recorded in BookingMetrics (see BookingPhase).
+     * The whole call is also emitted as a JFR BookingEvent (show, user, seat count, outcome).
      *
      * @param userId The ID of the user making the booking
      * @param showId The ID of the movie show to book
      * @param showSeatList List of seat IDs the user wants to book
      * @return Booking object containing booking details with PENDING status
      * @throws InvalidUserException If the user ID doesn't exist in the database
-     * @throws InvalidShowException If the show ID doesn't exist in the database
+     * @throws InvalidShowException If the show ID doesn't exist in the database or the show was cancelled
      * @throws ShowSeatNotAvailableException If any requested seat is already booked or blocked
      */
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList)
             throws InvalidUserException, ShowSeatNotAvailableException, InvalidShowException {
 
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        event.showId = showId;
+        event.userId = userId;
+        event.seatCount = showSeatList.size();
+
+        long phaseStart = System.nanoTime();
+
         // Step 1: Validate and retrieve the user
         // Optional pattern is used to handle cases where the user might not exist
         Optional<User> optionalUser = userRepository.findById(userId);
+        phaseStart = bookingMetrics.recordPhase(BookingPhase.USER_LOOKUP, phaseStart);
         if(optionalUser.isEmpty()){
+            endEvent(event, BookingEvent.INVALID_USER);
             throw new InvalidUserException("Invalid user. Please enter a valid user");
         }
         User user = optionalUser.get();
 
         // Step 2: Validate and retrieve the show
         Optional<Show> optionalShow = showRepository.findById(showId);
+        phaseStart = bookingMetrics.recordPhase(BookingPhase.SHOW_LOOKUP, phaseStart);
         if(optionalShow.isEmpty()){
+            endEvent(event, BookingEvent.INVALID_SHOW);
             throw new InvalidShowException("Invalid Show. Please enter a valid Show");
         }
         Show show = optionalShow.get();
+        if (show.isCancelled()) {
+            endEvent(event, BookingEvent.INVALID_SHOW);
+            throw new InvalidShowException("Show " + showId + " has been cancelled");
+        }
 
         // Step 3: Retrieve all requested seats in a single database call
         // This is more efficient than fetching seats one by one
         List<ShowSeat> showSeats = showSeatRepository.findAllById(showSeatList);
+        phaseStart = bookingMetrics.recordPhase(BookingPhase.SEAT_LOOKUP, phaseStart);
 
         // Step 4: CRITICAL SECTION - Check seat availability
         // This check is protected by the SERIALIZABLE transaction
@@ -121,6 +164,7 @@ public class BookingServices {
         for(ShowSeat showSeat : showSeats){
             if(!showSeat.getSeatStatus().equals(SeatStatus.AVAILABLE)){
                 // If any seat is not available, throw exception and rollback entire transaction
+                endEvent(event, BookingEvent.SEAT_CONFLICT);
                 throw new ShowSeatNotAvailableException("Seat not available. Please select different seat");
             }
         }
@@ -134,6 +178,10 @@ public class BookingServices {
             // Persist the updated seat status immediately
             finalShowSeats.add(showSeatRepository.save(showSeat));
         }
+        phaseStart = bookingMetrics.recordPhase(BookingPhase.SEAT_SAVE, phaseStart);
+
+        // Keep "seats left" counters in sync (applied only if this transaction commits)
+        seatAvailabilityService.onSeatsTaken(finalShowSeats);
 
         // Step 6: Create the booking object with all necessary details
         Booking booking = new Booking();
@@ -147,9 +195,42 @@ public class BookingServices {
         // Step 7: Calculate total price based on seat types
         // Different seat types (VIP, Normal, Premium) have different prices
         booking.setPrice(priceCalculator.calculatePrice(show, finalShowSeats));
+        phaseStart = bookingMetrics.recordPhase(BookingPhase.PRICE_CALCULATION, phaseStart);
 
-        // Return the booking object (will be persisted by the controller/caller)
+        // Step 8: Persist the booking in the same transaction as the seat updates
+        // The generated ID is what the client uses to start payment
         // Transaction commits here if no exceptions were thrown
-        return booking;
+        Booking savedBooking = bookingRepository.save(booking);
+
+        // Step 9: Publish "seats BLOCKED, booking PENDING" with the same commit
+        outboxService.bookingChanged(OutboxEventType.BOOKING_PENDING, savedBooking);
+        bookingMetrics.recordPhase(BookingPhase.BOOKING_SAVE, phaseStart);
+        endEvent(event, BookingEvent.BLOCKED);
+        return savedBooking;
+    }
+
+    /**
+     * Commits the JFR event once the transaction has completed, so its duration
+     * covers the commit and a BLOCKED booking that fails to commit is reported
+     * as ROLLED_BACK. Without a transaction (benchmarks) it commits right away.
+     */
+    private void endEvent(BookingEvent event, String outcome) {
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.outcome = outcome;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            event.commit();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && BookingEvent.BLOCKED.equals(event.outcome)) {
+                    event.outcome = BookingEvent.ROLLED_BACK;
+                }
+                event.commit();
+            }
+        });
     }
 }
@@ -0,0 +1,196 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.configs.WarmupProperties;
+import MyFirstProject.demo.dtos.SeatLayoutRowDTO;
+import MyFirstProject.demo.dtos.ShowAvailabilityDTO;
+import MyFirstProject.demo.dtos.WarmupReportDTO;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.services.workload.WorkloadContext;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the read caches with the shows that are about to sell, before the node takes traffic.
+ *
+ * Problem:
+ * A node added for a sale starts with empty caches, so its first minutes of
+ * seat maps and price lookups all go to MySQL, right when MySQL is busiest.
+ *
+ * Flow:
+ * 1. Find shows starting within the horizon (soonest first, at most maxShows)
+ * 2. On a bounded fork/join pool, per show: load prices and seat map layout
+ *    into ShowReadCache (two queries each)
+ * 3. In the same pool: load the "seats left" counters of all those shows
+ *    into SeatAvailabilityService (one grouped query per 500 shows)
+ * 4. Wait for everything, but never longer than timeoutMs
+ *
+ * Readiness gating:
+ * This runs right after SeatStateRecoveryService (whose restored shows are
+ * not loaded again), before any other ApplicationRunner. Spring Boot only switches the
+ * readiness state to ACCEPTING_TRAFFIC after all runners have returned, so the
+ * load balancer keeps the node out until warm-up has finished or timed out.
+ * On timeout the unfinished tasks are cancelled and the node starts anyway;
+ * anything missing is loaded on first use.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private ShowRepository showRepository;
+    private ShowReadCache showReadCache;
+    private SeatAvailabilityService seatAvailabilityService;
+    private WarmupProperties warmupProperties;
+
+    private volatile WarmupReportDTO lastReport;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showRepository Repository used to find upcoming shows
+     * @param showReadCache Cache of prices and seat map layouts
+     * @param seatAvailabilityService Cache of "seats left" counters
+     * @param warmupProperties Horizon, pool size and timeout
+     */
+    @Autowired
+    public CacheWarmupService(ShowRepository showRepository,
+                              ShowReadCache showReadCache,
+                              SeatAvailabilityService seatAvailabilityService,
+                              WarmupProperties warmupProperties) {
+        this.showRepository = showRepository;
+        this.showReadCache = showReadCache;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.warmupProperties = warmupProperties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (warmupProperties.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Runs one warm-up and blocks until it finished or timed out.
+     *
+     * @return Shows, seats, prices and bytes loaded, and how long it took
+     */
+    public WarmupReportDTO warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(warmupProperties.getTimeoutMs());
+        WarmupReportDTO report = new WarmupReportDTO();
+
+        // Step 1: Shows about to sell
+        Date now = new Date();
+        List<Show> shows = showRepository.findStartingBetween(now,
+                new Date(now.getTime() + warmupProperties.getHorizonMs()),
+                PageRequest.of(0, warmupProperties.getMaxShows()));
+        report.setShowsFound(shows.size());
+
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong seats = new AtomicLong();
+        AtomicLong prices = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+
+        ForkJoinPool pool = new ForkJoinPool(warmupProperties.getParallelism());
+        try {
+            // Step 2: One task per show
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(shows.size() + 1);
+            for (Show show : shows) {
+                // Worker threads don't inherit the job's workload: keep the warm-up on BATCH connections
+                tasks.add(pool.submit(WorkloadContext.wrap(Workload.BATCH, () -> {
+                    try {
+                        Map<Long, Integer> showPrices = showReadCache.getPrices(show);
+                        List<SeatLayoutRowDTO> layout = showReadCache.getSeatLayout(show);
+                        prices.addAndGet(showPrices.size());
+                        seats.addAndGet(layout.size());
+                        bytes.addAndGet(ShowReadCache.payloadBytes(showPrices) + ShowReadCache.payloadBytes(layout));
+                        warmed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Warm-up of show {} failed", show.getId(), e);
+                    }
+                })));
+            }
+
+            // Step 3: Seat status counters for all of them (grouped queries)
+            List<Long> showIds = shows.stream().map(Show::getId).toList();
+            if (!showIds.isEmpty()) {
+                tasks.add(pool.submit(WorkloadContext.wrap(Workload.BATCH, () -> {
+                    // One (show, seat type, count) row per entry
+                    for (ShowAvailabilityDTO availability : seatAvailabilityService.getAvailability(showIds).values()) {
+                        bytes.addAndGet(availability.getAvailableBySeatType().size() * (8L + 8L + 8L));
+                    }
+                })));
+            }
+
+            // Step 4: Wait, bounded by the deadline
+            for (ForkJoinTask<?> task : tasks) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    report.setTimedOut(true);
+                    break;
+                }
+                try {
+                    task.get(remaining, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    report.setTimedOut(true);
+                    break;
+                } catch (ExecutionException e) {
+                    log.warn("Warm-up of seat availability failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    report.setTimedOut(true);
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        report.setShowsWarmed(warmed.get());
+        report.setShowsFailed(failed.get());
+        report.setSeatsLoaded(seats.get());
+        report.setPricesLoaded(prices.get());
+        report.setBytesLoaded(bytes.get());
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        lastReport = report;
+
+        log.info("Cache warm-up: {}/{} shows, {} seats, {} prices, {} bytes in {} ms{}",
+                report.getShowsWarmed(), report.getShowsFound(), report.getSeatsLoaded(), report.getPricesLoaded(),
+                report.getBytesLoaded(), report.getElapsedMillis(), report.isTimedOut() ? " (timed out)" : "");
+        return report;
+    }
+
+    /**
+     * @return Report of the last warm-up, or null if none ran
+     */
+    public WarmupReportDTO getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,257 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.CancelBookingResponseDTO;
+import MyFirstProject.demo.dtos.ShowCancellationReportDTO;
+import MyFirstProject.demo.exceptions.InvalidBookingException;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.OutboxEventType;
+import MyFirstProject.demo.models.Payment;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.RefundStatus;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.repositories.RefundRepository;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.services.outbox.OutboxService;
+import MyFirstProject.demo.services.waitlist.WaitlistService;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service responsible for cancelling bookings and queuing their refunds.
+ *
+ * Two modes:
+ * 1. Single booking (user cancels): entity based, row-locked, a handful of statements
+ * 2. Whole show (projector failure, screen down): set-based, a fixed number of
+ *    statements no matter how many bookings the show has
+ *
+ * Status Transitions handled here:
+ * - Booking SUCCESS/PENDING → CANCELLED
+ * - ShowSeat OCCUPIED/BLOCKED → AVAILABLE
+ * - Successful Payment → Refund QUEUED (sent to the provider later by RefundProcessor)
+ *
+ * Why refunds are only queued:
+ * A provider refund call takes hundreds of milliseconds. Calling the provider
+ * inside the cancellation transaction would hold row locks on a whole show
+ * for minutes; queuing makes cancellation a pure database operation.
+ *
+ * PENDING bookings have no successful payment yet. If their payment succeeds
+ * after cancellation, PaymentBatchApplier sees a CANCELLED booking and queues
+ * the refund itself.
+ */
+@Service
+@WorkloadPool(Workload.BOOKING)
+public class CancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CancellationService.class);
+
+    // Bookings that still hold seats and can be cancelled
+    private static final Set<BookingStatus> CANCELLABLE = EnumSet.of(BookingStatus.SUCCESS, BookingStatus.PENDING);
+
+    private BookingRepository bookingRepository;
+    private ShowRepository showRepository;
+    private ShowSeatRepository showSeatRepository;
+    private RefundRepository refundRepository;
+    private SeatAvailabilityService seatAvailabilityService;
+    private OutboxService outboxService;
+    private WaitlistService waitlistService;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingRepository Repository used to lock and cancel bookings
+     * @param showRepository Repository used to validate the show
+     * @param showSeatRepository Repository used to release seats in bulk
+     * @param refundRepository Repository used to queue refunds
+     * @param seatAvailabilityService Counters that must follow every seat status change
+     * @param outboxService Transactional outbox for cancellation events
+     * @param waitlistService Waitlists emptied when their show is cancelled
+     * @param transactionManager Used for the whole-show transaction, so its timing includes the commit
+     */
+    @Autowired
+    public CancellationService(BookingRepository bookingRepository,
+                               ShowRepository showRepository,
+                               ShowSeatRepository showSeatRepository,
+                               RefundRepository refundRepository,
+                               SeatAvailabilityService seatAvailabilityService,
+                               OutboxService outboxService,
+                               WaitlistService waitlistService,
+                               PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.showRepository = showRepository;
+        this.showSeatRepository = showSeatRepository;
+        this.refundRepository = refundRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.outboxService = outboxService;
+        this.waitlistService = waitlistService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cancels one booking on behalf of its owner.
+     *
+     * Flow:
+     * 1. Load and lock the booking (blocks a concurrent payment confirmation)
+     * 2. Check ownership and that the booking still holds seats
+     * 3. Release its seats
+     * 4. Queue one refund per successful payment
+     * 5. Mark the booking CANCELLED
+     *
+     * @param userId User asking for the cancellation
+     * @param bookingId Booking to cancel
+     * @return Seats released and amount queued for refund
+     * @throws InvalidBookingException if the booking doesn't exist, isn't the user's, or can't be cancelled
+     */
+    @Transactional
+    public CancelBookingResponseDTO cancelBooking(Long userId, Long bookingId) throws InvalidBookingException {
+
+        // Step 1: Lock the booking row
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new InvalidBookingException("Booking not found with ID: " + bookingId));
+
+        // Step 2: Validate
+        if (booking.getUser() == null || !booking.getUser().getId().equals(userId)) {
+            throw new InvalidBookingException("Booking " + bookingId + " does not belong to user " + userId);
+        }
+        if (!CANCELLABLE.contains(booking.getBookingStatus())) {
+            throw new InvalidBookingException("Booking " + bookingId + " is " + booking.getBookingStatus()
+                    + " and cannot be cancelled");
+        }
+
+        // Step 3: Release seats (flushed on commit)
+        List<ShowSeat> releasedSeats = new ArrayList<>();
+        for (ShowSeat showSeat : booking.getSeats()) {
+            if (showSeat.getSeatStatus() != SeatStatus.AVAILABLE) {
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                releasedSeats.add(showSeat);
+            }
+        }
+
+        // Step 4: Queue refunds
+        List<Refund> refunds = new ArrayList<>();
+        int refundAmount = 0;
+        for (Payment payment : booking.getPayments()) {
+            if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
+                refunds.add(queuedRefund(booking, payment));
+                refundAmount += payment.getAmount();
+            }
+        }
+        refundRepository.saveAll(refunds);
+
+        // Step 5: Cancel (the event commits with the cancellation)
+        booking.setBookingStatus(BookingStatus.CANCELLED);
+        seatAvailabilityService.onSeatsReleased(releasedSeats);
+        outboxService.bookingChanged(OutboxEventType.BOOKING_CANCELLED, booking);
+
+        CancelBookingResponseDTO responseDTO = new CancelBookingResponseDTO();
+        responseDTO.setBookingId(bookingId);
+        responseDTO.setSeatsReleased(releasedSeats.size());
+        responseDTO.setRefundAmount(refundAmount);
+        return responseDTO;
+    }
+
+    /**
+     * Cancels every booking of a show, releases every seat and queues every refund.
+     *
+     * Flow (one transaction, seven statements regardless of show size):
+     * 0. Mark the show cancelled, so its released seats can't be booked again
+     * 1. Lock all cancellable bookings of the show (SELECT ... FOR UPDATE)
+     * 2. INSERT ... SELECT one QUEUED refund per successful payment of a SUCCESS booking
+     * 3. UPDATE all SUCCESS/PENDING bookings → CANCELLED
+     * 4. UPDATE all non-available seats → AVAILABLE
+     * 5. Drop the show's availability counters (reloaded from the database on next read)
+     * 6. INSERT one SHOW_CANCELLED outbox event
+     *
+     * Compared to cancelling bookings one by one, this replaces
+     * ~1,000 transactions and ~5,000 statements for a sold-out show with one
+     * transaction and seven statements.
+     *
+     * @param showId Show to cancel
+     * @return Counts and total elapsed time (including commit)
+     * @throws InvalidShowException if the show doesn't exist
+     */
+    public ShowCancellationReportDTO cancelShow(Long showId) throws InvalidShowException {
+        if (!showRepository.existsById(showId)) {
+            throw new InvalidShowException("Show not found with ID: " + showId);
+        }
+
+        long start = System.nanoTime();
+        ShowCancellationReportDTO report = transactionTemplate.execute(status -> {
+            Date now = new Date();
+
+            // Step 0: Close the show for new bookings and waitlist joins (bookMovie checks the flag)
+            showRepository.markCancelled(showId);
+
+            // Step 1: Stop the payment pipeline from confirming bookings underneath us
+            bookingRepository.lockIdsByShowId(showId, CANCELLABLE);
+
+            // Step 2: Queue refunds while paid bookings are still recognisable as SUCCESS
+            int refundsQueued = refundRepository.queueForShow(showId, BookingStatus.SUCCESS,
+                    PaymentStatus.SUCCESS, RefundStatus.QUEUED, now);
+
+            // Step 3 & 4: Cancel bookings and release seats
+            int bookingsCancelled = bookingRepository.cancelAllByShowId(showId, CANCELLABLE,
+                    BookingStatus.CANCELLED, now);
+            int seatsReleased = showSeatRepository.updateSeatStatusByShowId(showId, SeatStatus.AVAILABLE, now);
+
+            // Step 5: Counters can't be adjusted per seat after a bulk update
+            seatAvailabilityService.evict(showId);
+
+            // One SHOW_CANCELLED event instead of one per booking
+            outboxService.showCancelled(showId, bookingsCancelled, seatsReleased);
+
+            ShowCancellationReportDTO result = new ShowCancellationReportDTO();
+            result.setShowId(showId);
+            result.setBookingsCancelled(bookingsCancelled);
+            result.setSeatsReleased(seatsReleased);
+            result.setRefundsQueued(refundsQueued);
+            return result;
+        });
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+
+        // Nobody can get seats of a cancelled show
+        waitlistService.dropShow(showId);
+
+        log.info("Cancelled show {}: {} bookings, {} seats released, {} refunds queued in {} ms",
+                showId, report.getBookingsCancelled(), report.getSeatsReleased(),
+                report.getRefundsQueued(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * Builds a QUEUED refund for a successful payment.
+     *
+     * @param booking Booking being cancelled
+     * @param payment Successful payment to give back
+     * @return Unsaved refund
+     */
+    public static Refund queuedRefund(Booking booking, Payment payment) {
+        Refund refund = new Refund();
+        refund.setBooking(booking);
+        refund.setPayment(payment);
+        refund.setPaymentProvider(payment.getPaymentProvider());
+        refund.setReferenceNumber(payment.getReferenceNumber());
+        refund.setAmount(payment.getAmount());
+        refund.setRefundStatus(RefundStatus.QUEUED);
+        return refund;
+    }
+}
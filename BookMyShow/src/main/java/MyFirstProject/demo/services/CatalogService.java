@@ -0,0 +1,101 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.exceptions.InvalidScreenException;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.models.CachedEntityType;
+import MyFirstProject.demo.repositories.ScreenRepository;
+import MyFirstProject.demo.repositories.SeatRepository;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.services.invalidation.InvalidationBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for edits of catalog data that booking nodes cache (prices, seat layouts).
+ *
+ * Every edit, in one transaction:
+ * 1. Changes the data
+ * 2. Bumps the version on the owning row (Show.priceVersion, Screen.layoutVersion);
+ *    the row lock orders concurrent edits of the same entity
+ * 3. Hands the new version to the InvalidationBus, which applies it here and
+ *    broadcasts it to every node after commit
+ *
+ * Editing these tables any other way leaves ShowReadCache on every node stale.
+ */
+@Service
+public class CatalogService {
+
+    private ShowRepository showRepository;
+    private ShowSeatTypeRespository showSeatTypeRespository;
+    private ScreenRepository screenRepository;
+    private SeatRepository seatRepository;
+    private InvalidationBus invalidationBus;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showRepository Repository used to version price edits
+     * @param showSeatTypeRespository Repository used to change prices
+     * @param screenRepository Repository used to version layout edits
+     * @param seatRepository Repository used to move seats
+     * @param invalidationBus Announces committed edits to every node
+     */
+    @Autowired
+    public CatalogService(ShowRepository showRepository,
+                          ShowSeatTypeRespository showSeatTypeRespository,
+                          ScreenRepository screenRepository,
+                          SeatRepository seatRepository,
+                          InvalidationBus invalidationBus) {
+        this.showRepository = showRepository;
+        this.showSeatTypeRespository = showSeatTypeRespository;
+        this.screenRepository = screenRepository;
+        this.seatRepository = seatRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Changes the price of one seat type in one show.
+     *
+     * @param showId Show being repriced
+     * @param seatTypeId Seat type being repriced
+     * @param price New price
+     * @return New price version of the show
+     * @throws InvalidShowException if the show doesn't exist or has no such seat type
+     */
+    @Transactional(rollbackFor = InvalidShowException.class)
+    public long updatePrice(Long showId, Long seatTypeId, int price) throws InvalidShowException {
+        if (showSeatTypeRespository.updatePrice(showId, seatTypeId, price) == 0) {
+            throw new InvalidShowException("Show " + showId + " has no seat type " + seatTypeId);
+        }
+        showRepository.incrementPriceVersion(showId);
+        long version = showRepository.findPriceVersion(showId);
+        invalidationBus.publish(CachedEntityType.SHOW_PRICES, showId, version);
+        return version;
+    }
+
+    /**
+     * Moves a seat of a screen to another row and column.
+     *
+     * @param screenId Screen whose layout changes
+     * @param seatId Seat to move
+     * @param rowNum New row
+     * @param colNum New column
+     * @return New layout version of the screen
+     * @throws InvalidScreenException if the screen doesn't exist or has no such seat
+     */
+    @Transactional(rollbackFor = InvalidScreenException.class)
+    public long moveSeat(Long screenId, Long seatId, int rowNum, int colNum) throws InvalidScreenException {
+        // Restricted to the screen's own seats: a wrong screenId must not move another screen's seat
+        if (seatRepository.updatePosition(screenId, seatId, rowNum, colNum) == 0) {
+            throw new InvalidScreenException("Screen " + screenId + " has no seat " + seatId);
+        }
+        if (screenRepository.incrementLayoutVersion(screenId) == 0) {
+            throw new InvalidScreenException("Screen not found with ID: " + screenId);
+        }
+        long version = screenRepository.findLayoutVersion(screenId);
+        invalidationBus.publish(CachedEntityType.SCREEN_LAYOUT, screenId, version);
+        return version;
+    }
+}
@@ -1,13 +1,13 @@
 package MyFirstProject.demo.services;
 
-import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.jfr.PriceCalculationEvent;
 import MyFirstProject.demo.models.Show;
 import MyFirstProject.demo.models.ShowSeat;
-import MyFirstProject.demo.models.ShowSeatType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class responsible for calculating the total price of a movie booking.
@@ -22,35 +22,37 @@ import java.util.List;
  * Show A - Premium Seat: ₹350
  * Show A - VIP Seat: ₹500
  * Show B - Normal Seat: ₹250 (different show, different pricing)
+ *
+ * Prices come from ShowReadCache, so a booking only queries ShowSeatType
+ * the first time a show is priced (or never, if the show was warmed at startup).
  */
 @Service
 public class PriceCalculator {
 
-    private ShowSeatTypeRespository showSeatTypeRespository;
+    private ShowReadCache showReadCache;
 
     /**
-     * Constructor-based dependency injection for ShowSeatTypeRepository.
+     * Constructor-based dependency injection for ShowReadCache.
      *
-     * @param showSeatTypeRespository Repository to fetch price information for different seat types
+     * @param showReadCache Cache of price information per show and seat type
      */
     @Autowired
-    public PriceCalculator(ShowSeatTypeRespository showSeatTypeRespository) {
-        this.showSeatTypeRespository = showSeatTypeRespository;
+    public PriceCalculator(ShowReadCache showReadCache) {
+        this.showReadCache = showReadCache;
     }
 
     /**
      * Calculates the total booking amount based on selected seats and their types.
      *
      * Algorithm:
-     * 1. Fetch all seat type prices for the given show
+     * 1. Get the seat type → price map of the given show (cached)
      * 2. For each seat in the booking:
      *    a) Identify the seat's type (Normal/Premium/VIP)
-     *    b) Find the corresponding price for that seat type in this show
+     *    b) Look up the price for that seat type in this show
      *    c) Add the price to the running total
      *
-     * Time Complexity: O(n * m) where:
-     * - n = number of seats being booked
-     * - m = number of different seat types in the show
+     * Time Complexity: O(n) where n = number of seats being booked
+     * (one hash lookup per seat)
      *
      * Example Calculation:
      * If booking 2 Normal seats (₹200 each) and 1 VIP seat (₹500):
@@ -61,10 +63,12 @@ public class PriceCalculator {
      * @return Total amount to be paid for the booking
      */
     public int calculatePrice(Show show, List<ShowSeat> showSeatList) {
+        PriceCalculationEvent event = new PriceCalculationEvent();
+        event.begin();
 
         // Step 1: Retrieve all seat type pricing information for this show
-        // ShowSeatType contains the mapping between seat types and their prices for a specific show
-        List<ShowSeatType> showSeatTypeList = showSeatTypeRespository.findAllByShow(show);
+        // Keyed by seat type ID; loaded from ShowSeatType once per show
+        Map<Long, Integer> pricesBySeatType = showReadCache.getPrices(show);
 
         // Initialize total amount
         int amount = 0;
@@ -73,24 +77,24 @@ public class PriceCalculator {
         for(ShowSeat showSeat : showSeatList){
 
             // Step 3: Find the price for this seat's type
-            // We need to match the seat's type with the show's pricing structure
-            for (ShowSeatType showSeatType : showSeatTypeList) {
-
-                // Step 4: Check if current showSeatType matches this seat's type
-                // showSeat.getSeat().getSeatType() gives us the type of seat (Normal/Premium/VIP)
-                // showSeatType.getSeatType() gives us the type from the pricing table
-                if(showSeat.getSeat().getSeatType().equals(showSeatType.getSeatType())){
-
-                    // Step 5: Add the price to the total
-                    amount += showSeatType.getPrice();
+            // showSeat.getSeat().getSeatType() gives us the type of seat (Normal/Premium/VIP)
+            Integer price = pricesBySeatType.get(showSeat.getSeat().getSeatType().getId());
 
-                    // Step 6: Break inner loop once we find the matching seat type
-                    // No need to check remaining seat types for this seat
-                    break;
-                }
+            // Step 4: Add the price to the total
+            // A seat type without a price for this show adds nothing
+            if(price != null){
+                amount += price;
             }
         }
 
+        // Emitted as a JFR event when a recording is running (no-op otherwise)
+        if (event.shouldCommit()) {
+            event.showId = show.getId();
+            event.seatCount = showSeatList.size();
+            event.amount = amount;
+            event.commit();
+        }
+
         // Return the total calculated amount
         return amount;
     }
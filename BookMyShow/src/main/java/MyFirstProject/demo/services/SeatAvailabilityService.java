@@ -0,0 +1,594 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.SeatAvailabilityCountDTO;
+import MyFirstProject.demo.dtos.ShowAvailabilityDTO;
+import MyFirstProject.demo.dtos.SingleFlightStatsDTO;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.services.seatstate.SeatStateJournal;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import MyFirstProject.demo.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Service that maintains materialized "seats left" counters per (show, seat type).
+ *
+ * Problem:
+ * Listing pages show "142 seats left, 12 Recliner" for dozens of shows at once.
+ * Computing that with a COUNT over show_seat for every show on every page view
+ * puts the hottest table under constant aggregate load.
+ *
+ * Solution:
+ * - Keep an in-memory counter of AVAILABLE seats per (show, seat type)
+ * - Adjust the counters in the same code paths that change SeatStatus
+ *   (BookingServices when seats get BLOCKED, SeatHoldExpiryService when holds expire)
+ * - Load counters lazily with ONE grouped query for all missing shows;
+ *   concurrent requests missing the same show share that load (SingleFlight)
+ * - Periodically reconcile against show_seat to repair any drift
+ *
+ * Consistency:
+ * Counter updates are applied after the surrounding transaction commits.
+ * A rolled back booking therefore never changes the counters.
+ * Anything that still slips through (manual DB edits, crashes between commit
+ * and counter update) is repaired by the reconciliation job.
+ *
+ * Loads and reconciliation query show_seat without holding stateLock, so
+ * bookings never wait for them. Changes applied while such a query runs are
+ * recorded (DeltaRecorder) and added on top of its result; otherwise the
+ * query's older snapshot would overwrite them.
+ *
+ * Commit sequence:
+ * A change reaches the counters after its transaction commits, so one that
+ * committed just before the query can be applied while the query runs: the
+ * query already counts it, and recording it would count it twice. Every
+ * change therefore takes a number from commitSequence right before its
+ * transaction commits, and a recorder only keeps changes numbered after the
+ * sequence it read before its query. What remains ambiguous is a commit
+ * still in flight while the query starts (numbered on one side of that read,
+ * visible to the query on the other); the next reconcile run repairs it, and
+ * a run without such a commit sets the counters to show_seat exactly.
+ *
+ * Released seats:
+ * onSeatsReleased also publishes a SeatsReleasedEvent, which WaitlistService
+ * uses to offer the seats to waiting users once the release has committed.
+ *
+ * Restarts:
+ * With bookmyshow.seat-state.enabled, every counter change is also appended to a
+ * local SeatStateJournal, and SeatStateRecoveryService rebuilds the counters from
+ * snapshot + journal at startup instead of querying show_seat for every show.
+ * Changes and their journal records are applied under stateLock, so a
+ * checkpoint never sees a change without its record or the other way round.
+ *
+ * Cluster mode:
+ * Only shows this node owns (ShowOwnership) are kept in memory. Bookings of a
+ * show run on its owner; seats released on another node reach the owner
+ * through SeatReleaseRelay and applyRelayedRelease. Availability of a show
+ * owned elsewhere is read from the database and not cached, so a non-owner
+ * never serves a counter it doesn't maintain.
+ */
+@Service
+@WorkloadPool(Workload.BROWSING)
+public class SeatAvailabilityService {
+
+    // Max number of show ids sent in one IN (...) clause
+    private static final int QUERY_CHUNK_SIZE = 500;
+
+    private ShowSeatRepository showSeatRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    // showId → (seatTypeId → available seat count)
+    private final Map<Long, Map<Long, AtomicInteger>> countersByShow = new ConcurrentHashMap<>();
+
+    // Read lock: counter increments/decrements (commutative, may run concurrently)
+    // Write lock: loads, repairs, evictions and journal checkpoints
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    // Null while journaling is disabled or recovery has not attached it yet
+    private volatile SeatStateJournal journal;
+
+    // One per load or reconcile query in flight; changes to its shows are recorded while it runs
+    private final List<DeltaRecorder> recorders = new CopyOnWriteArrayList<>();
+
+    // Numbers counter changes in commit order (taken just before their transaction commits)
+    private final AtomicLong commitSequence = new AtomicLong();
+
+    // Shows whose counters this node maintains; set by ShowOwnership in cluster mode
+    private volatile LongPredicate ownedShows = showId -> true;
+
+    // A show being loaded by one request is joined, not loaded again, by the others
+    private final SingleFlight<Long, Map<Long, AtomicInteger>> counterLoads = new SingleFlight<>("AVAILABILITY");
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showSeatRepository Repository used to build and reconcile the counters
+     * @param eventPublisher Publishes SeatsReleasedEvent for the waitlists
+     */
+    @Autowired
+    public SeatAvailabilityService(ShowSeatRepository showSeatRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.showSeatRepository = showSeatRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns seats left for a page of shows.
+     *
+     * Flow:
+     * 1. Look up every show in the in-memory counter map
+     * 2. Collect shows that are not cached yet
+     * 3. Load all missing shows with a single grouped query (shows another
+     *    request is already loading are waited for instead)
+     * 4. Build one DTO per requested show (in request order)
+     *
+     * Time Complexity: O(shows x seat types) in memory, plus at most one
+     * query per 500 uncached shows.
+     *
+     * @param showIds IDs of the shows rendered on the listing page
+     * @return Availability per show, keyed by show ID
+     */
+    public Map<Long, ShowAvailabilityDTO> getAvailability(Collection<Long> showIds) {
+
+        // Step 1 & 2: Split into cached and missing shows (each missing show once)
+        LinkedHashSet<Long> missingShowIds = new LinkedHashSet<>();
+        for (Long showId : showIds) {
+            if (!countersByShow.containsKey(showId)) {
+                missingShowIds.add(showId);
+            }
+        }
+
+        // Step 3: Load the missing ones in bulk, joining loads already in flight
+        Map<Long, Map<Long, AtomicInteger>> loaded = Map.of();
+        if (!missingShowIds.isEmpty()) {
+            loaded = counterLoads.executeAll(missingShowIds, this::loadAndPublish);
+        }
+
+        // Step 4: Snapshot counters into DTOs (shows owned elsewhere: the loaded, uncached values)
+        Map<Long, ShowAvailabilityDTO> result = new LinkedHashMap<>();
+        for (Long showId : showIds) {
+            Map<Long, AtomicInteger> counters = countersByShow.get(showId);
+            if (counters == null) {
+                counters = loaded.getOrDefault(showId, Map.of());
+            }
+            result.put(showId, toDTO(showId, counters));
+        }
+        return result;
+    }
+
+    /**
+     * Records that the given seats moved from AVAILABLE to a non-available status
+     * (BLOCKED by a booking).
+     *
+     * @param showSeats Seats whose status just left AVAILABLE
+     */
+    public void onSeatsTaken(List<ShowSeat> showSeats) {
+        applyAfterCommit(showSeats, -1);
+    }
+
+    /**
+     * Records that the given seats became AVAILABLE again
+     * (hold expired, payment failed, booking cancelled) and announces them
+     * with a SeatsReleasedEvent (delivered to listeners after commit).
+     *
+     * @param showSeats Seats whose status just became AVAILABLE
+     */
+    public void onSeatsReleased(List<ShowSeat> showSeats) {
+        applyAfterCommit(showSeats, +1);
+        if (showSeats.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<Long, List<Long>>> seatsByShowAndType = new HashMap<>();
+        for (ShowSeat showSeat : showSeats) {
+            seatsByShowAndType.computeIfAbsent(showSeat.getShow().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(showSeat.getSeat().getSeatType().getId(), k -> new ArrayList<>())
+                    .add(showSeat.getId());
+        }
+        eventPublisher.publishEvent(new SeatsReleasedEvent(seatsByShowAndType));
+    }
+
+    /**
+     * Applies seats released on another node to this node's counters and
+     * announces them here, so this node's waitlists get them.
+     * Called on the owner of the shows (SeatReleaseRelay).
+     *
+     * @param event Released seats of shows owned by this node
+     */
+    public void applyRelayedRelease(SeatsReleasedEvent event) {
+        List<long[]> keys = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, List<Long>>> show : event.getSeatsByShowAndType().entrySet()) {
+            for (Map.Entry<Long, List<Long>> seatType : show.getValue().entrySet()) {
+                for (int i = 0; i < seatType.getValue().size(); i++) {
+                    keys.add(new long[]{show.getKey(), seatType.getKey()});
+                }
+            }
+        }
+        // Committed on the other node at some point before now
+        apply(keys, +1, commitSequence.incrementAndGet());
+        eventPublisher.publishEvent(new SeatsReleasedEvent(event.getSeatsByShowAndType(), true));
+    }
+
+    /**
+     * Limits the counters kept in memory to the shows this node owns.
+     *
+     * @param ownedShows True for shows owned by this node (ShowOwnership.isLocal)
+     */
+    public void setOwnedShows(LongPredicate ownedShows) {
+        this.ownedShows = ownedShows;
+    }
+
+    /**
+     * Drops the counters of one show so they are reloaded from the database
+     * on the next read. Used after set-based updates that change many seats at once.
+     *
+     * @param showId Show whose counters should be rebuilt
+     */
+    public void evict(Long showId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(showId);
+                }
+            });
+        } else {
+            remove(showId);
+        }
+    }
+
+    /**
+     * @return IDs of the shows whose counters are currently in memory
+     */
+    public Set<Long> getLoadedShowIds() {
+        return Set.copyOf(countersByShow.keySet());
+    }
+
+    /**
+     * Reconciliation job: recomputes counters of all cached shows from show_seat
+     * and overwrites any value that drifted.
+     *
+     * Runs every minute by default (bookmyshow.availability.reconcile-interval-ms).
+     *
+     * @return Number of (show, seat type) counters that had to be repaired
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.availability.reconcile-interval-ms:60000}")
+    @WorkloadPool(Workload.BATCH)
+    public int reconcile() {
+        int repaired = 0;
+        List<Long> cachedShowIds = new ArrayList<>(countersByShow.keySet());
+        if (cachedShowIds.isEmpty()) {
+            return 0;
+        }
+
+        DeltaRecorder recorder = startRecording(cachedShowIds);
+        Map<Long, Map<Long, AtomicInteger>> freshCounters;
+        try {
+            freshCounters = loadCounters(cachedShowIds);
+        } catch (RuntimeException e) {
+            stopRecording(recorder);
+            throw e;
+        }
+
+        stateLock.writeLock().lock();
+        try {
+            recorders.remove(recorder);
+            for (Long showId : cachedShowIds) {
+                Map<Long, AtomicInteger> cached = countersByShow.get(showId);
+                if (cached == null) {
+                    continue; // evicted while we were querying
+                }
+                Map<Long, AtomicInteger> fresh = freshCounters.getOrDefault(showId, Map.of());
+
+                // Fix seat types that exist in the database (plus changes made since the query)
+                for (Map.Entry<Long, AtomicInteger> entry : fresh.entrySet()) {
+                    AtomicInteger counter = cached.computeIfAbsent(entry.getKey(), k -> new AtomicInteger());
+                    int expected = entry.getValue().get() + recorder.get(showId, entry.getKey());
+                    if (counter.getAndSet(expected) != expected) {
+                        repaired++;
+                        journalAppend(SeatStateJournal.SET, showId, entry.getKey(), expected);
+                    }
+                }
+
+                // Seat types with no available seats left do not come back from the GROUP BY
+                for (Map.Entry<Long, AtomicInteger> entry : cached.entrySet()) {
+                    if (fresh.containsKey(entry.getKey())) {
+                        continue;
+                    }
+                    int expected = recorder.get(showId, entry.getKey());
+                    if (entry.getValue().getAndSet(expected) != expected) {
+                        repaired++;
+                        journalAppend(SeatStateJournal.SET, showId, entry.getKey(), expected);
+                    }
+                }
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return repaired;
+    }
+
+    /**
+     * Adds counters restored from a snapshot and journal (shows already loaded
+     * keep their values), then starts journaling into the given journal.
+     *
+     * @param journal Open journal; it is rotated to the given generation
+     * @param restored showId → (seatTypeId → seats left)
+     * @param generation Generation of the snapshot the caller writes next
+     * @return Copy of all counters for that snapshot
+     */
+    public Map<Long, Map<Long, Integer>> attachJournal(SeatStateJournal journal,
+                                                       Map<Long, Map<Long, Integer>> restored,
+                                                       long generation) {
+        stateLock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Map<Long, Integer>> show : restored.entrySet()) {
+                Map<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+                show.getValue().forEach((seatTypeId, count) -> counters.put(seatTypeId, new AtomicInteger(count)));
+                countersByShow.putIfAbsent(show.getKey(), counters);
+            }
+            this.journal = journal;
+            return checkpoint(generation);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a new journal generation and returns the counters it continues from.
+     * Blocks counter changes only for the in-memory copy, not for the snapshot write.
+     *
+     * @param generation Generation of the snapshot the caller writes next
+     * @return Copy of all counters, or null if no journal is attached
+     */
+    public Map<Long, Map<Long, Integer>> rotateJournal(long generation) {
+        if (journal == null) {
+            return null;
+        }
+        stateLock.writeLock().lock();
+        try {
+            return checkpoint(generation);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private Map<Long, Map<Long, Integer>> checkpoint(long generation) {
+        Map<Long, Map<Long, Integer>> copy = new HashMap<>(countersByShow.size() * 2);
+        for (Map.Entry<Long, Map<Long, AtomicInteger>> show : countersByShow.entrySet()) {
+            Map<Long, Integer> counters = new HashMap<>();
+            show.getValue().forEach((seatTypeId, count) -> counters.put(seatTypeId, count.get()));
+            copy.put(show.getKey(), counters);
+        }
+        journal.rotate(generation);
+        return copy;
+    }
+
+    private void applyAfterCommit(List<ShowSeat> showSeats, int delta) {
+        // Copy the keys now: entities may be detached or changed after commit
+        List<long[]> keys = new ArrayList<>(showSeats.size());
+        for (ShowSeat showSeat : showSeats) {
+            keys.add(new long[]{showSeat.getShow().getId(), showSeat.getSeat().getSeatType().getId()});
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long sequence;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sequence = commitSequence.incrementAndGet();
+                }
+
+                @Override
+                public void afterCommit() {
+                    // Registered too late for beforeCommit: number it now
+                    apply(keys, delta, sequence != 0 ? sequence : commitSequence.incrementAndGet());
+                }
+            });
+        } else {
+            apply(keys, delta, commitSequence.incrementAndGet());
+        }
+    }
+
+    private void apply(List<long[]> keys, int delta, long sequence) {
+        stateLock.readLock().lock();
+        try {
+            for (long[] key : keys) {
+                for (DeltaRecorder recorder : recorders) {
+                    recorder.record(key[0], key[1], delta, sequence);
+                }
+                Map<Long, AtomicInteger> counters = countersByShow.get(key[0]);
+                if (counters == null) {
+                    // Not cached yet: the next read loads the committed value from the database
+                    continue;
+                }
+                counters.computeIfAbsent(key[1], k -> new AtomicInteger()).addAndGet(delta);
+                journalAppend(SeatStateJournal.ADD, key[0], key[1], delta);
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private void remove(Long showId) {
+        stateLock.writeLock().lock();
+        try {
+            if (countersByShow.remove(showId) != null) {
+                journalAppend(SeatStateJournal.EVICT, showId, 0, 0);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private void journalLoad(Long showId, Map<Long, AtomicInteger> counters) {
+        journalAppend(SeatStateJournal.LOAD_SHOW, showId, 0, 0);
+        for (Map.Entry<Long, AtomicInteger> counter : counters.entrySet()) {
+            journalAppend(SeatStateJournal.SET, showId, counter.getKey(), counter.getValue().get());
+        }
+    }
+
+    private void journalAppend(byte type, long showId, long seatTypeId, int value) {
+        SeatStateJournal current = journal;
+        if (current != null) {
+            current.append(type, showId, seatTypeId, value);
+        }
+    }
+
+    /**
+     * @return Miss coalescing of counter loads (AVAILABILITY)
+     */
+    public SingleFlightStatsDTO getLoadCoalescing() {
+        return counterLoads.snapshot();
+    }
+
+    // Leader of a counter miss: loads, then publishes before followers are woken
+    private Map<Long, Map<Long, AtomicInteger>> loadAndPublish(List<Long> showIds) {
+        DeltaRecorder recorder = startRecording(showIds);
+        Map<Long, Map<Long, AtomicInteger>> loaded;
+        try {
+            loaded = loadCounters(showIds);
+        } catch (RuntimeException e) {
+            stopRecording(recorder);
+            throw e;
+        }
+
+        stateLock.writeLock().lock();
+        try {
+            recorders.remove(recorder);
+            // Changes committed after the query are not in its result: add them
+            recorder.addTo(loaded);
+            for (Map.Entry<Long, Map<Long, AtomicInteger>> entry : loaded.entrySet()) {
+                if (!ownedShows.test(entry.getKey())) {
+                    continue; // owned by another node: its counters are maintained there
+                }
+                if (countersByShow.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                    journalLoad(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return loaded;
+    }
+
+    // Under the write lock, so every change applied from now on is either recorded or already in the query
+    private DeltaRecorder startRecording(List<Long> showIds) {
+        stateLock.writeLock().lock();
+        try {
+            // Changes numbered up to here committed before the query starts: it counts them itself
+            DeltaRecorder recorder = new DeltaRecorder(showIds, commitSequence.get());
+            recorders.add(recorder);
+            return recorder;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private void stopRecording(DeltaRecorder recorder) {
+        stateLock.writeLock().lock();
+        try {
+            recorders.remove(recorder);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Map<Long, AtomicInteger>> loadCounters(List<Long> showIds) {
+        Map<Long, Map<Long, AtomicInteger>> loaded = new HashMap<>();
+        for (Long showId : showIds) {
+            // Shows without any available seat still get an (empty) entry
+            loaded.put(showId, new ConcurrentHashMap<>());
+        }
+
+        for (int from = 0; from < showIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = showIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, showIds.size()));
+            for (SeatAvailabilityCountDTO row : showSeatRepository.countByShowIdsAndSeatStatus(chunk, SeatStatus.AVAILABLE)) {
+                loaded.get(row.getShowId()).put(row.getSeatTypeId(), new AtomicInteger((int) row.getSeatCount()));
+            }
+        }
+        return loaded;
+    }
+
+    private ShowAvailabilityDTO toDTO(Long showId, Map<Long, AtomicInteger> counters) {
+        Map<Long, Integer> bySeatType = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<Long, AtomicInteger> entry : counters.entrySet()) {
+            int available = Math.max(0, entry.getValue().get());
+            bySeatType.put(entry.getKey(), available);
+            total += available;
+        }
+
+        ShowAvailabilityDTO dto = new ShowAvailabilityDTO();
+        dto.setShowId(showId);
+        dto.setTotalAvailable(total);
+        dto.setAvailableBySeatType(bySeatType);
+        return dto;
+    }
+
+    /**
+     * Sums the counter changes made to some shows while a query over them runs.
+     *
+     * Example: reconcile queries show 7 → 40 NORMAL seats left; meanwhile a
+     * booking of 2 NORMAL seats commits (-2) → the counter is set to 38, not 40.
+     *
+     * Changes numbered at or before fromSequence are skipped: their transaction
+     * committed before the query, which already counts them.
+     */
+    private static final class DeltaRecorder {
+
+        private final Set<Long> showIds;
+        private final long fromSequence;
+
+        // showId → (seatTypeId → sum of changes)
+        private final Map<Long, Map<Long, AtomicInteger>> deltas = new ConcurrentHashMap<>();
+
+        private DeltaRecorder(List<Long> showIds, long fromSequence) {
+            this.showIds = new HashSet<>(showIds);
+            this.fromSequence = fromSequence;
+        }
+
+        private void record(long showId, long seatTypeId, int delta, long sequence) {
+            if (sequence > fromSequence && showIds.contains(showId)) {
+                deltas.computeIfAbsent(showId, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(seatTypeId, k -> new AtomicInteger())
+                        .addAndGet(delta);
+            }
+        }
+
+        private int get(long showId, long seatTypeId) {
+            AtomicInteger delta = deltas.getOrDefault(showId, Map.of()).get(seatTypeId);
+            return delta == null ? 0 : delta.get();
+        }
+
+        private void addTo(Map<Long, Map<Long, AtomicInteger>> counters) {
+            deltas.forEach((showId, bySeatType) -> bySeatType.forEach((seatTypeId, delta) ->
+                    counters.get(showId).computeIfAbsent(seatTypeId, k -> new AtomicInteger()).addAndGet(delta.get())));
+        }
+    }
+}
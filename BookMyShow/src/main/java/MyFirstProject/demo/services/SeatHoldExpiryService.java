@@ -0,0 +1,121 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.OutboxEventType;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.services.outbox.OutboxService;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Background job that releases seats whose hold has expired.
+ *
+ * Why needed:
+ * BookingServices.bookMovie() marks seats BLOCKED while the user pays.
+ * If the user never completes payment, those seats would stay BLOCKED forever
+ * and the show could look sold out while half the hall is empty.
+ *
+ * Rule:
+ * A booking that is still PENDING (no successful payment applied) longer than
+ * the hold duration (bookmyshow.seat-hold.duration-ms, default 10 minutes)
+ * is expired and its seats go back to AVAILABLE.
+ *
+ * Status Transitions handled here:
+ * - Booking PENDING → FAILURE (timeout)
+ * - ShowSeat BLOCKED → AVAILABLE (timeout)
+ *
+ * Concurrent payments and cancellations:
+ * Expired bookings are read with SELECT ... FOR UPDATE SKIP LOCKED. A booking
+ * that a payment batch or cancellation holds locked is skipped this run, so
+ * expiry never overwrites their result and never waits for them.
+ *
+ * Why expire bookings and not individual seats:
+ * Once released, a seat can be BLOCKED again by someone else. Expiring the
+ * booking makes a late payment for it recognisable (booking no longer PENDING)
+ * instead of confirming seats that now belong to another user.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class SeatHoldExpiryService {
+
+    private BookingRepository bookingRepository;
+    private SeatAvailabilityService seatAvailabilityService;
+    private OutboxService outboxService;
+    private long holdDurationMs;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingRepository Repository used to find abandoned PENDING bookings
+     * @param seatAvailabilityService Counters that must follow every status change
+     * @param outboxService Transactional outbox for BOOKING_FAILED (HOLD_EXPIRED) events
+     * @param holdDurationMs How long a booking may stay PENDING before its seats are released
+     */
+    @Autowired
+    public SeatHoldExpiryService(BookingRepository bookingRepository,
+                                 SeatAvailabilityService seatAvailabilityService,
+                                 OutboxService outboxService,
+                                 @Value("${bookmyshow.seat-hold.duration-ms:600000}") long holdDurationMs) {
+        this.bookingRepository = bookingRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.outboxService = outboxService;
+        this.holdDurationMs = holdDurationMs;
+    }
+
+    /**
+     * Releases all expired seat holds.
+     *
+     * Flow:
+     * 1. Find and lock PENDING bookings made before (now - hold duration), skipping locked ones
+     * 2. Mark them FAILURE and their BLOCKED seats AVAILABLE
+     * 3. Update availability counters (applied after commit)
+     * 4. Write one BOOKING_FAILED outbox event per expired booking
+     *
+     * @return Number of seats released
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.seat-hold.expiry-interval-ms:30000}")
+    @Transactional
+    public int releaseExpiredHolds() {
+
+        // Step 1: Find expired holds (bookings being paid or cancelled right now are skipped)
+        Date cutOff = new Date(System.currentTimeMillis() - holdDurationMs);
+        List<Booking> expiredBookings = bookingRepository
+                .findAllByBookingStatusAndTimeOfBookingBefore(BookingStatus.PENDING, cutOff);
+
+        if (expiredBookings.isEmpty()) {
+            return 0;
+        }
+
+        // Step 2: Expire bookings and release their seats (flushed on commit)
+        List<ShowSeat> expiredSeats = new ArrayList<>();
+        for (Booking booking : expiredBookings) {
+            booking.setBookingStatus(BookingStatus.FAILURE);
+            for (ShowSeat showSeat : booking.getSeats()) {
+                if (showSeat.getSeatStatus() == SeatStatus.BLOCKED) {
+                    showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                    expiredSeats.add(showSeat);
+                }
+            }
+        }
+
+        // Step 3: Keep listing-page counters in sync
+        seatAvailabilityService.onSeatsReleased(expiredSeats);
+
+        // Step 4: Publish the expiries with the same commit
+        outboxService.bookingsChanged(OutboxEventType.BOOKING_FAILED, expiredBookings, "HOLD_EXPIRED");
+
+        return expiredSeats.size();
+    }
+}
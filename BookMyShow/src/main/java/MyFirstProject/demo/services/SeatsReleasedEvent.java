@@ -0,0 +1,39 @@
+package MyFirstProject.demo.services;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published by SeatAvailabilityService whenever seats become AVAILABLE again
+ * (hold expired, payment failed, booking cancelled).
+ *
+ * Carries IDs only: listeners run after the releasing transaction has
+ * committed, when its entities are detached.
+ *
+ * Example:
+ * { 7: { 1: [4701, 4702], 3: [4890] } } → show 7 got two NORMAL and one RECLINER seat back
+ *
+ * Cluster mode:
+ * Releases of shows owned by another node are relayed to the owner
+ * (SeatReleaseRelay), which publishes them again with forwarded = true.
+ */
+@Getter
+public class SeatsReleasedEvent {
+
+    // showId → (seatTypeId → released showSeat IDs)
+    private final Map<Long, Map<Long, List<Long>>> seatsByShowAndType;
+
+    // True on the owner for releases relayed from another node; never relayed again
+    private final boolean forwarded;
+
+    public SeatsReleasedEvent(Map<Long, Map<Long, List<Long>>> seatsByShowAndType) {
+        this(seatsByShowAndType, false);
+    }
+
+    public SeatsReleasedEvent(Map<Long, Map<Long, List<Long>>> seatsByShowAndType, boolean forwarded) {
+        this.seatsByShowAndType = seatsByShowAndType;
+        this.forwarded = forwarded;
+    }
+}
@@ -0,0 +1,286 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.SeatLayoutRowDTO;
+import MyFirstProject.demo.dtos.SingleFlightStatsDTO;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.models.CachedEntityType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.services.invalidation.Invalidation;
+import MyFirstProject.demo.services.invalidation.InvalidationBus;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import MyFirstProject.demo.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of the per-show data that does not change while a show is on sale.
+ *
+ * Cached per show:
+ * - Prices: seat type → price (ShowSeatType), read by PriceCalculator on every booking
+ * - Seat map layout: seat names, rows, columns, seat types (ShowSeat + Seat)
+ *
+ * Not cached here: seat status. It changes with every booking and is served by
+ * SeatAvailabilityService, whose counters follow every status change.
+ *
+ * Lifecycle:
+ * - Filled on first use, or up front for the next hours' shows by CacheWarmupService
+ * - Entries are dropped once their show has ended (evictEndedShows)
+ * - Price and seat layout edits (CatalogService, on any node) arrive through
+ *   the InvalidationBus and drop the affected entries
+ *
+ * Thundering herd:
+ * When a trailer drops, thousands of users open the same uncached show at
+ * once. Misses go through a SingleFlight per data kind (show, prices, seat
+ * map), so concurrent misses for one show share a single query and its
+ * result instead of each running their own.
+ *
+ * Versioning:
+ * Every entry is tagged with the InvalidationBus version seen when its load
+ * started (prices: the show's, seat map: the screen's). An entry tagged below
+ * the version seen now is treated as a miss, so a load that raced with an
+ * edit is never served once the edit has been heard of.
+ */
+@Service
+@WorkloadPool(Workload.BROWSING)
+public class ShowReadCache {
+
+    private ShowRepository showRepository;
+    private ShowSeatRepository showSeatRepository;
+    private ShowSeatTypeRespository showSeatTypeRespository;
+    private InvalidationBus invalidationBus;
+
+    // showId → (seatTypeId → price)
+    private final Map<Long, Versioned<Map<Long, Integer>>> pricesByShow = new ConcurrentHashMap<>();
+
+    // showId → seat map rows in row/column order
+    private final Map<Long, Versioned<List<SeatLayoutRowDTO>>> layoutsByShow = new ConcurrentHashMap<>();
+
+    // showId → show end (epoch ms), for eviction
+    private final Map<Long, Long> showEnds = new ConcurrentHashMap<>();
+
+    // showId → screenId, to find the layouts a screen edit affects
+    private final Map<Long, Long> screensByShow = new ConcurrentHashMap<>();
+
+    // Concurrent misses per show and data kind share one load
+    private final SingleFlight<Long, Show> showLoads = new SingleFlight<>("SHOW");
+    private final SingleFlight<Long, Versioned<Map<Long, Integer>>> priceLoads = new SingleFlight<>("PRICES");
+    private final SingleFlight<Long, Versioned<List<SeatLayoutRowDTO>>> layoutLoads = new SingleFlight<>("SEAT_LAYOUT");
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showRepository Repository used to validate shows on a seat map miss
+     * @param showSeatRepository Repository used to load seat map layouts
+     * @param showSeatTypeRespository Repository used to load prices
+     * @param invalidationBus Versions of price and layout edits made on any node
+     */
+    @Autowired
+    public ShowReadCache(ShowRepository showRepository,
+                         ShowSeatRepository showSeatRepository,
+                         ShowSeatTypeRespository showSeatTypeRespository,
+                         InvalidationBus invalidationBus) {
+        this.showRepository = showRepository;
+        this.showSeatRepository = showSeatRepository;
+        this.showSeatTypeRespository = showSeatTypeRespository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.addListener(this::onInvalidation);
+    }
+
+    /**
+     * Returns the prices of a show, loading them with one query on a miss.
+     *
+     * @param show Show being priced
+     * @return Unmodifiable map of seat type ID → price
+     */
+    public Map<Long, Integer> getPrices(Show show) {
+        Versioned<Map<Long, Integer>> prices = pricesByShow.get(show.getId());
+        // A load joined just before an edit was heard of is loaded again
+        while (prices == null || prices.version < pricesVersion(show.getId())) {
+            prices = priceLoads.execute(show.getId(), () -> loadPrices(show));
+        }
+        return prices.value;
+    }
+
+    /**
+     * Returns the seat map layout of a show, loading it with one query on a miss.
+     *
+     * @param show Show whose seat map is rendered
+     * @return Unmodifiable layout rows in row/column order
+     */
+    public List<SeatLayoutRowDTO> getSeatLayout(Show show) {
+        Versioned<List<SeatLayoutRowDTO>> layout = layoutsByShow.get(show.getId());
+        while (layout == null || layout.version < layoutVersion(screenId(show))) {
+            layout = layoutLoads.execute(show.getId(), () -> loadSeatLayout(show));
+        }
+        return layout.value;
+    }
+
+    /**
+     * Same as getSeatLayout(Show) for callers that only have the ID.
+     *
+     * @param showId Show whose seat map is rendered
+     * @return Unmodifiable layout rows in row/column order
+     * @throws InvalidShowException if the show doesn't exist
+     */
+    public List<SeatLayoutRowDTO> getSeatLayout(Long showId) throws InvalidShowException {
+        Versioned<List<SeatLayoutRowDTO>> layout = layoutsByShow.get(showId);
+        if (layout != null && layout.version >= layoutVersion(screensByShow.get(showId))) {
+            return layout.value;
+        }
+        Show show = showLoads.execute(showId, () -> showRepository.findById(showId)
+                .orElseThrow(() -> new InvalidShowException("Show not found with ID: " + showId)));
+        return getSeatLayout(show);
+    }
+
+    /**
+     * Drops everything cached for a show.
+     *
+     * @param showId Show whose prices or layout changed
+     */
+    public void evict(Long showId) {
+        pricesByShow.remove(showId);
+        layoutsByShow.remove(showId);
+        showEnds.remove(showId);
+        screensByShow.remove(showId);
+    }
+
+    /**
+     * Drops shows that have ended; nobody books or renders them any more.
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.warmup.eviction-interval-ms:600000}")
+    public void evictEndedShows() {
+        long now = System.currentTimeMillis();
+        showEnds.forEach((showId, end) -> {
+            if (end < now) {
+                evict(showId);
+            }
+        });
+    }
+
+    /**
+     * @return Miss coalescing per data kind (SHOW, PRICES, SEAT_LAYOUT)
+     */
+    public List<SingleFlightStatsDTO> getLoadCoalescing() {
+        return SingleFlight.snapshots(showLoads, priceLoads, layoutLoads);
+    }
+
+    /**
+     * @return Number of shows with anything cached
+     */
+    public int size() {
+        return showEnds.size();
+    }
+
+    /**
+     * Approximate database payload of layout rows: 8 bytes per ID, 4 per int,
+     * 1 per seat name character.
+     *
+     * @param layout Layout rows
+     * @return Bytes
+     */
+    public static long payloadBytes(List<SeatLayoutRowDTO> layout) {
+        long bytes = 0;
+        for (SeatLayoutRowDTO row : layout) {
+            bytes += 8 + 4 + 4 + 8 + (row.getSeatName() == null ? 0 : row.getSeatName().length());
+        }
+        return bytes;
+    }
+
+    /**
+     * Approximate database payload of a price map: seat type ID and price per entry.
+     *
+     * @param prices Seat type ID → price
+     * @return Bytes
+     */
+    public static long payloadBytes(Map<Long, Integer> prices) {
+        return prices.size() * (8L + 4L);
+    }
+
+    // Leader of a price miss; re-checks the cache in case a load finished just before
+    private Versioned<Map<Long, Integer>> loadPrices(Show show) {
+        // Tag before querying: the query sees at least every edit heard of so far
+        long version = pricesVersion(show.getId());
+        Versioned<Map<Long, Integer>> cached = pricesByShow.get(show.getId());
+        if (cached != null && cached.version >= version) {
+            return cached;
+        }
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (ShowSeatType showSeatType : showSeatTypeRespository.findAllByShow(show)) {
+            loaded.put(showSeatType.getSeatType().getId(), showSeatType.getPrice());
+        }
+        Versioned<Map<Long, Integer>> prices = new Versioned<>(Map.copyOf(loaded), version);
+        remember(show);
+        pricesByShow.put(show.getId(), prices);
+        return prices;
+    }
+
+    // Leader of a seat map miss
+    private Versioned<List<SeatLayoutRowDTO>> loadSeatLayout(Show show) {
+        long version = layoutVersion(screenId(show));
+        Versioned<List<SeatLayoutRowDTO>> cached = layoutsByShow.get(show.getId());
+        if (cached != null && cached.version >= version) {
+            return cached;
+        }
+        Versioned<List<SeatLayoutRowDTO>> layout = new Versioned<>(
+                List.copyOf(showSeatRepository.findLayoutByShowId(show.getId())), version);
+        remember(show);
+        layoutsByShow.put(show.getId(), layout);
+        return layout;
+    }
+
+    private void remember(Show show) {
+        showEnds.put(show.getId(), show.getEndTime() == null ? Long.MAX_VALUE : show.getEndTime().getTime());
+        Long screenId = screenId(show);
+        if (screenId != null) {
+            screensByShow.put(show.getId(), screenId);
+        }
+    }
+
+    // Frees entries an edit made stale; reads already skip them by version
+    private void onInvalidation(Invalidation invalidation) {
+        if (invalidation.getType() == CachedEntityType.SHOW_PRICES) {
+            pricesByShow.remove(invalidation.getEntityId());
+        } else if (invalidation.getType() == CachedEntityType.SCREEN_LAYOUT) {
+            screensByShow.forEach((showId, screenId) -> {
+                if (screenId == invalidation.getEntityId()) {
+                    layoutsByShow.remove(showId);
+                }
+            });
+        }
+    }
+
+    private long pricesVersion(Long showId) {
+        return invalidationBus.seenVersion(CachedEntityType.SHOW_PRICES, showId);
+    }
+
+    private long layoutVersion(Long screenId) {
+        return invalidationBus.seenVersion(CachedEntityType.SCREEN_LAYOUT, screenId);
+    }
+
+    private static Long screenId(Show show) {
+        return show.getScreen() == null ? null : show.getScreen().getId();
+    }
+
+    // Cached value with the invalidation version seen when its load started
+    private static final class Versioned<T> {
+
+        private final T value;
+        private final long version;
+
+        private Versioned(T value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.controller.BookingController;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Measures how long a fresh node takes to become useful during a sale.
+ *
+ * Two numbers, both as JVM uptime (so class loading before main() is included):
+ * - context ready: the Spring context is refreshed (entity scanning, repository
+ *   proxies, bean creation done)
+ * - first booking: a real booking went through BookingController, i.e. the
+ *   booking path's classes are loaded and Hibernate has prepared its statements
+ *
+ * Runs only with --bookmyshow.startup-probe.enabled=true AND the embedded
+ * profile active: it seeds one show, books one seat, logs the numbers and
+ * exits the JVM, which must never happen against a real database.
+ * The fast-startup Maven profile runs it for the default boot path and for
+ * AOT + AppCDS, and also uses it as the CDS training run.
+ *
+ * Both are checked at runtime instead of with @Profile / @ConditionalOnProperty,
+ * because AOT processing evaluates those once at build time, without the
+ * embedded profile.
+ *
+ * Example output:
+ * startup-probe mode=aot+cds contextReadyMs=1450 firstBookingMs=1730 booking=SUCCESS
+ */
+@Component
+public class StartupProbe implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupProbe.class);
+
+    private Environment environment;
+    private ConfigurableApplicationContext applicationContext;
+    private BookingController bookingController;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param environment Checked for bookmyshow.startup-probe.enabled and the embedded profile
+     * @param applicationContext Closed after the probe
+     * @param bookingController Entry point of the booking that is timed
+     * @param entityManager Used to seed the probe show
+     * @param transactionManager Seeding runs in its own transaction
+     */
+    @Autowired
+    public StartupProbe(Environment environment,
+                        ConfigurableApplicationContext applicationContext,
+                        BookingController bookingController,
+                        EntityManager entityManager,
+                        PlatformTransactionManager transactionManager) {
+        this.environment = environment;
+        this.applicationContext = applicationContext;
+        this.bookingController = bookingController;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!environment.getProperty("bookmyshow.startup-probe.enabled", Boolean.class, false)) {
+            return;
+        }
+        if (!environment.acceptsProfiles(Profiles.of("embedded"))) {
+            log.warn("bookmyshow.startup-probe.enabled is ignored outside the embedded profile");
+            return;
+        }
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        long contextReadyMs = runtime.getUptime();
+
+        BookMovieRequestDTO request = transactionTemplate.execute(status -> seed());
+        BookMovieResponseDTO response = bookingController.bookMovie(request);
+        long firstBookingMs = runtime.getUptime();
+
+        boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        String mode = (AotDetector.useGeneratedArtifacts() ? "aot" : "default") + (cds ? "+cds" : "");
+        log.info("startup-probe mode={} contextReadyMs={} firstBookingMs={} booking={}",
+                mode, contextReadyMs, firstBookingMs, response.getResponseStatus());
+
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+
+    // One screen, one seat, one show, one user
+    private BookMovieRequestDTO seed() {
+        SeatType seatType = new SeatType();
+        seatType.setName("NORMAL");
+        entityManager.persist(seatType);
+
+        Movie movie = new Movie();
+        movie.setTitle("Startup Probe");
+        entityManager.persist(movie);
+
+        Screen screen = new Screen();
+        screen.setName("Probe");
+        entityManager.persist(screen);
+
+        Seat seat = new Seat();
+        seat.setName("A1");
+        seat.setSeatType(seatType);
+        entityManager.persist(seat);
+
+        Show show = new Show();
+        show.setMovie(movie);
+        show.setScreen(screen);
+        show.setStartTime(new Date());
+        show.setEndTime(new Date());
+        entityManager.persist(show);
+
+        ShowSeatType price = new ShowSeatType();
+        price.setShow(show);
+        price.setSeatType(seatType);
+        price.setPrice(200);
+        entityManager.persist(price);
+
+        ShowSeat showSeat = new ShowSeat();
+        showSeat.setShow(show);
+        showSeat.setSeat(seat);
+        showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+        entityManager.persist(showSeat);
+
+        User user = new User();
+        user.setEmail("startup-probe@example.com");
+        entityManager.persist(user);
+
+        BookMovieRequestDTO request = new BookMovieRequestDTO();
+        request.setUserId(user.getId());
+        request.setShowId(show.getId());
+        request.setShowsSeatId(List.of(showSeat.getId()));
+        return request;
+    }
+}
@@ -1,8 +1,11 @@
 package MyFirstProject.demo.services;
 
 import MyFirstProject.demo.exceptions.InvalidUserException;
+import MyFirstProject.demo.jfr.PasswordHashEvent;
+import MyFirstProject.demo.models.Workload;
 import MyFirstProject.demo.repositories.UserRepository;
 import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.services.workload.WorkloadPool;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,7 @@ import java.util.Optional;
  * making brute-force attacks impractical. Each password gets a unique salt for added security.
  */
 @Service
+@WorkloadPool(Workload.LOGIN)
 public class UserService {
 
     private UserRepository userRepository;
@@ -76,12 +80,12 @@ public class UserService {
 
         // Step 4: Verify password
         // The matches() method safely compares plain-text input with hashed password
-        if(!encoder.matches(password, passwordStoredInDB)){
+        if(!verify(encoder, password, passwordStoredInDB)){
             throw new InvalidUserException("Invalid password.");
         }
 
         // Authentication successful
-        return encoder.matches(password, passwordStoredInDB);
+        return verify(encoder, password, passwordStoredInDB);
     }
 
     /**
@@ -129,7 +133,7 @@ public class UserService {
         // - Applies the BCrypt hashing algorithm
         // - Combines salt and hash into a single string
         BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encode(passwordEncoder, password));
 
         // Step 4: Persist the new user to database
         // Password is stored in hashed form, never in plain text
@@ -138,4 +142,30 @@ public class UserService {
         // Return the created user object
         return user;
     }
+
+    // BCrypt verify, timed as a JFR PasswordHashEvent
+    private boolean verify(BCryptPasswordEncoder encoder, String password, String hash) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = encoder.matches(password, hash);
+        if (event.shouldCommit()) {
+            event.operation = PasswordHashEvent.VERIFY;
+            event.matched = matched;
+            event.commit();
+        }
+        return matched;
+    }
+
+    // BCrypt encode, timed as a JFR PasswordHashEvent
+    private String encode(BCryptPasswordEncoder encoder, String password) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String hash = encoder.encode(password);
+        if (event.shouldCommit()) {
+            event.operation = PasswordHashEvent.ENCODE;
+            event.matched = true;
+            event.commit();
+        }
+        return hash;
+    }
 }
@@ -0,0 +1,73 @@
+package MyFirstProject.demo.services.admission;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Signs and checks waiting room tickets with HMAC-SHA256.
+ *
+ * A ticket is "<payload>.<signature>", e.g. "a.7.123.1760190000.Xk3...".
+ * Tickets carry their own state (show, user, number or expiry), so checking
+ * one needs no lookup: any instance with the same key can verify it.
+ *
+ * Mac instances are not thread-safe and cost a few microseconds to create,
+ * so each thread keeps its own.
+ */
+public class AdmissionTicketSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param key HMAC key
+     */
+    public AdmissionTicketSigner(byte[] key) {
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * @param payload Dot-separated ticket fields
+     * @return payload + "." + signature
+     */
+    public String sign(String payload) {
+        return payload + "." + signature(payload);
+    }
+
+    /**
+     * @param ticket Ticket as handed out by sign
+     * @return The payload if the signature matches, null otherwise
+     */
+    public String verify(String ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        int dot = ticket.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = ticket.substring(0, dot);
+        byte[] expected = signature(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = ticket.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        // Constant time, so the signature can't be guessed byte by byte from response times
+        return MessageDigest.isEqual(expected, actual) ? payload : null;
+    }
+
+    private String signature(String payload) {
+        byte[] mac = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+    }
+}
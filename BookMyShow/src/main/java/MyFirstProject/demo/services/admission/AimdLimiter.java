@@ -0,0 +1,114 @@
+package MyFirstProject.demo.services.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency with AIMD
+ * (additive increase, multiplicative decrease, as in TCP congestion control).
+ *
+ * - A request may start only while fewer than limit requests are in flight;
+ *   otherwise it is shed at once
+ * - Fast completion while the limit was actually used (in flight >= limit / 2):
+ *   limit += 1 / limit, i.e. about +1 per limit's worth of requests
+ * - Completion slower than the latency threshold, or a dropped request
+ *   (lock timeout, deadlock): limit x backoffRatio
+ *
+ * One cut per congestion episode:
+ * When the database stalls, every request in flight comes back slow. Only
+ * requests that started after the previous cut may cut again; otherwise 20
+ * slow requests would shrink the limit twenty times for one stall.
+ *
+ * Why shed instead of queue:
+ * Past the limit, extra requests only wait for connections and locks, and
+ * make every request slow. Refusing some keeps latency normal for the rest.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+
+    private volatile double limit;
+    private long lastCutNanos = Long.MIN_VALUE;
+
+    /**
+     * @param initialLimit Limit at startup
+     * @param minLimit Lower bound
+     * @param maxLimit Upper bound
+     * @param latencyThresholdNanos Completion time above which a request counts as congestion
+     * @param backoffRatio Multiplier applied on congestion (e.g. 0.9)
+     */
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Takes a slot if the limit allows. Every successful call must be followed
+     * by exactly one release.
+     *
+     * @return True if the request may run, false if it is shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and adjusts the limit from the request's outcome.
+     *
+     * @param startNanos System.nanoTime() when the request acquired its slot
+     * @param dropped True if the request failed because of overload (lock timeout, deadlock)
+     */
+    public void release(long startNanos, boolean dropped) {
+        long now = System.nanoTime();
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped || now - startNanos > latencyThresholdNanos) {
+                if (startNanos > lastCutNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastCutNanos = now;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * @return Current limit (rounded down when enforced)
+     */
+    public double getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Requests running now
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Requests shed since startup
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+}
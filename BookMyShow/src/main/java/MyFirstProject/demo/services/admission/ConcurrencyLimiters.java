@@ -0,0 +1,88 @@
+package MyFirstProject.demo.services.admission;
+
+import MyFirstProject.demo.configs.ConcurrencyLimitProperties;
+import MyFirstProject.demo.dtos.ConcurrencyLimitDTO;
+import MyFirstProject.demo.exceptions.ServiceOverloadedException;
+import MyFirstProject.demo.models.TrafficClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One adaptive concurrency limit (AimdLimiter) per traffic class.
+ *
+ * Problem:
+ * Thread pools and connection pools are fixed. Under overload every extra
+ * bookMovie waits for a connection and for row locks, so latency explodes for
+ * everyone and requests time out together.
+ *
+ * Solution:
+ * Controllers take a permit before calling BookingServices / UserService /
+ * read services. Past the current limit the request is shed at once with
+ * ResponseStatus.OVERLOADED (or ServiceOverloadedException), and the limit
+ * follows observed latency, so the system runs near its real capacity.
+ *
+ * Classes are limited separately (see TrafficClass) so one kind of traffic
+ * can't use up the others' share.
+ */
+@Service
+public class ConcurrencyLimiters {
+
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    private final Map<TrafficClass, AimdLimiter> limiters = new EnumMap<>(TrafficClass.class);
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param concurrencyLimitProperties Limit bounds and latency thresholds per traffic class
+     */
+    @Autowired
+    public ConcurrencyLimiters(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        // Filled once, read-only afterwards, so the EnumMap is safe to share
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            ConcurrencyLimitProperties.Limit limit = concurrencyLimitProperties.get(trafficClass);
+            limiters.put(trafficClass, new AimdLimiter(limit.getInitialLimit(), limit.getMinLimit(),
+                    limit.getMaxLimit(), limit.getLatencyThresholdMs() * 1_000_000L, limit.getBackoffRatio()));
+        }
+    }
+
+    /**
+     * Takes a slot for one request.
+     *
+     * @param trafficClass Kind of request
+     * @return Permit to close when the request is done
+     * @throws ServiceOverloadedException if the class is at its limit (nothing was done)
+     */
+    public ConcurrencyPermit acquire(TrafficClass trafficClass) throws ServiceOverloadedException {
+        if (!concurrencyLimitProperties.isEnabled()) {
+            return new ConcurrencyPermit(null);
+        }
+        AimdLimiter limiter = limiters.get(trafficClass);
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException(trafficClass + " is at its concurrency limit");
+        }
+        return new ConcurrencyPermit(limiter);
+    }
+
+    /**
+     * @return Current limit, in-flight count and shed count per traffic class
+     */
+    public List<ConcurrencyLimitDTO> snapshot() {
+        List<ConcurrencyLimitDTO> result = new ArrayList<>();
+        for (Map.Entry<TrafficClass, AimdLimiter> entry : limiters.entrySet()) {
+            ConcurrencyLimitDTO dto = new ConcurrencyLimitDTO();
+            dto.setTrafficClass(entry.getKey().name());
+            dto.setLimit(entry.getValue().getLimit());
+            dto.setInFlight(entry.getValue().getInFlight());
+            dto.setShed(entry.getValue().getShed());
+            result.add(dto);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package MyFirstProject.demo.services.admission;
+
+/**
+ * A slot held by one request under its traffic class's concurrency limit.
+ *
+ * Usage:
+ * try (ConcurrencyPermit permit = concurrencyLimiters.acquire(TrafficClass.BOOKING)) {
+ *     ... do the work ...
+ * } // released here; completion time feeds the limit
+ *
+ * Call dropped() before closing when the request failed because of overload
+ * (lock timeout, deadlock), so the limit shrinks even if the failure was fast.
+ */
+public class ConcurrencyPermit implements AutoCloseable {
+
+    private final AimdLimiter limiter;
+    private final long startNanos;
+    private boolean dropped;
+    private boolean closed;
+
+    ConcurrencyPermit(AimdLimiter limiter) {
+        this.limiter = limiter;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the request as failed because of overload.
+     */
+    public void dropped() {
+        dropped = true;
+    }
+
+    @Override
+    public void close() {
+        if (!closed && limiter != null) {
+            closed = true;
+            limiter.release(startNanos, dropped);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package MyFirstProject.demo.services.admission;
+
+/**
+ * Classic token bucket: tokens accrue at ratePerSecond up to capacity, and
+ * every admission spends one.
+ *
+ * Refill is lazy (computed from elapsed time when tokens are taken), so an
+ * idle bucket costs nothing and no timer thread is needed.
+ *
+ * Not thread-safe: WaitingRoom synchronizes on itself around every call.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond Refill rate
+     * @param capacity Max tokens (burst size); the bucket starts full
+     * @param nowNanos System.nanoTime()
+     */
+    public TokenBucket(double ratePerSecond, int capacity, long nowNanos) {
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes up to wanted whole tokens.
+     *
+     * @param wanted Tokens asked for
+     * @param nowNanos System.nanoTime()
+     * @return Tokens granted (0..wanted)
+     */
+    public int take(long wanted, long nowNanos) {
+        refill(nowNanos);
+        int granted = (int) Math.min(wanted, (long) tokens);
+        tokens -= granted;
+        return granted;
+    }
+
+    /**
+     * Changes the refill rate; tokens accrued so far are kept.
+     *
+     * @param ratePerSecond New refill rate
+     * @param nowNanos System.nanoTime()
+     */
+    public void setRate(double ratePerSecond, long nowNanos) {
+        refill(nowNanos);
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * @return Current refill rate
+     */
+    public double getRate() {
+        return ratePerSecond;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * ratePerSecond / 1_000_000_000.0);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package MyFirstProject.demo.services.admission;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The line of one show.
+ *
+ * A line is two counters, not a list of users:
+ * - lastNumber: numbers handed out so far (the n-th user to enter gets n)
+ * - admittedUpTo: every number up to this one has been admitted
+ *
+ * Position of number n = n - admittedUpTo, computed in O(1), so polling the
+ * line costs the same for the first and the 100,000th user. Admission is lazy:
+ * each enter/status call first lets through as many numbers as the token
+ * bucket allows since the previous call.
+ *
+ * One number per user:
+ * numbersByUser remembers the number each user holds, so entering again (a
+ * reload, a second tab, a script) returns the same number instead of a second
+ * place in line. An admission is only good while its user still holds the
+ * number: a successful booking gives it up (spend), so one admission books
+ * once and the next booking means entering the line again. While a booking
+ * runs the number is claimed, so parallel requests with the same admission
+ * can't book twice.
+ *
+ * Trade-off: users who leave the page still hold their number and use up an
+ * admission when it comes; the rate tuner sees them as unused capacity.
+ */
+public class WaitingRoom {
+
+    private final TokenBucket bucket;
+    private long lastNumber;
+    private long admittedUpTo;
+    private long lastActivityNanos;
+
+    // userId → number held in this line, and the numbers with a booking in progress
+    private final Map<Long, Long> numbersByUser = new HashMap<>();
+    private final Set<Long> claimedByUser = new HashSet<>();
+
+    /**
+     * @param ratePerSecond Initial admission rate
+     * @param burst Token bucket capacity
+     * @param nowNanos System.nanoTime()
+     */
+    public WaitingRoom(double ratePerSecond, int burst, long nowNanos) {
+        this.bucket = new TokenBucket(ratePerSecond, burst, nowNanos);
+        this.lastActivityNanos = nowNanos;
+    }
+
+    /**
+     * Hands out the next number, or the number the user already holds.
+     *
+     * @param userId User entering
+     * @param nowNanos System.nanoTime()
+     * @return Number of the user (a new one is admitted at once if the line is empty and a token is left)
+     */
+    public synchronized long enter(long userId, long nowNanos) {
+        lastActivityNanos = nowNanos;
+        Long held = numbersByUser.get(userId);
+        if (held == null) {
+            held = ++lastNumber;
+            numbersByUser.put(userId, held);
+        }
+        admit(nowNanos);
+        return held;
+    }
+
+    /**
+     * Also counts as activity: an admission issued now keeps the room until it expires.
+     *
+     * @param number Number handed out by enter
+     * @param nowNanos System.nanoTime()
+     * @return Users ahead of this number, 0 once admitted
+     */
+    public synchronized long position(long number, long nowNanos) {
+        lastActivityNanos = nowNanos;
+        admit(nowNanos);
+        return Math.max(0, number - admittedUpTo);
+    }
+
+    /**
+     * @param userId User of a ticket
+     * @param number Number on the ticket
+     * @return True if the user still holds this number (not spent, not replaced)
+     */
+    public synchronized boolean holds(long userId, long number) {
+        Long held = numbersByUser.get(userId);
+        return held != null && held == number;
+    }
+
+    /**
+     * Starts a booking on an admitted number.
+     *
+     * @param userId User booking
+     * @param number Number on the admission ticket
+     * @return False if the user doesn't hold this number or already has a booking running on it
+     */
+    public synchronized boolean claim(long userId, long number) {
+        return holds(userId, number) && claimedByUser.add(userId);
+    }
+
+    /**
+     * Ends a booking started by claim.
+     *
+     * @param userId User booking
+     * @param number Number on the admission ticket
+     * @param spend True after a successful booking: the user gives up the number
+     */
+    public synchronized void release(long userId, long number, boolean spend) {
+        if (!holds(userId, number)) {
+            return;
+        }
+        claimedByUser.remove(userId);
+        if (spend) {
+            numbersByUser.remove(userId);
+        }
+    }
+
+    /**
+     * @param nowNanos System.nanoTime()
+     * @return Users not admitted yet
+     */
+    public synchronized long waiting(long nowNanos) {
+        admit(nowNanos);
+        return lastNumber - admittedUpTo;
+    }
+
+    /**
+     * @param ratePerSecond New admission rate
+     * @param nowNanos System.nanoTime()
+     */
+    public synchronized void setRate(double ratePerSecond, long nowNanos) {
+        admit(nowNanos);
+        bucket.setRate(ratePerSecond, nowNanos);
+    }
+
+    /**
+     * @return Current admission rate
+     */
+    public synchronized double getRate() {
+        return bucket.getRate();
+    }
+
+    /**
+     * @return System.nanoTime() of the last enter or position
+     */
+    public synchronized long getLastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    private void admit(long nowNanos) {
+        long waiting = lastNumber - admittedUpTo;
+        if (waiting > 0) {
+            admittedUpTo += bucket.take(waiting, nowNanos);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package MyFirstProject.demo.services.admission;
+
+import MyFirstProject.demo.configs.WaitingRoomProperties;
+import MyFirstProject.demo.dtos.BookingMetricsDTO;
+import MyFirstProject.demo.dtos.WaitingRoomStatusDTO;
+import MyFirstProject.demo.exceptions.InvalidAdmissionTicketException;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.BookingMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Virtual waiting room: admission control in front of bookMovie.
+ *
+ * Problem:
+ * When a blockbuster goes on sale, tens of thousands of users call bookMovie
+ * in the same second. The database can serialize a few hundred bookings per
+ * second; the rest queue on row locks, time out together, and retry.
+ *
+ * Solution:
+ * 1. Users enter the show's waiting room and get a numbered, signed queue ticket
+ * 2. Each show's token bucket admits numbers in order, at a rate tuned to the
+ *    bookMovie throughput the database actually achieved
+ * 3. An admitted user gets a signed admission ticket (valid ticketTtlSeconds)
+ * 4. BookingController only runs bookMovie for requests with a valid admission ticket
+ * 5. A successful booking spends the admission: the next one means entering again
+ *
+ * Cheap to query:
+ * A room is two counters plus a token bucket (see WaitingRoom); position is a
+ * subtraction and tickets are verified with one HMAC, no database. The only
+ * per-user state is the number each user holds (one map entry per user in
+ * line or admitted), which makes entering again return the same number and
+ * lets an admission be spent.
+ *
+ * Rate tuning (every tuningIntervalMs):
+ * - Lock timeouts / deadlocks / serialization failures in the last interval:
+ *   the database is overloaded, rate x backoff. This is the only cut.
+ * - Otherwise, if some room had a line, the rate probes upwards:
+ *   rate = max(rate, measured bookMovie calls per second x headroom), plus
+ *   additiveIncrease if the admissions were used (measured at least half the
+ *   rate). Users who were admitted but didn't book yet make the measured
+ *   throughput look low; that is not a reason to admit fewer.
+ * - The rate is shared equally by the rooms that have a line
+ *
+ * Disabled (bookmyshow.waiting-room.enabled=false): every request counts as admitted.
+ */
+@Service
+public class WaitingRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomService.class);
+
+    private WaitingRoomProperties waitingRoomProperties;
+    private BookingMetrics bookingMetrics;
+    private AdmissionTicketSigner signer;
+
+    private final Map<Long, WaitingRoom> roomsByShow = new ConcurrentHashMap<>();
+
+    // Admissions per second across all rooms
+    private volatile double admitsPerSecond;
+
+    private long lastTuneNanos = System.nanoTime();
+    private long lastAttempts;
+    private long lastRetryableFailures;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param waitingRoomProperties Rates, burst, ticket lifetime and key
+     * @param bookingMetrics Source of the measured bookMovie throughput
+     */
+    @Autowired
+    public WaitingRoomService(WaitingRoomProperties waitingRoomProperties, BookingMetrics bookingMetrics) {
+        this.waitingRoomProperties = waitingRoomProperties;
+        this.bookingMetrics = bookingMetrics;
+        this.admitsPerSecond = waitingRoomProperties.getInitialAdmitsPerSecond();
+
+        byte[] key;
+        if (waitingRoomProperties.getSecret().isEmpty()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            if (waitingRoomProperties.isEnabled()) {
+                log.warn("bookmyshow.waiting-room.secret is not set; tickets are only valid on this instance");
+            }
+        } else {
+            key = waitingRoomProperties.getSecret().getBytes(StandardCharsets.UTF_8);
+        }
+        this.signer = new AdmissionTicketSigner(key);
+    }
+
+    /**
+     * Puts a user in the show's line.
+     *
+     * @param userId User entering
+     * @param showId Show going on sale
+     * @return Status with the queue ticket (the same number if the user is already in line);
+     *         already admitted if the line was empty
+     */
+    public WaitingRoomStatusDTO enter(Long userId, Long showId) {
+        long now = System.nanoTime();
+        long[] number = new long[1];
+        // compute() so that the idle-room cleanup can't drop the room between creation and enter
+        WaitingRoom waitingRoom = roomsByShow.compute(showId, (k, room) -> {
+            if (room == null) {
+                room = new WaitingRoom(ratePerRoom(), waitingRoomProperties.getBurst(), now);
+            }
+            number[0] = room.enter(userId, now);
+            return room;
+        });
+        String queueTicket = signer.sign("q." + showId + "." + userId + "." + number[0]);
+        return status(waitingRoom, showId, userId, number[0], queueTicket, now);
+    }
+
+    /**
+     * Where the holder of a queue ticket stands; issues the admission ticket once admitted.
+     *
+     * @param queueTicket Ticket returned by enter
+     * @return Position, estimated wait and, once admitted, the admission ticket
+     * @throws InvalidAdmissionTicketException if the ticket is malformed, its signature doesn't match,
+     *         or its user no longer holds the number (booked with it, or the room was dropped): enter again
+     */
+    public WaitingRoomStatusDTO getStatus(String queueTicket) throws InvalidAdmissionTicketException {
+        String[] fields = parse(queueTicket, "q", 4);
+        Long showId = Long.parseLong(fields[1]);
+        Long userId = Long.parseLong(fields[2]);
+        long number = Long.parseLong(fields[3]);
+        WaitingRoom room = roomsByShow.get(showId);
+        if (room == null || !room.holds(userId, number)) {
+            throw new InvalidAdmissionTicketException("Ticket is no longer in line");
+        }
+        return status(room, showId, userId, number, queueTicket, System.nanoTime());
+    }
+
+    /**
+     * Reads the show of a queue ticket without verifying it, so that getStatus
+     * can be sent to the show's owner; the owner verifies the signature.
+     *
+     * @param queueTicket Ticket returned by enter
+     * @return Show ID, or null if the ticket isn't shaped like a queue ticket
+     */
+    public Long showIdOf(String queueTicket) {
+        if (queueTicket == null) {
+            return null;
+        }
+        // q.<showId>.<userId>.<number>.<signature>
+        String[] fields = queueTicket.split("\\.");
+        if (fields.length != 5 || !fields[0].equals("q")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(fields[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks an admission ticket before bookMovie runs and claims it for this booking.
+     * Every successful claim must be followed by releaseAdmission.
+     *
+     * @param admissionTicket Ticket from getStatus/enter (may be null)
+     * @param userId User calling bookMovie
+     * @param showId Show being booked
+     * @return True if the waiting room is disabled, or the ticket is genuine, unexpired, for this
+     *         user and show, not spent yet and not in use by another booking of the same user
+     */
+    public boolean claimAdmission(String admissionTicket, Long userId, Long showId) {
+        if (!waitingRoomProperties.isEnabled()) {
+            return true;
+        }
+        try {
+            String[] fields = parse(admissionTicket, "a", 5);
+            if (!fields[1].equals(String.valueOf(showId))
+                    || !fields[2].equals(String.valueOf(userId))
+                    || Long.parseLong(fields[3]) < System.currentTimeMillis() / 1000) {
+                return false;
+            }
+            WaitingRoom room = roomsByShow.get(showId);
+            return room != null && room.claim(userId, Long.parseLong(fields[4]));
+        } catch (InvalidAdmissionTicketException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ends the booking started by claimAdmission.
+     *
+     * @param admissionTicket Ticket passed to claimAdmission
+     * @param userId User calling bookMovie
+     * @param showId Show being booked
+     * @param booked True if the booking succeeded: the admission is spent
+     */
+    public void releaseAdmission(String admissionTicket, Long userId, Long showId, boolean booked) {
+        if (!waitingRoomProperties.isEnabled()) {
+            return;
+        }
+        try {
+            String[] fields = parse(admissionTicket, "a", 5);
+            WaitingRoom room = roomsByShow.get(showId);
+            if (room != null) {
+                room.release(userId, Long.parseLong(fields[4]), booked);
+            }
+        } catch (InvalidAdmissionTicketException e) {
+            // Never claimed
+        }
+    }
+
+    /**
+     * @return Admissions per second across all shows (current tuned value)
+     */
+    public double getAdmitsPerSecond() {
+        return admitsPerSecond;
+    }
+
+    /**
+     * Retunes the admission rate from the bookMovie throughput of the last
+     * interval and drops rooms that have been empty for a ticket lifetime.
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.waiting-room.tuning-interval-ms:1000}")
+    public synchronized void tune() {
+        if (!waitingRoomProperties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        BookingMetricsDTO metrics = bookingMetrics.snapshot();
+        long attempts = metrics.getAttempts() - lastAttempts;
+        long retryableFailures = metrics.getRetryableFailures() - lastRetryableFailures;
+        double seconds = (now - lastTuneNanos) / 1_000_000_000.0;
+        lastAttempts = metrics.getAttempts();
+        lastRetryableFailures = metrics.getRetryableFailures();
+        lastTuneNanos = now;
+
+        // Rooms with a line share the rate; idle empty rooms are dropped
+        int roomsWithLine = 0;
+        long idleNanos = waitingRoomProperties.getTicketTtlSeconds() * 1_000_000_000L;
+        for (Long showId : roomsByShow.keySet()) {
+            WaitingRoom room = roomsByShow.computeIfPresent(showId, (k, r) ->
+                    r.waiting(now) == 0 && now - r.getLastActivityNanos() > idleNanos ? null : r);
+            if (room != null && room.waiting(now) > 0) {
+                roomsWithLine++;
+            }
+        }
+
+        double rate = admitsPerSecond;
+        if (retryableFailures > 0) {
+            rate = rate * waitingRoomProperties.getBackoff();
+        } else if (roomsWithLine > 0 && seconds > 0) {
+            double measured = attempts / seconds;
+            rate = Math.max(rate, measured * waitingRoomProperties.getHeadroom());
+            // Probe only if the admissions were used; otherwise more of them tells us nothing
+            if (measured * 2 >= admitsPerSecond) {
+                rate += waitingRoomProperties.getAdditiveIncrease();
+            }
+        }
+        admitsPerSecond = Math.max(waitingRoomProperties.getMinAdmitsPerSecond(),
+                Math.min(waitingRoomProperties.getMaxAdmitsPerSecond(), rate));
+
+        double perRoom = admitsPerSecond / Math.max(1, roomsWithLine);
+        for (WaitingRoom room : roomsByShow.values()) {
+            room.setRate(perRoom, now);
+        }
+    }
+
+    private WaitingRoomStatusDTO status(WaitingRoom room, Long showId, Long userId, long number,
+                                        String queueTicket, long now) {
+        long position = room.position(number, now);
+
+        WaitingRoomStatusDTO dto = new WaitingRoomStatusDTO();
+        dto.setShowId(showId);
+        dto.setQueueTicket(queueTicket);
+        dto.setPosition(position);
+        if (position == 0) {
+            long expiresAt = System.currentTimeMillis() / 1000 + waitingRoomProperties.getTicketTtlSeconds();
+            dto.setAdmissionTicket(signer.sign("a." + showId + "." + userId + "." + expiresAt + "." + number));
+            dto.setResponseStatus(ResponseStatus.SUCCESS);
+        } else {
+            dto.setEstimatedWaitSeconds((long) Math.ceil(position / room.getRate()));
+            dto.setResponseStatus(ResponseStatus.PENDING);
+        }
+        return dto;
+    }
+
+    private double ratePerRoom() {
+        return admitsPerSecond / Math.max(1, roomsByShow.size());
+    }
+
+    // Returns the verified fields: queue [q, showId, userId, number], admission [a, showId, userId, expiry, number]
+    private String[] parse(String ticket, String kind, int length) throws InvalidAdmissionTicketException {
+        String payload = signer.verify(ticket);
+        if (payload == null) {
+            throw new InvalidAdmissionTicketException("Ticket signature does not match");
+        }
+        String[] fields = payload.split("\\.");
+        if (fields.length != length || !fields[0].equals(kind)) {
+            throw new InvalidAdmissionTicketException("Not a " + ("q".equals(kind) ? "queue" : "admission") + " ticket");
+        }
+        try {
+            for (int i = 1; i < length; i++) {
+                Long.parseLong(fields[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidAdmissionTicketException("Malformed ticket");
+        }
+        return fields;
+    }
+}
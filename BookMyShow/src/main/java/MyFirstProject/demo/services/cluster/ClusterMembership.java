@@ -0,0 +1,23 @@
+package MyFirstProject.demo.services.cluster;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Which booking nodes are currently in the cluster.
+ *
+ * Implemented by LocalCluster (in-JVM stand-in, used by default and in tests);
+ * a deployment plugs in its service discovery by declaring another bean.
+ */
+public interface ClusterMembership {
+
+    /**
+     * @return IDs of the live nodes
+     */
+    Set<String> getMembers();
+
+    /**
+     * @param listener Called with the new member set after every join or leave
+     */
+    void addListener(Consumer<Set<String>> listener);
+}
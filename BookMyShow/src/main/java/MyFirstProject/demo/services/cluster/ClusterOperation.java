@@ -0,0 +1,69 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.EnterWaitingRoomRequestDTO;
+import MyFirstProject.demo.dtos.JoinWaitlistRequestDTO;
+import MyFirstProject.demo.dtos.JoinWaitlistResponseDTO;
+import MyFirstProject.demo.dtos.LeaveWaitlistRequestDTO;
+import MyFirstProject.demo.dtos.ShowCancellationReportDTO;
+import MyFirstProject.demo.dtos.WaitingRoomStatusDTO;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.SeatsReleasedEvent;
+
+/**
+ * A per-show operation that runs on the show's owner, with its request and response types.
+ *
+ * Why these:
+ * Each of them reads or changes per-show state that lives in one node's memory.
+ * - BOOK_MOVIE: seat counters, admission, idempotency
+ * - JOIN_WAITLIST / LEAVE_WAITLIST: the show's waitlist (WaitlistService)
+ * - ENTER_WAITING_ROOM / WAITING_ROOM_STATUS: the show's token bucket (WaitingRoomService)
+ * - CANCEL_SHOW: drops the show's counters and waitlist after the bulk cancellation
+ * - SEATS_RELEASED: seats released by a batch job on another node (hold expiry,
+ *   failed payment, single cancellation); the owner adjusts its counters and
+ *   offers the seats to its waitlist
+ *
+ * Example:
+ * clusterTransport.call("node-b", ClusterOperation.JOIN_WAITLIST, request) → JoinWaitlistResponseDTO
+ *
+ * @param <Q> Request type
+ * @param <R> Response type
+ */
+public final class ClusterOperation<Q, R> {
+
+    public static final ClusterOperation<BookMovieRequestDTO, BookMovieResponseDTO> BOOK_MOVIE =
+            new ClusterOperation<>("BOOK_MOVIE");
+
+    public static final ClusterOperation<JoinWaitlistRequestDTO, JoinWaitlistResponseDTO> JOIN_WAITLIST =
+            new ClusterOperation<>("JOIN_WAITLIST");
+
+    public static final ClusterOperation<LeaveWaitlistRequestDTO, ResponseStatus> LEAVE_WAITLIST =
+            new ClusterOperation<>("LEAVE_WAITLIST");
+
+    public static final ClusterOperation<EnterWaitingRoomRequestDTO, WaitingRoomStatusDTO> ENTER_WAITING_ROOM =
+            new ClusterOperation<>("ENTER_WAITING_ROOM");
+
+    // Request: the queue ticket
+    public static final ClusterOperation<String, WaitingRoomStatusDTO> WAITING_ROOM_STATUS =
+            new ClusterOperation<>("WAITING_ROOM_STATUS");
+
+    // Request: the show ID; response null if the show doesn't exist
+    public static final ClusterOperation<Long, ShowCancellationReportDTO> CANCEL_SHOW =
+            new ClusterOperation<>("CANCEL_SHOW");
+
+    // Request: releases of one show
+    public static final ClusterOperation<SeatsReleasedEvent, Boolean> SEATS_RELEASED =
+            new ClusterOperation<>("SEATS_RELEASED");
+
+    private final String name;
+
+    private ClusterOperation(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,37 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+
+import java.util.function.Function;
+
+/**
+ * Carries per-show requests to the node that owns their show.
+ *
+ * Every request type is a ClusterOperation; a node registers one endpoint per
+ * operation it serves.
+ *
+ * Implemented by LocalCluster (direct calls between in-JVM nodes); a
+ * deployment plugs in a network transport by declaring another bean.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Makes this node reachable for one operation: requests sent to nodeId are handled by endpoint.
+     *
+     * @param nodeId This node's ID
+     * @param operation Operation served
+     * @param endpoint The node's entry point for it (e.g. BookingController.bookMovie)
+     */
+    <Q, R> void listen(String nodeId, ClusterOperation<Q, R> operation, Function<Q, R> endpoint);
+
+    /**
+     * Sends a request to another node and returns its response.
+     *
+     * @param nodeId Owner of the request's show
+     * @param operation Operation to run there
+     * @param request Request
+     * @return The owner's response
+     * @throws NodeUnavailableException if the node can't be reached or doesn't serve the operation
+     */
+    <Q, R> R call(String nodeId, ClusterOperation<Q, R> operation, Q request) throws NodeUnavailableException;
+}
@@ -0,0 +1,98 @@
+package MyFirstProject.demo.services.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring from show IDs to node IDs.
+ *
+ * Every node is placed on a 64-bit ring at virtualNodes pseudo-random points
+ * (hash of "nodeId#i"). A show belongs to the first node point at or after
+ * the show's own hash, wrapping around at the end.
+ *
+ * Why consistent hashing:
+ * With "showId mod nodeCount", adding a fourth node to three moves 3/4 of
+ * all shows. Here a joining node takes over about 1/n of the shows (only
+ * those that now fall just before its points), and a leaving node's shows
+ * are spread over the remaining nodes; every other show keeps its owner, so
+ * their in-memory state stays where it is.
+ *
+ * Lookup: binary search over sorted points, O(log(nodes x virtualNodes)), no allocation.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final Set<String> nodes;
+
+    /**
+     * @param nodes Node IDs on the ring (may be empty)
+     * @param virtualNodes Points per node
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        // Sorted, so every node builds the same ring from the same member set
+        this.nodes = Set.copyOf(new TreeSet<>(nodes));
+        String[] sortedNodes = new TreeSet<>(nodes).toArray(new String[0]);
+        int size = sortedNodes.length * virtualNodes;
+
+        long[][] entries = new long[size][];
+        int i = 0;
+        for (int n = 0; n < sortedNodes.length; n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[i++] = new long[]{hash(sortedNodes[n] + "#" + v), n};
+            }
+        }
+        // Ties (practically never) are broken by node order, again the same everywhere
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int p = 0; p < size; p++) {
+            points[p] = entries[p][0];
+            owners[p] = sortedNodes[(int) entries[p][1]];
+        }
+    }
+
+    /**
+     * @param showId Show to place
+     * @return ID of the owning node, null if the ring is empty
+     */
+    public String ownerOf(long showId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, mix(showId));
+        if (index < 0) {
+            index = -index - 1;       // first point after the hash
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * @return Node IDs on the ring
+     */
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    // FNV-1a over the UTF-8 bytes, then mixed: well spread 64-bit points for short similar strings
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long value) {
+        long h = value + 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,87 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-JVM stand-in for cluster membership and transport.
+ *
+ * Used by default (a single node that owns every show) and by tests that run
+ * several nodes in one JVM: each node joins, listens with its per-show entry
+ * points, and forwarded requests are plain method calls.
+ *
+ * Example (three nodes in a test):
+ * LocalCluster cluster = new LocalCluster();
+ * cluster.join("a"); cluster.join("b"); cluster.join("c");
+ * ... cluster.leave("b") → listeners of "a" and "c" rebuild their rings
+ */
+public class LocalCluster implements ClusterMembership, ClusterTransport {
+
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+    // nodeId → (operation → endpoint)
+    private final Map<String, Map<ClusterOperation<?, ?>, Function<?, ?>>> endpoints = new ConcurrentHashMap<>();
+    private final List<Consumer<Set<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a node and notifies every listener.
+     *
+     * @param nodeId Joining node
+     */
+    public void join(String nodeId) {
+        if (members.add(nodeId)) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Removes a node (crash or shutdown) and notifies every listener.
+     *
+     * @param nodeId Leaving node
+     */
+    public void leave(String nodeId) {
+        endpoints.remove(nodeId);
+        if (members.remove(nodeId)) {
+            notifyListeners();
+        }
+    }
+
+    @Override
+    public Set<String> getMembers() {
+        return Set.copyOf(members);
+    }
+
+    @Override
+    public void addListener(Consumer<Set<String>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public <Q, R> void listen(String nodeId, ClusterOperation<Q, R> operation, Function<Q, R> endpoint) {
+        endpoints.computeIfAbsent(nodeId, k -> new ConcurrentHashMap<>()).put(operation, endpoint);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // listen() only stores a Function<Q, R> under a ClusterOperation<Q, R>
+    public <Q, R> R call(String nodeId, ClusterOperation<Q, R> operation, Q request) throws NodeUnavailableException {
+        Map<ClusterOperation<?, ?>, Function<?, ?>> nodeEndpoints = endpoints.get(nodeId);
+        Function<Q, R> endpoint = nodeEndpoints == null ? null : (Function<Q, R>) nodeEndpoints.get(operation);
+        if (endpoint == null) {
+            throw new NodeUnavailableException("Node " + nodeId + " is not reachable for " + operation);
+        }
+        return endpoint.apply(request);
+    }
+
+    private void notifyListeners() {
+        Set<String> snapshot = getMembers();
+        for (Consumer<Set<String>> listener : listeners) {
+            listener.accept(snapshot);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.configs.ClusterProperties;
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.SeatsReleasedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands seats released on this node to the node owning their show.
+ *
+ * Problem:
+ * Bookings run on the owner of their show, but seats also come back in batch
+ * jobs that run on every node: hold expiry (SeatHoldExpiryService), failed
+ * payments (PaymentBatchApplier) and single booking cancellations. Their
+ * counter updates and waitlist offers would only reach the node that ran
+ * them, which neither caches the show's counters nor holds its waitlist.
+ *
+ * Solution:
+ * After the releasing transaction commits, every show owned by another node
+ * is sent to its owner (SEATS_RELEASED). The owner adds the seats to its
+ * counters and publishes the release again locally, so its waitlist gets them.
+ *
+ * What still relies on reconciliation:
+ * - A release whose owner can't be reached (it just left, the transport
+ *   failed): logged and dropped; the seats are AVAILABLE in the database and
+ *   the next owner loads or reconciles the counters from show_seat.
+ *   Waiters of that show are not offered the seats.
+ * - A release relayed while ownership moves: applied to the old owner, which
+ *   is evicting the show anyway.
+ *
+ * Cluster mode off: every show is local and nothing is relayed.
+ */
+@Service
+public class SeatReleaseRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatReleaseRelay.class);
+
+    private ClusterProperties clusterProperties;
+    private ShowOwnership showOwnership;
+    private ShowRouter showRouter;
+    private ClusterTransport clusterTransport;
+    private SeatAvailabilityService seatAvailabilityService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param clusterProperties Whether cluster mode is on
+     * @param showOwnership Owner of every show
+     * @param showRouter Registers this node's SEATS_RELEASED endpoint
+     * @param clusterTransport Carries releases to the owner
+     * @param seatAvailabilityService Applies releases relayed to this node
+     */
+    @Autowired
+    public SeatReleaseRelay(ClusterProperties clusterProperties,
+                            ShowOwnership showOwnership,
+                            ShowRouter showRouter,
+                            ClusterTransport clusterTransport,
+                            SeatAvailabilityService seatAvailabilityService) {
+        this.clusterProperties = clusterProperties;
+        this.showOwnership = showOwnership;
+        this.showRouter = showRouter;
+        this.clusterTransport = clusterTransport;
+        this.seatAvailabilityService = seatAvailabilityService;
+    }
+
+    /**
+     * Serves releases other nodes relay for shows this node owns.
+     */
+    @PostConstruct
+    public void listen() {
+        showRouter.listen(ClusterOperation.SEATS_RELEASED, event -> {
+            seatAvailabilityService.applyRelayedRelease(event);
+            return true;
+        });
+    }
+
+    /**
+     * Relays the shows of a release that this node doesn't own, once the
+     * releasing transaction has committed.
+     *
+     * @param event Released seats by show and seat type
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        if (!clusterProperties.isEnabled() || event.isForwarded()) {
+            return;
+        }
+        for (Map.Entry<Long, Map<Long, List<Long>>> show : event.getSeatsByShowAndType().entrySet()) {
+            String owner = showOwnership.ownerOf(show.getKey());
+            if (owner.equals(clusterProperties.getNodeId())) {
+                continue;
+            }
+            try {
+                clusterTransport.call(owner, ClusterOperation.SEATS_RELEASED,
+                        new SeatsReleasedEvent(Map.of(show.getKey(), show.getValue()), true));
+            } catch (NodeUnavailableException | RuntimeException e) {
+                log.warn("Could not relay released seats of show {} to {}; reconciliation repairs its counters",
+                        show.getKey(), owner, e);
+            }
+        }
+    }
+}
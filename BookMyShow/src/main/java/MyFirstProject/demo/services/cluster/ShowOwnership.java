@@ -0,0 +1,112 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.configs.ClusterProperties;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Decides which booking node owns each show.
+ *
+ * Problem:
+ * Per-show state kept in memory (seat counters, hot show caches, waiting
+ * rooms) is only correct if every request for that show goes through the
+ * same process. With several booking nodes behind a load balancer, any node
+ * may receive any show.
+ *
+ * Solution:
+ * Every node builds the same ConsistentHashRing from the cluster membership,
+ * so all nodes agree on one owner per show without talking to each other.
+ * ShowRouter forwards requests that land on a non-owner to the owner.
+ *
+ * Rebalancing:
+ * On every join or leave the ring is rebuilt. A join moves about 1/n of the
+ * shows to the new node; a leave spreads the leaver's shows over the others.
+ * Counters of shows this node no longer owns are evicted, so if the show
+ * comes back later they are reloaded from the database instead of being stale.
+ *
+ * Per-show state and how it stays on the owner:
+ * - Seat counters: only owned shows are cached (SeatAvailabilityService);
+ *   bookings are forwarded (ShowRouter.bookMovie) and releases by batch jobs
+ *   on other nodes are relayed (SeatReleaseRelay)
+ * - Waitlists, waiting rooms, show cancellation: run on the owner (ShowRouter.route)
+ * - Idempotency keys and admission: checked inside the forwarded bookMovie
+ *
+ * What relies on reconciliation:
+ * - Releases that couldn't be relayed: counters are repaired by
+ *   SeatAvailabilityService.reconcile (or reloaded by the next owner)
+ * - A rebalance: requests already running on the old owner finish there;
+ *   waitlists and waiting rooms of moved shows stay behind and are not
+ *   served any more (users rejoin, as after a restart)
+ *
+ * With bookmyshow.cluster.enabled=false every show is local.
+ */
+@Service
+public class ShowOwnership {
+
+    private ClusterProperties clusterProperties;
+    private SeatAvailabilityService seatAvailabilityService;
+
+    // Replaced as a whole on membership changes; lookups never lock
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param clusterProperties This node's ID and the ring's virtual node count
+     * @param clusterMembership Live nodes; the ring follows its changes
+     * @param seatAvailabilityService In-memory counters dropped when their show moves away
+     */
+    @Autowired
+    public ShowOwnership(ClusterProperties clusterProperties,
+                         ClusterMembership clusterMembership,
+                         SeatAvailabilityService seatAvailabilityService) {
+        this.clusterProperties = clusterProperties;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.ring = new ConsistentHashRing(clusterMembership.getMembers(), clusterProperties.getVirtualNodes());
+        seatAvailabilityService.setOwnedShows(this::isLocal);
+        clusterMembership.addListener(this::rebalance);
+    }
+
+    /**
+     * @param showId Show to place
+     * @return ID of the node owning the show (this node if cluster mode is off
+     *         or no node is known)
+     */
+    public String ownerOf(long showId) {
+        if (!clusterProperties.isEnabled()) {
+            return clusterProperties.getNodeId();
+        }
+        String owner = ring.ownerOf(showId);
+        return owner == null ? clusterProperties.getNodeId() : owner;
+    }
+
+    /**
+     * @param showId Show to check
+     * @return true if requests for the show are handled on this node
+     */
+    public boolean isLocal(long showId) {
+        return ownerOf(showId).equals(clusterProperties.getNodeId());
+    }
+
+    /**
+     * @return Node IDs currently on the ring
+     */
+    public Set<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    private void rebalance(Set<String> members) {
+        ring = new ConsistentHashRing(members, clusterProperties.getVirtualNodes());
+        if (!clusterProperties.isEnabled()) {
+            return;
+        }
+        for (Long showId : seatAvailabilityService.getLoadedShowIds()) {
+            if (!isLocal(showId)) {
+                seatAvailabilityService.evict(showId);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.configs.ClusterProperties;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.exceptions.NodeUnavailableException;
+import MyFirstProject.demo.models.ResponseStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends each per-show request to the node that owns its show.
+ *
+ * Flow (bookMovie):
+ * 1. Cluster mode off → handle here
+ * 2. This node owns the show (ShowOwnership) → handle here
+ * 3. Otherwise → forward a copy (forwardedBy = this node) to the owner and
+ *    return its response unchanged
+ *
+ * A forwarded request arrives through the owner's BOOK_MOVIE endpoint, which
+ * books without routing again, even if that node's ring already disagrees (a
+ * membership change in between): one hop at most, never a forwarding loop.
+ * bookMovie itself is the client entry point and never looks at forwardedBy:
+ * a client setting it must not be able to skip routing.
+ *
+ * If the owner can't be reached (it just left and this node hasn't seen the
+ * change yet), the client gets OVERLOADED and retries; by then the show has
+ * a new owner.
+ *
+ * Other per-show operations (route):
+ * Waitlist join/leave, waiting room enter/status and show cancellation go
+ * through route(), which runs them on the owner the same way. Their
+ * endpoints never route again, so they take one hop at most as well.
+ * Seats released by batch jobs on a non-owner are relayed by SeatReleaseRelay.
+ */
+@Service
+public class ShowRouter {
+
+    private ClusterProperties clusterProperties;
+    private ShowOwnership showOwnership;
+    private ClusterTransport clusterTransport;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param clusterProperties This node's ID and whether cluster mode is on
+     * @param showOwnership Owner of every show
+     * @param clusterTransport Carries forwarded requests between nodes
+     */
+    @Autowired
+    public ShowRouter(ClusterProperties clusterProperties,
+                      ShowOwnership showOwnership,
+                      ClusterTransport clusterTransport) {
+        this.clusterProperties = clusterProperties;
+        this.showOwnership = showOwnership;
+        this.clusterTransport = clusterTransport;
+    }
+
+    /**
+     * Registers this node's entry point for one operation other nodes send here.
+     *
+     * @param operation Operation served
+     * @param endpoint Handles it on this node (e.g. BookingController.bookMovie)
+     */
+    public <Q, R> void listen(ClusterOperation<Q, R> operation, Function<Q, R> endpoint) {
+        clusterTransport.listen(clusterProperties.getNodeId(), operation, endpoint);
+    }
+
+    /**
+     * Runs a per-show operation here if this node owns the show, otherwise on the owner.
+     *
+     * Example:
+     * showRouter.route(showId, ClusterOperation.JOIN_WAITLIST, request, this::join)
+     *
+     * @param showId Show the request is about
+     * @param operation Operation to run
+     * @param request Request
+     * @param local Runs the operation on this node (the same function the owner registered)
+     * @return Response from this node or from the owner
+     * @throws NodeUnavailableException if the owner can't be reached
+     */
+    public <Q, R> R route(long showId, ClusterOperation<Q, R> operation, Q request, Function<Q, R> local)
+            throws NodeUnavailableException {
+        String owner = showOwnership.ownerOf(showId);
+        if (owner.equals(clusterProperties.getNodeId())) {
+            return local.apply(request);
+        }
+        return clusterTransport.call(owner, operation, request);
+    }
+
+    /**
+     * Handles a client's booking here if this node owns the show, otherwise on the owner.
+     * Not for forwarded requests: the BOOK_MOVIE endpoint books those directly.
+     *
+     * @param request Booking request
+     * @param local Handles the request on this node
+     * @return Response from this node or from the owner
+     */
+    public BookMovieResponseDTO bookMovie(BookMovieRequestDTO request, Supplier<BookMovieResponseDTO> local) {
+        if (!clusterProperties.isEnabled() || request.getShowId() == null) {
+            return local.get();
+        }
+        String owner = showOwnership.ownerOf(request.getShowId());
+        if (owner.equals(clusterProperties.getNodeId())) {
+            return local.get();
+        }
+
+        try {
+            return clusterTransport.call(owner, ClusterOperation.BOOK_MOVIE, forwarded(request));
+        } catch (NodeUnavailableException e) {
+            BookMovieResponseDTO response = new BookMovieResponseDTO();
+            response.setResponseStatus(ResponseStatus.OVERLOADED);
+            return response;
+        }
+    }
+
+    // Copy, so the caller's DTO is never changed
+    private BookMovieRequestDTO forwarded(BookMovieRequestDTO request) {
+        BookMovieRequestDTO copy = new BookMovieRequestDTO();
+        copy.setUserId(request.getUserId());
+        copy.setShowId(request.getShowId());
+        copy.setShowsSeatId(request.getShowsSeatId());
+        copy.setAdmissionTicket(request.getAdmissionTicket());
+        copy.setIdempotencyKey(request.getIdempotencyKey());
+        copy.setForwardedBy(clusterProperties.getNodeId());
+        return copy;
+    }
+}
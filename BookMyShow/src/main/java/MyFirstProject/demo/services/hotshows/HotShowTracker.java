@@ -0,0 +1,180 @@
+package MyFirstProject.demo.services.hotshows;
+
+import MyFirstProject.demo.configs.HotShowProperties;
+import MyFirstProject.demo.dtos.HotShowDTO;
+import MyFirstProject.demo.utils.CountMinSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming heavy-hitter detection over the show IDs of booking and seat map requests.
+ *
+ * Problem:
+ * Traffic is extremely skewed: a handful of shows (a premiere, a trailer drop)
+ * get most of the requests, but every show is treated the same. Counting
+ * requests per show exactly would need a map entry for every show ever requested.
+ *
+ * Structure:
+ * - CountMinSketch: approximate decayed count of every show in fixed memory
+ * - Top-k candidates: the k shows with the highest estimates (showId → estimate).
+ *   A show enters only if its estimate beats the smallest candidate, which
+ *   it then replaces (the floor is cached, so most requests skip the lock).
+ *
+ * Every windowMs (tick):
+ * 1. Candidates with at least promoteHits become hot, hot shows below
+ *    demoteHits stop being hot; a HotShowsChangedEvent is published
+ *    (HotShowWarmer keeps hot shows' caches loaded)
+ * 2. All counts are halved, so a show that stops being requested fades out
+ *
+ * Cost per request: depth atomic increments, plus a map update if the show
+ * is a candidate. No allocation for shows outside the top-k.
+ */
+@Service
+public class HotShowTracker {
+
+    private HotShowProperties hotShowProperties;
+    private ApplicationEventPublisher eventPublisher;
+
+    private final CountMinSketch sketch;
+
+    // showId → latest estimate; at most topK entries
+    private final Map<Long, Long> candidates = new ConcurrentHashMap<>();
+
+    // Estimate a show must exceed to become a candidate (0 while there is room)
+    private volatile long admissionFloor;
+
+    private final Set<Long> hotShows = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param hotShowProperties Sketch size, k, window and thresholds
+     * @param eventPublisher Publishes HotShowsChangedEvent
+     */
+    @Autowired
+    public HotShowTracker(HotShowProperties hotShowProperties, ApplicationEventPublisher eventPublisher) {
+        this.hotShowProperties = hotShowProperties;
+        this.eventPublisher = eventPublisher;
+        this.sketch = new CountMinSketch(hotShowProperties.getSketchDepth(), hotShowProperties.getSketchWidth());
+    }
+
+    /**
+     * Counts one request for a show.
+     *
+     * @param showId Show being booked or rendered (ignored if null)
+     */
+    public void record(Long showId) {
+        if (showId == null || !hotShowProperties.isEnabled()) {
+            return;
+        }
+        long estimate = sketch.add(showId);
+
+        // Already a candidate: refresh its estimate
+        if (candidates.computeIfPresent(showId, (id, previous) -> Math.max(previous, estimate)) != null) {
+            return;
+        }
+        if (estimate <= admissionFloor) {
+            return;
+        }
+        synchronized (candidates) {
+            if (candidates.size() >= hotShowProperties.getTopK()) {
+                Map.Entry<Long, Long> smallest = smallestCandidate();
+                if (smallest == null || estimate <= smallest.getValue()) {
+                    return;
+                }
+                candidates.remove(smallest.getKey());
+            }
+            candidates.put(showId, estimate);
+            updateAdmissionFloor();
+        }
+    }
+
+    /**
+     * @param showId Show to check
+     * @return true if the show is currently hot
+     */
+    public boolean isHot(Long showId) {
+        return hotShows.contains(showId);
+    }
+
+    /**
+     * Live top-N for operations, highest first.
+     *
+     * @param limit N (at most topK shows are tracked)
+     * @return Shows with their estimated hits and whether they are hot
+     */
+    public List<HotShowDTO> getTopShows(int limit) {
+        List<HotShowDTO> top = new ArrayList<>(candidates.size());
+        for (Map.Entry<Long, Long> entry : candidates.entrySet()) {
+            HotShowDTO dto = new HotShowDTO();
+            dto.setShowId(entry.getKey());
+            dto.setEstimatedHits(entry.getValue());
+            dto.setHot(hotShows.contains(entry.getKey()));
+            top.add(dto);
+        }
+        top.sort((a, b) -> Long.compare(b.getEstimatedHits(), a.getEstimatedHits()));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * Promotes and demotes shows, then halves all counts.
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.hot-shows.window-ms:10000}")
+    public void tick() {
+        if (!hotShowProperties.isEnabled()) {
+            return;
+        }
+
+        // Step 1: Promote busy candidates, demote hot shows that cooled down
+        List<Long> promoted = new ArrayList<>();
+        List<Long> demoted = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : candidates.entrySet()) {
+            if (entry.getValue() >= hotShowProperties.getPromoteHits() && hotShows.add(entry.getKey())) {
+                promoted.add(entry.getKey());
+            }
+        }
+        for (Long showId : hotShows) {
+            if (sketch.estimate(showId) < hotShowProperties.getDemoteHits()) {
+                hotShows.remove(showId);
+                demoted.add(showId);
+            }
+        }
+        if (!promoted.isEmpty() || !demoted.isEmpty()) {
+            eventPublisher.publishEvent(new HotShowsChangedEvent(
+                    Collections.unmodifiableList(promoted), Collections.unmodifiableList(demoted)));
+        }
+
+        // Step 2: Decay; candidates that reach zero make room for new shows
+        sketch.halve();
+        synchronized (candidates) {
+            candidates.replaceAll((showId, estimate) -> estimate >>> 1);
+            candidates.values().removeIf(estimate -> estimate == 0);
+            updateAdmissionFloor();
+        }
+    }
+
+    // Caller holds the candidates lock
+    private void updateAdmissionFloor() {
+        Map.Entry<Long, Long> smallest = candidates.size() < hotShowProperties.getTopK() ? null : smallestCandidate();
+        admissionFloor = smallest == null ? 0 : smallest.getValue();
+    }
+
+    private Map.Entry<Long, Long> smallestCandidate() {
+        Map.Entry<Long, Long> smallest = null;
+        for (Map.Entry<Long, Long> entry : candidates.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        return smallest == null ? null : Map.entry(smallest.getKey(), smallest.getValue());
+    }
+}
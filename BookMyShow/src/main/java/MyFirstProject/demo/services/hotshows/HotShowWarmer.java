@@ -0,0 +1,69 @@
+package MyFirstProject.demo.services.hotshows;
+
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.ShowReadCache;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Keeps the in-memory data of hot shows loaded.
+ *
+ * On promotion (HotShowsChangedEvent), per show:
+ * - Prices and seat map layout into ShowReadCache
+ * - "Seats left" counters into SeatAvailabilityService (one grouped query for all promoted shows)
+ *
+ * A show that turns hot after a cache eviction (price change, restart without
+ * warm-up) is therefore reloaded once here, instead of by its request herd.
+ * Demotion drops nothing: the caches already release a show when it ends.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class HotShowWarmer {
+
+    private ShowRepository showRepository;
+    private ShowReadCache showReadCache;
+    private SeatAvailabilityService seatAvailabilityService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showRepository Repository used to load promoted shows
+     * @param showReadCache Cache of prices and seat map layouts
+     * @param seatAvailabilityService Cache of "seats left" counters
+     */
+    @Autowired
+    public HotShowWarmer(ShowRepository showRepository,
+                         ShowReadCache showReadCache,
+                         SeatAvailabilityService seatAvailabilityService) {
+        this.showRepository = showRepository;
+        this.showReadCache = showReadCache;
+        this.seatAvailabilityService = seatAvailabilityService;
+    }
+
+    /**
+     * Loads everything cached per show for the promoted shows (cached data is not loaded again).
+     *
+     * @param event Promoted and demoted shows
+     */
+    @EventListener
+    public void onHotShowsChanged(HotShowsChangedEvent event) {
+        if (event.getPromoted().isEmpty()) {
+            return;
+        }
+        for (Long showId : event.getPromoted()) {
+            Optional<Show> show = showRepository.findById(showId);
+            if (show.isPresent()) {
+                showReadCache.getPrices(show.get());
+                showReadCache.getSeatLayout(show.get());
+            }
+        }
+        seatAvailabilityService.getAvailability(event.getPromoted());
+    }
+}
@@ -0,0 +1,24 @@
+package MyFirstProject.demo.services.hotshows;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by HotShowTracker when shows become hot or cool down.
+ *
+ * Example:
+ * promoted [7], demoted [3] → show 7 now takes a large share of the traffic, show 3 no longer does
+ */
+@Getter
+public class HotShowsChangedEvent {
+
+    private final List<Long> promoted;
+
+    private final List<Long> demoted;
+
+    public HotShowsChangedEvent(List<Long> promoted, List<Long> demoted) {
+        this.promoted = promoted;
+        this.demoted = demoted;
+    }
+}
@@ -0,0 +1,274 @@
+package MyFirstProject.demo.services.idempotency;
+
+import MyFirstProject.demo.configs.IdempotencyProperties;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.SignUpRequestDTO;
+import MyFirstProject.demo.dtos.SignUpResponseDTO;
+import MyFirstProject.demo.models.IdempotencyRecord;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.IdempotencyRecordRepository;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys for bookMovie and signUp.
+ *
+ * Why:
+ * Mobile clients on flaky networks resubmit a request when the response is
+ * lost. Without a key, every resubmission of bookMovie runs the SERIALIZABLE
+ * transaction again and may block a second set of seats.
+ *
+ * Flow (client sends the same idempotencyKey with every resubmission):
+ * 1. First request with the key: claims it and runs
+ * 2. Duplicate while the first still runs: waits for its response (up to
+ *    inFlightWaitMs, then IN_PROGRESS) instead of racing it
+ * 3. Duplicate after a SUCCESS: gets the same response back, ShowSeat is not read
+ * 4. Same key with a different request (other seats / password): FAILURE
+ *
+ * What is remembered:
+ * Only SUCCESS responses. Running a failed or shed request again can't book
+ * twice, and its outcome may change (seat released, load gone), so the key
+ * is released for the resubmission.
+ *
+ * Tiers:
+ * - Memory (always): IdempotencyStore per operation, bounded and expiring
+ * - Database (bookmyshow.idempotency.durable=true, bookings only): successful
+ *   responses are also written to idempotency_record, so duplicates are
+ *   recognised after a restart and on other instances. Waiting for an
+ *   in-flight duplicate works within one instance only.
+ *   Sign-up responses are never written: their fingerprint is derived from the password.
+ *
+ * Keys are scoped: bookings by user ID, sign-ups by email. No one can replay
+ * another user's response by guessing a key.
+ */
+@Service
+public class IdempotencyService {
+
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private IdempotencyProperties idempotencyProperties;
+
+    private final IdempotencyStore<BookMovieResponseDTO> bookings;
+    private final IdempotencyStore<SignUpResponseDTO> signUps;
+
+    // Random per process: credential fingerprints are only compared in memory
+    private final SecretKeySpec signUpFingerprintKey;
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong keyMismatches = new AtomicLong();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param idempotencyRecordRepository Durable tier (only used when durable is on)
+     * @param idempotencyProperties Capacity, TTL, wait time and durable switch
+     */
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              IdempotencyProperties idempotencyProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.bookings = new IdempotencyStore<>(idempotencyProperties.getMaxEntries(),
+                idempotencyProperties.getTtlSeconds());
+        this.signUps = new IdempotencyStore<>(idempotencyProperties.getMaxEntries(),
+                idempotencyProperties.getTtlSeconds());
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.signUpFingerprintKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /**
+     * Runs a booking at most once per (user, idempotency key).
+     *
+     * @param request Booking request; without idempotencyKey the booking simply runs
+     * @param booking The booking itself (BookingController)
+     * @return Response of this or of the first request with the same key
+     */
+    public BookMovieResponseDTO bookMovie(BookMovieRequestDTO request, Supplier<BookMovieResponseDTO> booking) {
+        String clientKey = request.getIdempotencyKey();
+        if (clientKey == null || clientKey.isBlank()) {
+            return booking.get();
+        }
+        String key = request.getUserId() + ":" + clientKey;
+        String fingerprint = sha256(request.getShowId() + ":" + request.getShowsSeatId());
+
+        Supplier<BookMovieResponseDTO> action = booking;
+        if (idempotencyProperties.isDurable()) {
+            action = () -> bookDurably(key, fingerprint, booking);
+        }
+        return execute(bookings, key, fingerprint, action, BookMovieResponseDTO::getResponseStatus,
+                IdempotencyService::bookingStatus);
+    }
+
+    /**
+     * Runs a sign-up at most once per (email, idempotency key); duplicates
+     * don't hash the password again.
+     *
+     * @param request Sign-up request; without idempotencyKey the sign-up simply runs
+     * @param signUp The sign-up itself (UserController)
+     * @return Response of this or of the first request with the same key
+     */
+    public SignUpResponseDTO signUp(SignUpRequestDTO request, Supplier<SignUpResponseDTO> signUp) {
+        String clientKey = request.getIdempotencyKey();
+        if (clientKey == null || clientKey.isBlank()) {
+            return signUp.get();
+        }
+        String key = request.getEmail() + ":" + clientKey;
+        String fingerprint = signUpFingerprint(request.getEmail() + "\u0000" + request.getPassword());
+        return execute(signUps, key, fingerprint, signUp, SignUpResponseDTO::getResponseStatus,
+                IdempotencyService::signUpStatus);
+    }
+
+    /**
+     * Deletes expired idempotency_record rows.
+     *
+     * @return Number of rows deleted (0 while durable is off)
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.idempotency.purge-interval-ms:600000}")
+    @WorkloadPool(Workload.BATCH)
+    public int purgeExpired() {
+        if (!idempotencyProperties.isDurable()) {
+            return 0;
+        }
+        return idempotencyRecordRepository.deleteExpired(new Date());
+    }
+
+    /**
+     * @return Duplicates answered with the first request's response (waited or remembered)
+     */
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    /**
+     * @return Requests refused because their key was used for a different request
+     */
+    public long getKeyMismatches() {
+        return keyMismatches.get();
+    }
+
+    private <R> R execute(IdempotencyStore<R> store, String key, String fingerprint, Supplier<R> action,
+                          Function<R, ResponseStatus> status, Function<ResponseStatus, R> statusOnly) {
+        // Step 1: Claim the key, or find the request that holds it
+        IdempotencyStore.Entry<R> mine = new IdempotencyStore.Entry<>(key, fingerprint);
+        IdempotencyStore.Entry<R> earlier = store.putIfAbsent(mine);
+        if (earlier != null) {
+            return duplicate(earlier, fingerprint, statusOnly);
+        }
+
+        // Step 2: Run; only SUCCESS is remembered
+        R response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.fail(mine, e);
+            throw e;
+        }
+        store.complete(mine, response, status.apply(response) == ResponseStatus.SUCCESS);
+        return response;
+    }
+
+    private <R> R duplicate(IdempotencyStore.Entry<R> earlier, String fingerprint,
+                            Function<ResponseStatus, R> statusOnly) {
+        if (!earlier.getFingerprint().equals(fingerprint)) {
+            keyMismatches.incrementAndGet();
+            return statusOnly.apply(ResponseStatus.FAILURE);
+        }
+        try {
+            R response = earlier.getResponse().get(idempotencyProperties.getInFlightWaitMs(), TimeUnit.MILLISECONDS);
+            replayed.incrementAndGet();
+            return response;
+        } catch (TimeoutException e) {
+            return statusOnly.apply(ResponseStatus.IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return statusOnly.apply(ResponseStatus.IN_PROGRESS);
+        } catch (ExecutionException e) {
+            return statusOnly.apply(ResponseStatus.FAILURE);
+        }
+    }
+
+    // Database tier: replay a stored SUCCESS, otherwise book and store the SUCCESS
+    private BookMovieResponseDTO bookDurably(String key, String fingerprint, Supplier<BookMovieResponseDTO> booking) {
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findByIdempotencyKey(key);
+        if (stored.isPresent() && stored.get().getExpiresAt().after(new Date())) {
+            if (!stored.get().getRequestFingerprint().equals(fingerprint)) {
+                keyMismatches.incrementAndGet();
+                return bookingStatus(ResponseStatus.FAILURE);
+            }
+            replayed.incrementAndGet();
+            BookMovieResponseDTO response = bookingStatus(ResponseStatus.SUCCESS);
+            response.setBookingId(stored.get().getBookingId());
+            response.setTotalAmount(stored.get().getTotalAmount());
+            return response;
+        }
+
+        BookMovieResponseDTO response = booking.get();
+        if (response.getResponseStatus() == ResponseStatus.SUCCESS) {
+            IdempotencyRecord record = stored.orElseGet(IdempotencyRecord::new);
+            record.setIdempotencyKey(key);
+            record.setRequestFingerprint(fingerprint);
+            record.setBookingId(response.getBookingId());
+            record.setTotalAmount(response.getTotalAmount());
+            record.setExpiresAt(new Date(System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(idempotencyProperties.getTtlSeconds())));
+            try {
+                idempotencyRecordRepository.save(record);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance stored this key first; its record answers later duplicates
+            }
+        }
+        return response;
+    }
+
+    private static BookMovieResponseDTO bookingStatus(ResponseStatus responseStatus) {
+        BookMovieResponseDTO response = new BookMovieResponseDTO();
+        response.setResponseStatus(responseStatus);
+        return response;
+    }
+
+    private static SignUpResponseDTO signUpStatus(ResponseStatus responseStatus) {
+        SignUpResponseDTO response = new SignUpResponseDTO();
+        response.setResponseStatus(responseStatus);
+        return response;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String signUpFingerprint(String credentials) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signUpFingerprintKey);
+            return HexFormat.of().formatHex(mac.doFinal(credentials.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package MyFirstProject.demo.services.idempotency;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, expiring in-memory map from idempotency key to the response of
+ * the request that first used it.
+ *
+ * Each entry holds a CompletableFuture: it is created when the first request
+ * claims the key and completed when that request finishes, so a duplicate
+ * arriving in between waits on the same future instead of running again.
+ *
+ * Bounds:
+ * - Entries older than the TTL are ignored and replaced by the next claim
+ * - Entries are also kept in a FIFO queue in claim order; the TTL is the same
+ *   for all, so the head is always the oldest. Every claim evicts from the head
+ *   while it is expired or the queue holds more than maxEntries.
+ *
+ * Entries dropped early (failed requests) stay in the queue until they reach
+ * the head, so the queue, not the map, is what maxEntries bounds; the map is
+ * always a subset of it.
+ *
+ * @param <R> Response type replayed to duplicates
+ */
+public class IdempotencyStore<R> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<String, Entry<R>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<R>> claimOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param maxEntries Keys remembered at most
+     * @param ttlSeconds How long a key is remembered after it was claimed
+     */
+    public IdempotencyStore(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Claims entry.getKey() for this request unless an earlier request holds it.
+     *
+     * @param entry New entry of the calling request
+     * @return null if the caller now owns the key (it must call complete or fail),
+     *         otherwise the live entry of the earlier request
+     */
+    public Entry<R> putIfAbsent(Entry<R> entry) {
+        long now = System.nanoTime();
+        while (true) {
+            Entry<R> earlier = entries.putIfAbsent(entry.getKey(), entry);
+            if (earlier == null) {
+                break;
+            }
+            if (!isExpired(earlier, now)) {
+                return earlier;
+            }
+            entries.remove(earlier.getKey(), earlier); // expired: claim it anew
+        }
+        claimOrder.add(entry);
+        queued.incrementAndGet();
+        evict(now);
+        return null;
+    }
+
+    /**
+     * Publishes the owner's response to waiting and later duplicates.
+     *
+     * @param entry Entry claimed by the caller
+     * @param response Response of the request
+     * @param keep false to forget the key after waking the waiting duplicates
+     *             (a resubmission then runs again)
+     */
+    public void complete(Entry<R> entry, R response, boolean keep) {
+        entry.getResponse().complete(response);
+        if (!keep) {
+            entries.remove(entry.getKey(), entry);
+        }
+    }
+
+    /**
+     * Forgets the key after the owner failed with an exception; waiting
+     * duplicates see the exception.
+     *
+     * @param entry Entry claimed by the caller
+     * @param failure What the request threw
+     */
+    public void fail(Entry<R> entry, Throwable failure) {
+        entry.getResponse().completeExceptionally(failure);
+        entries.remove(entry.getKey(), entry);
+    }
+
+    /**
+     * @return Keys currently remembered (expired ones included until evicted)
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        while (true) {
+            Entry<R> oldest = claimOrder.peek();
+            if (oldest == null || (queued.get() <= maxEntries && !isExpired(oldest, now))) {
+                return;
+            }
+            if (claimOrder.remove(oldest)) {
+                queued.decrementAndGet();
+                entries.remove(oldest.getKey(), oldest);
+            }
+        }
+    }
+
+    private boolean isExpired(Entry<R> entry, long now) {
+        return now - entry.getClaimedNanos() > ttlNanos;
+    }
+
+    /**
+     * One claimed key: the request's fingerprint and its (future) response.
+     *
+     * @param <R> Response type
+     */
+    @Getter
+    public static final class Entry<R> {
+
+        private final String key;
+
+        // Hash of the request body; a duplicate must match it
+        private final String fingerprint;
+
+        private final long claimedNanos = System.nanoTime();
+
+        private final CompletableFuture<R> response = new CompletableFuture<>();
+
+        public Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package MyFirstProject.demo.services.invalidation;
+
+import MyFirstProject.demo.models.CachedEntityType;
+import lombok.Getter;
+
+/**
+ * One versioned invalidation: "entity type/ID changed, its data is now at version N".
+ *
+ * Example:
+ * SHOW_PRICES, 42, 7 → show 42's price table was edited; anything cached from
+ * before version 7 must not be served any more
+ */
+@Getter
+public class Invalidation {
+
+    private final CachedEntityType type;
+
+    private final long entityId;
+
+    private final long version;
+
+    public Invalidation(CachedEntityType type, long entityId, long version) {
+        this.type = type;
+        this.entityId = entityId;
+        this.version = version;
+    }
+}
@@ -0,0 +1,201 @@
+package MyFirstProject.demo.services.invalidation;
+
+import MyFirstProject.demo.configs.InvalidationProperties;
+import MyFirstProject.demo.dtos.InvalidationStatsDTO;
+import MyFirstProject.demo.models.CachedEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts catalog changes so every node drops its cached copy.
+ *
+ * Problem:
+ * Each booking node caches prices and seat maps (ShowReadCache). An edit
+ * committed through one node leaves every other node serving the old data
+ * until the show ends.
+ *
+ * Versions:
+ * Every edit bumps a version on the owning row in its own transaction
+ * (Show.priceVersion, Screen.layoutVersion), so versions of one entity are
+ * strictly increasing across all nodes. The bus remembers the highest version
+ * seen per (type, ID) and caches tag each entry with the version seen when
+ * its load started. An entry tagged below the seen version is a miss, so a
+ * node never serves data older than a version it has already heard of, even
+ * if a load raced with the invalidation.
+ *
+ * Flow (publish, called by CatalogService inside the edit transaction):
+ * 1. After commit: apply locally at once (this node never reads its own edit stale)
+ * 2. Queue for broadcast; repeated edits of one entity keep only the newest version
+ * 3. Every flushIntervalMs: one batch for all queued entities → transport
+ *
+ * Receiving:
+ * Versions not newer than the one seen are ignored (duplicates, own
+ * broadcasts, reordered older messages); newer ones update the seen version
+ * and notify listeners, which drop the stale entries.
+ *
+ * Seen versions are kept only for edited entities; a restarted node starts
+ * from zero and reads the committed data on its first miss.
+ */
+@Service
+public class InvalidationBus {
+
+    private InvalidationProperties invalidationProperties;
+    private InvalidationTransport invalidationTransport;
+
+    // Highest version seen per type and entity ID
+    private final Map<CachedEntityType, Map<Long, Long>> seen = new EnumMap<>(CachedEntityType.class);
+
+    // Local edits waiting for the next flush, newest version per entity
+    private final Map<CachedEntityType, Map<Long, Long>> pending = new EnumMap<>(CachedEntityType.class);
+
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param invalidationProperties Flush interval
+     * @param invalidationTransport Broadcast channel shared by all nodes
+     */
+    @Autowired
+    public InvalidationBus(InvalidationProperties invalidationProperties,
+                           InvalidationTransport invalidationTransport) {
+        this.invalidationProperties = invalidationProperties;
+        this.invalidationTransport = invalidationTransport;
+        for (CachedEntityType type : CachedEntityType.values()) {
+            seen.put(type, new ConcurrentHashMap<>());
+            pending.put(type, new ConcurrentHashMap<>());
+        }
+        invalidationTransport.subscribe(this::receive);
+    }
+
+    /**
+     * Announces an edit. Inside a transaction nothing happens until it
+     * commits; a rolled back edit is never announced.
+     *
+     * @param type Kind of data changed
+     * @param entityId ID of the entity carrying the version
+     * @param version Version written by the edit
+     */
+    public void publish(CachedEntityType type, long entityId, long version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishNow(type, entityId, version);
+                }
+            });
+        } else {
+            publishNow(type, entityId, version);
+        }
+    }
+
+    /**
+     * @param type Kind of data
+     * @param entityId Entity ID (null for none)
+     * @return Highest version seen for the entity, 0 if it was never edited
+     */
+    public long seenVersion(CachedEntityType type, Long entityId) {
+        if (entityId == null) {
+            return 0;
+        }
+        Long version = seen.get(type).get(entityId);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * @param listener Called with every invalidation newer than the seen
+     *                 version, after the seen version was raised
+     */
+    public void addListener(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Broadcasts queued edits as one batch.
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        List<Invalidation> batch = new ArrayList<>();
+        for (Map.Entry<CachedEntityType, Map<Long, Long>> queued : pending.entrySet()) {
+            for (Map.Entry<Long, Long> entry : queued.getValue().entrySet()) {
+                batch.add(new Invalidation(queued.getKey(), entry.getKey(), entry.getValue()));
+                // A newer edit queued meanwhile stays for the next flush
+                queued.getValue().remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!batch.isEmpty()) {
+            sent.add(batch.size());
+            invalidationTransport.publish(batch);
+        }
+    }
+
+    /**
+     * @return Published, sent, received, applied and ignored counts since startup
+     */
+    public InvalidationStatsDTO getStats() {
+        InvalidationStatsDTO dto = new InvalidationStatsDTO();
+        dto.setPublished(published.sum());
+        dto.setSent(sent.sum());
+        dto.setReceived(received.sum());
+        dto.setApplied(applied.sum());
+        dto.setIgnored(ignored.sum());
+        return dto;
+    }
+
+    private void publishNow(CachedEntityType type, long entityId, long version) {
+        published.increment();
+        apply(new Invalidation(type, entityId, version));
+        pending.get(type).merge(entityId, version, Math::max);
+    }
+
+    private void receive(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            received.increment();
+            if (apply(invalidation)) {
+                applied.increment();
+            } else {
+                ignored.increment();
+            }
+        }
+    }
+
+    // Raises the seen version if this one is newer; false for duplicates and older versions
+    private boolean apply(Invalidation invalidation) {
+        Map<Long, Long> versions = seen.get(invalidation.getType());
+        long entityId = invalidation.getEntityId();
+        while (true) {
+            Long current = versions.get(entityId);
+            if (current != null && current >= invalidation.getVersion()) {
+                return false;
+            }
+            boolean raised = current == null
+                    ? versions.putIfAbsent(entityId, invalidation.getVersion()) == null
+                    : versions.replace(entityId, current, invalidation.getVersion());
+            if (raised) {
+                break;
+            }
+        }
+        for (Consumer<Invalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package MyFirstProject.demo.services.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation batches between booking nodes.
+ *
+ * Implemented by LoopbackInvalidationTransport (in process, used by default
+ * and in tests); a deployment plugs in a broker by declaring another bean.
+ *
+ * Delivery may be late, duplicated or reordered: InvalidationBus only applies
+ * versions newer than the ones it has seen.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Broadcasts a batch to every subscribed node (the sender may receive it too).
+     *
+     * @param batch Invalidations, at most one per entity
+     */
+    void publish(List<Invalidation> batch);
+
+    /**
+     * @param subscriber Called with every batch broadcast by any node
+     */
+    void subscribe(Consumer<List<Invalidation>> subscriber);
+}
@@ -0,0 +1,29 @@
+package MyFirstProject.demo.services.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process InvalidationTransport: publish hands the batch to every
+ * subscriber on the calling thread.
+ *
+ * With one bus this is a loopback; tests give several buses the same
+ * instance to stand in for several nodes sharing a broker.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<List<Invalidation>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<Invalidation> batch) {
+        for (Consumer<List<Invalidation>> subscriber : subscribers) {
+            subscriber.accept(batch);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<Invalidation>> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
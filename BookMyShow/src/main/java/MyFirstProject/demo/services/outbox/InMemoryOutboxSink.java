@@ -0,0 +1,72 @@
+package MyFirstProject.demo.services.outbox;
+
+import MyFirstProject.demo.dtos.OutboxEventDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboxSink backed by a bounded in-process queue.
+ *
+ * Used by in-process consumers and tests. When the queue is full, offer()
+ * accepts only what fits, which is the backpressure signal for OutboxRelay.
+ *
+ * Example:
+ * List<OutboxEventDTO> events = sink.drain(100);
+ * // or block until the next event: sink.poll(1, TimeUnit.SECONDS)
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEventDTO> queue;
+
+    /**
+     * @param capacity Max events waiting for consumers
+     */
+    public InMemoryOutboxSink(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public int offer(List<OutboxEventDTO> events) {
+        int accepted = 0;
+        for (OutboxEventDTO event : events) {
+            if (!queue.offer(event)) {
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Takes up to maxEvents queued events without waiting.
+     *
+     * @param maxEvents Upper bound on returned events
+     * @return Events in delivery order (possibly empty)
+     */
+    public List<OutboxEventDTO> drain(int maxEvents) {
+        List<OutboxEventDTO> events = new ArrayList<>();
+        queue.drainTo(events, maxEvents);
+        return events;
+    }
+
+    /**
+     * Takes the next event, waiting up to the given time.
+     *
+     * @return The event, or null if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public OutboxEventDTO poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    /**
+     * @return Events waiting for consumers
+     */
+    public int size() {
+        return queue.size();
+    }
+}
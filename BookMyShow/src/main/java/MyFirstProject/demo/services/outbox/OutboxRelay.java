@@ -0,0 +1,156 @@
+package MyFirstProject.demo.services.outbox;
+
+import MyFirstProject.demo.configs.OutboxProperties;
+import MyFirstProject.demo.dtos.OutboxEventDTO;
+import MyFirstProject.demo.models.OutboxEvent;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.OutboxEventRepository;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that publishes outbox events to the OutboxSink and deletes them.
+ *
+ * Flow per batch (one transaction):
+ * 1. Load and lock the oldest batchSize events (one query)
+ * 2. Group them by show, keeping commit order within each show
+ * 3. Offer each show's events to the sink; stop at the first refusal
+ * 4. Delete the accepted events with one DELETE ... WHERE id IN (...)
+ *
+ * Batches repeat until the outbox is empty or the sink pushes back; then the
+ * relay sleeps for relayIntervalMs.
+ *
+ * Ordering per show:
+ * Events are loaded oldest first and a show's events are offered as one list.
+ * If the sink takes only a prefix, the rest stay in the outbox and are the
+ * oldest events of that show on the next run, so nothing is reordered.
+ *
+ * Delivery is at least once: a crash between offer and commit re-publishes the batch.
+ *
+ * Isolation READ_COMMITTED:
+ * Under REPEATABLE_READ, MySQL would also lock the gap after the newest event
+ * and make every booking's outbox INSERT wait for the relay.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class OutboxRelay {
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxSink outboxSink;
+    private OutboxProperties outboxProperties;
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong backpressured = new AtomicLong();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param outboxEventRepository Repository of unpublished events
+     * @param outboxSink Where events are published
+     * @param outboxProperties Batch size
+     * @param transactionManager Each batch runs in its own transaction
+     */
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink outboxSink,
+                       OutboxProperties outboxProperties,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.outboxProperties = outboxProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Publishes batches until the outbox is empty or the sink is full.
+     *
+     * @return Number of events published
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.outbox.relay-interval-ms:200}")
+    public int relay() {
+        int total = 0;
+        while (true) {
+            int[] result = transactionTemplate.execute(status -> relayBatch());
+            total += result[0];
+            boolean drained = result[1] < outboxProperties.getBatchSize();
+            boolean refused = result[0] < result[1];
+            if (refused) {
+                backpressured.incrementAndGet();
+            }
+            if (drained || refused) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * @return Events published since startup
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * @return Relay runs that stopped because the sink did not accept everything
+     */
+    public long getBackpressured() {
+        return backpressured.get();
+    }
+
+    // Returns {published, loaded}
+    private int[] relayBatch() {
+        // Step 1: Oldest events, locked
+        List<OutboxEvent> events = outboxEventRepository.findOldestForUpdate(
+                PageRequest.of(0, outboxProperties.getBatchSize()));
+
+        // Step 2: Per show, in commit order
+        Map<Long, List<OutboxEventDTO>> byShow = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byShow.computeIfAbsent(event.getShowId(), k -> new ArrayList<>()).add(toDTO(event));
+        }
+
+        // Step 3: Offer until the sink pushes back
+        List<Long> accepted = new ArrayList<>(events.size());
+        for (List<OutboxEventDTO> showEvents : byShow.values()) {
+            int count = outboxSink.offer(showEvents);
+            for (int i = 0; i < count; i++) {
+                accepted.add(showEvents.get(i).getId());
+            }
+            if (count < showEvents.size()) {
+                break;
+            }
+        }
+
+        // Step 4: Published events leave the outbox
+        if (!accepted.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(accepted);
+            published.addAndGet(accepted.size());
+        }
+        return new int[]{accepted.size(), events.size()};
+    }
+
+    private static OutboxEventDTO toDTO(OutboxEvent event) {
+        OutboxEventDTO dto = new OutboxEventDTO();
+        dto.setId(event.getId());
+        dto.setEventType(event.getEventType().name());
+        dto.setShowId(event.getShowId());
+        dto.setBookingId(event.getBookingId());
+        dto.setPayload(event.getPayload());
+        dto.setCreatedAt(event.getCreatedAt());
+        return dto;
+    }
+}
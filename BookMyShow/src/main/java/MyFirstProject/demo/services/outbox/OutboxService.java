@@ -0,0 +1,118 @@
+package MyFirstProject.demo.services.outbox;
+
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.OutboxEvent;
+import MyFirstProject.demo.models.OutboxEventType;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.repositories.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes booking events into the transactional outbox.
+ *
+ * Callers (BookingServices, PaymentBatchApplier, SeatHoldExpiryService,
+ * CancellationService) call this right after changing Booking/ShowSeat rows.
+ *
+ * Why MANDATORY propagation:
+ * An event written outside the transaction of its state change could commit
+ * while the change rolls back (or the other way round). MANDATORY makes such
+ * a call fail immediately instead of silently opening a second transaction.
+ *
+ * Payload format: space separated key=value pairs, e.g.
+ * "user=7 seats=101,102 price=900" or "user=7 seats=101,102 price=900 reason=HOLD_EXPIRED"
+ */
+@Service
+public class OutboxService {
+
+    private OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param outboxEventRepository Repository of unpublished events
+     */
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Records one booking state change.
+     *
+     * @param eventType What happened to the booking
+     * @param booking Booking after the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingChanged(OutboxEventType eventType, Booking booking) {
+        outboxEventRepository.save(toEvent(eventType, booking, null));
+    }
+
+    /**
+     * Records the same kind of change for many bookings (one batch of payments or expired holds).
+     *
+     * @param eventType What happened to the bookings
+     * @param bookings Bookings after the change
+     * @param reason Optional reason added to every payload (e.g. HOLD_EXPIRED), may be null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingsChanged(OutboxEventType eventType, Collection<Booking> bookings, String reason) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            events.add(toEvent(eventType, booking, reason));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Records that a whole show was cancelled. Individual BOOKING_CANCELLED
+     * events are not written: the cancellation is one set-based update.
+     *
+     * @param showId Cancelled show
+     * @param bookingsCancelled Number of bookings cancelled
+     * @param seatsReleased Number of seats released
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void showCancelled(Long showId, int bookingsCancelled, int seatsReleased) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(OutboxEventType.SHOW_CANCELLED);
+        event.setShowId(showId);
+        event.setPayload("bookings=" + bookingsCancelled + " seats=" + seatsReleased);
+        outboxEventRepository.save(event);
+    }
+
+    private static OutboxEvent toEvent(OutboxEventType eventType, Booking booking, String reason) {
+        StringBuilder payload = new StringBuilder();
+        if (booking.getUser() != null) {
+            payload.append("user=").append(booking.getUser().getId()).append(' ');
+        }
+        payload.append("seats=");
+        List<ShowSeat> seats = booking.getSeats();
+        for (int i = 0; i < seats.size(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(seats.get(i).getId());
+        }
+        payload.append(" price=").append(booking.getPrice());
+        if (reason != null) {
+            payload.append(" reason=").append(reason);
+        }
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setShowId(booking.getShow().getId());
+        event.setBookingId(booking.getId());
+        event.setPayload(payload.toString());
+        return event;
+    }
+}
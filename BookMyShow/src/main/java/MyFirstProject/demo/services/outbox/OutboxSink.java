@@ -0,0 +1,29 @@
+package MyFirstProject.demo.services.outbox;
+
+import MyFirstProject.demo.dtos.OutboxEventDTO;
+
+import java.util.List;
+
+/**
+ * Destination of the booking events drained from the outbox by OutboxRelay.
+ *
+ * Backpressure:
+ * offer() may accept only a prefix of the events (or none). The relay keeps
+ * the rest in the outbox and offers them again on its next run, so a slow
+ * consumer delays delivery instead of losing events or filling the heap.
+ *
+ * Ordering:
+ * Every call carries events of ONE show in the order they were committed.
+ * Events of the same show are never offered out of order or skipped.
+ *
+ * Implementations: InMemoryOutboxSink (in-process consumers, tests). A
+ * message broker producer would implement the same interface.
+ */
+public interface OutboxSink {
+
+    /**
+     * @param events Events of one show, oldest first
+     * @return How many events, from the start of the list, were accepted
+     */
+    int offer(List<OutboxEventDTO> events);
+}
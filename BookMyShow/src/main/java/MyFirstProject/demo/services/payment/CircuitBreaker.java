@@ -0,0 +1,153 @@
+package MyFirstProject.demo.services.payment;
+
+/**
+ * Count-based circuit breaker guarding calls to one payment provider.
+ *
+ * States:
+ *
+ *   CLOSED ──(failure rate ≥ threshold over last N calls)──► OPEN
+ *     ▲                                                        │
+ *     │                                              (openDuration passed)
+ *     │                                                        ▼
+ *     └──────────(all probes succeeded)─────────────────── HALF_OPEN
+ *                                                              │
+ *                 OPEN ◄──────────(any probe failed)───────────┘
+ *
+ * - CLOSED: calls flow; outcomes are recorded in a ring buffer of the last N calls
+ * - OPEN: calls are rejected immediately (no thread waits on a sick provider)
+ * - HALF_OPEN: a small number of probe calls are let through to test recovery
+ *
+ * Failures include timeouts: a provider that answers too slowly is as
+ * useless to a waiting user as one that answers with an error.
+ *
+ * All methods are synchronized. The breaker is touched twice per provider
+ * call, which itself takes milliseconds, so contention is negligible.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int slidingWindowSize;
+    private final double failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+
+    // Ring buffer of the last slidingWindowSize outcomes (true = failure)
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtMs;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    /**
+     * @param slidingWindowSize Number of most recent calls the failure rate is computed over
+     * @param failureRateThreshold Failure rate (0.0 - 1.0) that opens the breaker
+     * @param openDurationMs How long the breaker stays OPEN before probing
+     * @param halfOpenProbes Number of successful probes required to close again
+     */
+    public CircuitBreaker(int slidingWindowSize, double failureRateThreshold, long openDurationMs, int halfOpenProbes) {
+        this.slidingWindowSize = slidingWindowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[slidingWindowSize];
+    }
+
+    /**
+     * Asks whether a call may go to the provider right now.
+     * Every granted permission must be followed by onSuccess() or onFailure().
+     *
+     * @return true if the call may proceed
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAtMs < openDurationMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (++probeSuccesses >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED
+                && windowCount >= slidingWindowSize
+                && windowFailures >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        // Report HALF_OPEN-eligible breakers as such so fallback ordering can retry them
+        if (state == State.OPEN && System.currentTimeMillis() - openedAtMs >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * @return Failure rate over the current sliding window (0.0 - 1.0)
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures / (double) windowCount;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == slidingWindowSize) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % slidingWindowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMs = System.currentTimeMillis();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,224 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.OutboxEventType;
+import MyFirstProject.demo.models.Payment;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.repositories.PaymentRepository;
+import MyFirstProject.demo.repositories.RefundRepository;
+import MyFirstProject.demo.services.CancellationService;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.outbox.OutboxService;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies payment outcomes to Booking and ShowSeat rows, many at a time.
+ *
+ * Why batches:
+ * Confirming one booking per transaction means one commit (and one fsync)
+ * per payment. Under sale-opening load the pipeline produces hundreds of
+ * outcomes per second; grouping them into one transaction per batch keeps
+ * the database doing useful work instead of committing.
+ *
+ * Status Transitions handled here:
+ * - Payment SUCCESS: Booking PENDING → SUCCESS, seats BLOCKED → OCCUPIED
+ * - Payment FAILED:  Booking PENDING → FAILURE, seats BLOCKED → AVAILABLE
+ * - Payment PENDING: recorded only; booking and seats stay as they are.
+ *   The provider received the charge but did not answer in time, so the
+ *   money may still move. The provider callback or a status poll settles it.
+ *
+ * Amount check:
+ * A SUCCESS whose amount differs from the booking price does not confirm
+ * the booking. It is refunded and the booking fails with PAYMENT_AMOUNT_MISMATCH.
+ *
+ * Late and duplicate payments:
+ * If the booking is no longer PENDING (hold expired, cancelled, already
+ * confirmed), the payment is still recorded so that it shows up in
+ * reconciliation, but seats are not touched. A late SUCCESS took money the
+ * booking does not need: seats the customer no longer has, or a second
+ * charge for an already paid booking. A refund is queued for it.
+ * A redelivered notification of a payment already recorded (same provider,
+ * reference and status) is ignored, so it is never refunded by mistake.
+ *
+ * Every confirmed or failed booking gets a BOOKING_CONFIRMED / BOOKING_FAILED
+ * outbox event in the same batch transaction.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class PaymentBatchApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatchApplier.class);
+
+    private BookingRepository bookingRepository;
+    private PaymentRepository paymentRepository;
+    private RefundRepository refundRepository;
+    private SeatAvailabilityService seatAvailabilityService;
+    private OutboxService outboxService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param bookingRepository Repository for booking operations
+     * @param paymentRepository Repository for payment operations
+     * @param refundRepository Repository used to queue refunds for late payments
+     * @param seatAvailabilityService Counters that must follow every seat status change
+     * @param outboxService Transactional outbox for confirmed/failed booking events
+     */
+    @Autowired
+    public PaymentBatchApplier(BookingRepository bookingRepository,
+                               PaymentRepository paymentRepository,
+                               RefundRepository refundRepository,
+                               SeatAvailabilityService seatAvailabilityService,
+                               OutboxService outboxService) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.refundRepository = refundRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Applies a batch of outcomes in one transaction.
+     *
+     * Flow:
+     * 1. Load and lock all affected bookings with one IN (...) ... FOR UPDATE query
+     * 2. For each outcome: skip redeliveries, create the Payment row and move booking + seats
+     * 3. Save all Payment rows and outbox events together; booking/seat updates are flushed on commit
+     *
+     * @param outcomes Outcomes to apply (in arrival order)
+     * @return Number of outcomes that confirmed a booking
+     */
+    @Transactional
+    public int applyBatch(List<PaymentOutcome> outcomes) {
+
+        // Step 1: Load and lock every booking referenced by this batch at once
+        // (a cancellation or hold expiry waits for this batch, or this batch sees its result)
+        Set<Long> bookingIds = new LinkedHashSet<>();
+        for (PaymentOutcome outcome : outcomes) {
+            bookingIds.add(outcome.getBookingId());
+        }
+        Map<Long, Booking> bookingsById = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllByIdForUpdate(bookingIds)) {
+            bookingsById.put(booking.getId(), booking);
+        }
+
+        // Step 2: Apply outcomes one after another (same booking may appear twice)
+        List<Payment> payments = new ArrayList<>(outcomes.size());
+        List<ShowSeat> releasedSeats = new ArrayList<>();
+        List<Refund> refunds = new ArrayList<>();
+        List<Booking> confirmedBookings = new ArrayList<>();
+        List<Booking> failedBookings = new ArrayList<>();
+        List<Booking> mismatchedBookings = new ArrayList<>();
+
+        for (PaymentOutcome outcome : outcomes) {
+            Booking booking = bookingsById.get(outcome.getBookingId());
+            if (booking == null) {
+                continue; // unknown booking, nothing to attach the payment to
+            }
+            if (isRedelivery(booking, outcome)) {
+                continue; // provider sent the same notification again
+            }
+
+            Payment payment = new Payment();
+            payment.setPaymentProvider(outcome.getPaymentProvider());
+            payment.setPaymentMethod(outcome.getPaymentMethod());
+            payment.setPaymentStatus(outcome.getPaymentStatus());
+            payment.setReferenceNumber(outcome.getReferenceNumber());
+            payment.setAmount(outcome.getAmount());
+            payment.setTimeStamp(new Date());
+            payments.add(payment);
+            booking.getPayments().add(payment);
+
+            if (booking.getBookingStatus() != BookingStatus.PENDING) {
+                // Late payment: recorded, but seats are no longer ours
+                // (SUCCESS booking: already paid, so this is a second charge)
+                if (outcome.getPaymentStatus() == PaymentStatus.SUCCESS) {
+                    refunds.add(CancellationService.queuedRefund(booking, payment));
+                }
+                continue;
+            }
+
+            switch (outcome.getPaymentStatus()) {
+                case SUCCESS -> {
+                    if (outcome.getAmount() != booking.getPrice()) {
+                        log.warn("Payment of {} for booking {} does not match its price {}, refunding",
+                                outcome.getAmount(), booking.getId(), booking.getPrice());
+                        refunds.add(CancellationService.queuedRefund(booking, payment));
+                        releasedSeats.addAll(release(booking));
+                        mismatchedBookings.add(booking);
+                        break;
+                    }
+                    for (ShowSeat showSeat : booking.getSeats()) {
+                        showSeat.setSeatStatus(SeatStatus.OCCUPIED);
+                    }
+                    booking.setBookingStatus(BookingStatus.SUCCESS);
+                    confirmedBookings.add(booking);
+                }
+                case FAILED -> {
+                    releasedSeats.addAll(release(booking));
+                    failedBookings.add(booking);
+                }
+                case PENDING -> {
+                    // Outcome unknown: keep the hold until the callback or a status poll settles it
+                }
+            }
+        }
+
+        // Step 3: Insert payments together (bookings and seats flush on commit)
+        paymentRepository.saveAll(payments);
+        if (!refunds.isEmpty()) {
+            refundRepository.saveAll(refunds);
+        }
+        if (!releasedSeats.isEmpty()) {
+            seatAvailabilityService.onSeatsReleased(releasedSeats);
+        }
+        outboxService.bookingsChanged(OutboxEventType.BOOKING_CONFIRMED, confirmedBookings, null);
+        outboxService.bookingsChanged(OutboxEventType.BOOKING_FAILED, failedBookings, "PAYMENT_FAILED");
+        outboxService.bookingsChanged(OutboxEventType.BOOKING_FAILED, mismatchedBookings, "PAYMENT_AMOUNT_MISMATCH");
+
+        return confirmedBookings.size();
+    }
+
+    // Same provider, reference and status as a payment already on the booking (reference 0 = no reference yet)
+    private boolean isRedelivery(Booking booking, PaymentOutcome outcome) {
+        if (outcome.getReferenceNumber() == 0) {
+            return false;
+        }
+        for (Payment recorded : booking.getPayments()) {
+            if (recorded.getPaymentProvider() == outcome.getPaymentProvider()
+                    && recorded.getReferenceNumber() == outcome.getReferenceNumber()
+                    && recorded.getPaymentStatus() == outcome.getPaymentStatus()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Booking PENDING → FAILURE, its seats back to AVAILABLE
+    private List<ShowSeat> release(Booking booking) {
+        for (ShowSeat showSeat : booking.getSeats()) {
+            showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+        }
+        booking.setBookingStatus(BookingStatus.FAILURE);
+        return booking.getSeats();
+    }
+}
@@ -0,0 +1,104 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.dtos.PaymentCallbackDTO;
+import MyFirstProject.demo.exceptions.InvalidPaymentCallbackException;
+import MyFirstProject.demo.models.PaymentProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Checks that a provider callback (webhook) really comes from the provider.
+ *
+ * Why:
+ * The callback endpoint is reachable by anyone. Without a check, a client
+ * could post { "paymentStatus": "SUCCESS" } for its own booking and get the
+ * seats without paying.
+ *
+ * How:
+ * Each provider shares a secret with us (bookmyshow.payments.callback-secrets.<provider>)
+ * and signs every callback with HMAC-SHA256 over its fields:
+ *   bookingId|paymentProvider|paymentMethod|paymentStatus|referenceNumber|amount
+ * The signature (Base64url, no padding) travels in the callback. A callback
+ * without a signature, with one that doesn't match, or from a provider with
+ * no configured secret is rejected before it reaches the payment pipeline.
+ *
+ * Replaying a genuine callback gains nothing: PaymentBatchApplier ignores redeliveries.
+ */
+@Service
+public class PaymentCallbackVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Map<PaymentProvider, SecretKeySpec> keys = new EnumMap<>(PaymentProvider.class);
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param paymentProperties Holds the per-provider callback secrets
+     */
+    @Autowired
+    public PaymentCallbackVerifier(PaymentProperties paymentProperties) {
+        paymentProperties.getCallbackSecrets().forEach((provider, secret) -> {
+            if (secret != null && !secret.isEmpty()) {
+                keys.put(provider, new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            }
+        });
+    }
+
+    /**
+     * Rejects a callback whose signature is missing or wrong.
+     *
+     * @param callback Callback as received
+     * @throws InvalidPaymentCallbackException if the callback can't be trusted
+     */
+    public void verify(PaymentCallbackDTO callback) throws InvalidPaymentCallbackException {
+        if (callback.getSignature() == null || callback.getSignature().isEmpty()) {
+            throw new InvalidPaymentCallbackException("Unsigned callback for booking " + callback.getBookingId());
+        }
+        byte[] expected = sign(callback).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = callback.getSignature().getBytes(StandardCharsets.US_ASCII);
+        // Constant time, so the signature can't be guessed byte by byte from response times
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new InvalidPaymentCallbackException("Callback signature does not match for booking "
+                    + callback.getBookingId());
+        }
+    }
+
+    /**
+     * Computes the signature the provider sends with a callback.
+     *
+     * Used by verify(), and by stub providers and tests to send genuine callbacks.
+     *
+     * @param callback Callback fields (the signature field is ignored)
+     * @return Base64url HMAC-SHA256 signature
+     * @throws InvalidPaymentCallbackException if no secret is configured for the callback's provider
+     */
+    public String sign(PaymentCallbackDTO callback) throws InvalidPaymentCallbackException {
+        SecretKeySpec key = callback.getPaymentProvider() == null ? null : keys.get(callback.getPaymentProvider());
+        if (key == null) {
+            throw new InvalidPaymentCallbackException("No callback secret configured for "
+                    + callback.getPaymentProvider());
+        }
+        String payload = callback.getBookingId() + "|" + callback.getPaymentProvider() + "|"
+                + callback.getPaymentMethod() + "|" + callback.getPaymentStatus() + "|"
+                + callback.getReferenceNumber() + "|" + callback.getAmount();
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
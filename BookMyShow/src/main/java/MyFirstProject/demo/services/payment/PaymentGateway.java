@@ -0,0 +1,50 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+
+/**
+ * Abstraction over one payment provider (Razorpay, PayPal, ...).
+ *
+ * Implementations perform the (slow, remote) charge and refund calls and report
+ * the outcome. They are only ever called from payment pipeline and refund
+ * worker threads, never from a request thread.
+ */
+public interface PaymentGateway {
+
+    /**
+     * @return Provider this gateway talks to
+     */
+    PaymentProvider getProvider();
+
+    /**
+     * Charges the customer for a booking.
+     *
+     * @param bookingId Booking being paid for (sent to the provider as merchant reference)
+     * @param amount Amount in smallest currency unit
+     * @param paymentMethod Card type chosen by the user
+     * @return Result reported by the provider
+     */
+    PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod);
+
+    /**
+     * Looks up the charge made for a booking (bookingId is the merchant reference).
+     *
+     * Used to settle charges whose call timed out: the provider may still have
+     * taken the money after we stopped waiting for its answer.
+     *
+     * @param bookingId Booking the charge was made for
+     * @return SUCCESS or FAILED once the provider decided, PENDING while it is still processing,
+     *         FAILED with reference 0 if it never received a charge for the booking
+     */
+    PaymentGatewayResult status(Long bookingId);
+
+    /**
+     * Gives (part of) an earlier charge back to the customer.
+     *
+     * @param referenceNumber Provider reference of the original charge
+     * @param amount Amount to refund in smallest currency unit
+     * @return Result reported by the provider (SUCCESS if the refund was accepted)
+     */
+    PaymentGatewayResult refund(int referenceNumber, int amount);
+}
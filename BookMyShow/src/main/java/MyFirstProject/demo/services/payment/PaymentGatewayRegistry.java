@@ -0,0 +1,33 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentProvider;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Lookup table PaymentProvider → PaymentGateway.
+ *
+ * Built once at startup by PaymentGatewayConfig.
+ */
+public class PaymentGatewayRegistry {
+
+    private final Map<PaymentProvider, PaymentGateway> gateways = new EnumMap<>(PaymentProvider.class);
+
+    public void register(PaymentGateway gateway) {
+        gateways.put(gateway.getProvider(), gateway);
+    }
+
+    /**
+     * @param provider Provider chosen by the user
+     * @return Gateway for that provider
+     * @throws IllegalArgumentException if no gateway is registered for the provider
+     */
+    public PaymentGateway get(PaymentProvider provider) {
+        PaymentGateway gateway = gateways.get(provider);
+        if (gateway == null) {
+            throw new IllegalArgumentException("No payment gateway registered for " + provider);
+        }
+        return gateway;
+    }
+}
@@ -0,0 +1,30 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import lombok.Getter;
+
+/**
+ * Result of a charge call as reported by a payment provider.
+ *
+ * Example:
+ * { paymentProvider: RAZORPAY, referenceNumber: 100042, paymentStatus: SUCCESS }
+ *
+ * paymentProvider is the provider that actually answered; with fallback
+ * routing it can differ from the one the user picked.
+ */
+@Getter
+public class PaymentGatewayResult {
+
+    private final PaymentProvider paymentProvider;
+
+    private final int referenceNumber;
+
+    private final PaymentStatus paymentStatus;
+
+    public PaymentGatewayResult(PaymentProvider paymentProvider, int referenceNumber, PaymentStatus paymentStatus) {
+        this.paymentProvider = paymentProvider;
+        this.referenceNumber = referenceNumber;
+        this.paymentStatus = paymentStatus;
+    }
+}
@@ -0,0 +1,37 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import lombok.Getter;
+
+/**
+ * Final result of one payment attempt, waiting to be applied to Booking/ShowSeat.
+ *
+ * Produced by pipeline workers (after a charge call or a provider callback)
+ * and consumed in batches by PaymentBatchApplier.
+ */
+@Getter
+public class PaymentOutcome {
+
+    private final Long bookingId;
+    private final PaymentProvider paymentProvider;
+    private final PaymentMethod paymentMethod;
+    private final PaymentStatus paymentStatus;
+    private final int referenceNumber;
+    private final int amount;
+
+    // System.nanoTime() when the command entered the pipeline (end-to-end latency)
+    private final long enqueuedAtNanos;
+
+    public PaymentOutcome(Long bookingId, PaymentProvider paymentProvider, PaymentMethod paymentMethod,
+                          PaymentStatus paymentStatus, int referenceNumber, int amount, long enqueuedAtNanos) {
+        this.bookingId = bookingId;
+        this.paymentProvider = paymentProvider;
+        this.paymentMethod = paymentMethod;
+        this.paymentStatus = paymentStatus;
+        this.referenceNumber = referenceNumber;
+        this.amount = amount;
+        this.enqueuedAtNanos = enqueuedAtNanos;
+    }
+}
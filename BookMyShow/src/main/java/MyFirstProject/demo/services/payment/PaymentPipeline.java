@@ -0,0 +1,383 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.dtos.PaymentPipelineStatsDTO;
+import MyFirstProject.demo.exceptions.PaymentProviderUnavailableException;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.repositories.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous payment confirmation pipeline.
+ *
+ * Before this pipeline, a Booking stayed PENDING forever: nothing ever
+ * connected a Payment/PaymentProvider to moving seats to OCCUPIED.
+ *
+ * Pipeline stages:
+ *
+ *   request thread          worker pool (bounded)            applier thread
+ *   ──────────────          ─────────────────────            ──────────────
+ *   initiate()     ──►  charge via ResilientPaymentService ──►
+ *                                                     outcome queue ──► PaymentBatchApplier
+ *   onProviderCallback() ──► validate callback      ──►                   (one TX per batch)
+ *
+ * Why asynchronous:
+ * - Provider calls take hundreds of milliseconds; request threads must not wait on them
+ * - The worker pool bounds how many provider calls run at once
+ * - The command queue is bounded too: when full, initiation is rejected immediately
+ *   (the client retries later) instead of the JVM running out of memory
+ * - Outcomes are applied in batches, see PaymentBatchApplier
+ *
+ * Unanswered charges:
+ * A charge that comes back PENDING (the provider got it but did not answer in
+ * time) keeps its booking claimed. The provider callback settles it, and
+ * pollUnsettledCharges() asks the provider via PaymentGateway.status() in case
+ * the callback never arrives.
+ */
+@Service
+public class PaymentPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentPipeline.class);
+
+    private PaymentProperties paymentProperties;
+    private ResilientPaymentService resilientPaymentService;
+    private PaymentBatchApplier paymentBatchApplier;
+    private BookingRepository bookingRepository;
+    private PaymentGatewayRegistry paymentGatewayRegistry;
+
+    private ThreadPoolExecutor workers;
+    private final BlockingQueue<PaymentOutcome> outcomes = new LinkedBlockingQueue<>();
+    private Thread applierThread;
+    private volatile boolean running;
+
+    // Claimed bookings: charge queued, in flight, or answered PENDING and not settled yet.
+    // A second initiate() for them is refused until a SUCCESS or FAILED outcome is applied.
+    private final Set<Long> charging = ConcurrentHashMap.newKeySet();
+
+    // PENDING outcomes of claimed bookings, polled via PaymentGateway.status() until settled
+    private final Map<Long, PaymentOutcome> unsettled = new ConcurrentHashMap<>();
+
+    // Pipeline statistics (LongAdder: cheap under contention)
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalConfirmationNanos = new LongAdder();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param paymentProperties Pool sizes, batch sizes and stub settings
+     * @param resilientPaymentService Isolated, fallback-aware access to payment providers
+     * @param paymentBatchApplier Transactional writer for outcome batches
+     * @param bookingRepository Used to look up the amount to charge (PENDING bookings only)
+     * @param paymentGatewayRegistry Raw gateways, asked for the status of unanswered charges
+     */
+    @Autowired
+    public PaymentPipeline(PaymentProperties paymentProperties,
+                           ResilientPaymentService resilientPaymentService,
+                           PaymentBatchApplier paymentBatchApplier,
+                           BookingRepository bookingRepository,
+                           PaymentGatewayRegistry paymentGatewayRegistry) {
+        this.paymentProperties = paymentProperties;
+        this.resilientPaymentService = resilientPaymentService;
+        this.paymentBatchApplier = paymentBatchApplier;
+        this.bookingRepository = bookingRepository;
+        this.paymentGatewayRegistry = paymentGatewayRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(
+                paymentProperties.getWorkerThreads(),
+                paymentProperties.getWorkerThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(paymentProperties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        running = true;
+        applierThread = new Thread(this::applyLoop, "payment-applier");
+        applierThread.setDaemon(true);
+        applierThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        running = false;
+        applierThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues a charge for a PENDING booking.
+     *
+     * Returns immediately; the booking moves to SUCCESS/FAILURE once the
+     * provider answers and the outcome batch is applied. If the provider
+     * received the charge but did not answer in time, a PENDING outcome is
+     * recorded and the booking stays claimed until the provider callback or a
+     * status poll settles it.
+     *
+     * Double charge guards:
+     * - A booking stays claimed from here until a SUCCESS or FAILED outcome for
+     *   it is applied; while claimed (including an unsettled PENDING charge) a
+     *   second initiate() is refused
+     * - The worker only charges the booking if it is still PENDING
+     * - A SUCCESS arriving for an already paid booking is refunded by PaymentBatchApplier
+     *
+     * @param bookingId Booking to pay for
+     * @param paymentProvider Provider chosen by the user
+     * @param paymentMethod Card type chosen by the user
+     * @return true if queued, false if the pipeline is saturated or the booking is still claimed
+     */
+    public boolean initiate(Long bookingId, PaymentProvider paymentProvider, PaymentMethod paymentMethod) {
+        if (!charging.add(bookingId)) {
+            return false;
+        }
+        long enqueuedAt = System.nanoTime();
+        boolean queued = submit(() -> {
+            boolean outcomeQueued = false;
+            try {
+                outcomeQueued = charge(bookingId, paymentProvider, paymentMethod, enqueuedAt);
+            } finally {
+                if (!outcomeQueued) {
+                    charging.remove(bookingId); // nothing was charged, nothing to settle
+                }
+            }
+        });
+        if (!queued) {
+            charging.remove(bookingId);
+        }
+        return queued;
+    }
+
+    /**
+     * Queues a provider callback (webhook) reporting the final status of a payment.
+     *
+     * The callback's signature must already be verified (PaymentController does
+     * so with PaymentCallbackVerifier); nothing here checks who sent it.
+     *
+     * @param bookingId Booking the payment belongs to
+     * @param paymentProvider Provider sending the callback
+     * @param paymentMethod Card type used
+     * @param paymentStatus Final status reported by the provider
+     * @param referenceNumber Provider's reference number
+     * @param amount Amount reported by the provider
+     * @return true if queued, false if the pipeline is saturated
+     */
+    public boolean onProviderCallback(Long bookingId, PaymentProvider paymentProvider, PaymentMethod paymentMethod,
+                                      PaymentStatus paymentStatus, int referenceNumber, int amount) {
+        long enqueuedAt = System.nanoTime();
+        return submit(() -> outcomes.add(new PaymentOutcome(bookingId, paymentProvider, paymentMethod,
+                paymentStatus, referenceNumber, amount, enqueuedAt)));
+    }
+
+    /**
+     * Asks the providers about charges that came back PENDING and queues their final outcome.
+     *
+     * Without this, a PENDING charge whose callback never arrives would keep its
+     * booking claimed forever, and money the provider did take would never be
+     * recorded (or refunded, if the hold has expired meanwhile).
+     *
+     * The answers go through the normal outcome queue, so a callback and a poll
+     * reporting the same payment are applied once (redelivery check). Polls run
+     * on the payment workers; if the pipeline is saturated the rest wait for
+     * the next run.
+     *
+     * @return Number of unsettled charges asked about
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.payments.status-poll-interval-ms:30000}")
+    public int pollUnsettledCharges() {
+        int polled = 0;
+        for (PaymentOutcome pendingOutcome : unsettled.values()) {
+            try {
+                workers.execute(() -> settle(pendingOutcome));
+                polled++;
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        return polled;
+    }
+
+    /**
+     * @return Snapshot of pipeline counters for load tests and monitoring
+     */
+    public PaymentPipelineStatsDTO getStats() {
+        PaymentPipelineStatsDTO stats = new PaymentPipelineStatsDTO();
+        stats.setSubmitted(submitted.sum());
+        stats.setRejected(rejected.sum());
+        stats.setConfirmed(confirmed.sum());
+        stats.setFailed(failed.sum());
+        stats.setPending(pending.sum());
+        stats.setBatches(batches.sum());
+        stats.setQueuedCommands(workers.getQueue().size());
+        stats.setQueuedOutcomes(outcomes.size());
+        long done = confirmed.sum() + failed.sum();
+        stats.setAvgConfirmationMillis(done == 0 ? 0 : totalConfirmationNanos.sum() / done / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * Charges one booking on a worker thread and queues the outcome.
+     *
+     * @return true if an outcome was queued (the claim is released when it is applied)
+     */
+    private boolean charge(Long bookingId, PaymentProvider paymentProvider, PaymentMethod paymentMethod,
+                           long enqueuedAt) {
+        Optional<Integer> amount = bookingRepository.findPriceByIdAndBookingStatus(bookingId, BookingStatus.PENDING);
+        if (amount.isEmpty()) {
+            return false; // booking vanished, expired or already settled: nothing to charge
+        }
+        PaymentGatewayResult result;
+        try {
+            result = resilientPaymentService.charge(bookingId, amount.get(), paymentMethod, paymentProvider);
+        } catch (PaymentProviderUnavailableException e) {
+            // No provider was ever called, so nothing was charged: fail the payment and release the seats
+            log.warn("No payment provider could be called for booking {}: {}", bookingId, e.getMessage());
+            result = new PaymentGatewayResult(paymentProvider, 0, PaymentStatus.FAILED);
+        }
+        PaymentOutcome outcome = new PaymentOutcome(bookingId, result.getPaymentProvider(), paymentMethod,
+                result.getPaymentStatus(), result.getReferenceNumber(), amount.get(), enqueuedAt);
+        if (outcome.getPaymentStatus() == PaymentStatus.PENDING) {
+            unsettled.put(bookingId, outcome);
+        }
+        outcomes.add(outcome);
+        return true;
+    }
+
+    // Status poll for one PENDING charge: queues the provider's final answer, if it has one
+    private void settle(PaymentOutcome pendingOutcome) {
+        PaymentGatewayResult result;
+        try {
+            result = paymentGatewayRegistry.get(pendingOutcome.getPaymentProvider())
+                    .status(pendingOutcome.getBookingId());
+        } catch (RuntimeException e) {
+            log.warn("Could not get payment status of booking {} from {}", pendingOutcome.getBookingId(),
+                    pendingOutcome.getPaymentProvider(), e);
+            return;
+        }
+        if (result.getPaymentStatus() != PaymentStatus.PENDING) {
+            outcomes.add(new PaymentOutcome(pendingOutcome.getBookingId(), result.getPaymentProvider(),
+                    pendingOutcome.getPaymentMethod(), result.getPaymentStatus(), result.getReferenceNumber(),
+                    pendingOutcome.getAmount(), pendingOutcome.getEnqueuedAtNanos()));
+        }
+    }
+
+    private boolean submit(Runnable command) {
+        try {
+            workers.execute(command);
+            submitted.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Applier loop: waits for the first outcome, then keeps collecting until
+     * the batch is full or batchMaxWaitMs has passed, then applies the batch.
+     */
+    private void applyLoop() {
+        int batchSize = paymentProperties.getBatchSize();
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(paymentProperties.getBatchMaxWaitMs());
+
+        while (running || !outcomes.isEmpty()) {
+            try {
+                PaymentOutcome first = outcomes.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PaymentOutcome> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PaymentOutcome next = remaining > 0 ? outcomes.poll(remaining, TimeUnit.NANOSECONDS) : outcomes.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void apply(List<PaymentOutcome> batch) {
+        List<PaymentOutcome> applied = batch;
+        try {
+            paymentBatchApplier.applyBatch(batch);
+        } catch (RuntimeException batchFailure) {
+            // One bad outcome must not block the others: retry them one by one
+            log.warn("Payment batch of {} failed, applying individually", batch.size(), batchFailure);
+            applied = new ArrayList<>(batch.size());
+            for (PaymentOutcome outcome : batch) {
+                try {
+                    paymentBatchApplier.applyBatch(List.of(outcome));
+                    applied.add(outcome);
+                } catch (RuntimeException e) {
+                    log.error("Could not apply payment outcome for booking {}", outcome.getBookingId(), e);
+                }
+            }
+        }
+
+        // A final outcome settles the booking and releases its claim; a PENDING one keeps it claimed
+        for (PaymentOutcome outcome : applied) {
+            if (outcome.getPaymentStatus() != PaymentStatus.PENDING) {
+                unsettled.remove(outcome.getBookingId());
+                charging.remove(outcome.getBookingId());
+            }
+        }
+
+        batches.increment();
+        long now = System.nanoTime();
+        for (PaymentOutcome outcome : batch) {
+            switch (outcome.getPaymentStatus()) {
+                case SUCCESS -> confirmed.increment();
+                case FAILED -> failed.increment();
+                case PENDING -> {
+                    pending.increment();
+                    continue; // not settled yet, so not part of the confirmation time
+                }
+            }
+            totalConfirmationNanos.add(now - outcome.getEnqueuedAtNanos());
+        }
+    }
+}
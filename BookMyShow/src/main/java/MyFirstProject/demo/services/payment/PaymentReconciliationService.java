@@ -0,0 +1,207 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.dtos.PaymentReconciliationRowDTO;
+import MyFirstProject.demo.dtos.ReconciliationMismatchDTO;
+import MyFirstProject.demo.dtos.ReconciliationReportDTO;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.ReconciliationMismatchType;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.PaymentRepository;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import MyFirstProject.demo.utils.IntLongHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles Payment rows against a provider settlement file.
+ *
+ * Problem:
+ * Loading a month of Payment entities into the persistence context to compare
+ * them with the provider's file runs out of heap.
+ *
+ * Approach:
+ * 1. Index the settlement file by reference number in an IntLongHashMap
+ *    (parsed through memory-mapped I/O, ~24 bytes per settled payment)
+ * 2. Stream our payments for the same provider and period with a forward-only
+ *    cursor (fixed fetch size, projection rows, nothing retained)
+ * 3. Probe the map for every payment and mark matched entries as claimed
+ * 4. Whatever is left unclaimed in the map was settled but never recorded by us
+ *
+ * Memory use therefore depends only on the settlement file's row count,
+ * never on how many Payment rows are scanned.
+ *
+ * Mismatches are emitted to a consumer as they are found (e.g. a file writer),
+ * so they are not collected in memory either.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class PaymentReconciliationService {
+
+    private static final long NOT_SETTLED = Long.MIN_VALUE;
+
+    // Set on an index entry once a payment matched it; a second payment with the same reference is a duplicate
+    private static final long CLAIMED = 1L << 62;
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private PaymentRepository paymentRepository;
+
+    /**
+     * Constructor-based dependency injection for PaymentRepository.
+     *
+     * @param paymentRepository Repository used to stream payments
+     */
+    @Autowired
+    public PaymentReconciliationService(PaymentRepository paymentRepository) {
+        this.paymentRepository = paymentRepository;
+    }
+
+    /**
+     * Runs one reconciliation.
+     *
+     * Matching rules (by reference number):
+     * - Both sides present, amounts differ → AMOUNT_MISMATCH
+     * - Both sides present, statuses differ → STATUS_MISMATCH
+     * - SUCCESS payment with no settlement line → MISSING_IN_SETTLEMENT
+     * - SUCCESS settlement line with no payment → MISSING_IN_DATABASE
+     * - A reference seen again, in the file or in our payments → DUPLICATE
+     *   (the first occurrence is reconciled as usual)
+     * Failed payments are not expected in settlement files, so their absence is fine.
+     *
+     * @param settlementFile Provider settlement file (referenceNumber,amount,status per line)
+     * @param paymentProvider Provider that produced the file
+     * @param from Start of the settlement period (inclusive)
+     * @param to End of the settlement period (exclusive)
+     * @param mismatchSink Receives every mismatch as soon as it is detected
+     * @return Totals for the run
+     * @throws IOException if the settlement file cannot be read
+     */
+    @Transactional(readOnly = true)
+    public ReconciliationReportDTO reconcile(Path settlementFile, PaymentProvider paymentProvider, Date from, Date to,
+                                             Consumer<ReconciliationMismatchDTO> mismatchSink) throws IOException {
+        long start = System.nanoTime();
+        ReconciliationReportDTO report = new ReconciliationReportDTO();
+
+        // Step 1: Index the settlement file (ref → packed amount + status)
+        int expectedLines = (int) Math.min(Integer.MAX_VALUE / 4, Files.size(settlementFile) / 16 + 16);
+        IntLongHashMap settled = new IntLongHashMap(expectedLines);
+        long[] duplicateLines = new long[1];
+        long malformed = new SettlementFileReader().read(settlementFile, (referenceNumber, amount, status) -> {
+            if (settled.containsKey(referenceNumber)) {
+                // Settled twice: the first line is reconciled, the repeat is reported
+                ReconciliationMismatchDTO mismatch = new ReconciliationMismatchDTO();
+                mismatch.setMismatchType(ReconciliationMismatchType.DUPLICATE);
+                mismatch.setReferenceNumber(referenceNumber);
+                mismatch.setSettledAmount(amount);
+                mismatch.setSettledStatus(status);
+                mismatchSink.accept(mismatch);
+                duplicateLines[0]++;
+                return;
+            }
+            settled.put(referenceNumber, pack(amount, status));
+        });
+        report.setSettlementLines(settled.size() + duplicateLines[0]);
+        report.setMalformedSettlementLines(malformed);
+
+        // Step 2 & 3: Stream our payments and probe the index
+        long scanned = 0;
+        long matched = 0;
+        long duplicates = duplicateLines[0];
+        long mismatches = duplicateLines[0];
+        try (Stream<PaymentReconciliationRowDTO> payments =
+                     paymentRepository.streamForReconciliation(paymentProvider, from, to)) {
+            Iterator<PaymentReconciliationRowDTO> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                PaymentReconciliationRowDTO payment = iterator.next();
+                scanned++;
+
+                long packed = settled.get(payment.getReferenceNumber(), NOT_SETTLED);
+                if (packed == NOT_SETTLED) {
+                    if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
+                        mismatchSink.accept(mismatch(ReconciliationMismatchType.MISSING_IN_SETTLEMENT, payment, null, null));
+                        mismatches++;
+                    }
+                    continue;
+                }
+
+                int settledAmount = unpackAmount(packed);
+                PaymentStatus settledStatus = unpackStatus(packed);
+                if ((packed & CLAIMED) != 0) {
+                    // Another Payment row already carries this reference
+                    mismatchSink.accept(mismatch(ReconciliationMismatchType.DUPLICATE, payment, settledAmount, settledStatus));
+                    mismatches++;
+                    duplicates++;
+                    continue;
+                }
+                settled.put(payment.getReferenceNumber(), packed | CLAIMED);
+
+                if (settledStatus != payment.getPaymentStatus()) {
+                    mismatchSink.accept(mismatch(ReconciliationMismatchType.STATUS_MISMATCH, payment, settledAmount, settledStatus));
+                    mismatches++;
+                } else if (settledAmount != payment.getAmount()) {
+                    mismatchSink.accept(mismatch(ReconciliationMismatchType.AMOUNT_MISMATCH, payment, settledAmount, settledStatus));
+                    mismatches++;
+                } else {
+                    matched++;
+                }
+            }
+        }
+
+        // Step 4: Settled by the provider but unknown to us
+        long[] missingInDatabase = new long[1];
+        settled.forEach((referenceNumber, packed) -> {
+            if ((packed & CLAIMED) == 0 && unpackStatus(packed) == PaymentStatus.SUCCESS) {
+                ReconciliationMismatchDTO mismatch = new ReconciliationMismatchDTO();
+                mismatch.setMismatchType(ReconciliationMismatchType.MISSING_IN_DATABASE);
+                mismatch.setReferenceNumber(referenceNumber);
+                mismatch.setSettledAmount(unpackAmount(packed));
+                mismatch.setSettledStatus(PaymentStatus.SUCCESS);
+                mismatchSink.accept(mismatch);
+                missingInDatabase[0]++;
+            }
+        });
+
+        report.setPaymentsScanned(scanned);
+        report.setMatched(matched);
+        report.setDuplicates(duplicates);
+        report.setMismatches(mismatches + missingInDatabase[0]);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private ReconciliationMismatchDTO mismatch(ReconciliationMismatchType type, PaymentReconciliationRowDTO payment,
+                                               Integer settledAmount, PaymentStatus settledStatus) {
+        ReconciliationMismatchDTO mismatch = new ReconciliationMismatchDTO();
+        mismatch.setMismatchType(type);
+        mismatch.setReferenceNumber(payment.getReferenceNumber());
+        mismatch.setPaymentId(payment.getPaymentId());
+        mismatch.setRecordedAmount(payment.getAmount());
+        mismatch.setRecordedStatus(payment.getPaymentStatus());
+        mismatch.setSettledAmount(settledAmount);
+        mismatch.setSettledStatus(settledStatus);
+        return mismatch;
+    }
+
+    // Bits 32-61: status ordinal, bit 62: CLAIMED, low 32 bits: amount
+    private static long pack(int amount, PaymentStatus status) {
+        return ((long) status.ordinal() << 32) | (amount & 0xFFFFFFFFL);
+    }
+
+    private static int unpackAmount(long packed) {
+        return (int) packed;
+    }
+
+    private static PaymentStatus unpackStatus(long packed) {
+        return STATUSES[(int) ((packed & ~CLAIMED) >>> 32)];
+    }
+}
@@ -0,0 +1,148 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.RefundStatus;
+import MyFirstProject.demo.models.Workload;
+import MyFirstProject.demo.repositories.RefundRepository;
+import MyFirstProject.demo.services.workload.WorkloadPool;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background job that sends QUEUED refunds to the payment providers.
+ *
+ * Flow per batch:
+ * 1. Load up to batchSize QUEUED refunds (oldest first, one query)
+ * 2. Call the providers in parallel on a small worker pool
+ * 3. Mark the batch with at most two UPDATE ... WHERE id IN (...) statements
+ *    (one for REFUNDED, one for FAILED)
+ *
+ * A cancelled 1,000-seat show therefore costs ~5 batches of database work,
+ * while the slow provider calls overlap instead of running one after another.
+ *
+ * FAILED refunds are left for support to retry; they are not picked up again
+ * automatically. Runs on a single scheduler thread, so batches of one
+ * instance never overlap.
+ */
+@Service
+@WorkloadPool(Workload.BATCH)
+public class RefundProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundProcessor.class);
+
+    private RefundRepository refundRepository;
+    private PaymentGatewayRegistry paymentGatewayRegistry;
+    private PaymentProperties paymentProperties;
+    private ExecutorService workers;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param refundRepository Repository holding the refund queue
+     * @param paymentGatewayRegistry Provider gateways refunds are sent through
+     * @param paymentProperties Refund batch size and worker count
+     */
+    @Autowired
+    public RefundProcessor(RefundRepository refundRepository,
+                           PaymentGatewayRegistry paymentGatewayRegistry,
+                           PaymentProperties paymentProperties) {
+        this.refundRepository = refundRepository;
+        this.paymentGatewayRegistry = paymentGatewayRegistry;
+        this.paymentProperties = paymentProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(paymentProperties.getRefunds().getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "refund-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Drains the refund queue.
+     *
+     * @return Number of refunds the providers accepted
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.payments.refunds.interval-ms:5000}")
+    public int processQueuedRefunds() {
+        int batchSize = paymentProperties.getRefunds().getBatchSize();
+        int refunded = 0;
+        while (true) {
+            List<Refund> batch = refundRepository.findByRefundStatus(RefundStatus.QUEUED,
+                    PageRequest.of(0, batchSize, Sort.by("id")));
+            if (batch.isEmpty()) {
+                return refunded;
+            }
+            refunded += processBatch(batch);
+            if (batch.size() < batchSize || Thread.currentThread().isInterrupted()) {
+                return refunded;
+            }
+        }
+    }
+
+    private int processBatch(List<Refund> batch) {
+
+        // Step 2: Provider calls overlap on the worker pool
+        List<Future<PaymentGatewayResult>> results = new ArrayList<>(batch.size());
+        for (Refund refund : batch) {
+            PaymentGateway gateway = paymentGatewayRegistry.get(refund.getPaymentProvider());
+            results.add(workers.submit(() -> gateway.refund(refund.getReferenceNumber(), refund.getAmount())));
+        }
+
+        List<Long> refundedIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Refund refund = batch.get(i);
+            try {
+                PaymentGatewayResult result = results.get(i).get();
+                (result.getPaymentStatus() == PaymentStatus.SUCCESS ? refundedIds : failedIds).add(refund.getId());
+            } catch (ExecutionException e) {
+                log.warn("Refund {} via {} failed", refund.getId(), refund.getPaymentProvider(), e.getCause());
+                failedIds.add(refund.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break; // shutting down: unmarked refunds stay QUEUED for the next run
+            }
+        }
+
+        // Step 3: One UPDATE per outcome
+        markBatch(refundedIds, failedIds);
+        return refundedIds.size();
+    }
+
+    private void markBatch(List<Long> refundedIds, List<Long> failedIds) {
+        Date now = new Date();
+        if (!refundedIds.isEmpty()) {
+            refundRepository.updateStatus(refundedIds, RefundStatus.REFUNDED, now);
+        }
+        if (!failedIds.isEmpty()) {
+            refundRepository.updateStatus(failedIds, RefundStatus.FAILED, now);
+        }
+    }
+}
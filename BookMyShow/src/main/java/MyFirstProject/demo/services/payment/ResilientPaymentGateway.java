@@ -0,0 +1,257 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.dtos.PaymentProviderHealthDTO;
+import MyFirstProject.demo.exceptions.PaymentProviderUnavailableException;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.utils.LatencyHistogram;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps one PaymentGateway with bulkhead, timeout and circuit breaker.
+ *
+ * Isolation layers (checked in this order):
+ * 1. Bulkhead: a semaphore of maxConcurrentCalls permits. When all permits
+ *    are taken, the caller waits at most bulkheadMaxWaitMs and is then rejected
+ *    instead of queued. A slow PAYPAL can therefore tie up at most
+ *    maxConcurrentCalls threads, never the whole pool.
+ * 2. Deadline: a caller whose deadline already passed is turned away before
+ *    the breaker is asked, so it never takes a probe slot it will not use.
+ * 3. Circuit breaker: rejects immediately while the provider is known to be sick.
+ * 4. Timeout: the call runs on this provider's own executor and the caller
+ *    waits at most min(timeoutMs, time left until the caller's deadline).
+ *
+ * Sent vs. never sent:
+ * - Never sent (bulkhead full, deadline passed, breaker open, executor rejected,
+ *   gave up before the task started): PaymentProviderUnavailableException,
+ *   and the caller may safely try another provider.
+ * - Sent but no answer (timeout, provider error, interrupted): the charge may
+ *   still go through on the provider side and cannot be taken back. The result
+ *   is PENDING ("outcome unknown"); it is settled later by the provider
+ *   callback or settlement reconciliation, both keyed by bookingId.
+ *   Charging another provider here would charge the customer twice.
+ *
+ * The bulkhead permit is released when the provider call really finishes,
+ * not when the caller stops waiting. Abandoned slow calls keep counting
+ * against the provider, which is exactly what stops them from piling up.
+ */
+public class ResilientPaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final PaymentProperties.Resilience settings;
+    private final Semaphore bulkhead;
+    private final ExecutorService executor;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    // Exponentially weighted moving average of recent latency (drives fallback ordering)
+    private volatile double recentLatencyMillis;
+
+    public ResilientPaymentGateway(PaymentGateway delegate, PaymentProperties.Resilience settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.bulkhead = new Semaphore(settings.getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(settings.getSlidingWindowSize(),
+                settings.getFailureRateThreshold(), settings.getOpenDurationMs(), settings.getHalfOpenProbes());
+
+        // Bulkhead already bounds in-flight calls, so the queue never grows past maxConcurrentCalls
+        AtomicInteger threadNumber = new AtomicInteger();
+        String prefix = "payment-" + delegate.getProvider().name().toLowerCase() + "-";
+        this.executor = new ThreadPoolExecutor(settings.getMaxConcurrentCalls(), settings.getMaxConcurrentCalls(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public PaymentProvider getProvider() {
+        return delegate.getProvider();
+    }
+
+    /**
+     * Charges through the wrapped provider under bulkhead, breaker and deadline.
+     *
+     * @param bookingId Booking being paid for
+     * @param amount Amount in smallest currency unit
+     * @param paymentMethod Card type chosen by the user
+     * @param deadlineNanos Absolute System.nanoTime() by which the caller needs an answer
+     * @return Provider's answer (SUCCESS or declined), or PENDING if the call was sent but not answered
+     * @throws PaymentProviderUnavailableException if the call was never sent to the provider
+     */
+    public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod, long deadlineNanos)
+            throws PaymentProviderUnavailableException {
+
+        // Step 1: Bulkhead (short bounded wait, never past the caller's deadline)
+        long bulkheadWaitNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(settings.getBulkheadMaxWaitMs()),
+                deadlineNanos - System.nanoTime());
+        try {
+            if (!bulkhead.tryAcquire(Math.max(0, bulkheadWaitNanos), TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw new PaymentProviderUnavailableException(getProvider() + " bulkhead full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProviderUnavailableException(getProvider() + " interrupted waiting for bulkhead", e);
+        }
+
+        // Step 2: Deadline (before the breaker: a HALF_OPEN probe slot must only go to a real call)
+        long timeoutNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(settings.getTimeoutMs()), deadlineNanos - System.nanoTime());
+        if (timeoutNanos <= 0) {
+            bulkhead.release();
+            rejections.increment();
+            throw new PaymentProviderUnavailableException(getProvider() + " skipped, deadline already passed");
+        }
+
+        // Step 3: Circuit breaker
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            rejections.increment();
+            throw new PaymentProviderUnavailableException(getProvider() + " circuit open");
+        }
+
+        calls.increment();
+        long start = System.nanoTime();
+        // Whoever flips this first owns the bulkhead permit: the task (when it starts)
+        // or the caller (when it gives up before the task ever started)
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<PaymentGatewayResult> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null; // caller already gave up and released the permit
+                }
+                try {
+                    return delegate.charge(bookingId, amount, paymentMethod);
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw new PaymentProviderUnavailableException(getProvider() + " executor rejected call", e);
+        }
+
+        try {
+            PaymentGatewayResult result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess();
+            recordLatency(System.nanoTime() - start);
+            return result;
+        } catch (TimeoutException e) {
+            circuitBreaker.onFailure();
+            timeouts.increment();
+            recordLatency(System.nanoTime() - start);
+            if (abandon(claimed)) {
+                throw new PaymentProviderUnavailableException(getProvider() + " timed out before the call started", e);
+            }
+            return outcomeUnknown();
+        } catch (ExecutionException e) {
+            // The request may have reached the provider before it failed
+            circuitBreaker.onFailure();
+            failures.increment();
+            recordLatency(System.nanoTime() - start);
+            return outcomeUnknown();
+        } catch (InterruptedException e) {
+            circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+            if (abandon(claimed)) {
+                throw new PaymentProviderUnavailableException(getProvider() + " interrupted before the call started", e);
+            }
+            return outcomeUnknown();
+        }
+    }
+
+    /**
+     * Score used to order fallback candidates: lower is better.
+     * Combines recent latency and failure rate; OPEN breakers go last.
+     *
+     * @return Ranking score of this provider right now
+     */
+    public double getRoutingScore() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        if (state == CircuitBreaker.State.OPEN) {
+            return Double.MAX_VALUE;
+        }
+        double score = (recentLatencyMillis + 1) * (1 + 10 * circuitBreaker.getFailureRate());
+        // Half-open providers are probed, but only after healthy ones
+        return state == CircuitBreaker.State.HALF_OPEN ? score * 100 : score;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * @return Breaker state, bulkhead usage and latency histogram of this provider
+     */
+    public PaymentProviderHealthDTO getHealth() {
+        PaymentProviderHealthDTO health = new PaymentProviderHealthDTO();
+        health.setPaymentProvider(getProvider());
+        health.setCircuitState(circuitBreaker.getState().name());
+        health.setFailureRate(circuitBreaker.getFailureRate());
+        health.setInFlight(settings.getMaxConcurrentCalls() - bulkhead.availablePermits());
+        health.setMaxConcurrentCalls(settings.getMaxConcurrentCalls());
+        health.setCalls(calls.sum());
+        health.setFailures(failures.sum());
+        health.setTimeouts(timeouts.sum());
+        health.setRejections(rejections.sum());
+        health.setMeanMillis(latencyHistogram.getMeanMillis());
+        health.setP50Millis(latencyHistogram.percentileMillis(0.50));
+        health.setP99Millis(latencyHistogram.percentileMillis(0.99));
+        health.setP999Millis(latencyHistogram.percentileMillis(0.999));
+        return health;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gives up waiting for a submitted call.
+     *
+     * A started call is left running: interrupting it cannot take back a
+     * request the provider already received, and it releases its own permit.
+     *
+     * @return true if the call had not started yet and now never will
+     */
+    private boolean abandon(AtomicBoolean claimed) {
+        if (claimed.compareAndSet(false, true)) {
+            bulkhead.release(); // task never started, so it will never release the permit itself
+            return true;
+        }
+        return false;
+    }
+
+    // Sent but unanswered: settled later by callback or status poll, keyed by bookingId
+    private PaymentGatewayResult outcomeUnknown() {
+        return new PaymentGatewayResult(getProvider(), 0, PaymentStatus.PENDING);
+    }
+
+    private void recordLatency(long nanos) {
+        latencyHistogram.record(nanos);
+        double millis = nanos / 1_000_000.0;
+        // Benign race: a lost update only delays the average by one sample
+        recentLatencyMillis = recentLatencyMillis == 0 ? millis : recentLatencyMillis * 0.8 + millis * 0.2;
+    }
+}
@@ -0,0 +1,134 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.dtos.PaymentProviderHealthDTO;
+import MyFirstProject.demo.exceptions.PaymentProviderUnavailableException;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resilience layer in front of all payment providers.
+ *
+ * Responsibilities:
+ * - Keeps one ResilientPaymentGateway (bulkhead + timeout + breaker) per PaymentProvider
+ * - Orders providers adaptively for every charge:
+ *   1. The provider the user picked, unless its breaker is OPEN
+ *   2. Remaining providers by recent latency and failure rate
+ *   3. Providers with an OPEN breaker are skipped until they may be probed
+ * - Enforces one overall deadline per charge across all attempts
+ *
+ * Example:
+ * PAYPAL slows down to 3 s per call. Its calls time out after 1 s, the breaker
+ * opens after enough timeouts, and from then on charges preferring PAYPAL go
+ * straight to RAZORPAY. Only PAYPAL's own bulkhead threads are ever stuck,
+ * so RAZORPAY payments and booking requests keep their normal latency.
+ *
+ * Fallback safety:
+ * Only a provider that never received the call is skipped. Once a call was
+ * sent, its answer (SUCCESS, FAILED or PENDING for "no answer in time") is
+ * final for this charge: a timed out call may still complete on the provider
+ * side, so charging the next provider could take the money twice. PENDING
+ * charges are settled by the provider callback or PaymentPipeline's status
+ * poll (bookingId is the merchant reference).
+ */
+@Service
+public class ResilientPaymentService {
+
+    private final Map<PaymentProvider, ResilientPaymentGateway> gateways = new EnumMap<>(PaymentProvider.class);
+    private final long chargeDeadlineMs;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param paymentGatewayRegistry Raw gateways, one per provider
+     * @param paymentProperties Deadline and per-provider resilience settings
+     */
+    @Autowired
+    public ResilientPaymentService(PaymentGatewayRegistry paymentGatewayRegistry, PaymentProperties paymentProperties) {
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            PaymentProperties.Resilience settings = paymentProperties.getResilience()
+                    .getOrDefault(provider, new PaymentProperties.Resilience());
+            gateways.put(provider, new ResilientPaymentGateway(paymentGatewayRegistry.get(provider), settings));
+        }
+        this.chargeDeadlineMs = paymentProperties.getChargeDeadlineMs();
+    }
+
+    /**
+     * Charges a booking, falling back to other providers if the preferred one is unavailable.
+     *
+     * Flow:
+     * 1. Compute the deadline for the whole charge
+     * 2. Order providers (preferred first if healthy, then by routing score)
+     * 3. Try them in order until one receives the call
+     *
+     * A declined or unanswered (PENDING) payment is NOT retried on another provider.
+     *
+     * @param bookingId Booking being paid for
+     * @param amount Amount in smallest currency unit
+     * @param paymentMethod Card type chosen by the user
+     * @param preferredProvider Provider the user picked
+     * @return Answer from the provider that received the call (PENDING if it did not answer in time)
+     * @throws PaymentProviderUnavailableException if no provider could be called before the deadline
+     */
+    public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod,
+                                       PaymentProvider preferredProvider) throws PaymentProviderUnavailableException {
+
+        // Step 1: One deadline for all attempts
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(chargeDeadlineMs);
+
+        // Step 2 & 3: Try providers in adaptive order
+        PaymentProviderUnavailableException lastError = null;
+        for (ResilientPaymentGateway gateway : orderFor(preferredProvider)) {
+            if (System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            try {
+                return gateway.charge(bookingId, amount, paymentMethod, deadlineNanos);
+            } catch (PaymentProviderUnavailableException e) {
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError
+                : new PaymentProviderUnavailableException("No payment provider could be called before the deadline");
+    }
+
+    /**
+     * @return Health (breaker state, bulkhead usage, latency histogram) of every provider
+     */
+    public List<PaymentProviderHealthDTO> getHealth() {
+        List<PaymentProviderHealthDTO> health = new ArrayList<>();
+        for (ResilientPaymentGateway gateway : gateways.values()) {
+            health.add(gateway.getHealth());
+        }
+        return health;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ResilientPaymentGateway gateway : gateways.values()) {
+            gateway.shutdown();
+        }
+    }
+
+    List<ResilientPaymentGateway> orderFor(PaymentProvider preferredProvider) {
+        List<ResilientPaymentGateway> ordered = new ArrayList<>(gateways.values());
+        ordered.sort(Comparator.comparingDouble(ResilientPaymentGateway::getRoutingScore));
+
+        ResilientPaymentGateway preferred = gateways.get(preferredProvider);
+        if (preferred != null && preferred.getCircuitState() != CircuitBreaker.State.OPEN) {
+            ordered.remove(preferred);
+            ordered.add(0, preferred);
+        }
+        return ordered;
+    }
+}
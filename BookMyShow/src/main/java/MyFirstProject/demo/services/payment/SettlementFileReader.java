@@ -0,0 +1,181 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentStatus;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses a provider settlement file through memory-mapped I/O.
+ *
+ * File format (one settled payment per line, optional header):
+ *   referenceNumber,amount,status
+ *   100042,900,SUCCESS
+ *   100043,350,FAILED
+ *
+ * Why memory-mapped:
+ * - No read() copies into Java heap buffers; the OS pages the file in on demand
+ * - Bytes are parsed straight into ints, no String per line or per field
+ * - The file is mapped in windows (64 MB by default), so files larger than 2 GB work
+ *   and the mapped address space stays bounded
+ *
+ * Lines that cannot be parsed are counted and skipped.
+ */
+public class SettlementFileReader {
+
+    private static final long DEFAULT_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final long windowBytes;
+
+    public SettlementFileReader() {
+        this(DEFAULT_WINDOW_BYTES);
+    }
+
+    SettlementFileReader(long windowBytes) {
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Receives parsed settlement lines.
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        void onLine(int referenceNumber, int amount, PaymentStatus paymentStatus);
+    }
+
+    /**
+     * Reads the whole file, calling the handler once per valid line.
+     *
+     * @param settlementFile Path of the provider settlement file
+     * @param handler Callback for every parsed line
+     * @return Number of lines skipped because they could not be parsed (header excluded)
+     * @throws IOException if the file cannot be read
+     */
+    public long read(Path settlementFile, LineHandler handler) throws IOException {
+        long malformed = 0;
+        boolean firstLine = true;
+        long[] scratch = new long[1];
+
+        try (FileChannel channel = FileChannel.open(settlementFile, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+
+            while (position < fileSize) {
+                long length = Math.min(windowBytes, fileSize - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == fileSize;
+
+                int lineStart = 0;
+                int limit = window.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (window.get(i) == '\n') {
+                        if (!parseLine(window, lineStart, i, scratch, handler) && !(firstLine && isHeader(window, lineStart, i))) {
+                            malformed++;
+                        }
+                        firstLine = false;
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lastWindow) {
+                    if (lineStart < limit && !parseLine(window, lineStart, limit, scratch, handler)
+                            && !(firstLine && isHeader(window, lineStart, limit))) {
+                        malformed++;
+                    }
+                    break;
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Settlement line longer than mapping window at byte " + position);
+                }
+                // Continue from the start of the incomplete last line
+                position += lineStart;
+            }
+        }
+        return malformed;
+    }
+
+    // Parses "ref,amount,STATUS" in [from, to); returns false if the line is malformed
+    private boolean parseLine(MappedByteBuffer buffer, int from, int to, long[] field, LineHandler handler) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (to <= from) {
+            return true; // blank line
+        }
+
+        int cursor = parseNumber(buffer, from, to, field);
+        if (cursor < 0 || cursor >= to || buffer.get(cursor) != ',') {
+            return false;
+        }
+        int referenceNumber = (int) field[0];
+
+        cursor = parseNumber(buffer, cursor + 1, to, field);
+        if (cursor < 0 || cursor >= to || buffer.get(cursor) != ',') {
+            return false;
+        }
+        int amount = (int) field[0];
+
+        PaymentStatus status = parseStatus(buffer, cursor + 1, to);
+        if (status == null) {
+            return false;
+        }
+        handler.onLine(referenceNumber, amount, status);
+        return true;
+    }
+
+    // Parses an optionally negative integer; returns index after it, or -1
+    private int parseNumber(MappedByteBuffer buffer, int from, int to, long[] out) {
+        int i = from;
+        boolean negative = i < to && buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        int digitsStart = i;
+        while (i < to) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+            i++;
+        }
+        if (i == digitsStart) {
+            return -1;
+        }
+        out[0] = negative ? -value : value;
+        return i;
+    }
+
+    private PaymentStatus parseStatus(MappedByteBuffer buffer, int from, int to) {
+        for (PaymentStatus status : STATUSES) {
+            String name = status.name();
+            if (to - from != name.length()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < name.length(); i++) {
+                if (buffer.get(from + i) != name.charAt(i)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private boolean isHeader(MappedByteBuffer buffer, int from, int to) {
+        return to > from && (buffer.get(from) < '0' || buffer.get(from) > '9') && buffer.get(from) != '-';
+    }
+}
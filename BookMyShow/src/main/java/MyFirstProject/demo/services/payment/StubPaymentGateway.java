@@ -0,0 +1,99 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for a real payment provider.
+ *
+ * Purpose:
+ * - Lets the payment pipeline run end-to-end without network access
+ * - Simulates provider latency (base + random jitter)
+ * - Simulates declined payments with a configurable failure rate
+ * - Remembers every charge per booking so status() can settle timed out calls
+ *
+ * Settings can be changed at runtime (e.g. make PAYPAL slow in the middle
+ * of a load test) because the settings object is read on every call.
+ */
+public class StubPaymentGateway implements PaymentGateway {
+
+    // Shared sequence so reference numbers never collide across stub providers
+    private static final AtomicInteger REFERENCE_SEQUENCE = new AtomicInteger(100_000);
+
+    private final PaymentProvider provider;
+    private final PaymentProperties.Stub settings;
+
+    // Latest state of each booking's charge (PENDING while the call runs); kept for the stub's lifetime
+    private final Map<Long, PaymentGatewayResult> charges = new ConcurrentHashMap<>();
+
+    public StubPaymentGateway(PaymentProvider provider, PaymentProperties.Stub settings) {
+        this.provider = provider;
+        this.settings = settings;
+    }
+
+    @Override
+    public PaymentProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * @return Live settings of this stub (latency, jitter, failure rate)
+     */
+    public PaymentProperties.Stub getSettings() {
+        return settings;
+    }
+
+    @Override
+    public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod) {
+        charges.put(bookingId, new PaymentGatewayResult(provider, 0, PaymentStatus.PENDING));
+        PaymentGatewayResult result = new PaymentGatewayResult(provider, 0, PaymentStatus.FAILED);
+        try {
+            result = simulateCall();
+            return result;
+        } finally {
+            charges.put(bookingId, result); // an interrupted call took no money
+        }
+    }
+
+    @Override
+    public PaymentGatewayResult status(Long bookingId) {
+        PaymentGatewayResult charge = charges.get(bookingId);
+        return charge != null ? charge : new PaymentGatewayResult(provider, 0, PaymentStatus.FAILED);
+    }
+
+    @Override
+    public PaymentGatewayResult refund(int referenceNumber, int amount) {
+        return simulateCall();
+    }
+
+    // Charges and refunds behave the same: configured latency, configured failure rate
+    private PaymentGatewayResult simulateCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Step 1: Simulate network + provider processing time
+        long latency = settings.getLatencyMs();
+        if (settings.getLatencyJitterMs() > 0) {
+            latency += random.nextLong(settings.getLatencyJitterMs() + 1);
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + provider, e);
+        }
+
+        // Step 2: Decide the outcome
+        PaymentStatus status = random.nextDouble() < settings.getFailureRate()
+                ? PaymentStatus.FAILED
+                : PaymentStatus.SUCCESS;
+
+        return new PaymentGatewayResult(provider, REFERENCE_SEQUENCE.incrementAndGet(), status);
+    }
+}
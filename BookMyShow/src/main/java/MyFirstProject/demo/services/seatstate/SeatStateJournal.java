@@ -0,0 +1,261 @@
+package MyFirstProject.demo.services.seatstate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of changes to the "seats left" counters, written through a memory-mapped file.
+ *
+ * Why memory-mapped:
+ * An append is a 25 byte copy into the page cache, no system call. The pages
+ * survive a crash of the JVM; flush() forces them to disk for machine crashes.
+ *
+ * File layout:
+ *   header (32 bytes): magic, version, generation, overflowed flag
+ *   records (25 bytes each): type, showId, seatTypeId, value, CRC32C
+ *
+ * Checksums:
+ * Every record's CRC32C covers the journal generation plus the record bytes.
+ * Records left over from an earlier generation therefore fail their checksum,
+ * so rotate() only rewrites the header and never has to zero the file.
+ *
+ * Opening an existing journal:
+ * 1. Read records until the first one that fails its checksum: that is the end
+ * 2. If the slot after it verifies again, the file is damaged in the middle
+ *    (corruption() says why) and must not be replayed
+ * 3. Otherwise the failing slot is a torn last write (or an old leftover) and is zeroed
+ *
+ * All methods are synchronized; callers order appends themselves (see SeatAvailabilityService).
+ */
+public class SeatStateJournal implements Closeable {
+
+    // Record types
+    public static final byte LOAD_SHOW = 1;   // show added with no counters yet
+    public static final byte SET = 2;         // counter := value
+    public static final byte ADD = 3;         // counter += value (only if the show is present)
+    public static final byte EVICT = 4;       // show removed
+
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 1 + 8 + 8 + 4 + 4;
+
+    private static final int MAGIC = 0x424D534A; // "BMSJ"
+    private static final int VERSION = 1;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int OVERFLOWED_OFFSET = 16;
+    private static final int PAYLOAD_BYTES = RECORD_BYTES - 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacityRecords;
+    private final CRC32C crc = new CRC32C();
+    private final byte[] scratch = new byte[8 + PAYLOAD_BYTES];
+
+    private long generation;
+    private int recordCount;
+    private int flushedCount;
+    private boolean overflowed;
+    private boolean tailDiscarded;
+    private String corruption;
+
+    /**
+     * Receives journal records in append order.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(byte type, long showId, long seatTypeId, int value);
+    }
+
+    private SeatStateJournal(FileChannel channel, MappedByteBuffer buffer, int capacityRecords) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacityRecords = capacityRecords;
+    }
+
+    /**
+     * Opens (or creates) the journal and finds the end of its valid records.
+     *
+     * @param file Journal file
+     * @param capacityBytes Mapped size; an existing larger file is mapped whole
+     * @return Open journal, positioned after the last valid record
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static SeatStateJournal open(Path file, int capacityBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        long mappedBytes = Math.max(Math.max(capacityBytes, channel.size()), HEADER_BYTES + RECORD_BYTES);
+        // A single mapping is limited to 2 GB
+        int capacityRecords = (int) Math.min((Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES,
+                (mappedBytes - HEADER_BYTES) / RECORD_BYTES);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) capacityRecords * RECORD_BYTES);
+
+        SeatStateJournal journal = new SeatStateJournal(channel, buffer, capacityRecords);
+        if (fresh) {
+            journal.writeHeader(0);
+        } else {
+            journal.scan();
+        }
+        return journal;
+    }
+
+    /**
+     * Appends one record. When the journal is full the record is dropped and the
+     * journal is marked overflowed, which makes the next startup ignore it.
+     */
+    public synchronized void append(byte type, long showId, long seatTypeId, int value) {
+        if (recordCount == capacityRecords) {
+            if (!overflowed) {
+                overflowed = true;
+                buffer.putInt(OVERFLOWED_OFFSET, 1);
+            }
+            return;
+        }
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        record.putLong(generation).put(type).putLong(showId).putLong(seatTypeId).putInt(value);
+        crc.reset();
+        crc.update(scratch, 0, scratch.length);
+
+        int offset = offset(recordCount);
+        buffer.put(offset, scratch, 8, PAYLOAD_BYTES);
+        buffer.putInt(offset + PAYLOAD_BYTES, (int) crc.getValue());
+        recordCount++;
+    }
+
+    /**
+     * Calls the handler for every valid record, oldest first.
+     */
+    public synchronized void replay(RecordHandler handler) {
+        for (int i = 0; i < recordCount; i++) {
+            int offset = offset(i);
+            handler.onRecord(buffer.get(offset), buffer.getLong(offset + 1), buffer.getLong(offset + 9),
+                    buffer.getInt(offset + 17));
+        }
+    }
+
+    /**
+     * Starts a new, empty generation. Only the header is rewritten (and forced);
+     * older records stop verifying because their checksums use the old generation.
+     *
+     * @param newGeneration Generation of the snapshot that will contain everything journaled so far
+     */
+    public synchronized void rotate(long newGeneration) {
+        writeHeader(newGeneration);
+        recordCount = 0;
+        flushedCount = 0;
+        overflowed = false;
+        corruption = null;
+    }
+
+    /**
+     * Forces records appended since the last flush to disk.
+     */
+    public synchronized void flush() {
+        if (recordCount > flushedCount) {
+            buffer.force(offset(flushedCount), (recordCount - flushedCount) * RECORD_BYTES);
+            flushedCount = recordCount;
+        }
+        if (overflowed) {
+            buffer.force(0, HEADER_BYTES);
+        }
+    }
+
+    /**
+     * @return Share of the capacity used by the current generation (0..1)
+     */
+    public synchronized double usedFraction() {
+        return (double) recordCount / capacityRecords;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized int recordCount() {
+        return recordCount;
+    }
+
+    public synchronized boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * @return True if a torn or stale record after the last valid one was truncated on open
+     */
+    public synchronized boolean tailDiscarded() {
+        return tailDiscarded;
+    }
+
+    /**
+     * @return Why the journal must not be replayed, or null if it can be
+     */
+    public synchronized String corruption() {
+        return corruption;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void scan() {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            corruption = "Unknown journal format";
+            return;
+        }
+        generation = buffer.getLong(GENERATION_OFFSET);
+        overflowed = buffer.getInt(OVERFLOWED_OFFSET) != 0;
+
+        int count = 0;
+        while (count < capacityRecords && verifies(count)) {
+            count++;
+        }
+        recordCount = count;
+        flushedCount = count;
+
+        if (count < capacityRecords) {
+            if (count + 1 < capacityRecords && verifies(count + 1)) {
+                corruption = "Journal record " + count + " of generation " + generation
+                        + " fails its checksum but later records verify";
+                return;
+            }
+            // Truncate the torn (or stale) tail record
+            int offset = offset(count);
+            for (int i = 0; i < RECORD_BYTES; i++) {
+                if (buffer.get(offset + i) != 0) {
+                    tailDiscarded = true;
+                    buffer.put(offset + i, (byte) 0);
+                }
+            }
+        }
+    }
+
+    private boolean verifies(int index) {
+        int offset = offset(index);
+        ByteBuffer.wrap(scratch).putLong(generation);
+        buffer.get(offset, scratch, 8, PAYLOAD_BYTES);
+        crc.reset();
+        crc.update(scratch, 0, scratch.length);
+        return buffer.get(offset) != 0 && buffer.getInt(offset + PAYLOAD_BYTES) == (int) crc.getValue();
+    }
+
+    private void writeHeader(long newGeneration) {
+        generation = newGeneration;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(GENERATION_OFFSET, newGeneration);
+        buffer.putInt(OVERFLOWED_OFFSET, 0);
+        buffer.force(0, HEADER_BYTES);
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+}
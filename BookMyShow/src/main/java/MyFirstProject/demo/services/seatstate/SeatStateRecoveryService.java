@@ -0,0 +1,253 @@
+package MyFirstProject.demo.services.seatstate;
+
+import MyFirstProject.demo.configs.SeatStateProperties;
+import MyFirstProject.demo.dtos.SeatStateRecoveryReportDTO;
+import MyFirstProject.demo.exceptions.SeatStateCorruptedException;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the "seats left" counters from local files when a node restarts,
+ * and keeps those files up to date while it runs.
+ *
+ * Problem:
+ * SeatAvailabilityService holds its counters in memory. After a restart every
+ * show has to be counted again from show_seat, which for a full catalogue means
+ * scanning tens of millions of rows before the listing pages are fast again.
+ *
+ * Files (bookmyshow.seat-state.directory):
+ * - seat-state.snapshot: all counters at the last checkpoint (SeatStateSnapshot)
+ * - seat-state.journal: every counter change since then (SeatStateJournal)
+ *
+ * Startup (first ApplicationRunner, before the cache warm-up):
+ * 1. Read and verify the snapshot
+ * 2. Open the journal; a torn last record is truncated
+ * 3. Replay the journal if it continues the snapshot (same generation)
+ * 4. Hand the counters to SeatAvailabilityService and write a fresh checkpoint
+ *
+ * Fallback:
+ * A checksum mismatch, a damaged journal, an overflowed journal or a journal
+ * newer than the snapshot all mean the files can't be trusted. They are
+ * discarded and the counters load from the database as on a first start.
+ *
+ * Freshness:
+ * Restored counters miss changes made by other nodes while this one was down.
+ * The reconciliation job in SeatAvailabilityService repairs them within a minute,
+ * in the background instead of before the node can serve.
+ *
+ * Checkpoints:
+ * Every checkpoint-interval-ms, or as soon as the journal is half full, a new
+ * generation starts: the journal header is rewritten under the counter lock,
+ * the snapshot is written afterwards without blocking bookings. A crash between
+ * the two leaves a journal newer than the snapshot, which triggers the fallback.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SeatStateRecoveryService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatStateRecoveryService.class);
+
+    private SeatAvailabilityService seatAvailabilityService;
+    private SeatStateProperties seatStateProperties;
+
+    private SeatStateJournal journal;
+    private long generation;
+    private volatile long lastCheckpointMillis;
+    private volatile SeatStateRecoveryReportDTO lastReport;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param seatAvailabilityService Owner of the counters being restored and journaled
+     * @param seatStateProperties Directory, journal size, flush and checkpoint intervals
+     */
+    @Autowired
+    public SeatStateRecoveryService(SeatAvailabilityService seatAvailabilityService,
+                                    SeatStateProperties seatStateProperties) {
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.seatStateProperties = seatStateProperties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (seatStateProperties.isEnabled()) {
+            recover();
+        }
+    }
+
+    /**
+     * Restores the counters and starts journaling.
+     *
+     * @return What was restored, or why the database is used instead
+     * @throws IOException if the files cannot be opened or the first checkpoint cannot be written
+     */
+    public synchronized SeatStateRecoveryReportDTO recover() throws IOException {
+        long start = System.nanoTime();
+        Path directory = Path.of(seatStateProperties.getDirectory());
+        Files.createDirectories(directory);
+
+        SeatStateRecoveryReportDTO report = new SeatStateRecoveryReportDTO();
+        SeatStateJournal opened = SeatStateJournal.open(directory.resolve("seat-state.journal"),
+                seatStateProperties.getJournalCapacityBytes());
+        report.setTailDiscarded(opened.tailDiscarded());
+
+        Map<Long, Map<Long, Integer>> restored = Map.of();
+        long snapshotGeneration = 0;
+        try {
+            SeatStateSnapshot snapshot = SeatStateSnapshot.read(snapshotFile());
+            if (snapshot != null) {
+                snapshotGeneration = snapshot.getGeneration();
+            }
+            restored = restore(snapshot, opened, report);
+            report.setRestored(snapshot != null);
+        } catch (SeatStateCorruptedException e) {
+            report.setFallbackReason(e.getMessage());
+            log.warn("Seat state files discarded, counters load from the database: {}", e.getMessage());
+        }
+
+        // The new generation must differ from everything on disk
+        generation = Math.max(snapshotGeneration, opened.generation()) + 1;
+        journal = opened;
+        Map<Long, Map<Long, Integer>> counters = seatAvailabilityService.attachJournal(opened, restored, generation);
+        SeatStateSnapshot.write(snapshotFile(), generation, counters);
+        lastCheckpointMillis = System.currentTimeMillis();
+
+        report.setSnapshotGeneration(snapshotGeneration);
+        report.setShowsRestored(restored.size());
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastReport = report;
+        log.info("Seat state recovery: restored={} shows={} journalRecords={} in {} ms",
+                report.isRestored(), report.getShowsRestored(), report.getJournalRecordsReplayed(),
+                report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * Forces new journal records to disk and starts a checkpoint when one is due.
+     */
+    @Scheduled(fixedDelayString = "${bookmyshow.seat-state.flush-interval-ms:1000}")
+    public void flush() {
+        SeatStateJournal current;
+        synchronized (this) {
+            current = journal;
+        }
+        if (current == null) {
+            return;
+        }
+        current.flush();
+        boolean due = System.currentTimeMillis() - lastCheckpointMillis >= seatStateProperties.getCheckpointIntervalMs();
+        if (due || current.usedFraction() >= 0.5) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Writes a new snapshot and restarts the journal.
+     *
+     * @return True if the snapshot was written
+     */
+    public synchronized boolean checkpoint() {
+        if (journal == null) {
+            return false;
+        }
+        long next = generation + 1;
+        Map<Long, Map<Long, Integer>> counters = seatAvailabilityService.rotateJournal(next);
+        generation = next;
+        lastCheckpointMillis = System.currentTimeMillis();
+        try {
+            SeatStateSnapshot.write(snapshotFile(), next, counters);
+            return true;
+        } catch (IOException e) {
+            // The journal is now ahead of the snapshot: a restart before the next
+            // successful checkpoint falls back to the database
+            log.warn("Seat state checkpoint {} failed", next, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return Result of the last recovery, or null if journaling is disabled
+     */
+    public SeatStateRecoveryReportDTO getLastReport() {
+        return lastReport;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Applies snapshot + journal, mirroring how SeatAvailabilityService applied the changes.
+     */
+    private Map<Long, Map<Long, Integer>> restore(SeatStateSnapshot snapshot, SeatStateJournal opened,
+                                                  SeatStateRecoveryReportDTO report) throws SeatStateCorruptedException {
+        if (opened.corruption() != null) {
+            throw new SeatStateCorruptedException(opened.corruption());
+        }
+        if (opened.isOverflowed()) {
+            throw new SeatStateCorruptedException("Journal generation " + opened.generation() + " overflowed and dropped records");
+        }
+
+        Map<Long, Map<Long, Integer>> counters = snapshot == null ? new HashMap<>() : snapshot.getCounters();
+        long snapshotGeneration = snapshot == null ? 0 : snapshot.getGeneration();
+        if (snapshot == null && opened.recordCount() > 0) {
+            throw new SeatStateCorruptedException("Journal generation " + opened.generation() + " has no snapshot");
+        }
+        if (opened.generation() > snapshotGeneration) {
+            throw new SeatStateCorruptedException("Journal generation " + opened.generation()
+                    + " is newer than snapshot " + snapshotGeneration + " (interrupted checkpoint)");
+        }
+        if (opened.generation() < snapshotGeneration) {
+            // Snapshot already contains everything in this journal
+            return counters;
+        }
+
+        opened.replay((type, showId, seatTypeId, value) -> {
+            switch (type) {
+                case SeatStateJournal.LOAD_SHOW -> counters.putIfAbsent(showId, new HashMap<>());
+                case SeatStateJournal.SET -> {
+                    Map<Long, Integer> show = counters.get(showId);
+                    if (show != null) {
+                        show.put(seatTypeId, value);
+                    }
+                }
+                case SeatStateJournal.ADD -> {
+                    Map<Long, Integer> show = counters.get(showId);
+                    if (show != null) {
+                        show.merge(seatTypeId, value, Integer::sum);
+                    }
+                }
+                case SeatStateJournal.EVICT -> counters.remove(showId);
+                default -> {
+                    // Unknown types cannot pass the checksum with this version
+                }
+            }
+        });
+        report.setJournalRecordsReplayed(opened.recordCount());
+        return counters;
+    }
+
+    private Path snapshotFile() {
+        return Path.of(seatStateProperties.getDirectory()).resolve("seat-state.snapshot");
+    }
+}
@@ -0,0 +1,152 @@
+package MyFirstProject.demo.services.seatstate;
+
+import MyFirstProject.demo.exceptions.SeatStateCorruptedException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time copy of all "seats left" counters, stored as one memory-mapped file.
+ *
+ * File layout:
+ *   magic, version, generation, show count
+ *   per show: showId, seat type count, then (seatTypeId, count) per seat type
+ *   CRC32C of everything before it
+ *
+ * Writing is crash-safe: the file is written and forced under a temporary name
+ * and then atomically renamed, so a reader sees either the old or the new snapshot.
+ * Reading verifies the checksum and the exact length before returning anything.
+ */
+public class SeatStateSnapshot {
+
+    private static final int MAGIC = 0x424D5353; // "BMSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int SHOW_BYTES = 8 + 4;
+    private static final int COUNTER_BYTES = 8 + 4;
+
+    private final long generation;
+    private final Map<Long, Map<Long, Integer>> counters;
+
+    private SeatStateSnapshot(long generation, Map<Long, Map<Long, Integer>> counters) {
+        this.generation = generation;
+        this.counters = counters;
+    }
+
+    /**
+     * @return Generation of the checkpoint; the journal of the same generation continues it
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return Mutable copy of the counters: showId → (seatTypeId → seats left)
+     */
+    public Map<Long, Map<Long, Integer>> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Writes a snapshot, replacing any previous one atomically.
+     *
+     * @param file Snapshot file
+     * @param generation Checkpoint generation
+     * @param counters showId → (seatTypeId → seats left)
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, long generation, Map<Long, Map<Long, Integer>> counters) throws IOException {
+        long size = HEADER_BYTES + 4;
+        for (Map<Long, Integer> showCounters : counters.values()) {
+            size += SHOW_BYTES + (long) showCounters.size() * COUNTER_BYTES;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + counters.size() + " shows exceeds 2 GB");
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(counters.size());
+            for (Map.Entry<Long, Map<Long, Integer>> show : counters.entrySet()) {
+                buffer.putLong(show.getKey()).putInt(show.getValue().size());
+                for (Map.Entry<Long, Integer> counter : show.getValue().entrySet()) {
+                    buffer.putLong(counter.getKey()).putInt(counter.getValue());
+                }
+            }
+            buffer.putInt(checksum(buffer, (int) size - 4));
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads and verifies a snapshot.
+     *
+     * @param file Snapshot file
+     * @return The snapshot, or null if there is none
+     * @throws IOException if the file cannot be read
+     * @throws SeatStateCorruptedException if the format, length or checksum does not match
+     */
+    public static SeatStateSnapshot read(Path file) throws IOException, SeatStateCorruptedException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4 || size > Integer.MAX_VALUE) {
+                throw new SeatStateCorruptedException("Snapshot has invalid length " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new SeatStateCorruptedException("Unknown snapshot format");
+            }
+            if (buffer.getInt((int) size - 4) != checksum(buffer, (int) size - 4)) {
+                throw new SeatStateCorruptedException("Snapshot checksum mismatch");
+            }
+
+            long generation = buffer.getLong(8);
+            int showCount = buffer.getInt(16);
+            int end = (int) size - 4;
+            int position = HEADER_BYTES;
+            Map<Long, Map<Long, Integer>> counters = new HashMap<>(Math.max(16, showCount * 2));
+            for (int s = 0; s < showCount; s++) {
+                if (position + SHOW_BYTES > end) {
+                    throw new SeatStateCorruptedException("Snapshot ends inside show " + s);
+                }
+                long showId = buffer.getLong(position);
+                int seatTypes = buffer.getInt(position + 8);
+                position += SHOW_BYTES;
+                if (seatTypes < 0 || position + (long) seatTypes * COUNTER_BYTES > end) {
+                    throw new SeatStateCorruptedException("Snapshot ends inside the counters of show " + showId);
+                }
+                Map<Long, Integer> showCounters = new HashMap<>();
+                for (int t = 0; t < seatTypes; t++) {
+                    showCounters.put(buffer.getLong(position), buffer.getInt(position + 8));
+                    position += COUNTER_BYTES;
+                }
+                counters.put(showId, showCounters);
+            }
+            if (position != end) {
+                throw new SeatStateCorruptedException("Snapshot has " + (end - position) + " unexpected trailing bytes");
+            }
+            return new SeatStateSnapshot(generation, counters);
+        }
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,110 @@
+package MyFirstProject.demo.services.waitlist;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The waiters of one show, ordered by join time within (seat type, seat count).
+ *
+ * Structure:
+ * seatTypeId → buckets[seatCount] → TreeMap(waiterId → Waiter)
+ *
+ * Why buckets per seat count:
+ * When 2 NORMAL seats come back, the earliest waiter asking for 1 or 2 NORMAL
+ * seats should get them; a waiter asking for 4 cannot use them and must not
+ * block the ones behind. With one queue per count, the matcher compares the
+ * heads of at most maxSeatsPerRequest queues instead of scanning the line.
+ *
+ * Complexity (n = waiters of the show, c = maxSeatsPerRequest):
+ * - add / remove: O(log n)
+ * - pollFirstFitting: O(c log n)
+ *
+ * Not thread-safe: WaitlistService synchronizes on the instance.
+ */
+public class ShowWaitlist {
+
+    private final int maxSeatsPerRequest;
+
+    // seatTypeId → buckets indexed by seat count (index 0 unused)
+    private final Map<Long, TreeMap<Long, Waiter>[]> bucketsBySeatType = new HashMap<>();
+
+    // waiterId → waiter, to leave the line without knowing its bucket
+    private final Map<Long, Waiter> waitersById = new HashMap<>();
+
+    /**
+     * @param maxSeatsPerRequest Largest seat count a waiter can ask for
+     */
+    public ShowWaitlist(int maxSeatsPerRequest) {
+        this.maxSeatsPerRequest = maxSeatsPerRequest;
+    }
+
+    /**
+     * Puts a waiter in line. A waiter put back after a failed allocation keeps
+     * its ID, and with it its place at the head of the line.
+     *
+     * @param waiter Waiter with seatCount between 1 and maxSeatsPerRequest
+     */
+    public void add(Waiter waiter) {
+        bucket(waiter.getSeatTypeId(), waiter.getSeatCount()).put(waiter.getId(), waiter);
+        waitersById.put(waiter.getId(), waiter);
+    }
+
+    /**
+     * Takes a waiter out of line.
+     *
+     * @param waiterId Waiter to remove
+     * @return Removed waiter, null if it was not waiting (already allocated or left)
+     */
+    public Waiter remove(long waiterId) {
+        Waiter waiter = waitersById.remove(waiterId);
+        if (waiter != null) {
+            bucket(waiter.getSeatTypeId(), waiter.getSeatCount()).remove(waiterId);
+        }
+        return waiter;
+    }
+
+    /**
+     * Removes and returns the earliest waiter of a seat type that asked for at
+     * most availableSeats seats.
+     *
+     * @param seatTypeId Seat type of the released seats
+     * @param availableSeats Number of released seats of that type
+     * @return Earliest fitting waiter, null if nobody fits
+     */
+    public Waiter pollFirstFitting(long seatTypeId, int availableSeats) {
+        TreeMap<Long, Waiter>[] buckets = bucketsBySeatType.get(seatTypeId);
+        if (buckets == null) {
+            return null;
+        }
+        Map.Entry<Long, Waiter> first = null;
+        int maxCount = Math.min(availableSeats, maxSeatsPerRequest);
+        for (int count = 1; count <= maxCount; count++) {
+            if (buckets[count] == null) {
+                continue;
+            }
+            Map.Entry<Long, Waiter> head = buckets[count].firstEntry();
+            if (head != null && (first == null || head.getKey() < first.getKey())) {
+                first = head;
+            }
+        }
+        return first == null ? null : remove(first.getKey());
+    }
+
+    /**
+     * @return Number of waiters in line
+     */
+    public int size() {
+        return waitersById.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private TreeMap<Long, Waiter> bucket(long seatTypeId, int seatCount) {
+        TreeMap<Long, Waiter>[] buckets = bucketsBySeatType.computeIfAbsent(seatTypeId,
+                k -> new TreeMap[maxSeatsPerRequest + 1]);
+        if (buckets[seatCount] == null) {
+            buckets[seatCount] = new TreeMap<>();
+        }
+        return buckets[seatCount];
+    }
+}
@@ -0,0 +1,28 @@
+package MyFirstProject.demo.services.waitlist;
+
+import lombok.Getter;
+
+/**
+ * One user waiting for seats of a show.
+ *
+ * The ID comes from a single increasing sequence, so a smaller ID means the
+ * user joined earlier; ShowWaitlist orders waiters by it.
+ */
+@Getter
+public class Waiter {
+
+    private final long id;
+
+    private final long userId;
+
+    private final long seatTypeId;
+
+    private final int seatCount;
+
+    public Waiter(long id, long userId, long seatTypeId, int seatCount) {
+        this.id = id;
+        this.userId = userId;
+        this.seatTypeId = seatTypeId;
+        this.seatCount = seatCount;
+    }
+}
@@ -0,0 +1,278 @@
+package MyFirstProject.demo.services.waitlist;
+
+import MyFirstProject.demo.configs.WaitlistProperties;
+import MyFirstProject.demo.exceptions.InvalidBookingException;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.exceptions.InvalidUserException;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.OutboxEventType;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.SeatsReleasedEvent;
+import MyFirstProject.demo.services.outbox.OutboxService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-show waitlists that hand released seats to waiting users automatically.
+ *
+ * Problem:
+ * When a hot show is sold out, bookMovie throws ShowSeatNotAvailableException
+ * and the user retries in a loop, hoping to catch a seat freed by an expired
+ * hold or a failed payment. The retries multiply load exactly when the show
+ * is hottest, and the seat goes to whoever polls at the right millisecond.
+ *
+ * Solution:
+ * - The user joins the show's waitlist once (seat type + seat count)
+ * - SeatAvailabilityService publishes a SeatsReleasedEvent whenever seats
+ *   become AVAILABLE again; it reaches this service after the commit
+ * - The matcher thread books the released seats for the earliest waiter
+ *   that fits, in a normal PENDING booking with the usual payment hold
+ * - A WAITLIST_ALLOCATED outbox event tells the user to pay
+ *
+ * If the waiter doesn't pay, the hold expires and the seats are released
+ * again, which feeds the next waiter.
+ *
+ * Why one matcher thread:
+ * Matching runs after the releasing transaction committed, off the request
+ * thread. A single thread keeps allocations of one show in order and never
+ * lets two allocations race for the same released seats.
+ *
+ * Released seats the waitlist can't use (nobody fits, or a direct booking
+ * took them first) simply stay AVAILABLE for everyone.
+ *
+ * Waitlists live in memory; a restart empties them (users rejoin).
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private ShowRepository showRepository;
+    private BookingServices bookingServices;
+    private OutboxService outboxService;
+    private WaitlistProperties waitlistProperties;
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, ShowWaitlist> waitlistsByShow = new ConcurrentHashMap<>();
+
+    // Smaller ID = joined earlier, across all shows
+    private final AtomicLong waiterSequence = new AtomicLong();
+
+    private final AtomicLong allocated = new AtomicLong();
+
+    private final ExecutorService matcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private enum Allocation { ALLOCATED, SEATS_TAKEN, REJECTED }
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param showRepository Repository used to validate the show on join
+     * @param bookingServices Books released seats for the waiter
+     * @param outboxService Transactional outbox the WAITLIST_ALLOCATED event is written to
+     * @param waitlistProperties Waitlist size and seat count limits
+     * @param transactionManager Booking and outbox event commit together
+     */
+    @Autowired
+    public WaitlistService(ShowRepository showRepository,
+                           BookingServices bookingServices,
+                           OutboxService outboxService,
+                           WaitlistProperties waitlistProperties,
+                           PlatformTransactionManager transactionManager) {
+        this.showRepository = showRepository;
+        this.bookingServices = bookingServices;
+        this.outboxService = outboxService;
+        this.waitlistProperties = waitlistProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Same isolation as a direct bookMovie call
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+    }
+
+    /**
+     * Puts a user in line for seats of a show.
+     *
+     * @param userId User waiting
+     * @param showId Sold-out show
+     * @param seatTypeId Seat type the user wants
+     * @param seatCount Number of seats (all of that type)
+     * @return The waiter; its ID is needed to leave the line
+     * @throws InvalidShowException if the show doesn't exist or was cancelled
+     * @throws InvalidBookingException if the seat count is out of range or the waitlist is full
+     */
+    public Waiter join(Long userId, Long showId, Long seatTypeId, int seatCount)
+            throws InvalidShowException, InvalidBookingException {
+        if (seatCount < 1 || seatCount > waitlistProperties.getMaxSeatsPerRequest()) {
+            throw new InvalidBookingException("Seat count must be between 1 and "
+                    + waitlistProperties.getMaxSeatsPerRequest());
+        }
+        Optional<Boolean> cancelled = showRepository.findCancelledById(showId);
+        if (cancelled.isEmpty()) {
+            throw new InvalidShowException("Show not found with ID: " + showId);
+        }
+        if (cancelled.get()) {
+            throw new InvalidShowException("Show " + showId + " has been cancelled");
+        }
+
+        ShowWaitlist waitlist = waitlistsByShow.computeIfAbsent(showId,
+                k -> new ShowWaitlist(waitlistProperties.getMaxSeatsPerRequest()));
+        synchronized (waitlist) {
+            if (waitlist.size() >= waitlistProperties.getMaxWaitersPerShow()) {
+                throw new InvalidBookingException("Waitlist of show " + showId + " is full");
+            }
+            Waiter waiter = new Waiter(waiterSequence.incrementAndGet(), userId, seatTypeId, seatCount);
+            waitlist.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Takes a user out of line.
+     *
+     * @param userId User leaving (must own the waiter)
+     * @param showId Show of the waitlist
+     * @param waiterId Waiter returned by join
+     * @return True if the waiter was still waiting and has been removed
+     */
+    public boolean leave(Long userId, Long showId, long waiterId) {
+        ShowWaitlist waitlist = waitlistsByShow.get(showId);
+        if (waitlist == null) {
+            return false;
+        }
+        synchronized (waitlist) {
+            Waiter waiter = waitlist.remove(waiterId);
+            if (waiter != null && waiter.getUserId() != userId) {
+                waitlist.add(waiter); // not theirs: put it back where it was
+                return false;
+            }
+            return waiter != null;
+        }
+    }
+
+    /**
+     * Empties the waitlist of a cancelled show.
+     *
+     * @param showId Cancelled show
+     */
+    public void dropShow(Long showId) {
+        waitlistsByShow.remove(showId);
+    }
+
+    /**
+     * @param showId Show of the waitlist
+     * @return Number of users waiting for the show
+     */
+    public int getWaiting(Long showId) {
+        ShowWaitlist waitlist = waitlistsByShow.get(showId);
+        if (waitlist == null) {
+            return 0;
+        }
+        synchronized (waitlist) {
+            return waitlist.size();
+        }
+    }
+
+    /**
+     * @return Bookings made for waiters since startup
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * Receives released seats once the releasing transaction has committed
+     * (immediately if there was no transaction) and queues them for matching.
+     *
+     * @param event Released seats by show and seat type
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        for (Map.Entry<Long, Map<Long, List<Long>>> show : event.getSeatsByShowAndType().entrySet()) {
+            if (waitlistsByShow.containsKey(show.getKey())) {
+                matcher.execute(() -> match(show.getKey(), show.getValue()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        matcher.shutdownNow();
+    }
+
+    private void match(Long showId, Map<Long, List<Long>> seatsByType) {
+        ShowWaitlist waitlist = waitlistsByShow.get(showId);
+        if (waitlist == null) {
+            return;
+        }
+        for (Map.Entry<Long, List<Long>> entry : seatsByType.entrySet()) {
+            List<Long> free = new ArrayList<>(entry.getValue());
+            while (!free.isEmpty()) {
+                Waiter waiter;
+                synchronized (waitlist) {
+                    waiter = waitlist.pollFirstFitting(entry.getKey(), free.size());
+                }
+                if (waiter == null) {
+                    break;
+                }
+
+                List<Long> seats = free.subList(0, waiter.getSeatCount());
+                Allocation allocation = allocate(showId, waiter, new ArrayList<>(seats));
+                if (allocation == Allocation.ALLOCATED) {
+                    seats.clear();
+                    allocated.incrementAndGet();
+                } else if (allocation == Allocation.SEATS_TAKEN) {
+                    // A direct booking was faster; the waiter keeps the head of the line
+                    synchronized (waitlist) {
+                        waitlist.add(waiter);
+                    }
+                    break;
+                }
+                // REJECTED (user or show gone): the waiter stays out of line
+            }
+        }
+    }
+
+    private Allocation allocate(Long showId, Waiter waiter, List<Long> showSeatIds) {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    Booking booking = bookingServices.bookMovie(waiter.getUserId(), showId, showSeatIds);
+                    outboxService.bookingChanged(OutboxEventType.WAITLIST_ALLOCATED, booking);
+                    return Allocation.ALLOCATED;
+                } catch (ShowSeatNotAvailableException e) {
+                    status.setRollbackOnly();
+                    return Allocation.SEATS_TAKEN;
+                } catch (InvalidUserException | InvalidShowException e) {
+                    status.setRollbackOnly();
+                    log.warn("Dropping waiter {} of show {}: {}", waiter.getId(), showId, e.getMessage());
+                    return Allocation.REJECTED;
+                }
+            });
+        } catch (RuntimeException e) {
+            // Lock timeout, serialization failure: treat like a lost race
+            log.warn("Allocation for waiter {} of show {} failed", waiter.getId(), showId, e);
+            return Allocation.SEATS_TAKEN;
+        }
+    }
+}
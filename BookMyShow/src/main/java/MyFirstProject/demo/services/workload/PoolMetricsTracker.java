@@ -0,0 +1,48 @@
+package MyFirstProject.demo.services.workload;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari callback counting connection acquisitions, their wait time and timeouts of one pool.
+ *
+ * Hikari calls it on every getConnection, so it only updates adders.
+ */
+public class PoolMetricsTracker implements IMetricsTracker {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public double getAverageAcquireMs() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    public double getMaxAcquireMs() {
+        return maxAcquireNanos.get() / 1_000_000.0;
+    }
+}
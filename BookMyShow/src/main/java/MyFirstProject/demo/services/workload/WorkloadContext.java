@@ -0,0 +1,65 @@
+package MyFirstProject.demo.services.workload;
+
+import MyFirstProject.demo.models.Workload;
+
+/**
+ * Workload of the current thread, read by WorkloadRoutingDataSource when a
+ * connection is taken (at transaction begin).
+ *
+ * Set by WorkloadPoolAspect around annotated calls; null outside them.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * @return Workload of the current thread, null if none was set
+     */
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a call under a workload, unless the thread already has one.
+     *
+     * @param workload Workload of the call
+     * @param call Call to run
+     * @return The call's result
+     */
+    public static <T, E extends Throwable> T runAs(Workload workload, Call<T, E> call) throws E {
+        if (CURRENT.get() != null) {
+            return call.run();
+        }
+        CURRENT.set(workload);
+        try {
+            return call.run();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Carries a workload to another thread (executor tasks don't inherit it).
+     *
+     * @param workload Workload the task runs under
+     * @param task Task to submit
+     * @return Task that sets the workload around the original one
+     */
+    public static Runnable wrap(Workload workload, Runnable task) {
+        return () -> runAs(workload, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call that may throw.
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Throwable> {
+        T run() throws E;
+    }
+}
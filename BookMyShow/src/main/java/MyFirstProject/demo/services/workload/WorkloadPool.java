@@ -0,0 +1,28 @@
+package MyFirstProject.demo.services.workload;
+
+import MyFirstProject.demo.models.Workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the database work of a service (or of one method) to its workload's connection pool.
+ *
+ * On a class: every public method. On a method: overrides the class.
+ * The outermost annotated call wins, so a BATCH job calling a BROWSING
+ * service keeps using BATCH connections.
+ *
+ * Example:
+ * @WorkloadPool(Workload.BATCH)
+ * public class RefundProcessor { ... }
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+
+    Workload value();
+}
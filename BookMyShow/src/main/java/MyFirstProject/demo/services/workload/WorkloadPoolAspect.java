@@ -0,0 +1,37 @@
+package MyFirstProject.demo.services.workload;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the WorkloadContext around calls of @WorkloadPool services.
+ *
+ * Runs before (outside) @Transactional: the connection is taken when the
+ * transaction begins, so the workload must already be known by then.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadPoolAspect {
+
+    @Around("@within(MyFirstProject.demo.services.workload.WorkloadPool) " +
+            "|| @annotation(MyFirstProject.demo.services.workload.WorkloadPool)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadPool workloadPool = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), WorkloadPool.class);
+        if (workloadPool == null) {
+            workloadPool = AnnotatedElementUtils.findMergedAnnotation(
+                    joinPoint.getTarget().getClass(), WorkloadPool.class);
+        }
+        if (workloadPool == null) {
+            return joinPoint.proceed();
+        }
+        return WorkloadContext.runAs(workloadPool.value(), joinPoint::proceed);
+    }
+}
@@ -0,0 +1,92 @@
+package MyFirstProject.demo.services.workload;
+
+import MyFirstProject.demo.configs.WorkloadPoolProperties;
+import MyFirstProject.demo.dtos.ConnectionPoolStatsDTO;
+import MyFirstProject.demo.models.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Hikari pool per Workload, all connected to the same database.
+ *
+ * Why:
+ * With one shared pool, a batch job running ten slow queries holds ten of
+ * its connections, and bookMovie queues behind it until connection timeout.
+ * With a pool per workload, the job can only use up its own BATCH pool;
+ * bookings keep their BOOKING connections.
+ *
+ * Pools start on first use, so a workload that never runs opens no connections.
+ */
+public class WorkloadPools implements AutoCloseable {
+
+    private final Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+    private final Map<Workload, PoolMetricsTracker> trackers = new EnumMap<>(Workload.class);
+
+    /**
+     * @param dataSourceProperties URL, user, password and driver (spring.datasource.*)
+     * @param workloadPoolProperties Size and connection timeout of every pool
+     */
+    public WorkloadPools(DataSourceProperties dataSourceProperties, WorkloadPoolProperties workloadPoolProperties) {
+        for (Workload workload : Workload.values()) {
+            WorkloadPoolProperties.Pool settings = workloadPoolProperties.get(workload);
+            PoolMetricsTracker tracker = new PoolMetricsTracker();
+
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            pool.setPoolName("bookmyshow-" + workload.name().toLowerCase());
+            pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+            pool.setConnectionTimeout(settings.getConnectionTimeoutMs());
+            pool.setMetricsTrackerFactory((poolName, poolStats) -> tracker);
+
+            pools.put(workload, pool);
+            trackers.put(workload, tracker);
+        }
+    }
+
+    /**
+     * @param workload Kind of database work
+     * @return Its pool
+     */
+    public HikariDataSource get(Workload workload) {
+        return pools.get(workload);
+    }
+
+    /**
+     * @return Saturation of every pool (zeros for pools not started yet)
+     */
+    public List<ConnectionPoolStatsDTO> snapshot() {
+        List<ConnectionPoolStatsDTO> stats = new ArrayList<>(pools.size());
+        for (Map.Entry<Workload, HikariDataSource> entry : pools.entrySet()) {
+            HikariDataSource pool = entry.getValue();
+            PoolMetricsTracker tracker = trackers.get(entry.getKey());
+            ConnectionPoolStatsDTO dto = new ConnectionPoolStatsDTO();
+            dto.setWorkload(entry.getKey().name());
+            dto.setMaximumPoolSize(pool.getMaximumPoolSize());
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null) {
+                dto.setActive(bean.getActiveConnections());
+                dto.setIdle(bean.getIdleConnections());
+                dto.setWaiting(bean.getThreadsAwaitingConnection());
+                dto.setSaturation(bean.getActiveConnections() / (double) pool.getMaximumPoolSize());
+            }
+            dto.setAcquisitions(tracker.getAcquisitions());
+            dto.setTimeouts(tracker.getTimeouts());
+            dto.setAverageAcquireMs(tracker.getAverageAcquireMs());
+            dto.setMaxAcquireMs(tracker.getMaxAcquireMs());
+            stats.add(dto);
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
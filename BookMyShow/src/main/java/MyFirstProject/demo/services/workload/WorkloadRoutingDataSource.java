@@ -0,0 +1,39 @@
+package MyFirstProject.demo.services.workload;
+
+import MyFirstProject.demo.models.Workload;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application's DataSource: hands out connections from the pool of the
+ * current thread's workload (WorkloadContext), or the default workload's pool.
+ *
+ * The choice is made when a connection is taken, i.e. when a transaction
+ * begins; a transaction keeps its connection to the end.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Workload defaultWorkload;
+
+    /**
+     * @param workloadPools One pool per workload
+     * @param defaultWorkload Workload of code that isn't annotated
+     */
+    public WorkloadRoutingDataSource(WorkloadPools workloadPools, Workload defaultWorkload) {
+        this.defaultWorkload = defaultWorkload;
+        Map<Object, Object> targets = new HashMap<>();
+        for (Workload workload : Workload.values()) {
+            targets.put(workload, workloadPools.get(workload));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(workloadPools.get(defaultWorkload));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload workload = WorkloadContext.current();
+        return workload == null ? defaultWorkload : workload;
+    }
+}
@@ -0,0 +1,91 @@
+package MyFirstProject.demo.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch: approximate per-key counts of a stream in fixed memory.
+ *
+ * Layout: depth rows of width counters (width a power of two). Adding a key
+ * increments one counter per row, chosen by a different hash per row; the
+ * estimate is the smallest of those counters.
+ *
+ * Accuracy:
+ * Estimates never undercount. They overcount by at most 2/width of the total
+ * count with probability 1 - (1/2)^depth; with width 4096 and depth 4 that
+ * is about 0.05% of all events, 94% of the time. That is plenty to tell a
+ * show with 30% of the traffic from one with 0.1%.
+ *
+ * Memory: depth x width longs (4 x 4096 = 128 KB), whatever the number of keys.
+ *
+ * Thread-safe and lock-free: counters are AtomicLongArray cells.
+ */
+public class CountMinSketch {
+
+    // Odd 64-bit constants, one seed per row
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth Rows (hash functions), at most 8
+     * @param width Counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        int rowWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicLongArray(depth * rowWidth);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key Key seen (e.g. show ID)
+     * @return Estimated count of the key including this occurrence
+     */
+    public long add(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key Key to look up
+     * @return Estimated count (never lower than the true count since the last halve)
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so old traffic fades out (exponential decay).
+     * Increments racing with this may be halved or not; either is fine for an estimate.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >>> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        // SplitMix64 finaliser over key x seed: neighbouring show IDs land far apart
+        long h = (key + SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 31)) * 0x94D049BB133111EBL;
+        h ^= h >>> 29;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
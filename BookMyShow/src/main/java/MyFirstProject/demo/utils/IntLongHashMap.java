@@ -0,0 +1,182 @@
+package MyFirstProject.demo.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive int keys to primitive long values.
+ *
+ * Why not HashMap&lt;Integer, Long&gt;:
+ * Every entry there is an Entry object plus a boxed Integer and a boxed Long
+ * (~80 bytes). Here an entry is one int and one long in two flat arrays
+ * (~12 bytes at full load, ~24 bytes at the 0.5 load factor used),
+ * and lookups never allocate.
+ *
+ * Implementation:
+ * - Linear probing over power-of-two sized arrays
+ * - Key 0 is stored out of band, so 0 can mark empty slots
+ * - remove() uses backward-shift deletion, so no tombstones accumulate
+ *
+ * Not thread-safe.
+ */
+public class IntLongHashMap {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * @param expectedSize Number of entries expected; the map grows beyond it if needed
+     */
+    public IntLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean containsKey(int key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * @param key Key to look up
+     * @param defaultValue Value returned when the key is absent
+     * @return Stored value, or defaultValue
+     */
+    public long get(int key, long defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : defaultValue;
+    }
+
+    public void put(int key, long value) {
+        if (key == EMPTY) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int index = indexOf(key);
+        if (keys[index] == key) {
+            values[index] = value;
+            return;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * @param key Key to remove
+     * @return true if the key was present
+     */
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had;
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            return false;
+        }
+
+        // Backward-shift: pull later entries of the same probe chain into the hole
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Visits every entry (in no particular order).
+     */
+    public void forEach(Visitor visitor) {
+        if (hasZeroKey) {
+            visitor.visit(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int key, long value);
+    }
+
+    // Slot holding the key, or the empty slot where it would be inserted
+    private int indexOf(int key) {
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new long[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Spreads sequential reference numbers across the table (Murmur3 finalizer)
+    private static int mix(int key) {
+        int h = key * 0x85EBCA6B;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "IntLongHashMap{size=" + size() + ", capacity=" + keys.length + "}";
+    }
+
+    /**
+     * Removes all entries, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+}
@@ -0,0 +1,84 @@
+package MyFirstProject.demo.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponentially growing buckets.
+ *
+ * Bucket i holds samples in [2^(i-1), 2^i) microseconds, so 32 buckets cover
+ * 1µs up to ~35 minutes. Percentiles are reported as the upper bound of the
+ * bucket that contains them: at most 2x off, which is plenty to tell a 20 ms
+ * provider from a 2 s one, and costs one array increment per sample.
+ *
+ * Why not store every sample:
+ * Memory would grow with traffic; this histogram is 32 longs forever.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records one sample.
+     *
+     * @param nanos Measured duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return Number of recorded samples
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Mean of all samples in milliseconds (0 if empty)
+     */
+    public double getMeanMillis() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / (double) samples / 1_000_000.0;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * Example: percentileMillis(0.99) → 64.0 means 99% of samples took at most ~64 ms.
+     *
+     * @param quantile Value between 0.0 and 1.0
+     * @return Upper bound of the bucket holding the percentile, in milliseconds
+     */
+    public double percentileMillis(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            samples += snapshot[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+
+        // At least the first sample: quantile 0 is the smallest one, not an empty bucket before it
+        long rank = Math.max(1, (long) Math.ceil(quantile * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,200 @@
+package MyFirstProject.demo.utils;
+
+import MyFirstProject.demo.dtos.SingleFlightStatsDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent loads of the same key into one.
+ *
+ * The first caller for a key (the leader) runs the load; callers arriving
+ * while it runs (followers) wait for the leader's result instead of running
+ * their own. Once the load finishes the key is forgotten: this is not a
+ * cache, the caller stores the result wherever it keeps loaded data before
+ * returning from the loader, so later callers find it there.
+ *
+ * Example (a trailer drops, 2,000 users open show 7 at once, layout not cached):
+ * without: 2,000 identical seat map queries
+ * with:    1 query, 1,999 callers coalesced onto it
+ *
+ * If the load throws, every waiting caller gets the same exception and the
+ * next caller loads again.
+ *
+ * @param <K> Key type (e.g. show ID)
+ * @param <V> Loaded value
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * @param name Data kind reported in stats, e.g. "SEAT_LAYOUT"
+     */
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Loads a value for one key, or waits for the load already running for it.
+     *
+     * @param key Key to load
+     * @param loader Load for the key; runs on the calling thread if it leads
+     * @return Loaded value (the leader's, for followers)
+     * @throws E whatever the leader's load threw
+     */
+    public <E extends Exception> V execute(K key, Loader<V, E> loader) throws E {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.load();
+            mine.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Loads values for many keys: keys already being loaded are joined, the
+     * rest are loaded together with one call of the bulk loader.
+     *
+     * @param keys Keys to load (no duplicates)
+     * @param loader Bulk load for the keys this caller leads; a key missing
+     *               from its result maps to null
+     * @return Key → value for every requested key
+     * @throws E whatever a load this caller waited on threw
+     */
+    public <E extends Exception> Map<K, V> executeAll(Collection<K> keys, BulkLoader<K, V, E> loader) throws E {
+        calls.add(keys.size());
+
+        // Step 1: Lead every key nobody is loading, join the others
+        Map<K, CompletableFuture<V>> led = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joined = new LinkedHashMap<>();
+        for (K key : keys) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+            if (leader == null) {
+                led.put(key, mine);
+            } else {
+                joined.put(key, leader);
+            }
+        }
+
+        // Step 2: One bulk load for the led keys
+        Map<K, V> result = new LinkedHashMap<>();
+        if (!led.isEmpty()) {
+            loads.add(led.size());
+            try {
+                Map<K, V> loaded = loader.load(new ArrayList<>(led.keySet()));
+                for (Map.Entry<K, CompletableFuture<V>> entry : led.entrySet()) {
+                    V value = loaded.get(entry.getKey());
+                    entry.getValue().complete(value);
+                    result.put(entry.getKey(), value);
+                }
+            } catch (Exception | Error e) {
+                for (CompletableFuture<V> future : led.values()) {
+                    future.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                led.forEach(inFlight::remove);
+            }
+        }
+
+        // Step 3: Wait for the keys other callers are loading
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            result.put(entry.getKey(), await(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * @return Calls, loads and coalescing ratio since startup
+     */
+    public SingleFlightStatsDTO snapshot() {
+        long callCount = calls.sum();
+        long loadCount = loads.sum();
+        SingleFlightStatsDTO dto = new SingleFlightStatsDTO();
+        dto.setName(name);
+        dto.setCalls(callCount);
+        dto.setLoads(loadCount);
+        dto.setCoalesced(callCount - loadCount);
+        dto.setCoalescingRatio(callCount == 0 ? 0 : (callCount - loadCount) / (double) callCount);
+        return dto;
+    }
+
+    /**
+     * @param flights Flights to report
+     * @return One stats entry per flight
+     */
+    public static List<SingleFlightStatsDTO> snapshots(SingleFlight<?, ?>... flights) {
+        List<SingleFlightStatsDTO> stats = new ArrayList<>(flights.length);
+        for (SingleFlight<?, ?> flight : flights) {
+            stats.add(flight.snapshot());
+        }
+        return stats;
+    }
+
+    // Followers rethrow the leader's exception as is; its type is one of the loader's
+    @SuppressWarnings("unchecked")
+    private static <V, E extends Exception> V await(CompletableFuture<V> leader) throws E {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return leader.get();
+                } catch (InterruptedException e) {
+                    interrupted = true; // the leader is still loading for us; keep waiting
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw (E) cause;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Load of a single key.
+     */
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    /**
+     * Load of many keys at once.
+     */
+    @FunctionalInterface
+    public interface BulkLoader<K, V, E extends Exception> {
+        Map<K, V> load(List<K> keys) throws E;
+    }
+}
@@ -0,0 +1,66 @@
+package MyFirstProject.demo.controller;
+
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.BookingPhase;
+import MyFirstProject.demo.services.BookingMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsControllerTest {
+
+    // name{label="value",...} number
+    private static final Pattern SAMPLE = Pattern.compile(
+            "([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{[a-zA-Z_][a-zA-Z0-9_]*=\"[^\"\\\\\\n]*\"(,[a-zA-Z_][a-zA-Z0-9_]*=\"[^\"\\\\\\n]*\")*})? (\\S+)");
+
+    @Test
+    void exportsPrometheusTextFormat() {
+        BookingMetrics bookingMetrics = new BookingMetrics();
+        // Only BookingMetrics takes part in the Prometheus export
+        MetricsController metricsController = new MetricsController(bookingMetrics,
+                null, null, null, null, null, null, null, null);
+
+        for (int i = 0; i < 100; i++) {
+            bookingMetrics.recordAttempt(7L);
+            bookingMetrics.recordPhase(BookingPhase.SEAT_SAVE, System.nanoTime() - 2_500_000); // 2.5 ms
+        }
+        bookingMetrics.recordSuccess();
+        bookingMetrics.recordFailure(7L, new ShowSeatNotAvailableException("taken"), true);
+        bookingMetrics.recordFailure(7L, new CannotAcquireLockException("lock wait timeout"), false);
+
+        Map<String, Double> samples = new HashMap<>();
+        String exposition = metricsController.exportPrometheus();
+        assertTrue(exposition.endsWith("\n"));
+        for (String line : exposition.split("\n")) {
+            Matcher sample = SAMPLE.matcher(line);
+            assertTrue(sample.matches(), "not a Prometheus sample: " + line);
+            String series = sample.group(1) + (sample.group(2) == null ? "" : sample.group(2));
+            assertNull(samples.put(series, Double.parseDouble(sample.group(4))), "duplicate " + series);
+        }
+
+        assertEquals(100, samples.get("bookmyshow_booking_attempts_total"));
+        assertEquals(1, samples.get("bookmyshow_booking_successes_total"));
+        assertEquals(1, samples.get("bookmyshow_booking_retryable_failures_total"));
+        assertEquals(1, samples.get("bookmyshow_booking_failures_total{cause=\"ShowSeatNotAvailableException\"}"));
+        assertEquals(1, samples.get("bookmyshow_booking_failures_total{cause=\"CannotAcquireLockException\"}"));
+        assertEquals(1, samples.get("bookmyshow_show_seat_conflicts_total{show=\"7\"}"));
+        assertEquals(100, samples.get("bookmyshow_show_booking_attempts_total{show=\"7\"}"));
+
+        // Every phase is exported, in seconds; 2.5 ms falls in the bucket reported as 4.096 ms
+        for (BookingPhase phase : BookingPhase.values()) {
+            assertTrue(samples.containsKey("bookmyshow_booking_phase_seconds{phase=\"" + phase + "\",quantile=\"0.99\"}"));
+        }
+        assertEquals(100, samples.get("bookmyshow_booking_phase_seconds_count{phase=\"SEAT_SAVE\"}"));
+        assertEquals(0.004096, samples.get("bookmyshow_booking_phase_seconds{phase=\"SEAT_SAVE\",quantile=\"0.5\"}"));
+        assertEquals(0.004096, samples.get("bookmyshow_booking_phase_seconds{phase=\"SEAT_SAVE\",quantile=\"0.999\"}"));
+        assertEquals(0, samples.get("bookmyshow_booking_phase_seconds_count{phase=\"TOTAL\"}"));
+    }
+}
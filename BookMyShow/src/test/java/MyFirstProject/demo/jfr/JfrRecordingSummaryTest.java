@@ -0,0 +1,70 @@
+package MyFirstProject.demo.jfr;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrRecordingSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void summarizesOutcomesContendedShowsAndPhases() throws Exception {
+        Path file = tempDir.resolve("bookings.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BookingEvent.NAME);
+            recording.enable(BookingPhaseEvent.NAME);
+            recording.enable(PasswordHashEvent.NAME);
+            recording.start();
+
+            // Show 7 is the hot one: 1 booking, 3 conflicts; show 8 books cleanly
+            booking(7, BookingEvent.BLOCKED);
+            for (int i = 0; i < 3; i++) {
+                booking(7, BookingEvent.SEAT_CONFLICT);
+            }
+            booking(8, BookingEvent.BLOCKED);
+            phase("SEAT_SAVE", 40_000_000L);
+            phase("USER_LOOKUP", 1_000_000L);
+
+            PasswordHashEvent hash = new PasswordHashEvent();
+            hash.begin();
+            hash.operation = PasswordHashEvent.VERIFY;
+            hash.matched = true;
+            hash.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        String summary = JfrRecordingSummary.summarize(file);
+
+        assertTrue(summary.contains("=== Bookings: 5 ==="), summary);
+        assertTrue(summary.matches("(?s).*SEAT_CONFLICT\\s+3\\n.*"), summary);
+        // Most contended show first, slowest phase first
+        assertTrue(summary.indexOf("\n7 ") < summary.indexOf("\n8 "), summary);
+        assertTrue(summary.indexOf("SEAT_SAVE") < summary.indexOf("USER_LOOKUP"), summary);
+        assertTrue(summary.contains("BCRYPT_VERIFY"), summary);
+    }
+
+    private static void booking(long showId, String outcome) {
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        event.showId = showId;
+        event.userId = 1;
+        event.seatCount = 2;
+        event.outcome = outcome;
+        event.commit();
+    }
+
+    private static void phase(String phase, long nanos) {
+        BookingPhaseEvent event = new BookingPhaseEvent();
+        event.phase = phase;
+        event.elapsed = nanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,162 @@
+package MyFirstProject.demo.loadtest;
+
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Region;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.ScreenFeatures;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.Theatre;
+import MyFirstProject.demo.models.User;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Seeds a catalog shaped like a blockbuster opening and remembers the generated IDs.
+ *
+ * Shape (defaults):
+ * - 3 regions x 2 theatres x 2 screens = 12 screens
+ * - 12 rows x 20 seats per screen; rows 0-7 NORMAL, 8-10 PREMIUM, 11 RECLINER
+ * - 2 shows of the same movie per screen (24 shows, 5,760 show seats)
+ * - 2,000 users
+ *
+ * showSeatIds.get(show)[row][col] gives the ShowSeat ID of a seat, so the load
+ * generator can pick seats by position (centre rows are the hotspot).
+ */
+class FlashSaleCatalog {
+
+    static final int REGIONS = 3;
+    static final int THEATRES_PER_REGION = 2;
+    static final int SCREENS_PER_THEATRE = 2;
+    static final int SHOWS_PER_SCREEN = 2;
+    static final int ROWS = 12;
+    static final int SEATS_PER_ROW = 20;
+    static final int USERS = 2_000;
+
+    final List<Long> showIds = new ArrayList<>();
+    final List<long[][]> showSeatIds = new ArrayList<>();
+    final List<Long> userIds = new ArrayList<>();
+
+    /**
+     * Persists the whole catalog. Must run inside a transaction.
+     *
+     * @param entityManager Entity manager of the running application
+     * @return Catalog with all generated IDs
+     */
+    static FlashSaleCatalog seed(EntityManager entityManager) {
+        FlashSaleCatalog catalog = new FlashSaleCatalog();
+
+        SeatType normal = seatType(entityManager, "NORMAL");
+        SeatType premium = seatType(entityManager, "PREMIUM");
+        SeatType recliner = seatType(entityManager, "RECLINER");
+
+        Movie movie = new Movie();
+        movie.setTitle("Opening Night");
+        entityManager.persist(movie);
+
+        long showStart = System.currentTimeMillis() + 24 * 3600_000L;
+        for (int r = 0; r < REGIONS; r++) {
+            Region region = new Region();
+            region.setName("Region " + r);
+            region.setTheatres(new ArrayList<>());
+            entityManager.persist(region);
+
+            for (int t = 0; t < THEATRES_PER_REGION; t++) {
+                Theatre theatre = new Theatre();
+                theatre.setName("Theatre " + r + "-" + t);
+                theatre.setRegion(region);
+                theatre.setScreens(new ArrayList<>());
+                entityManager.persist(theatre);
+                region.getTheatres().add(theatre);
+
+                for (int s = 0; s < SCREENS_PER_THEATRE; s++) {
+                    Screen screen = new Screen();
+                    screen.setName("Screen " + s);
+                    screen.setScreenFeatures(new ArrayList<>(List.of(ScreenFeatures.TWO_D)));
+                    screen.setSeats(new ArrayList<>());
+                    entityManager.persist(screen);
+                    theatre.getScreens().add(screen);
+
+                    Seat[][] seats = new Seat[ROWS][SEATS_PER_ROW];
+                    for (int row = 0; row < ROWS; row++) {
+                        SeatType seatType = row < 8 ? normal : row < 11 ? premium : recliner;
+                        for (int col = 0; col < SEATS_PER_ROW; col++) {
+                            Seat seat = new Seat();
+                            seat.setName((char) ('A' + row) + String.valueOf(col + 1));
+                            seat.setSeatType(seatType);
+                            seat.setRowNum(row);
+                            seat.setColNum(col);
+                            entityManager.persist(seat);
+                            screen.getSeats().add(seat);
+                            seats[row][col] = seat;
+                        }
+                    }
+
+                    for (int sh = 0; sh < SHOWS_PER_SCREEN; sh++) {
+                        catalog.addShow(entityManager, movie, screen, seats,
+                                new Date(showStart + sh * 3 * 3600_000L), normal, premium, recliner);
+                    }
+                }
+            }
+        }
+
+        for (int u = 0; u < USERS; u++) {
+            User user = new User();
+            user.setName("User " + u);
+            user.setEmail("user" + u + "@example.com");
+            entityManager.persist(user);
+            catalog.userIds.add(user.getId());
+        }
+        return catalog;
+    }
+
+    private void addShow(EntityManager entityManager, Movie movie, Screen screen, Seat[][] seats, Date start,
+                         SeatType normal, SeatType premium, SeatType recliner) {
+        Show show = new Show();
+        show.setMovie(movie);
+        show.setScreen(screen);
+        show.setStartTime(start);
+        show.setEndTime(new Date(start.getTime() + 3 * 3600_000L));
+        entityManager.persist(show);
+
+        price(entityManager, show, normal, 200);
+        price(entityManager, show, premium, 350);
+        price(entityManager, show, recliner, 600);
+
+        long[][] ids = new long[ROWS][SEATS_PER_ROW];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < SEATS_PER_ROW; col++) {
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seats[row][col]);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                ids[row][col] = showSeat.getId();
+            }
+        }
+        showIds.add(show.getId());
+        showSeatIds.add(ids);
+    }
+
+    private static SeatType seatType(EntityManager entityManager, String name) {
+        SeatType seatType = new SeatType();
+        seatType.setName(name);
+        entityManager.persist(seatType);
+        return seatType;
+    }
+
+    private static void price(EntityManager entityManager, Show show, SeatType seatType, int price) {
+        ShowSeatType showSeatType = new ShowSeatType();
+        showSeatType.setShow(show);
+        showSeatType.setSeatType(seatType);
+        showSeatType.setPrice(price);
+        entityManager.persist(showSeatType);
+    }
+}
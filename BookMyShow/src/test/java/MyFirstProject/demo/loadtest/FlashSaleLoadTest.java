@@ -0,0 +1,192 @@
+package MyFirstProject.demo.loadtest;
+
+import MyFirstProject.demo.controller.BookingController;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.BookingMetricsDTO;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.services.BookingMetrics;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flash-sale load test: a blockbuster opens and thousands of users hit the same seats.
+ *
+ * Boots the whole application on the embedded H2 profile, seeds FlashSaleCatalog,
+ * then fires concurrent BookingController.bookMovie() calls with hotspot seat selection:
+ * - hotShowShare of requests go to the first show (opening night, best screen)
+ * - rows and columns are drawn around the centre of the hall, so many
+ *   requests fight for the same few seats
+ * - 1-4 adjacent seats per booking (groups of friends)
+ *
+ * Reports throughput, p50/p99/p999 latency, conflict rate and failure causes,
+ * then verifies that no seat was sold twice.
+ *
+ * Run:  ./mvnw -Pload-test test
+ * Tune: -Dload.requests=5000 -Dload.threads=64 -Dload.hotShowShare=0.8 -Dload.seed=42
+ */
+@Tag("load")
+@SpringBootTest(properties = "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=off")
+@ActiveProfiles("embedded")
+class FlashSaleLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5_000);
+    private static final int THREADS = Integer.getInteger("load.threads", 64);
+    private static final double HOT_SHOW_SHARE = Double.parseDouble(System.getProperty("load.hotShowShare", "0.8"));
+    private static final long SEED = Long.getLong("load.seed", 42L);
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void blockbusterOpening() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        FlashSaleCatalog catalog = transactionTemplate.execute(status -> FlashSaleCatalog.seed(entityManager));
+
+        // Step 1: Pre-generate requests so the timed section only books
+        List<BookMovieRequestDTO> requests = generateRequests(catalog);
+
+        // Step 2: Fire them from THREADS threads, released together
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger overloaded = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            clients.submit(() -> {
+                startGate.await();
+                for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                    long start = System.nanoTime();
+                    BookMovieResponseDTO response = bookingController.bookMovie(requests.get(i));
+                    latencies[i] = System.nanoTime() - start;
+                    if (response.getResponseStatus() == ResponseStatus.SUCCESS) {
+                        successes.incrementAndGet();
+                    } else if (response.getResponseStatus() == ResponseStatus.OVERLOADED) {
+                        overloaded.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long wallStart = System.nanoTime();
+        startGate.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.MINUTES), "load test did not finish");
+        long wallNanos = System.nanoTime() - wallStart;
+
+        // Step 3: Report
+        BookingMetricsDTO metrics = bookingMetrics.snapshot();
+        long seatConflicts = metrics.getFailuresByCause().getOrDefault("ShowSeatNotAvailableException", 0L);
+        Arrays.sort(latencies);
+        System.out.printf("%n=== Flash sale: %d requests, %d threads, %.0f%% on hot show ===%n",
+                REQUESTS, THREADS, HOT_SHOW_SHARE * 100);
+        System.out.printf("throughput    %.1f bookings attempts/s%n", REQUESTS / (wallNanos / 1e9));
+        System.out.printf("latency       p50 %.2f ms   p99 %.2f ms   p999 %.2f ms   max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[REQUESTS - 1] / 1e6);
+        System.out.printf("succeeded     %d (%.1f%%)%n", successes.get(), 100.0 * successes.get() / REQUESTS);
+        System.out.printf("seat conflict %.1f%%%n", 100.0 * seatConflicts / REQUESTS);
+        System.out.printf("shed          %d (%.1f%%, BOOKING concurrency limit)%n",
+                overloaded.get(), 100.0 * overloaded.get() / REQUESTS);
+        System.out.printf("retries       %d (%d requests booked after a retry, %d gave up)%n",
+                metrics.getTransactionRetries(), metrics.getRetriedSuccesses(), metrics.getRetriesExhausted());
+        for (Map.Entry<String, Long> failure : metrics.getFailuresByCause().entrySet()) {
+            System.out.printf("failure       %-40s %d%n", failure.getKey(), failure.getValue());
+        }
+
+        // Step 4: Verify – no seat in two live bookings, and seats and bookings agree
+        List<BookingStatus> live = List.of(BookingStatus.PENDING, BookingStatus.SUCCESS);
+        List<?> doubleSold = entityManager.createQuery(
+                        "select s.id from Booking b join b.seats s where b.bookingStatus in :live " +
+                                "group by s.id having count(b) > 1")
+                .setParameter("live", live)
+                .getResultList();
+        long liveBookings = entityManager.createQuery(
+                        "select count(b) from Booking b where b.bookingStatus in :live", Long.class)
+                .setParameter("live", live)
+                .getSingleResult();
+        long seatsInLiveBookings = entityManager.createQuery(
+                        "select count(s) from Booking b join b.seats s where b.bookingStatus in :live", Long.class)
+                .setParameter("live", live)
+                .getSingleResult();
+        long blockedSeats = entityManager.createQuery(
+                        "select count(ss) from ShowSeat ss where ss.seatStatus <> :available", Long.class)
+                .setParameter("available", SeatStatus.AVAILABLE)
+                .getSingleResult();
+        System.out.printf("double-sold   %d seats%n", doubleSold.size());
+
+        assertEquals(0, doubleSold.size(), "seats sold twice: " + doubleSold);
+        assertEquals(successes.get(), liveBookings);
+        assertEquals(seatsInLiveBookings, blockedSeats);
+    }
+
+    private List<BookMovieRequestDTO> generateRequests(FlashSaleCatalog catalog) {
+        Random random = new Random(SEED);
+        List<BookMovieRequestDTO> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int show = random.nextDouble() < HOT_SHOW_SHARE ? 0 : 1 + random.nextInt(catalog.showIds.size() - 1);
+            long[][] seats = catalog.showSeatIds.get(show);
+
+            // Everyone wants the middle of the hall: rows and columns cluster around the centre
+            int groupSize = 1 + random.nextInt(4);
+            int row = clamp((int) Math.round(FlashSaleCatalog.ROWS * 0.6 + random.nextGaussian() * 2), 0,
+                    FlashSaleCatalog.ROWS - 1);
+            int firstCol = clamp((int) Math.round(FlashSaleCatalog.SEATS_PER_ROW / 2.0 - groupSize / 2.0
+                    + random.nextGaussian() * 3), 0, FlashSaleCatalog.SEATS_PER_ROW - groupSize);
+
+            List<Long> showSeatIds = new ArrayList<>(groupSize);
+            for (int c = 0; c < groupSize; c++) {
+                showSeatIds.add(seats[row][firstCol + c]);
+            }
+
+            BookMovieRequestDTO request = new BookMovieRequestDTO();
+            request.setUserId(catalog.userIds.get(random.nextInt(catalog.userIds.size())));
+            request.setShowId(catalog.showIds.get(show));
+            request.setShowsSeatId(showSeatIds);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,44 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.BookingMetricsDTO;
+import MyFirstProject.demo.dtos.ShowContentionDTO;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingMetricsTest {
+
+    @Test
+    void perShowCountersStopAtTheCap() {
+        BookingMetrics bookingMetrics = new BookingMetrics();
+        long shows = BookingMetrics.MAX_TRACKED_SHOWS;
+        for (long showId = 1; showId <= shows; showId++) {
+            bookingMetrics.recordAttempt(showId);
+        }
+
+        // Further shows are only counted in total
+        long untracked = shows + 1;
+        bookingMetrics.recordAttempt(untracked);
+        bookingMetrics.recordAttempt(untracked);
+        bookingMetrics.recordFailure(untracked, new ShowSeatNotAvailableException("taken"), true);
+
+        // Shows tracked before the cap keep counting
+        bookingMetrics.recordAttempt(1L);
+        bookingMetrics.recordFailure(1L, new ShowSeatNotAvailableException("taken"), true);
+
+        BookingMetricsDTO snapshot = bookingMetrics.snapshot();
+        assertEquals(shows + 3, snapshot.getAttempts());
+        assertEquals(2, snapshot.getUntrackedShowAttempts());
+        assertEquals(2, snapshot.getFailuresByCause().get("ShowSeatNotAvailableException"));
+
+        assertEquals(1, snapshot.getMostContendedShows().size());
+        ShowContentionDTO show = snapshot.getMostContendedShows().get(0);
+        assertEquals(1L, show.getShowId());
+        assertEquals(2, show.getAttempts());
+        assertEquals(1, show.getSeatConflicts());
+        assertEquals(0.5, show.getConflictRate());
+        assertTrue(snapshot.getMostContendedShows().stream().noneMatch(s -> s.getShowId() == untracked));
+    }
+}
@@ -0,0 +1,115 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.configs.BookingRetryProperties;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingRetryServiceTest {
+
+    private static final int CLIENTS = 16;
+
+    @Test
+    void retriesRaiseTheSuccessRateUnderLockContention() throws Exception {
+        BookingMetrics noRetryMetrics = new BookingMetrics();
+        int withoutRetries = bookConcurrently(retryService(1, noRetryMetrics));
+
+        BookingMetrics retryMetrics = new BookingMetrics();
+        int withRetries = bookConcurrently(retryService(50, retryMetrics));
+
+        assertTrue(withoutRetries < CLIENTS, "no lock timeouts, contention too low: " + withoutRetries);
+        assertEquals(CLIENTS, withRetries);
+        assertEquals(0, noRetryMetrics.snapshot().getTransactionRetries());
+        assertTrue(retryMetrics.snapshot().getRetriedSuccesses() > 0);
+        assertEquals(0, retryMetrics.snapshot().getRetriesExhausted());
+    }
+
+    @Test
+    void seatConflictsAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        BookingServices taken = new BookingServices(null, null, null, null, null, null, null, null) {
+            @Override
+            public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList)
+                    throws ShowSeatNotAvailableException {
+                calls.incrementAndGet();
+                throw new ShowSeatNotAvailableException("Seat not available");
+            }
+        };
+        BookingRetryService service = new BookingRetryService(taken, new BookingMetrics(), properties(5));
+
+        assertThrows(ShowSeatNotAvailableException.class, () -> service.bookMovie(1L, 1L, List.of(1L)));
+        assertEquals(1, calls.get());
+    }
+
+    // Every "transaction" holds one row lock for 3 ms and gives up after waiting 2 ms, like a lock wait timeout
+    private static BookingRetryService retryService(int maxAttempts, BookingMetrics metrics) {
+        ReentrantLock rowLock = new ReentrantLock();
+        BookingServices contended = new BookingServices(null, null, null, null, null, null, null, null) {
+            @Override
+            public Booking bookMovie(Long userId, Long showId, List<Long> showSeatList) {
+                try {
+                    if (!rowLock.tryLock(2, TimeUnit.MILLISECONDS)) {
+                        throw new CannotAcquireLockException("Lock wait timeout exceeded");
+                    }
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                try {
+                    Thread.sleep(3);
+                    return new Booking();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    rowLock.unlock();
+                }
+            }
+        };
+        return new BookingRetryService(contended, metrics, properties(maxAttempts));
+    }
+
+    private static BookingRetryProperties properties(int maxAttempts) {
+        BookingRetryProperties properties = new BookingRetryProperties();
+        properties.setMaxAttempts(maxAttempts);
+        properties.setBaseBackoffMs(1);
+        properties.setMaxBackoffMs(20);
+        properties.setDeadlineMs(10_000);
+        return properties;
+    }
+
+    // All clients start together; returns how many got a booking
+    private static int bookConcurrently(BookingRetryService service) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        for (int i = 0; i < CLIENTS; i++) {
+            long userId = i;
+            clients.submit(() -> {
+                try {
+                    startGate.await();
+                    service.bookMovie(userId, 1L, List.of(userId));
+                    booked.incrementAndGet();
+                } catch (Exception e) {
+                    // lock wait timeout after the last allowed attempt
+                }
+                return null;
+            });
+        }
+        startGate.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(1, TimeUnit.MINUTES));
+        return booked.get();
+    }
+}
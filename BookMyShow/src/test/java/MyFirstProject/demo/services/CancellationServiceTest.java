@@ -0,0 +1,235 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.ShowCancellationReportDTO;
+import MyFirstProject.demo.exceptions.InvalidShowException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.RefundStatus;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.repositories.RefundRepository;
+import MyFirstProject.demo.services.payment.PaymentBatchApplier;
+import MyFirstProject.demo.services.payment.PaymentOutcome;
+import MyFirstProject.demo.services.waitlist.WaitlistService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Refunds stay QUEUED: the refund processor never runs during the test
+@SpringBootTest(properties = "bookmyshow.payments.refunds.interval-ms=3600000")
+@ActiveProfiles("embedded")
+class CancellationServiceTest {
+
+    private static final int PRICE = 250;
+
+    @Autowired
+    private CancellationService cancellationService;
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private PaymentBatchApplier paymentBatchApplier;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long showId;
+    private Long seatTypeId;
+    private List<Long> showSeatIds;
+
+    private final ExecutorService secondTransaction = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        secondTransaction.shutdownNow();
+    }
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+            seatTypeId = normal.getId();
+
+            Movie movie = new Movie();
+            movie.setTitle("Cancelled");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            showId = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(PRICE);
+            entityManager.persist(price);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("cancel-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @Test
+    void cancelledShowRefundsPaidBookingsAndCannotBeBookedAgain() throws Exception {
+        Booking paid = bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(0)));
+        paymentBatchApplier.applyBatch(List.of(new PaymentOutcome(paid.getId(), PaymentProvider.RAZORPAY,
+                PaymentMethod.CREDIT_CARD, PaymentStatus.SUCCESS, 4242, PRICE, System.nanoTime())));
+        Booking unpaid = bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(1)));
+
+        ShowCancellationReportDTO report = cancellationService.cancelShow(showId);
+
+        assertEquals(2, report.getBookingsCancelled());
+        assertEquals(2, report.getSeatsReleased());
+        assertEquals(1, report.getRefundsQueued());
+
+        // Seats are AVAILABLE again, but the show is closed
+        assertThrows(InvalidShowException.class,
+                () -> bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(0))));
+        assertThrows(InvalidShowException.class,
+                () -> waitlistService.join(userId, showId, seatTypeId, 1));
+
+        // Only the paid booking is refunded, once, for what it paid
+        List<Refund> refunds = refundRepository.findAll().stream()
+                .filter(refund -> refund.getBooking().getId().equals(paid.getId())
+                        || refund.getBooking().getId().equals(unpaid.getId()))
+                .toList();
+        assertEquals(1, refunds.size());
+        assertEquals(paid.getId(), refunds.get(0).getBooking().getId());
+        assertEquals(PRICE, refunds.get(0).getAmount());
+        assertEquals(4242, refunds.get(0).getReferenceNumber());
+        assertEquals(RefundStatus.QUEUED, refunds.get(0).getRefundStatus());
+    }
+
+    @Test
+    void successAppliedWhileShowIsCancelledIsRefunded() throws Exception {
+        Booking booking = bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(0)));
+
+        // cancelShow holds the booking locks; the SUCCESS batch waits and then sees CANCELLED
+        interleave(() -> cancellationService.cancelShow(showId),
+                () -> paymentBatchApplier.applyBatch(List.of(success(booking, 5151))));
+
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(booking.getId()).orElseThrow().getBookingStatus());
+        List<Refund> refunds = refundsOf(booking);
+        assertEquals(1, refunds.size());
+        assertEquals(5151, refunds.get(0).getReferenceNumber());
+    }
+
+    @Test
+    void showCancelledWhileSuccessIsAppliedRefundsIt() throws Exception {
+        Booking booking = bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(0)));
+
+        // The SUCCESS batch holds the booking lock; cancelShow waits and then refunds the paid booking
+        interleave(() -> paymentBatchApplier.applyBatch(List.of(success(booking, 6161))),
+                () -> cancellationService.cancelShow(showId));
+
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(booking.getId()).orElseThrow().getBookingStatus());
+        List<Refund> refunds = refundsOf(booking);
+        assertEquals(1, refunds.size());
+        assertEquals(6161, refunds.get(0).getReferenceNumber());
+    }
+
+    /**
+     * Runs first in a transaction that stays open while second, on another
+     * thread, runs into its row locks; then commits and lets second finish.
+     */
+    private void interleave(Callable<?> first, Callable<?> second) throws Exception {
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        Future<?> waiting;
+        try {
+            first.call();
+            waiting = secondTransaction.submit(second);
+            Thread.sleep(300);
+            assertFalse(waiting.isDone(), "second transaction should wait for the first one's locks");
+        } catch (Exception | AssertionError e) {
+            transactionManager.rollback(transaction);
+            throw e;
+        }
+        transactionManager.commit(transaction);
+        waiting.get(10, TimeUnit.SECONDS);
+    }
+
+    private static PaymentOutcome success(Booking booking, int referenceNumber) {
+        return new PaymentOutcome(booking.getId(), PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD,
+                PaymentStatus.SUCCESS, referenceNumber, PRICE, System.nanoTime());
+    }
+
+    private List<Refund> refundsOf(Booking booking) {
+        return refundRepository.findAll().stream()
+                .filter(refund -> refund.getBooking().getId().equals(booking.getId()))
+                .toList();
+    }
+}
@@ -0,0 +1,146 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.SeatAvailabilityCountDTO;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatAvailabilityServiceTest {
+
+    private static final long SHOW_ID = 7;
+    private static final long SEAT_TYPE_ID = 1;
+
+    private final ExecutorService queries = Executors.newSingleThreadExecutor();
+
+    // The count query signals `querying` and returns the snapshot it took only once `proceed` is released
+    private final CountDownLatch querying = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private volatile boolean blockQueries;
+
+    // Available seats of seat type 1 the count query finds, per show
+    private volatile int seatsLeft = 10;
+
+    @AfterEach
+    void tearDown() {
+        proceed.countDown();
+        queries.shutdownNow();
+    }
+
+    @Test
+    void seatsTakenDuringReconcileQueryAreKept() throws Exception {
+        SeatAvailabilityService service = new SeatAvailabilityService(showSeatRepository(), event -> { });
+        assertEquals(10, available(service));
+
+        // Reconcile reads 10 seats left, then a booking commits before it writes the result
+        blockQueries = true;
+        Future<Integer> reconcile = queries.submit(service::reconcile);
+        assertTrue(querying.await(10, TimeUnit.SECONDS));
+        service.onSeatsTaken(List.of(showSeat()));
+        proceed.countDown();
+
+        assertEquals(0, reconcile.get(10, TimeUnit.SECONDS));
+        assertEquals(9, available(service));
+    }
+
+    @Test
+    void seatsReleasedDuringFirstLoadAreKept() throws Exception {
+        SeatAvailabilityService service = new SeatAvailabilityService(showSeatRepository(), event -> { });
+
+        // The first read loads 10 seats left; a hold expires before the counters are published
+        blockQueries = true;
+        Future<Integer> firstRead = queries.submit(() -> available(service));
+        assertTrue(querying.await(10, TimeUnit.SECONDS));
+        service.onSeatsReleased(List.of(showSeat()));
+        proceed.countDown();
+
+        assertEquals(11, firstRead.get(10, TimeUnit.SECONDS));
+        assertEquals(11, available(service));
+    }
+
+    @Test
+    void seatsTakenJustBeforeReconcileQueryAreCountedOnce() throws Exception {
+        SeatAvailabilityService service = new SeatAvailabilityService(showSeatRepository(), event -> { });
+        assertEquals(10, available(service));
+
+        // A booking commits, but its counter update (afterCommit) runs late
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onSeatsTaken(List.of(showSeat()));
+            List<TransactionSynchronization> booking = TransactionSynchronizationManager.getSynchronizations();
+            booking.forEach(synchronization -> synchronization.beforeCommit(false));
+            seatsLeft = 9;
+
+            // Reconcile's query already counts the booking; the update arrives while it runs
+            blockQueries = true;
+            Future<Integer> reconcile = queries.submit(service::reconcile);
+            assertTrue(querying.await(10, TimeUnit.SECONDS));
+            booking.forEach(TransactionSynchronization::afterCommit);
+            proceed.countDown();
+            reconcile.get(10, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(9, available(service));
+
+        // Converged: the next run finds nothing to repair
+        blockQueries = false;
+        assertEquals(0, service.reconcile());
+        assertEquals(9, available(service));
+    }
+
+    private int available(SeatAvailabilityService service) {
+        return service.getAvailability(List.of(SHOW_ID)).get(SHOW_ID).getTotalAvailable();
+    }
+
+    private static ShowSeat showSeat() {
+        Show show = new Show();
+        show.setId(SHOW_ID);
+        SeatType seatType = new SeatType();
+        seatType.setId(SEAT_TYPE_ID);
+        Seat seat = new Seat();
+        seat.setSeatType(seatType);
+        ShowSeat showSeat = new ShowSeat();
+        showSeat.setId(4701L);
+        showSeat.setShow(show);
+        showSeat.setSeat(seat);
+        return showSeat;
+    }
+
+    // show_seat has seatsLeft available seats of seat type 1 per show when the query reads it
+    private ShowSeatRepository showSeatRepository() {
+        return (ShowSeatRepository) Proxy.newProxyInstance(ShowSeatRepository.class.getClassLoader(),
+                new Class<?>[]{ShowSeatRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("countByShowIdsAndSeatStatus")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<SeatAvailabilityCountDTO> rows = new ArrayList<>();
+                    for (Object showId : (Collection<?>) args[0]) {
+                        rows.add(new SeatAvailabilityCountDTO((Long) showId, SEAT_TYPE_ID, seatsLeft));
+                    }
+                    if (blockQueries) {
+                        querying.countDown();
+                        proceed.await();
+                    }
+                    return rows;
+                });
+    }
+}
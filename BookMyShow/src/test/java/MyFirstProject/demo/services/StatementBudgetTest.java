@@ -0,0 +1,257 @@
+package MyFirstProject.demo.services;
+
+import MyFirstProject.demo.dtos.BookingHistoryPageDTO;
+import MyFirstProject.demo.dtos.WarmupReportDTO;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.sqlguard.SqlCapture;
+import MyFirstProject.demo.sqlguard.SqlStatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statement budgets for the hot paths.
+ *
+ * A mapping change (an eager association, a lazy collection touched in a loop)
+ * or a per-row save can multiply the statements of a request without any
+ * functional test noticing. These tests pin the current statement counts, so
+ * such a change fails the build with the full statement list and call sites.
+ *
+ * When a change legitimately needs more statements, raise the budget in the
+ * same commit and say why.
+ */
+@SpringBootTest(properties = SqlStatementRecorder.REGISTRATION)
+@ActiveProfiles("embedded")
+class StatementBudgetTest {
+
+    private static final int SEATS = 10;
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private PriceCalculator priceCalculator;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private ShowReadCache showReadCache;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private ShowSeatRepository showSeatRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long userId;
+    private Long showId;
+    private List<Long> showSeatIds;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            SeatType normal = seatType("NORMAL");
+            SeatType premium = seatType("PREMIUM");
+
+            Movie movie = new Movie();
+            movie.setTitle("Budget");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            screen.setSeats(new ArrayList<>());
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            // Starts within the warm-up horizon
+            show.setStartTime(new Date(System.currentTimeMillis() + 3_600_000L));
+            show.setEndTime(new Date(System.currentTimeMillis() + 3 * 3_600_000L));
+            entityManager.persist(show);
+            price(show, normal, 200);
+            price(show, premium, 350);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i < SEATS; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(i % 2 == 0 ? normal : premium);
+                seat.setColNum(i);
+                entityManager.persist(seat);
+                screen.getSeats().add(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("budget-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+
+            userId = user.getId();
+            showId = show.getId();
+        });
+    }
+
+    @Test
+    void bookMovieOfSixSeats() throws Exception {
+        try (SqlCapture sql = SqlCapture.start("bookMovie of 6 seats")) {
+            bookingServices.bookMovie(userId, showId, showSeatIds.subList(0, 6));
+
+            // user, show, seats (with seat and type), prices
+            sql.assertNoNPlusOne();
+            sql.assertAtMost("select", 4);
+            // booking and outbox_event inserts, then one seat UPDATE and one booking_seats INSERT per seat
+            sql.assertAtMost("update", 6);
+            sql.assertAtMost(4 + 2 + 2 * 6);
+        }
+    }
+
+    @Test
+    void bookingHistoryPagesAreOneStatementEach() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            bookingServices.bookMovie(userId, showId, showSeatIds.subList(2 * i, 2 * i + 2));
+        }
+
+        try (SqlCapture sql = SqlCapture.start("booking history, first page")) {
+            BookingHistoryPageDTO first = bookingHistoryService.getHistory(userId, null, null, 2);
+            assertEquals(2, first.getBookings().size());
+            assertEquals(2, first.getBookings().get(0).getSeatCount());
+            assertEquals("Budget", first.getBookings().get(0).getMovieTitle());
+
+            // Display columns only: no Booking, Show or User entities loaded
+            sql.assertAtMost(1);
+
+            BookingHistoryPageDTO last = bookingHistoryService.getHistory(
+                    userId, first.getNextBeforeTime(), first.getNextBeforeId(), 2);
+            assertEquals(1, last.getBookings().size());
+            assertTrue(last.getBookings().get(0).getBookingId() < first.getNextBeforeId());
+            assertNull(last.getNextBeforeId());
+            sql.assertAtMost(2);
+        }
+    }
+
+    @Test
+    void calculatePrice() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Show show = showRepository.findById(showId).orElseThrow();
+            List<ShowSeat> showSeats = showSeatRepository.findAllById(showSeatIds);
+
+            try (SqlCapture sql = SqlCapture.start("calculatePrice of " + SEATS + " seats")) {
+                assertEquals(5 * 200 + 5 * 350, priceCalculator.calculatePrice(show, showSeats));
+
+                // One price lookup per booking, never one per seat
+                sql.assertAtMost(1);
+            }
+        });
+    }
+
+    @Test
+    void calculatePriceAfterWarmupIssuesNoStatements() {
+        showReadCache.evict(showId);
+        WarmupReportDTO report = cacheWarmupService.warmUp();
+        assertTrue(report.getShowsWarmed() >= 1, "shows warmed: " + report.getShowsWarmed());
+        assertTrue(report.getSeatsLoaded() >= SEATS && report.getBytesLoaded() > 0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Show show = showRepository.findById(showId).orElseThrow();
+            List<ShowSeat> showSeats = showSeatRepository.findAllById(showSeatIds);
+
+            try (SqlCapture sql = SqlCapture.start("calculatePrice of a warmed show")) {
+                assertEquals(5 * 200 + 5 * 350, priceCalculator.calculatePrice(show, showSeats));
+                sql.assertAtMost(0);
+            }
+        });
+    }
+
+    @Test
+    void signUpAndLogin() throws Exception {
+        String email = "new-" + System.nanoTime() + "@example.com";
+        try (SqlCapture sql = SqlCapture.start("signUp of a new user")) {
+            userService.signUp(email, "secret");
+
+            // existence check by email, insert
+            sql.assertAtMost(2);
+        }
+        try (SqlCapture sql = SqlCapture.start("login")) {
+            assertTrue(userService.login(email, "secret"));
+            sql.assertAtMost(1);
+        }
+    }
+
+    @Test
+    void lookupInLoopIsReportedAsNPlusOne() {
+        SqlCapture sql = SqlCapture.start("seat lookups in a loop");
+        try {
+            for (Long showSeatId : showSeatIds.subList(0, 3)) {
+                showSeatRepository.findById(showSeatId);
+            }
+            AssertionFailedError failure = assertThrows(AssertionFailedError.class, sql::assertNoNPlusOne);
+            assertTrue(failure.getMessage().contains("3x select"), failure.getMessage());
+            assertTrue(failure.getMessage().contains("StatementBudgetTest.lookupInLoopIsReportedAsNPlusOne"),
+                    failure.getMessage());
+        } finally {
+            sql.close();
+        }
+    }
+
+    private SeatType seatType(String name) {
+        SeatType seatType = new SeatType();
+        seatType.setName(name);
+        entityManager.persist(seatType);
+        return seatType;
+    }
+
+    private void price(Show show, SeatType seatType, int price) {
+        ShowSeatType showSeatType = new ShowSeatType();
+        showSeatType.setShow(show);
+        showSeatType.setSeatType(seatType);
+        showSeatType.setPrice(price);
+        entityManager.persist(showSeatType);
+    }
+}
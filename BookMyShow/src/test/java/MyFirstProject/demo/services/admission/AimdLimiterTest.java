@@ -0,0 +1,48 @@
+package MyFirstProject.demo.services.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = 1_000_000_000L; // 1 s: every test call is "fast"
+
+    @Test
+    void shedsAtTheLimitAndGrowsWhileFastAndBusy() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getShed());
+
+        // Fast with the limit fully used: +1/limit; fast with 1 of 2.5 in use: unchanged
+        limiter.release(System.nanoTime(), false);
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+        limiter.release(System.nanoTime(), false);
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void cutsOncePerCongestionEpisode() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, THRESHOLD, 0.5);
+        long episodeStart = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // Four requests of the same stall come back dropped: one cut, not four
+        for (int i = 0; i < 4; i++) {
+            limiter.release(episodeStart, true);
+        }
+        assertEquals(4.0, limiter.getLimit(), 1e-9);
+
+        // A request that started after the cut and is still dropped cuts again
+        assertTrue(limiter.tryAcquire());
+        limiter.release(System.nanoTime(), true);
+        assertEquals(2.0, limiter.getLimit(), 1e-9);
+    }
+}
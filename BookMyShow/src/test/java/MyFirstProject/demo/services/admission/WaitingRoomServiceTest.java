@@ -0,0 +1,136 @@
+package MyFirstProject.demo.services.admission;
+
+import MyFirstProject.demo.configs.WaitingRoomProperties;
+import MyFirstProject.demo.dtos.WaitingRoomStatusDTO;
+import MyFirstProject.demo.exceptions.InvalidAdmissionTicketException;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.services.BookingMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitingRoomServiceTest {
+
+    private static final long SHOW = 7L;
+
+    private WaitingRoomProperties properties;
+    private BookingMetrics bookingMetrics;
+    private WaitingRoomService waitingRoomService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WaitingRoomProperties();
+        properties.setEnabled(true);
+        properties.setSecret("test-secret");
+        properties.setBurst(2);
+        // Practically no refill during the test: only the burst gets in
+        properties.setInitialAdmitsPerSecond(0.001);
+        bookingMetrics = new BookingMetrics();
+        waitingRoomService = new WaitingRoomService(properties, bookingMetrics);
+    }
+
+    @Test
+    void admitsTheBurstThenQueuesInOrder() throws Exception {
+        WaitingRoomStatusDTO first = waitingRoomService.enter(1L, SHOW);
+        waitingRoomService.enter(2L, SHOW);
+        WaitingRoomStatusDTO third = waitingRoomService.enter(3L, SHOW);
+        WaitingRoomStatusDTO fourth = waitingRoomService.enter(4L, SHOW);
+
+        assertEquals(ResponseStatus.SUCCESS, first.getResponseStatus());
+        assertTrue(waitingRoomService.claimAdmission(first.getAdmissionTicket(), 1L, SHOW));
+
+        assertEquals(ResponseStatus.PENDING, third.getResponseStatus());
+        assertNull(third.getAdmissionTicket());
+        assertEquals(1, third.getPosition());
+        assertEquals(2, waitingRoomService.getStatus(fourth.getQueueTicket()).getPosition());
+        assertTrue(fourth.getEstimatedWaitSeconds() > 0);
+    }
+
+    @Test
+    void rejectsTicketsOfOtherUsersShowsOrEditedPositions() {
+        String admission = waitingRoomService.enter(1L, SHOW).getAdmissionTicket();
+        assertFalse(waitingRoomService.claimAdmission(admission, 2L, SHOW));
+        assertFalse(waitingRoomService.claimAdmission(admission, 1L, 8L));
+        assertFalse(waitingRoomService.claimAdmission(null, 1L, SHOW));
+
+        waitingRoomService.enter(2L, SHOW);
+        String queued = waitingRoomService.enter(3L, SHOW).getQueueTicket();
+        // "q.7.3.3.<sig>" → "q.7.3.1.<sig>": jump the line
+        String[] parts = queued.split("\\.");
+        String edited = parts[0] + "." + parts[1] + "." + parts[2] + ".1." + parts[4];
+        assertThrows(InvalidAdmissionTicketException.class, () -> waitingRoomService.getStatus(edited));
+        assertThrows(InvalidAdmissionTicketException.class, () -> waitingRoomService.getStatus(admission));
+    }
+
+    @Test
+    void enteringAgainKeepsThePlaceInLine() throws Exception {
+        waitingRoomService.enter(1L, SHOW);
+        waitingRoomService.enter(2L, SHOW);
+        WaitingRoomStatusDTO third = waitingRoomService.enter(3L, SHOW);
+
+        // Reloading doesn't buy a second number, nor lose the first one
+        WaitingRoomStatusDTO again = waitingRoomService.enter(3L, SHOW);
+        assertEquals(third.getQueueTicket(), again.getQueueTicket());
+        assertEquals(1, again.getPosition());
+        assertEquals(2, waitingRoomService.enter(4L, SHOW).getPosition());
+    }
+
+    @Test
+    void admissionBooksOnce() throws Exception {
+        WaitingRoomStatusDTO entered = waitingRoomService.enter(1L, SHOW);
+        String admission = entered.getAdmissionTicket();
+
+        // A second request while the first one books is turned away
+        assertTrue(waitingRoomService.claimAdmission(admission, 1L, SHOW));
+        assertFalse(waitingRoomService.claimAdmission(admission, 1L, SHOW));
+
+        // A failed booking (seat taken, ...) leaves the admission for the next try
+        waitingRoomService.releaseAdmission(admission, 1L, SHOW, false);
+        assertTrue(waitingRoomService.claimAdmission(admission, 1L, SHOW));
+
+        // A successful one spends it, and the queue ticket with it
+        waitingRoomService.releaseAdmission(admission, 1L, SHOW, true);
+        assertFalse(waitingRoomService.claimAdmission(admission, 1L, SHOW));
+        assertThrows(InvalidAdmissionTicketException.class,
+                () -> waitingRoomService.getStatus(entered.getQueueTicket()));
+
+        // Booking again means a new number at the back of the line
+        WaitingRoomStatusDTO back = waitingRoomService.enter(1L, SHOW);
+        assertNotEquals(entered.getQueueTicket(), back.getQueueTicket());
+        assertEquals(ResponseStatus.PENDING, waitingRoomService.enter(2L, SHOW).getResponseStatus());
+    }
+
+    @Test
+    void rateProbesUpwardsAndIsOnlyCutOnOverload() throws Exception {
+        properties.setInitialAdmitsPerSecond(10);
+        WaitingRoomService tuned = new WaitingRoomService(properties, bookingMetrics);
+        for (long userId = 1; userId <= 25; userId++) {
+            tuned.enter(userId, SHOW); // a line that lasts well beyond this test
+        }
+
+        // Admitted users who haven't booked yet: low throughput, but no reason to admit fewer
+        bookingMetrics.recordAttempt(SHOW);
+        Thread.sleep(500);
+        tuned.tune();
+        assertEquals(10, tuned.getAdmitsPerSecond(), 0.001);
+
+        // Lock timeouts: the database is overloaded
+        bookingMetrics.recordFailure(SHOW, new CannotAcquireLockException("lock wait timeout"), false);
+        tuned.tune();
+        assertEquals(7, tuned.getAdmitsPerSecond(), 0.001);
+
+        // Every admission used and the database keeps up: probe upwards
+        for (int i = 0; i < 1000; i++) {
+            bookingMetrics.recordAttempt(SHOW);
+        }
+        tuned.tune();
+        assertTrue(tuned.getAdmitsPerSecond() > 7);
+    }
+}
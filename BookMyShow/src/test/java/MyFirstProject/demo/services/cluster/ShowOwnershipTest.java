@@ -0,0 +1,226 @@
+package MyFirstProject.demo.services.cluster;
+
+import MyFirstProject.demo.configs.ClusterProperties;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.JoinWaitlistRequestDTO;
+import MyFirstProject.demo.dtos.JoinWaitlistResponseDTO;
+import MyFirstProject.demo.dtos.SeatAvailabilityCountDTO;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import MyFirstProject.demo.services.SeatsReleasedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShowOwnershipTest {
+
+    private static final int SHOWS = 10_000;
+
+    @Test
+    void everyNodeForwardsToTheSameOwner() {
+        LocalCluster cluster = new LocalCluster();
+        Map<String, Node> nodes = new HashMap<>();
+        for (String nodeId : List.of("a", "b", "c")) {
+            nodes.put(nodeId, new Node(nodeId, cluster));
+        }
+
+        for (long id = 1; id <= 300; id++) {
+            long showId = id;
+            String owner = nodes.get("a").ownership.ownerOf(showId);
+            for (Node node : nodes.values()) {
+                assertEquals(owner, node.ownership.ownerOf(showId));
+
+                // Whichever node the request lands on, the owner books it
+                BookMovieResponseDTO response = node.router.bookMovie(request(showId), () -> node.handle(showId));
+                assertEquals(ResponseStatus.SUCCESS, response.getResponseStatus());
+                assertEquals(owner, node.lastHandledBy(showId, nodes));
+            }
+        }
+    }
+
+    @Test
+    void clientClaimingAForwardIsStillRoutedToTheOwner() {
+        LocalCluster cluster = new LocalCluster();
+        Map<String, Node> nodes = new HashMap<>();
+        nodes.put("a", new Node("a", cluster));
+        nodes.put("b", new Node("b", cluster));
+        Node a = nodes.get("a");
+        long showId = 1;
+        while (a.ownership.isLocal(showId)) {
+            showId++;
+        }
+
+        // A client request pretending another node already forwarded it
+        BookMovieRequestDTO request = request(showId);
+        request.setForwardedBy("b");
+        long show = showId;
+        assertEquals(ResponseStatus.SUCCESS, a.router.bookMovie(request, () -> a.handle(show)).getResponseStatus());
+        assertEquals("b", a.lastHandledBy(showId, nodes));
+    }
+
+    @Test
+    void joinMovesAboutAQuarterAndLeaveOnlyTheLeaversShows() {
+        LocalCluster cluster = new LocalCluster();
+        Node a = new Node("a", cluster);
+        new Node("b", cluster);
+        new Node("c", cluster);
+        String[] before = owners(a.ownership);
+        Map<String, Integer> load = new HashMap<>();
+        for (String owner : before) {
+            load.merge(owner, 1, Integer::sum);
+        }
+        for (int shows : load.values()) {
+            assertTrue(Math.abs(shows - SHOWS / 3) < SHOWS / 3 * 0.2, "uneven split " + load);
+        }
+
+        // A fourth node takes about 1/4 of the shows, all of them from the others
+        new Node("d", cluster);
+        String[] afterJoin = owners(a.ownership);
+        int moved = 0;
+        for (int i = 0; i < SHOWS; i++) {
+            if (!before[i].equals(afterJoin[i])) {
+                assertEquals("d", afterJoin[i]);
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - SHOWS / 4) < SHOWS / 4 * 0.2, "moved " + moved);
+
+        // "b" leaves: only its shows move
+        cluster.leave("b");
+        String[] afterLeave = owners(a.ownership);
+        for (int i = 0; i < SHOWS; i++) {
+            if (afterJoin[i].equals("b")) {
+                assertNotEquals("b", afterLeave[i]);
+            } else {
+                assertEquals(afterJoin[i], afterLeave[i]);
+            }
+        }
+    }
+
+    @Test
+    void perShowStateIsKeptAndUpdatedOnTheOwnerOnly() throws Exception {
+        LocalCluster cluster = new LocalCluster();
+        Node a = new Node("a", cluster);
+        Node b = new Node("b", cluster);
+        long showId = 1;
+        while (!b.ownership.isLocal(showId)) {
+            showId++;
+        }
+
+        // Both nodes answer availability, only the owner keeps the counters
+        assertEquals(10, b.seats.getAvailability(List.of(showId)).get(showId).getTotalAvailable());
+        assertEquals(10, a.seats.getAvailability(List.of(showId)).get(showId).getTotalAvailable());
+        assertTrue(b.seats.getLoadedShowIds().contains(showId));
+        assertFalse(a.seats.getLoadedShowIds().contains(showId));
+
+        // A hold expiring on the non-owner reaches the owner's counters and waitlist
+        a.relay.onSeatsReleased(new SeatsReleasedEvent(Map.of(showId, Map.of(1L, List.of(100L, 101L)))));
+        assertEquals(12, b.seats.getAvailability(List.of(showId)).get(showId).getTotalAvailable());
+        assertEquals(1, b.published.size());
+        assertTrue(b.published.get(0).isForwarded());
+
+        // The owner publishing it again doesn't bounce it back
+        b.relay.onSeatsReleased(b.published.get(0));
+        assertEquals(12, b.seats.getAvailability(List.of(showId)).get(showId).getTotalAvailable());
+
+        // Other per-show operations run on the owner too, wherever they arrive
+        b.router.listen(ClusterOperation.JOIN_WAITLIST, request -> waiter(2L));
+        JoinWaitlistRequestDTO join = new JoinWaitlistRequestDTO();
+        join.setShowId(showId);
+        assertEquals(2L, a.router.route(showId, ClusterOperation.JOIN_WAITLIST, join, request -> waiter(1L)).getWaiterId());
+        assertEquals(2L, b.router.route(showId, ClusterOperation.JOIN_WAITLIST, join, request -> waiter(2L)).getWaiterId());
+    }
+
+    private static JoinWaitlistResponseDTO waiter(long waiterId) {
+        JoinWaitlistResponseDTO response = new JoinWaitlistResponseDTO();
+        response.setWaiterId(waiterId);
+        return response;
+    }
+
+    // Every show has ten available seats of seat type 1
+    private static ShowSeatRepository tenSeatsPerShow() {
+        return (ShowSeatRepository) Proxy.newProxyInstance(ShowSeatRepository.class.getClassLoader(),
+                new Class<?>[]{ShowSeatRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("countByShowIdsAndSeatStatus")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<SeatAvailabilityCountDTO> rows = new ArrayList<>();
+                    for (Object showId : (Collection<?>) args[0]) {
+                        rows.add(new SeatAvailabilityCountDTO((Long) showId, 1L, 10));
+                    }
+                    return rows;
+                });
+    }
+
+    private static String[] owners(ShowOwnership ownership) {
+        String[] owners = new String[SHOWS];
+        for (int i = 0; i < SHOWS; i++) {
+            owners[i] = ownership.ownerOf(i + 1);
+        }
+        return owners;
+    }
+
+    private static BookMovieRequestDTO request(long showId) {
+        BookMovieRequestDTO request = new BookMovieRequestDTO();
+        request.setUserId(1L);
+        request.setShowId(showId);
+        request.setShowsSeatId(List.of(1L));
+        return request;
+    }
+
+    // One booking node: its own ownership view and router, sharing the cluster stand-in
+    private static final class Node {
+
+        private final ShowOwnership ownership;
+        private final ShowRouter router;
+        private final SeatAvailabilityService seats;
+        private final SeatReleaseRelay relay;
+        private final Map<Long, Integer> handled = new HashMap<>();
+        private final List<SeatsReleasedEvent> published = new ArrayList<>();
+
+        private Node(String nodeId, LocalCluster cluster) {
+            ClusterProperties properties = new ClusterProperties();
+            properties.setEnabled(true);
+            properties.setNodeId(nodeId);
+            seats = new SeatAvailabilityService(tenSeatsPerShow(), event -> published.add((SeatsReleasedEvent) event));
+            ownership = new ShowOwnership(properties, cluster, seats);
+            router = new ShowRouter(properties, ownership, cluster);
+            // Like BookingController: forwarded bookings are handled without routing again
+            router.listen(ClusterOperation.BOOK_MOVIE, request -> handle(request.getShowId()));
+            relay = new SeatReleaseRelay(properties, ownership, router, cluster, seats);
+            relay.listen();
+            cluster.join(nodeId);
+        }
+
+        private BookMovieResponseDTO handle(long showId) {
+            handled.merge(showId, 1, Integer::sum);
+            BookMovieResponseDTO response = new BookMovieResponseDTO();
+            response.setResponseStatus(ResponseStatus.SUCCESS);
+            return response;
+        }
+
+        private String lastHandledBy(long showId, Map<String, Node> nodes) {
+            String by = null;
+            for (Map.Entry<String, Node> node : nodes.entrySet()) {
+                if (node.getValue().handled.remove(showId) != null) {
+                    assertNull(by, "handled twice");
+                    by = node.getKey();
+                }
+            }
+            return by;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package MyFirstProject.demo.services.hotshows;
+
+import MyFirstProject.demo.configs.HotShowProperties;
+import MyFirstProject.demo.dtos.HotShowDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotShowTrackerTest {
+
+    @Test
+    void findsTheHeavyHittersAmongManyShowsAndDemotesThemWhenTheyCool() {
+        HotShowProperties properties = new HotShowProperties();
+        properties.setTopK(5);
+        properties.setSketchWidth(1_024);
+        properties.setPromoteHits(1_000);
+        properties.setDemoteHits(200);
+        List<HotShowsChangedEvent> events = new ArrayList<>();
+        HotShowTracker tracker = new HotShowTracker(properties, event -> events.add((HotShowsChangedEvent) event));
+
+        // 100k requests: shows 7 and 8 take 30% and 20%, the rest spread over 10,000 shows
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double r = random.nextDouble();
+            tracker.record(r < 0.3 ? 7L : r < 0.5 ? 8L : 1_000L + random.nextInt(10_000));
+        }
+
+        List<HotShowDTO> top = tracker.getTopShows(2);
+        assertEquals(7L, top.get(0).getShowId());
+        assertEquals(8L, top.get(1).getShowId());
+        assertTrue(top.get(0).getEstimatedHits() >= 30_000 * 0.95, "estimate " + top.get(0).getEstimatedHits());
+
+        tracker.tick();
+        assertEquals(List.of(7L, 8L), sorted(events.get(0).getPromoted()));
+        assertTrue(tracker.isHot(7L));
+        assertFalse(tracker.isHot(1_234L));
+
+        // No more requests: counts halve every window until both are demoted
+        for (int window = 0; window < 10 && tracker.isHot(7L); window++) {
+            tracker.tick();
+        }
+        assertFalse(tracker.isHot(7L));
+        assertFalse(tracker.isHot(8L));
+        List<Long> demoted = new ArrayList<>();
+        for (HotShowsChangedEvent event : events) {
+            demoted.addAll(event.getDemoted());
+        }
+        assertEquals(List.of(7L, 8L), sorted(demoted));
+    }
+
+    private static List<Long> sorted(List<Long> showIds) {
+        List<Long> copy = new ArrayList<>(showIds);
+        copy.sort(null);
+        return copy;
+    }
+}
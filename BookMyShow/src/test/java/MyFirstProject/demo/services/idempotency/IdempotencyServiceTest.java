@@ -0,0 +1,174 @@
+package MyFirstProject.demo.services.idempotency;
+
+import MyFirstProject.demo.configs.IdempotencyProperties;
+import MyFirstProject.demo.controller.BookingController;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.IdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookmyshow.idempotency.durable=true")
+@ActiveProfiles("embedded")
+class IdempotencyServiceTest {
+
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long showId;
+    private List<Long> showSeatIds;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+
+            Movie movie = new Movie();
+            movie.setTitle("Idempotency");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            showId = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(300);
+            entityManager.persist(price);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("idempotency-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @Test
+    void concurrentResubmissionsBookOnceAndReplayAfterRestart() throws Exception {
+        BookMovieRequestDTO request = request("retry-1", showSeatIds.subList(0, 2));
+
+        // Resubmissions racing the first request wait for it
+        ExecutorService clients = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<BookMovieResponseDTO>> responses = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            responses.add(clients.submit(() -> {
+                startGate.await();
+                return bookingController.bookMovie(request);
+            }));
+        }
+        startGate.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(1, TimeUnit.MINUTES));
+
+        Long bookingId = responses.get(0).get().getBookingId();
+        assertNotNull(bookingId);
+        for (Future<BookMovieResponseDTO> response : responses) {
+            assertEquals(ResponseStatus.SUCCESS, response.get().getResponseStatus());
+            assertEquals(bookingId, response.get().getBookingId());
+            assertEquals(600, response.get().getTotalAmount());
+        }
+        assertEquals(1L, countBookings());
+
+        // After a restart the memory tier is empty; the database tier answers without booking
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, idempotencyProperties);
+        Supplier<BookMovieResponseDTO> mustNotRun = () -> {
+            throw new AssertionError("booking ran again");
+        };
+        BookMovieResponseDTO replayed = restarted.bookMovie(request, mustNotRun);
+        assertEquals(ResponseStatus.SUCCESS, replayed.getResponseStatus());
+        assertEquals(bookingId, replayed.getBookingId());
+        assertEquals(600, replayed.getTotalAmount());
+
+        // Same key, other seats: refused, not replayed
+        BookMovieResponseDTO reused = restarted.bookMovie(request("retry-1", showSeatIds.subList(2, 3)), mustNotRun);
+        assertEquals(ResponseStatus.FAILURE, reused.getResponseStatus());
+        assertEquals(1L, countBookings());
+    }
+
+    private BookMovieRequestDTO request(String idempotencyKey, List<Long> seats) {
+        BookMovieRequestDTO request = new BookMovieRequestDTO();
+        request.setUserId(userId);
+        request.setShowId(showId);
+        request.setShowsSeatId(seats);
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+
+    private long countBookings() {
+        return entityManager.createQuery("select count(b) from Booking b where b.show.id = :showId", Long.class)
+                .setParameter("showId", showId)
+                .getSingleResult();
+    }
+}
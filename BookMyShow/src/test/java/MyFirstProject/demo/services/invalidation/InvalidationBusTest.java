@@ -0,0 +1,182 @@
+package MyFirstProject.demo.services.invalidation;
+
+import MyFirstProject.demo.configs.InvalidationProperties;
+import MyFirstProject.demo.dtos.SeatLayoutRowDTO;
+import MyFirstProject.demo.exceptions.InvalidScreenException;
+import MyFirstProject.demo.models.CachedEntityType;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.repositories.ScreenRepository;
+import MyFirstProject.demo.repositories.ShowRepository;
+import MyFirstProject.demo.repositories.ShowSeatRepository;
+import MyFirstProject.demo.repositories.ShowSeatTypeRespository;
+import MyFirstProject.demo.services.CatalogService;
+import MyFirstProject.demo.services.ShowReadCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Flushes only when the test calls flush()
+@SpringBootTest(properties = "bookmyshow.invalidation.flush-interval-ms=3600000")
+@ActiveProfiles("embedded")
+class InvalidationBusTest {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private InvalidationTransport invalidationTransport;
+
+    @Autowired
+    private ShowReadCache showReadCache;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowSeatRepository showSeatRepository;
+
+    @Autowired
+    private ShowSeatTypeRespository showSeatTypeRespository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Show show;
+    private Long seatTypeId;
+    private Long screenId;
+    private Long seatId;
+
+    @BeforeEach
+    void seed() {
+        invalidationBus.flush();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+            seatTypeId = normal.getId();
+
+            Movie movie = new Movie();
+            movie.setTitle("Invalidation");
+            entityManager.persist(movie);
+
+            Seat seat = new Seat();
+            seat.setName("A1");
+            seat.setSeatType(normal);
+            seat.setRowNum(1);
+            seat.setColNum(1);
+            entityManager.persist(seat);
+            seatId = seat.getId();
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            screen.setSeats(List.of(seat));
+            entityManager.persist(screen);
+            screenId = screen.getId();
+
+            show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date(System.currentTimeMillis() + 3_600_000));
+            entityManager.persist(show);
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(300);
+            entityManager.persist(price);
+
+            ShowSeat showSeat = new ShowSeat();
+            showSeat.setShow(show);
+            showSeat.setSeat(seat);
+            showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+            entityManager.persist(showSeat);
+        });
+    }
+
+    @Test
+    void burstOfEditsReachesOtherNodesAsOneInvalidation() throws Exception {
+        // A second node: its own bus and cache, same database and transport
+        InvalidationBus otherBus = new InvalidationBus(new InvalidationProperties(), invalidationTransport);
+        ShowReadCache otherCache = new ShowReadCache(showRepository, showSeatRepository,
+                showSeatTypeRespository, otherBus);
+        assertEquals(Map.of(seatTypeId, 300), otherCache.getPrices(show));
+        assertEquals(1, otherCache.getSeatLayout(show).get(0).getRowNum());
+
+        long sentBefore = invalidationBus.getStats().getSent();
+        long version = 0;
+        for (int price = 310; price <= 400; price += 10) {
+            version = catalogService.updatePrice(show.getId(), seatTypeId, price);
+        }
+        long layoutVersion = catalogService.moveSeat(screenId, seatId, 2, 5);
+
+        // The editing node sees its own edits at once; the other node after the flush
+        assertEquals(Map.of(seatTypeId, 400), showReadCache.getPrices(show));
+        assertEquals(Map.of(seatTypeId, 300), otherCache.getPrices(show));
+        invalidationBus.flush();
+        assertEquals(2, invalidationBus.getStats().getSent() - sentBefore);
+        assertEquals(Map.of(seatTypeId, 400), otherCache.getPrices(show));
+        SeatLayoutRowDTO moved = otherCache.getSeatLayout(show).get(0);
+        assertEquals(2, moved.getRowNum());
+        assertEquals(5, moved.getColNum());
+
+        // Late duplicates and older versions never move a node backwards
+        long ignoredBefore = otherBus.getStats().getIgnored();
+        invalidationTransport.publish(List.of(
+                new Invalidation(CachedEntityType.SHOW_PRICES, show.getId(), version - 3),
+                new Invalidation(CachedEntityType.SHOW_PRICES, show.getId(), version),
+                new Invalidation(CachedEntityType.SCREEN_LAYOUT, screenId, layoutVersion)));
+        assertEquals(3, otherBus.getStats().getIgnored() - ignoredBefore);
+        assertEquals(version, otherBus.seenVersion(CachedEntityType.SHOW_PRICES, show.getId()));
+        assertEquals(Map.of(seatTypeId, 400), otherCache.getPrices(show));
+    }
+
+    @Test
+    void seatOfAnotherScreenIsNotMoved() {
+        Long otherScreenId = new TransactionTemplate(transactionManager).execute(status -> {
+            Screen otherScreen = new Screen();
+            otherScreen.setName("Screen 2");
+            otherScreen.setSeats(List.of());
+            entityManager.persist(otherScreen);
+            return otherScreen.getId();
+        });
+        long sentBefore = invalidationBus.getStats().getSent();
+
+        assertThrows(InvalidScreenException.class, () -> catalogService.moveSeat(otherScreenId, seatId, 9, 9));
+
+        // Nothing changed, so nothing is versioned or broadcast
+        invalidationBus.flush();
+        assertEquals(sentBefore, invalidationBus.getStats().getSent());
+        assertEquals(0, screenRepository.findLayoutVersion(otherScreenId));
+        Seat seat = new TransactionTemplate(transactionManager).execute(status -> entityManager.find(Seat.class, seatId));
+        assertEquals(1, seat.getRowNum());
+    }
+}
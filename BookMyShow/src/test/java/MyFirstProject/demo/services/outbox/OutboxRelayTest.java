@@ -0,0 +1,163 @@
+package MyFirstProject.demo.services.outbox;
+
+import MyFirstProject.demo.dtos.OutboxEventDTO;
+import MyFirstProject.demo.exceptions.ShowSeatNotAvailableException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.OutboxEventRepository;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.CancellationService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Relay only runs when called; the sink holds 3 events so backpressure kicks in
+@SpringBootTest(properties = {
+        "bookmyshow.outbox.relay-interval-ms=3600000",
+        "bookmyshow.outbox.sink-capacity=3"
+})
+@ActiveProfiles("embedded")
+class OutboxRelayTest {
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private CancellationService cancellationService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long showA;
+    private Long showB;
+    private List<Long> seatsA;
+    private List<Long> seatsB;
+
+    @BeforeEach
+    void seed() {
+        outboxEventRepository.deleteAllInBatch();
+        outboxSink.drain(Integer.MAX_VALUE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+
+            Movie movie = new Movie();
+            movie.setTitle("Outbox");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            List<Seat> seats = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+                seats.add(seat);
+            }
+
+            seatsA = new ArrayList<>();
+            seatsB = new ArrayList<>();
+            showA = show(movie, screen, normal, seats, seatsA);
+            showB = show(movie, screen, normal, seats, seatsB);
+
+            User user = new User();
+            user.setEmail("outbox-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @Test
+    void eventsCommitWithTheBookingAndKeepShowOrderUnderBackpressure() throws Exception {
+        Booking first = bookingServices.bookMovie(userId, showA, List.of(seatsA.get(0)));
+        bookingServices.bookMovie(userId, showB, List.of(seatsB.get(0)));
+        bookingServices.bookMovie(userId, showA, List.of(seatsA.get(1)));
+        cancellationService.cancelBooking(userId, first.getId());
+
+        // Rolled back booking: no event
+        assertThrows(ShowSeatNotAvailableException.class,
+                () -> bookingServices.bookMovie(userId, showA, List.of(seatsA.get(1))));
+        assertEquals(4, outboxEventRepository.count());
+
+        // Show A's three events fill the sink; show B's event waits in the outbox
+        assertEquals(3, outboxRelay.relay());
+        assertEquals(1, outboxEventRepository.count());
+        List<OutboxEventDTO> delivered = outboxSink.drain(10);
+        assertEquals(List.of("BOOKING_PENDING", "BOOKING_PENDING", "BOOKING_CANCELLED"),
+                delivered.stream().map(OutboxEventDTO::getEventType).toList());
+        assertTrue(delivered.stream().allMatch(event -> event.getShowId().equals(showA)));
+        assertTrue(delivered.get(0).getId() < delivered.get(1).getId()
+                && delivered.get(1).getId() < delivered.get(2).getId());
+        assertEquals(first.getId(), delivered.get(2).getBookingId());
+        assertTrue(delivered.get(0).getPayload().contains("seats=" + seatsA.get(0)), delivered.get(0).getPayload());
+
+        // Consumer caught up: the rest goes out
+        assertEquals(1, outboxRelay.relay());
+        assertEquals(showB, outboxSink.drain(10).get(0).getShowId());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    private Long show(Movie movie, Screen screen, SeatType seatType, List<Seat> seats, List<Long> showSeatIds) {
+        Show show = new Show();
+        show.setMovie(movie);
+        show.setScreen(screen);
+        show.setStartTime(new Date());
+        show.setEndTime(new Date());
+        entityManager.persist(show);
+
+        ShowSeatType price = new ShowSeatType();
+        price.setShow(show);
+        price.setSeatType(seatType);
+        price.setPrice(200);
+        entityManager.persist(price);
+
+        for (Seat seat : seats) {
+            ShowSeat showSeat = new ShowSeat();
+            showSeat.setShow(show);
+            showSeat.setSeat(seat);
+            showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+            entityManager.persist(showSeat);
+            showSeatIds.add(showSeat.getId());
+        }
+        return show.getId();
+    }
+}
@@ -0,0 +1,256 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Refund;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.RefundRepository;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.SeatHoldExpiryService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Holds expire as soon as the test asks for it; the scheduled run never fires during a test
+@SpringBootTest(properties = {
+        "bookmyshow.seat-hold.duration-ms=0",
+        "bookmyshow.seat-hold.expiry-interval-ms=3600000"
+})
+@ActiveProfiles("embedded")
+class PaymentBatchApplierTest {
+
+    private static final int PRICE = 200;
+
+    @Autowired
+    private PaymentBatchApplier paymentBatchApplier;
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private SeatHoldExpiryService seatHoldExpiryService;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long showId;
+    private List<Long> showSeatIds;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+
+            Movie movie = new Movie();
+            movie.setTitle("Payments");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            showId = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(PRICE);
+            entityManager.persist(price);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("payments-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @Test
+    void successConfirmsBookingAndOccupiesSeats() throws Exception {
+        Booking booking = book();
+
+        assertEquals(1, paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 1, PRICE))));
+
+        assertEquals(BookingStatus.SUCCESS, bookingStatus(booking));
+        assertEquals(SeatStatus.OCCUPIED, seatStatus(showSeatIds.get(0)));
+        assertEquals(0, refunds(booking).size());
+    }
+
+    @Test
+    void failedPaymentReleasesSeats() throws Exception {
+        Booking booking = book();
+
+        assertEquals(0, paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.FAILED, 1, PRICE))));
+
+        assertEquals(BookingStatus.FAILURE, bookingStatus(booking));
+        assertEquals(SeatStatus.AVAILABLE, seatStatus(showSeatIds.get(0)));
+    }
+
+    @Test
+    void pendingPaymentKeepsHoldUntilCallbackSettlesIt() throws Exception {
+        Booking booking = book();
+
+        paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.PENDING, 0, PRICE)));
+
+        assertEquals(BookingStatus.PENDING, bookingStatus(booking));
+        assertEquals(SeatStatus.BLOCKED, seatStatus(showSeatIds.get(0)));
+        assertEquals(1, payments(booking));
+
+        // The provider's callback arrives later with the real answer
+        paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 7, PRICE)));
+        assertEquals(BookingStatus.SUCCESS, bookingStatus(booking));
+        assertEquals(SeatStatus.OCCUPIED, seatStatus(showSeatIds.get(0)));
+        assertEquals(0, refunds(booking).size());
+    }
+
+    @Test
+    void lateSuccessAfterHoldExpiredIsRefunded() throws Exception {
+        Booking booking = book();
+        seatHoldExpiryService.releaseExpiredHolds();
+
+        assertEquals(0, paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 1, PRICE))));
+
+        assertEquals(BookingStatus.FAILURE, bookingStatus(booking));
+        assertEquals(SeatStatus.AVAILABLE, seatStatus(showSeatIds.get(0)));
+        List<Refund> refunds = refunds(booking);
+        assertEquals(1, refunds.size());
+        assertEquals(PRICE, refunds.get(0).getAmount());
+        assertEquals(1, refunds.get(0).getReferenceNumber());
+    }
+
+    @Test
+    void expiryRunningDuringBatchSkipsTheLockedBooking() throws Exception {
+        Booking booking = book();
+
+        // The batch holds the booking lock; expiry must neither wait for it nor fail the booking
+        TransactionStatus batch = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 1, PRICE)));
+            CompletableFuture.supplyAsync(seatHoldExpiryService::releaseExpiredHolds).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            transactionManager.rollback(batch);
+            throw e;
+        }
+        transactionManager.commit(batch);
+
+        assertEquals(BookingStatus.SUCCESS, bookingStatus(booking));
+        assertEquals(SeatStatus.OCCUPIED, seatStatus(showSeatIds.get(0)));
+    }
+
+    @Test
+    void secondSuccessForPaidBookingIsRefundedButRedeliveryIsNot() throws Exception {
+        Booking booking = book();
+
+        paymentBatchApplier.applyBatch(List.of(
+                outcome(booking, PaymentStatus.SUCCESS, 1, PRICE),
+                outcome(booking, PaymentStatus.SUCCESS, 1, PRICE)));
+        assertEquals(0, refunds(booking).size());
+        assertEquals(1, payments(booking));
+
+        // A different charge for the same booking took the money twice
+        paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 2, PRICE)));
+
+        assertEquals(BookingStatus.SUCCESS, bookingStatus(booking));
+        List<Refund> refunds = refunds(booking);
+        assertEquals(1, refunds.size());
+        assertEquals(2, refunds.get(0).getReferenceNumber());
+    }
+
+    @Test
+    void successWithWrongAmountIsRefundedAndReleasesSeats() throws Exception {
+        Booking booking = book();
+
+        assertEquals(0, paymentBatchApplier.applyBatch(List.of(outcome(booking, PaymentStatus.SUCCESS, 1, PRICE - 1))));
+
+        assertEquals(BookingStatus.FAILURE, bookingStatus(booking));
+        assertEquals(SeatStatus.AVAILABLE, seatStatus(showSeatIds.get(0)));
+        List<Refund> refunds = refunds(booking);
+        assertEquals(1, refunds.size());
+        assertEquals(PRICE - 1, refunds.get(0).getAmount());
+    }
+
+    private Booking book() throws Exception {
+        return bookingServices.bookMovie(userId, showId, List.of(showSeatIds.get(0)));
+    }
+
+    private PaymentOutcome outcome(Booking booking, PaymentStatus paymentStatus, int referenceNumber, int amount) {
+        return new PaymentOutcome(booking.getId(), PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD,
+                paymentStatus, referenceNumber, amount, System.nanoTime());
+    }
+
+    private BookingStatus bookingStatus(Booking booking) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(Booking.class, booking.getId()).getBookingStatus());
+    }
+
+    private int payments(Booking booking) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(Booking.class, booking.getId()).getPayments().size());
+    }
+
+    private SeatStatus seatStatus(Long showSeatId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(ShowSeat.class, showSeatId).getSeatStatus());
+    }
+
+    private List<Refund> refunds(Booking booking) {
+        return refundRepository.findAll().stream()
+                .filter(refund -> refund.getBooking().getId().equals(booking.getId()))
+                .toList();
+    }
+}
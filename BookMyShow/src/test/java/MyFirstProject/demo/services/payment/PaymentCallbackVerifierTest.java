@@ -0,0 +1,73 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.dtos.PaymentCallbackDTO;
+import MyFirstProject.demo.exceptions.InvalidPaymentCallbackException;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentCallbackVerifierTest {
+
+    private final PaymentCallbackVerifier verifier = verifier("razorpay-secret");
+
+    @Test
+    void signedCallbackIsAccepted() throws Exception {
+        PaymentCallbackDTO callback = callback();
+        callback.setSignature(verifier.sign(callback));
+
+        assertDoesNotThrow(() -> verifier.verify(callback));
+    }
+
+    @Test
+    void unsignedCallbackIsRejected() {
+        assertThrows(InvalidPaymentCallbackException.class, () -> verifier.verify(callback()));
+    }
+
+    @Test
+    void editedCallbackIsRejected() throws Exception {
+        PaymentCallbackDTO callback = callback();
+        callback.setSignature(verifier.sign(callback));
+        callback.setAmount(1); // signature was for 900
+
+        assertThrows(InvalidPaymentCallbackException.class, () -> verifier.verify(callback));
+    }
+
+    @Test
+    void callbackSignedWithAnotherKeyIsRejected() throws Exception {
+        PaymentCallbackDTO callback = callback();
+        callback.setSignature(verifier("guessed-secret").sign(callback));
+
+        assertThrows(InvalidPaymentCallbackException.class, () -> verifier.verify(callback));
+    }
+
+    @Test
+    void callbackFromProviderWithoutSecretIsRejected() throws Exception {
+        PaymentCallbackDTO callback = callback();
+        callback.setSignature(verifier.sign(callback));
+        callback.setPaymentProvider(PaymentProvider.PAYPAL);
+
+        assertThrows(InvalidPaymentCallbackException.class, () -> verifier.verify(callback));
+    }
+
+    private static PaymentCallbackVerifier verifier(String razorpaySecret) {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getCallbackSecrets().put(PaymentProvider.RAZORPAY, razorpaySecret);
+        return new PaymentCallbackVerifier(properties);
+    }
+
+    private static PaymentCallbackDTO callback() {
+        PaymentCallbackDTO callback = new PaymentCallbackDTO();
+        callback.setBookingId(999L);
+        callback.setPaymentProvider(PaymentProvider.RAZORPAY);
+        callback.setPaymentMethod(PaymentMethod.DEBIT_CARD);
+        callback.setPaymentStatus(PaymentStatus.SUCCESS);
+        callback.setReferenceNumber(100042);
+        callback.setAmount(900);
+        return callback;
+    }
+}
@@ -0,0 +1,232 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.controller.PaymentController;
+import MyFirstProject.demo.dtos.PaymentCallbackDTO;
+import MyFirstProject.demo.exceptions.InvalidPaymentCallbackException;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.services.BookingServices;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// One worker and one queue slot: the worker is busy in a 3 s PAYPAL call while the test fills the queue.
+// RAZORPAY always succeeds but answers after its 50 ms timeout, so its charges come back PENDING.
+// Status polls only run when a test asks for them.
+@SpringBootTest(properties = {
+        "bookmyshow.payments.worker-threads=1",
+        "bookmyshow.payments.queue-capacity=1",
+        "bookmyshow.payments.charge-deadline-ms=30000",
+        "bookmyshow.payments.stub.paypal.latency-ms=3000",
+        "bookmyshow.payments.stub.paypal.latency-jitter-ms=0",
+        "bookmyshow.payments.resilience.paypal.timeout-ms=30000",
+        "bookmyshow.payments.stub.razorpay.latency-ms=500",
+        "bookmyshow.payments.stub.razorpay.latency-jitter-ms=0",
+        "bookmyshow.payments.stub.razorpay.failure-rate=0",
+        "bookmyshow.payments.resilience.razorpay.timeout-ms=50",
+        "bookmyshow.payments.status-poll-interval-ms=3600000",
+        "bookmyshow.payments.callback-secrets.razorpay=pipeline-test-secret"
+})
+@ActiveProfiles("embedded")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class) // the queue test needs an idle worker and fresh counters
+class PaymentPipelineTest {
+
+    @Autowired
+    private PaymentPipeline paymentPipeline;
+
+    @Autowired
+    private PaymentController paymentController;
+
+    @Autowired
+    private PaymentCallbackVerifier paymentCallbackVerifier;
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Order(1)
+    void fullQueueRejectsInitiationImmediately() throws Exception {
+        List<Long> bookingIds = seedPendingBookings(3);
+
+        // First command goes straight to the new worker thread, the second fills the only queue slot
+        assertTrue(paymentPipeline.initiate(bookingIds.get(0), PaymentProvider.PAYPAL, PaymentMethod.CREDIT_CARD));
+        assertTrue(paymentPipeline.initiate(bookingIds.get(1), PaymentProvider.PAYPAL, PaymentMethod.CREDIT_CARD));
+
+        assertFalse(paymentPipeline.initiate(bookingIds.get(2), PaymentProvider.PAYPAL, PaymentMethod.CREDIT_CARD));
+        assertEquals(1, paymentPipeline.getStats().getRejected());
+        assertEquals(1, paymentPipeline.getStats().getQueuedCommands());
+
+        // A booking already being charged is refused without touching the queue
+        assertFalse(paymentPipeline.initiate(bookingIds.get(0), PaymentProvider.PAYPAL, PaymentMethod.CREDIT_CARD));
+        assertEquals(1, paymentPipeline.getStats().getRejected());
+
+        // The rejected booking was never claimed, so the client can retry it later
+        assertEquals(2, paymentPipeline.getStats().getSubmitted());
+    }
+
+    @Test
+    @Order(2)
+    void pendingChargeKeepsBookingClaimedUntilSettled() throws Exception {
+        Long bookingId = seedPendingBookings(1).get(0);
+        long pendingBefore = paymentPipeline.getStats().getPending();
+
+        // Retried while the queue test's commands still fill the only queue slot
+        await(() -> paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+        await(() -> paymentPipeline.getStats().getPending() > pendingBefore);
+
+        // The provider may still take the money: no second charge while the outcome is unknown
+        assertFalse(paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+        assertEquals(BookingStatus.PENDING, bookingStatus(bookingId));
+
+        // A forged SUCCESS is refused before it is queued
+        PaymentCallbackDTO callback = callback(bookingId, PaymentStatus.FAILED);
+        callback.setSignature(paymentCallbackVerifier.sign(callback));
+        callback.setPaymentStatus(PaymentStatus.SUCCESS);
+        long submitted = paymentPipeline.getStats().getSubmitted();
+        assertThrows(InvalidPaymentCallbackException.class, () -> paymentController.onProviderCallback(callback));
+        assertEquals(submitted, paymentPipeline.getStats().getSubmitted());
+
+        // The provider's signed final answer settles the booking and releases the claim
+        PaymentCallbackDTO genuine = callback(bookingId, PaymentStatus.SUCCESS);
+        genuine.setSignature(paymentCallbackVerifier.sign(genuine));
+        assertTrue(paymentController.onProviderCallback(genuine));
+        await(() -> bookingStatus(bookingId) == BookingStatus.SUCCESS);
+        await(() -> paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+    }
+
+    @Test
+    @Order(3)
+    void unansweredChargeIsSettledByStatusPoll() throws Exception {
+        Long bookingId = seedPendingBookings(1).get(0);
+        long pendingBefore = paymentPipeline.getStats().getPending();
+
+        await(() -> paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+        await(() -> paymentPipeline.getStats().getPending() > pendingBefore);
+        assertFalse(paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+
+        // No callback ever comes: the poll finds the charge the provider completed after the timeout
+        await(() -> {
+            paymentPipeline.pollUnsettledCharges();
+            return bookingStatus(bookingId) == BookingStatus.SUCCESS;
+        });
+        await(() -> paymentPipeline.initiate(bookingId, PaymentProvider.RAZORPAY, PaymentMethod.CREDIT_CARD));
+    }
+
+    private static PaymentCallbackDTO callback(Long bookingId, PaymentStatus paymentStatus) {
+        PaymentCallbackDTO callback = new PaymentCallbackDTO();
+        callback.setBookingId(bookingId);
+        callback.setPaymentProvider(PaymentProvider.RAZORPAY);
+        callback.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        callback.setPaymentStatus(paymentStatus);
+        callback.setReferenceNumber(424242);
+        callback.setAmount(200);
+        return callback;
+    }
+
+    private BookingStatus bookingStatus(Long bookingId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(Booking.class, bookingId).getBookingStatus());
+    }
+
+    // The queue test leaves the only worker busy with PAYPAL calls for several seconds
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 20 s");
+            Thread.sleep(20);
+        }
+    }
+
+    private List<Long> seedPendingBookings(int count) throws Exception {
+        List<Long> showSeatIds = new ArrayList<>();
+        Long[] ids = new Long[2];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+
+            Movie movie = new Movie();
+            movie.setTitle("Pipeline");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            ids[0] = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(200);
+            entityManager.persist(price);
+
+            for (int i = 0; i < count; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("pipeline-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            ids[1] = user.getId();
+        });
+
+        List<Long> bookingIds = new ArrayList<>();
+        for (Long showSeatId : showSeatIds) {
+            Booking booking = bookingServices.bookMovie(ids[1], ids[0], List.of(showSeatId));
+            bookingIds.add(booking.getId());
+        }
+        return bookingIds;
+    }
+}
@@ -0,0 +1,95 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.dtos.ReconciliationMismatchDTO;
+import MyFirstProject.demo.dtos.ReconciliationReportDTO;
+import MyFirstProject.demo.models.Payment;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import MyFirstProject.demo.models.ReconciliationMismatchType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class PaymentReconciliationServiceTest {
+
+    // A settlement period no other test writes payments into
+    private static final Date FROM = new Date(1_000_000_000_000L);
+    private static final Date TO = new Date(1_000_086_400_000L);
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void repeatedReferencesAreReportedAsDuplicates() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            payment(500001, 900);
+            payment(500001, 900); // recorded twice for one provider charge
+            payment(500002, 350);
+        });
+        Path settlementFile = dir.resolve("settlement.csv");
+        Files.writeString(settlementFile, """
+                referenceNumber,amount,status
+                500001,900,SUCCESS
+                500002,350,SUCCESS
+                500002,350,SUCCESS
+                """);
+
+        List<ReconciliationMismatchDTO> mismatches = new ArrayList<>();
+        ReconciliationReportDTO report = paymentReconciliationService.reconcile(settlementFile,
+                PaymentProvider.RAZORPAY, FROM, TO, mismatches::add);
+
+        // The first occurrence on each side matches, each repeat is one DUPLICATE and nothing is "missing"
+        assertEquals(3, report.getSettlementLines());
+        assertEquals(3, report.getPaymentsScanned());
+        assertEquals(2, report.getMatched());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(2, report.getMismatches());
+        assertEquals(2, mismatches.size());
+        for (ReconciliationMismatchDTO mismatch : mismatches) {
+            assertEquals(ReconciliationMismatchType.DUPLICATE, mismatch.getMismatchType());
+        }
+
+        // File repeat: no payment row; payment repeat: the second row
+        assertEquals(500002, mismatches.get(0).getReferenceNumber());
+        assertNull(mismatches.get(0).getPaymentId());
+        assertEquals(500001, mismatches.get(1).getReferenceNumber());
+        assertEquals(900, mismatches.get(1).getSettledAmount());
+    }
+
+    private void payment(int referenceNumber, int amount) {
+        Payment payment = new Payment();
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        payment.setPaymentProvider(PaymentProvider.RAZORPAY);
+        payment.setPaymentStatus(PaymentStatus.SUCCESS);
+        payment.setReferenceNumber(referenceNumber);
+        payment.setAmount(amount);
+        payment.setTimeStamp(new Date(FROM.getTime() + 60_000));
+        entityManager.persist(payment);
+    }
+}
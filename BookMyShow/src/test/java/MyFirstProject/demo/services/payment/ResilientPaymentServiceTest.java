@@ -0,0 +1,242 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.configs.PaymentProperties;
+import MyFirstProject.demo.models.PaymentMethod;
+import MyFirstProject.demo.models.PaymentProvider;
+import MyFirstProject.demo.models.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientPaymentServiceTest {
+
+    private PaymentProperties paymentProperties;
+    private PaymentProperties.Resilience paypalIsolation;
+    private BlockingGateway paypal;
+    private CountingGateway razorpay;
+    private ResilientPaymentService resilientPaymentService;
+
+    @BeforeEach
+    void setUp() {
+        paymentProperties = new PaymentProperties();
+        paymentProperties.setChargeDeadlineMs(30_000);
+
+        // PAYPAL is the stuck provider: calls block until the test releases them
+        paypalIsolation = new PaymentProperties.Resilience();
+        paypalIsolation.setMaxConcurrentCalls(2);
+        paypalIsolation.setBulkheadMaxWaitMs(0);
+        paypalIsolation.setTimeoutMs(30_000);
+        paypalIsolation.setSlidingWindowSize(2);
+        paypalIsolation.setOpenDurationMs(60_000);
+        paymentProperties.getResilience().put(PaymentProvider.PAYPAL, paypalIsolation);
+
+        paypal = new BlockingGateway(PaymentProvider.PAYPAL);
+        razorpay = new CountingGateway(PaymentProvider.RAZORPAY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paypal.release.countDown();
+        resilientPaymentService.shutdown();
+    }
+
+    @Test
+    void fullBulkheadFallsBackWithoutCallingSlowProvider() throws Exception {
+        start();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<PaymentGatewayResult>> stuck = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            long bookingId = i;
+            stuck.add(callers.submit(() -> resilientPaymentService
+                    .charge(bookingId, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL)));
+        }
+        assertTrue(paypal.entered.await(10, TimeUnit.SECONDS));
+        assertEquals(2, paypalGateway().getHealth().getInFlight());
+
+        PaymentGatewayResult result = resilientPaymentService
+                .charge(99L, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL);
+
+        assertEquals(PaymentProvider.RAZORPAY, result.getPaymentProvider());
+        assertEquals(PaymentStatus.SUCCESS, result.getPaymentStatus());
+        assertEquals(1, razorpay.calls.get());
+        assertEquals(2, paypal.calls.get());
+        assertEquals(1, paypalGateway().getHealth().getRejections());
+
+        paypal.release.countDown();
+        for (Future<PaymentGatewayResult> call : stuck) {
+            assertEquals(PaymentProvider.PAYPAL, call.get(10, TimeUnit.SECONDS).getPaymentProvider());
+        }
+        callers.shutdown();
+        assertEquals(1, razorpay.calls.get());
+    }
+
+    @Test
+    void fastProviderKeepsItsLatencyWhileSlowProviderIsFull() throws Exception {
+        long razorpayLatencyMs = 20;
+        long bulkheadWaitMs = 50;
+        // Generous for a loaded machine, yet far below PAYPAL's 30 s timeout that a shared pool would wait for
+        long marginMs = 250;
+        paypalIsolation.setBulkheadMaxWaitMs(bulkheadWaitMs);
+        razorpay = new SleepingGateway(PaymentProvider.RAZORPAY, razorpayLatencyMs);
+        start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        for (int i = 0; i < 2; i++) {
+            long bookingId = i;
+            callers.submit(() -> resilientPaymentService
+                    .charge(bookingId, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL));
+        }
+        assertTrue(paypal.entered.await(10, TimeUnit.SECONDS));
+
+        long worstDirect = 0;
+        long worstFallback = 0;
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            PaymentGatewayResult direct = resilientPaymentService
+                    .charge(100L + i, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.RAZORPAY);
+            long afterDirect = System.nanoTime();
+            PaymentGatewayResult fallback = resilientPaymentService
+                    .charge(200L + i, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL);
+            long afterFallback = System.nanoTime();
+
+            assertEquals(PaymentProvider.RAZORPAY, direct.getPaymentProvider());
+            assertEquals(PaymentProvider.RAZORPAY, fallback.getPaymentProvider());
+            worstDirect = Math.max(worstDirect, TimeUnit.NANOSECONDS.toMillis(afterDirect - start));
+            worstFallback = Math.max(worstFallback, TimeUnit.NANOSECONDS.toMillis(afterFallback - afterDirect));
+        }
+
+        // RAZORPAY answers in its own time; a rejected PAYPAL attempt costs at most the bulkhead wait
+        assertTrue(worstDirect <= razorpayLatencyMs + marginMs, "RAZORPAY charge took " + worstDirect + " ms");
+        assertTrue(worstFallback <= bulkheadWaitMs + razorpayLatencyMs + marginMs,
+                "fallback from full PAYPAL bulkhead took " + worstFallback + " ms");
+        assertEquals(2, paypal.calls.get());
+        assertEquals(20, paypalGateway().getHealth().getRejections());
+        callers.shutdown();
+    }
+
+    @Test
+    void timedOutCallIsPendingAndNeverChargedTwice() throws Exception {
+        paypalIsolation.setTimeoutMs(50);
+        start();
+
+        for (int i = 0; i < 2; i++) {
+            PaymentGatewayResult result = resilientPaymentService
+                    .charge((long) i, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL);
+
+            // The request reached PAYPAL: its outcome is unknown, not a reason to charge RAZORPAY
+            assertEquals(PaymentProvider.PAYPAL, result.getPaymentProvider());
+            assertEquals(PaymentStatus.PENDING, result.getPaymentStatus());
+            assertEquals(i + 1, paypalGateway().getHealth().getTimeouts());
+        }
+        assertEquals(2, paypal.calls.get());
+        assertEquals(0, razorpay.calls.get());
+
+        // Two timeouts fill the window and open the breaker: the next charge is never sent to PAYPAL
+        assertEquals(CircuitBreaker.State.OPEN, paypalGateway().getCircuitState());
+        PaymentGatewayResult result = resilientPaymentService
+                .charge(2L, 500, PaymentMethod.CREDIT_CARD, PaymentProvider.PAYPAL);
+        assertEquals(PaymentProvider.RAZORPAY, result.getPaymentProvider());
+        assertEquals(1, razorpay.calls.get());
+        assertEquals(2, paypal.calls.get());
+    }
+
+    private void start() {
+        PaymentGatewayRegistry registry = new PaymentGatewayRegistry();
+        registry.register(paypal);
+        registry.register(razorpay);
+        resilientPaymentService = new ResilientPaymentService(registry, paymentProperties);
+    }
+
+    private ResilientPaymentGateway paypalGateway() {
+        for (ResilientPaymentGateway gateway : resilientPaymentService.orderFor(PaymentProvider.PAYPAL)) {
+            if (gateway.getProvider() == PaymentProvider.PAYPAL) {
+                return gateway;
+            }
+        }
+        throw new AssertionError("PAYPAL gateway missing");
+    }
+
+    private static class CountingGateway implements PaymentGateway {
+
+        final PaymentProvider provider;
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingGateway(PaymentProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public PaymentProvider getProvider() {
+            return provider;
+        }
+
+        @Override
+        public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod) {
+            return new PaymentGatewayResult(provider, 100_000 + calls.incrementAndGet(), PaymentStatus.SUCCESS);
+        }
+
+        @Override
+        public PaymentGatewayResult status(Long bookingId) {
+            throw new UnsupportedOperationException("status");
+        }
+
+        @Override
+        public PaymentGatewayResult refund(int referenceNumber, int amount) {
+            return new PaymentGatewayResult(provider, referenceNumber, PaymentStatus.SUCCESS);
+        }
+    }
+
+    private static class SleepingGateway extends CountingGateway {
+
+        final long latencyMs;
+
+        SleepingGateway(PaymentProvider provider, long latencyMs) {
+            super(provider);
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.charge(bookingId, amount, paymentMethod);
+        }
+    }
+
+    private static class BlockingGateway extends CountingGateway {
+
+        final CountDownLatch entered = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingGateway(PaymentProvider provider) {
+            super(provider);
+        }
+
+        @Override
+        public PaymentGatewayResult charge(Long bookingId, int amount, PaymentMethod paymentMethod) {
+            PaymentGatewayResult result = super.charge(bookingId, amount, paymentMethod);
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+}
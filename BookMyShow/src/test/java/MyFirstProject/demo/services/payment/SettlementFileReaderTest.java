@@ -0,0 +1,81 @@
+package MyFirstProject.demo.services.payment;
+
+import MyFirstProject.demo.models.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SettlementFileReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void linesStraddlingAWindowBoundaryAreReadOnce() throws IOException {
+        StringBuilder file = new StringBuilder("referenceNumber,amount,status\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Varying line lengths, so boundaries fall at every offset within a line
+            String line = (100_000 + i) + "," + (i * 37) + "," + (i % 3 == 0 ? "FAILED" : "SUCCESS");
+            file.append(line).append(i % 5 == 0 ? "\r\n" : "\n");
+            expected.add(line);
+        }
+        Path settlementFile = write(file.toString());
+
+        for (long windowBytes : new long[]{32, 33, 47, 64, 4096}) {
+            List<String> lines = new ArrayList<>();
+            long malformed = new SettlementFileReader(windowBytes).read(settlementFile,
+                    (referenceNumber, amount, status) -> lines.add(referenceNumber + "," + amount + "," + status));
+
+            assertEquals(0, malformed, "window " + windowBytes);
+            assertEquals(expected, lines, "window " + windowBytes);
+        }
+    }
+
+    @Test
+    void truncatedLastLineIsCountedAsMalformed() throws IOException {
+        Path settlementFile = write("100001,900,SUCCESS\n100002,350,FAILED\n100003,35");
+
+        for (long windowBytes : new long[]{24, 4096}) {
+            List<Integer> references = new ArrayList<>();
+            long malformed = new SettlementFileReader(windowBytes).read(settlementFile,
+                    (referenceNumber, amount, status) -> references.add(referenceNumber));
+
+            assertEquals(List.of(100001, 100002), references, "window " + windowBytes);
+            assertEquals(1, malformed, "window " + windowBytes);
+        }
+
+        // A complete last line without a newline is still read
+        List<PaymentStatus> statuses = new ArrayList<>();
+        new SettlementFileReader().read(write("100001,900,SUCCESS\n100002,350,FAILED"),
+                (referenceNumber, amount, status) -> statuses.add(status));
+        assertEquals(List.of(PaymentStatus.SUCCESS, PaymentStatus.FAILED), statuses);
+    }
+
+    @Test
+    void duplicateReferencesAreAllPassedOn() throws IOException {
+        Path settlementFile = write("100001,900,SUCCESS\n100001,900,SUCCESS\n100002,350,SUCCESS\n");
+
+        List<Integer> references = new ArrayList<>();
+        long malformed = new SettlementFileReader(24).read(settlementFile,
+                (referenceNumber, amount, status) -> references.add(referenceNumber));
+
+        // Detecting the repeat is the reconciliation's job
+        assertEquals(List.of(100001, 100001, 100002), references);
+        assertEquals(0, malformed);
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(dir, "settlement", ".csv");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+        return file;
+    }
+}
@@ -0,0 +1,136 @@
+package MyFirstProject.demo.services.seatstate;
+
+import MyFirstProject.demo.configs.SeatStateProperties;
+import MyFirstProject.demo.dtos.SeatStateRecoveryReportDTO;
+import MyFirstProject.demo.dtos.ShowAvailabilityDTO;
+import MyFirstProject.demo.services.SeatAvailabilityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatStateRecoveryServiceTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path directory;
+
+    private SeatStateProperties seatStateProperties;
+    private SeatAvailabilityService seatAvailabilityService;
+    private SeatStateRecoveryService seatStateRecoveryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        seatStateProperties = new SeatStateProperties();
+        seatStateProperties.setEnabled(true);
+        seatStateProperties.setDirectory(directory.toString());
+        seatStateProperties.setJournalCapacityBytes(CAPACITY);
+
+        // Show 10 at generation 7: 100 NORMAL and 20 PREMIUM seats left
+        SeatStateSnapshot.write(snapshot(), 7, Map.of(10L, Map.of(1L, 100, 2L, 20)));
+        try (SeatStateJournal journal = SeatStateJournal.open(journal(), CAPACITY)) {
+            journal.rotate(7);
+            journal.append(SeatStateJournal.ADD, 10, 1, -2);
+            journal.append(SeatStateJournal.LOAD_SHOW, 11, 0, 0);
+            journal.append(SeatStateJournal.SET, 11, 1, 50);
+            journal.append(SeatStateJournal.ADD, 99, 1, -1); // show not loaded: ignored, as in memory
+        }
+
+        // No database: every show the tests read is restored from the files
+        seatAvailabilityService = new SeatAvailabilityService(null, event -> { });
+        seatStateRecoveryService = new SeatStateRecoveryService(seatAvailabilityService, seatStateProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        seatStateRecoveryService.close();
+    }
+
+    @Test
+    void restoresSnapshotPlusJournalAndTruncatesTornTail() throws IOException {
+        // A record whose last bytes never reached the disk
+        write(journal(), SeatStateJournal.HEADER_BYTES + 4 * SeatStateJournal.RECORD_BYTES,
+                new byte[]{SeatStateJournal.ADD, 0, 0, 0, 0, 0, 0, 0, 10});
+
+        SeatStateRecoveryReportDTO report = seatStateRecoveryService.recover();
+
+        assertTrue(report.isRestored(), report.getFallbackReason());
+        assertTrue(report.isTailDiscarded());
+        assertEquals(7, report.getSnapshotGeneration());
+        assertEquals(4, report.getJournalRecordsReplayed());
+        Map<Long, ShowAvailabilityDTO> availability = seatAvailabilityService.getAvailability(List.of(10L, 11L));
+        assertEquals(98, availability.get(10L).getAvailableBySeatType().get(1L));
+        assertEquals(20, availability.get(10L).getAvailableBySeatType().get(2L));
+        assertEquals(50, availability.get(11L).getTotalAvailable());
+    }
+
+    @Test
+    void changesAfterRecoveryAreRestoredOnTheNextStart() throws IOException {
+        seatStateRecoveryService.recover();
+        seatAvailabilityService.evict(11L);
+        seatStateRecoveryService.close();
+
+        SeatAvailabilityService restarted = new SeatAvailabilityService(null, event -> { });
+        SeatStateRecoveryService recovery = new SeatStateRecoveryService(restarted, seatStateProperties);
+        try {
+            SeatStateRecoveryReportDTO report = recovery.recover();
+            assertTrue(report.isRestored(), report.getFallbackReason());
+            assertEquals(1, report.getShowsRestored());
+            assertEquals(1, report.getJournalRecordsReplayed());
+            assertEquals(118, restarted.getAvailability(List.of(10L)).get(10L).getTotalAvailable());
+        } finally {
+            recovery.close();
+        }
+    }
+
+    @Test
+    void fallsBackToDatabaseOnSnapshotChecksumMismatch() throws IOException {
+        write(snapshot(), 24, new byte[]{42});
+
+        SeatStateRecoveryReportDTO report = seatStateRecoveryService.recover();
+
+        assertFalse(report.isRestored());
+        assertEquals("Snapshot checksum mismatch", report.getFallbackReason());
+        assertEquals(0, report.getShowsRestored());
+    }
+
+    @Test
+    void fallsBackToDatabaseWhenJournalIsDamagedInTheMiddle() throws IOException {
+        // Flip the value of the second record; records three and four still verify
+        write(journal(), SeatStateJournal.HEADER_BYTES + SeatStateJournal.RECORD_BYTES + 17, new byte[]{7});
+
+        SeatStateRecoveryReportDTO report = seatStateRecoveryService.recover();
+
+        assertFalse(report.isRestored());
+        assertNotNull(report.getFallbackReason());
+        assertTrue(report.getFallbackReason().contains("later records verify"), report.getFallbackReason());
+    }
+
+    private Path snapshot() {
+        return directory.resolve("seat-state.snapshot");
+    }
+
+    private Path journal() {
+        return directory.resolve("seat-state.journal");
+    }
+
+    private static void write(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package MyFirstProject.demo.services.waitlist;
+
+import MyFirstProject.demo.dtos.OutboxEventDTO;
+import MyFirstProject.demo.models.Booking;
+import MyFirstProject.demo.models.BookingStatus;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.repositories.BookingRepository;
+import MyFirstProject.demo.services.BookingServices;
+import MyFirstProject.demo.services.CancellationService;
+import MyFirstProject.demo.services.outbox.InMemoryOutboxSink;
+import MyFirstProject.demo.services.outbox.OutboxRelay;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookmyshow.outbox.relay-interval-ms=3600000")
+@ActiveProfiles("embedded")
+class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BookingServices bookingServices;
+
+    @Autowired
+    private CancellationService cancellationService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long showId;
+    private Long normalTypeId;
+    private List<Long> showSeatIds;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+            normalTypeId = normal.getId();
+
+            Movie movie = new Movie();
+            movie.setTitle("Waitlist");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            showId = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(200);
+            entityManager.persist(price);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            userIds = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                User user = new User();
+                user.setEmail("waitlist-" + i + "-" + System.nanoTime() + "@example.com");
+                entityManager.persist(user);
+                userIds.add(user.getId());
+            }
+        });
+        outboxSink.drain(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void releasedSeatsGoToTheEarliestWaiterThatFits() throws Exception {
+        // Sold out: one booking holds all three seats
+        Booking holder = bookingServices.bookMovie(userIds.get(0), showId, showSeatIds);
+
+        waitlistService.join(userIds.get(1), showId, normalTypeId, 4); // never fits 3 seats
+        Waiter first = waitlistService.join(userIds.get(2), showId, normalTypeId, 2);
+        waitlistService.join(userIds.get(3), showId, normalTypeId, 2);
+
+        long allocatedBefore = waitlistService.getAllocated();
+        cancellationService.cancelBooking(userIds.get(0), holder.getId());
+
+        // The two-seat waiter who joined first gets two seats; nobody fits the one left
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (waitlistService.getAllocated() == allocatedBefore && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(allocatedBefore + 1, waitlistService.getAllocated());
+        assertEquals(2, waitlistService.getWaiting(showId));
+        assertFalse(waitlistService.leave(userIds.get(2), showId, first.getId()), "first waiter was allocated");
+
+        outboxRelay.relay();
+        List<OutboxEventDTO> events = outboxSink.drain(10);
+        OutboxEventDTO allocated = events.get(events.size() - 1);
+        assertEquals("WAITLIST_ALLOCATED", allocated.getEventType());
+        assertTrue(allocated.getPayload().startsWith("user=" + userIds.get(2) + " "), allocated.getPayload());
+
+        Booking booking = bookingRepository.findById(allocated.getBookingId()).orElseThrow();
+        assertEquals(BookingStatus.PENDING, booking.getBookingStatus());
+        assertEquals(400, booking.getPrice());
+    }
+}
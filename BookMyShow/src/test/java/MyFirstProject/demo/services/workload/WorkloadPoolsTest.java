@@ -0,0 +1,204 @@
+package MyFirstProject.demo.services.workload;
+
+import MyFirstProject.demo.controller.BookingController;
+import MyFirstProject.demo.dtos.BookMovieRequestDTO;
+import MyFirstProject.demo.dtos.BookMovieResponseDTO;
+import MyFirstProject.demo.dtos.ConnectionPoolStatsDTO;
+import MyFirstProject.demo.models.Movie;
+import MyFirstProject.demo.models.ResponseStatus;
+import MyFirstProject.demo.models.Screen;
+import MyFirstProject.demo.models.Seat;
+import MyFirstProject.demo.models.SeatStatus;
+import MyFirstProject.demo.models.SeatType;
+import MyFirstProject.demo.models.Show;
+import MyFirstProject.demo.models.ShowSeat;
+import MyFirstProject.demo.models.ShowSeatType;
+import MyFirstProject.demo.models.User;
+import MyFirstProject.demo.models.Workload;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "bookmyshow.workload-pools.batch.maximum-pool-size=2",
+        "bookmyshow.workload-pools.batch.connection-timeout-ms=10000"})
+@ActiveProfiles("embedded")
+class WorkloadPoolsTest {
+
+    private static final long BATCH_QUERY_MS = 3_000;
+    private static final int BOOKINGS = 10;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private SlowReport slowReport;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long showId;
+    private List<Long> showSeatIds;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SeatType normal = new SeatType();
+            normal.setName("NORMAL");
+            entityManager.persist(normal);
+
+            Movie movie = new Movie();
+            movie.setTitle("Workload pools");
+            entityManager.persist(movie);
+
+            Screen screen = new Screen();
+            screen.setName("Screen 1");
+            entityManager.persist(screen);
+
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setScreen(screen);
+            show.setStartTime(new Date());
+            show.setEndTime(new Date());
+            entityManager.persist(show);
+            showId = show.getId();
+
+            ShowSeatType price = new ShowSeatType();
+            price.setShow(show);
+            price.setSeatType(normal);
+            price.setPrice(300);
+            entityManager.persist(price);
+
+            showSeatIds = new ArrayList<>();
+            for (int i = 0; i <= BOOKINGS; i++) {
+                Seat seat = new Seat();
+                seat.setName("A" + (i + 1));
+                seat.setSeatType(normal);
+                entityManager.persist(seat);
+
+                ShowSeat showSeat = new ShowSeat();
+                showSeat.setShow(show);
+                showSeat.setSeat(seat);
+                showSeat.setSeatStatus(SeatStatus.AVAILABLE);
+                entityManager.persist(showSeat);
+                showSeatIds.add(showSeat.getId());
+            }
+
+            User user = new User();
+            user.setEmail("workload-" + System.nanoTime() + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @Test
+    void bookingsKeepTheirLatencyWhileABatchJobSaturatesItsPool() throws Exception {
+        // Warm-up booking: first-call costs are not what this test measures
+        assertEquals(ResponseStatus.SUCCESS, book(showSeatIds.get(BOOKINGS)).getResponseStatus());
+
+        // Three slow reports on a two-connection batch pool: two run, one waits
+        ExecutorService jobs = Executors.newFixedThreadPool(3);
+        List<Future<?>> reports = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            reports.add(jobs.submit(() -> slowReport.run(BATCH_QUERY_MS)));
+        }
+        long waitUntil = System.currentTimeMillis() + 5_000;
+        while (!(stats(Workload.BATCH).getActive() == 2 && stats(Workload.BATCH).getWaiting() >= 1)) {
+            assertTrue(System.currentTimeMillis() < waitUntil, "batch pool never saturated");
+            Thread.sleep(10);
+        }
+
+        long slowestMs = 0;
+        for (int i = 0; i < BOOKINGS; i++) {
+            long start = System.nanoTime();
+            BookMovieResponseDTO response = book(showSeatIds.get(i));
+            slowestMs = Math.max(slowestMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            assertEquals(ResponseStatus.SUCCESS, response.getResponseStatus());
+        }
+
+        // With a shared pool each booking would have waited for a batch query to finish
+        ConnectionPoolStatsDTO batch = stats(Workload.BATCH);
+        assertEquals(2, batch.getActive(), "batch pool still saturated while booking");
+        assertTrue(slowestMs < BATCH_QUERY_MS / 3, "slowest booking took " + slowestMs + " ms");
+        ConnectionPoolStatsDTO booking = stats(Workload.BOOKING);
+        assertEquals(0, booking.getTimeouts());
+        assertTrue(booking.getMaxAcquireMs() < BATCH_QUERY_MS / 3, "booking waited " + booking.getMaxAcquireMs() + " ms");
+
+        for (Future<?> report : reports) {
+            report.get(30, TimeUnit.SECONDS);
+        }
+        jobs.shutdown();
+        assertTrue(stats(Workload.BATCH).getMaxAcquireMs() >= BATCH_QUERY_MS / 2, "a report queued for a batch connection");
+    }
+
+    private BookMovieResponseDTO book(Long showSeatId) {
+        BookMovieRequestDTO request = new BookMovieRequestDTO();
+        request.setUserId(userId);
+        request.setShowId(showId);
+        request.setShowsSeatId(List.of(showSeatId));
+        return bookingController.bookMovie(request);
+    }
+
+    private ConnectionPoolStatsDTO stats(Workload workload) {
+        return workloadPools.snapshot().stream()
+                .filter(pool -> pool.getWorkload().equals(workload.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // A reconciliation-style job whose query holds its connection for a while
+    @WorkloadPool(Workload.BATCH)
+    static class SlowReport {
+
+        private final EntityManager entityManager;
+
+        SlowReport(EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+        @Transactional(readOnly = true)
+        public void run(long queryMs) {
+            entityManager.createNativeQuery("select count(*) from show_seat").getSingleResult();
+            try {
+                Thread.sleep(queryMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class SlowReportConfig {
+
+        @Bean
+        SlowReport slowReport(EntityManager entityManager) {
+            return new SlowReport(entityManager);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package MyFirstProject.demo.sqlguard;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * SQL statements issued by one unit of work on the current thread.
+ *
+ * Usage:
+ * try (SqlCapture sql = SqlCapture.start("bookMovie of 6 seats")) {
+ *     bookingServices.bookMovie(userId, showId, seatIds);
+ *     sql.assertAtMost(12);
+ *     sql.assertNoNPlusOne();
+ * }
+ *
+ * Needs SqlStatementRecorder registered as Hibernate's statement inspector.
+ * Statements run on other threads (async jobs, pools) are not captured.
+ *
+ * Failure messages list every statement with the application call site that
+ * triggered it, e.g.
+ *   select ... from show_seat_type ... where show_id=?
+ *     at PriceCalculator.calculatePrice(PriceCalculator.java:68)
+ */
+public class SqlCapture implements AutoCloseable {
+
+    private static final ThreadLocal<SqlCapture> CURRENT = new ThreadLocal<>();
+
+    private static final String APPLICATION_PACKAGE = "MyFirstProject.demo.";
+    private static final String OWN_PACKAGE = SqlCapture.class.getPackageName() + ".";
+
+    // Frames shown per statement (innermost application frames first)
+    private static final int CALL_SITE_DEPTH = 2;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String unitOfWork;
+    private final List<CapturedStatement> statements = new ArrayList<>();
+
+    private SqlCapture(String unitOfWork) {
+        this.unitOfWork = unitOfWork;
+    }
+
+    /**
+     * Starts capturing on the current thread. Close it to stop.
+     *
+     * @param unitOfWork Name used in failure messages
+     * @return Open capture
+     */
+    public static SqlCapture start(String unitOfWork) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A capture is already open on this thread: " + CURRENT.get().unitOfWork);
+        }
+        SqlCapture capture = new SqlCapture(unitOfWork);
+        CURRENT.set(capture);
+        return capture;
+    }
+
+    static SqlCapture current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, StackTraceElement[] stackTrace) {
+        statements.add(new CapturedStatement(sql, shapeOf(sql), callSite(stackTrace)));
+    }
+
+    /**
+     * @return Number of statements so far
+     */
+    public int count() {
+        return statements.size();
+    }
+
+    /**
+     * @param keyword Leading SQL keyword, e.g. "select", "insert", "update"
+     * @return Number of statements of that kind so far
+     */
+    public int count(String keyword) {
+        String prefix = keyword.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (CapturedStatement statement : statements) {
+            if (statement.shape.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Raw SQL of every statement so far, in execution order
+     */
+    public List<String> statements() {
+        List<String> sql = new ArrayList<>(statements.size());
+        for (CapturedStatement statement : statements) {
+            sql.add(statement.sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Fails if the unit of work issued more than max statements.
+     *
+     * @param max Statement budget
+     */
+    public void assertAtMost(int max) {
+        if (statements.size() > max) {
+            fail(unitOfWork + " issued " + statements.size() + " SQL statements, budget is " + max
+                    + describe(statements));
+        }
+    }
+
+    /**
+     * Fails if the unit of work issued more than max statements of one kind.
+     *
+     * @param keyword Leading SQL keyword, e.g. "select"
+     * @param max Statement budget for that kind
+     */
+    public void assertAtMost(String keyword, int max) {
+        int count = count(keyword);
+        if (count > max) {
+            fail(unitOfWork + " issued " + count + " " + keyword + " statements, budget is " + max
+                    + describe(statements));
+        }
+    }
+
+    /**
+     * Fails if the same SELECT (ignoring parameter values and IN-list length)
+     * ran more than once, which is what lazy loading in a loop looks like:
+     * one query for the parents, then one identical query per child.
+     */
+    public void assertNoNPlusOne() {
+        Map<String, List<CapturedStatement>> selectsByShape = new LinkedHashMap<>();
+        for (CapturedStatement statement : statements) {
+            if (statement.shape.startsWith("select")) {
+                selectsByShape.computeIfAbsent(statement.shape, k -> new ArrayList<>()).add(statement);
+            }
+        }
+
+        StringBuilder message = new StringBuilder();
+        for (List<CapturedStatement> repeated : selectsByShape.values()) {
+            if (repeated.size() > 1) {
+                message.append("\n\n").append(repeated.size()).append("x ").append(repeated.get(0).sql);
+                for (String callSite : distinctCallSites(repeated)) {
+                    message.append("\n    at ").append(callSite);
+                }
+            }
+        }
+        if (message.length() > 0) {
+            fail(unitOfWork + " repeats the same query (N+1):" + message);
+        }
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+
+    // Lower case, literals replaced by ?, IN (?, ?, ?) collapsed to (?), single spaces
+    static String shapeOf(String sql) {
+        String shape = sql.toLowerCase(Locale.ROOT).trim();
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ");
+    }
+
+    private static String callSite(StackTraceElement[] stackTrace) {
+        StringBuilder callSite = new StringBuilder();
+        int frames = 0;
+        for (StackTraceElement frame : stackTrace) {
+            String className = frame.getClassName();
+            if (!className.startsWith(APPLICATION_PACKAGE) || className.startsWith(OWN_PACKAGE)
+                    || className.contains("$$")) {
+                continue; // framework, proxies and this recorder
+            }
+            if (frames > 0) {
+                callSite.append(" <- ");
+            }
+            callSite.append(className.substring(className.lastIndexOf('.') + 1))
+                    .append('.').append(frame.getMethodName())
+                    .append('(').append(frame.getFileName()).append(':').append(frame.getLineNumber()).append(')');
+            if (++frames == CALL_SITE_DEPTH) {
+                break;
+            }
+        }
+        return frames == 0 ? "(no application frame)" : callSite.toString();
+    }
+
+    private static List<String> distinctCallSites(List<CapturedStatement> statements) {
+        List<String> callSites = new ArrayList<>();
+        for (CapturedStatement statement : statements) {
+            if (!callSites.contains(statement.callSite)) {
+                callSites.add(statement.callSite);
+            }
+        }
+        return callSites;
+    }
+
+    private static String describe(List<CapturedStatement> statements) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            CapturedStatement statement = statements.get(i);
+            out.append("\n").append(i + 1).append(". ").append(statement.sql)
+                    .append("\n    at ").append(statement.callSite);
+        }
+        return out.toString();
+    }
+
+    private static class CapturedStatement {
+        final String sql;
+        final String shape;
+        final String callSite;
+
+        CapturedStatement(String sql, String shape, String callSite) {
+            this.sql = sql;
+            this.shape = shape;
+            this.callSite = callSite;
+        }
+    }
+}
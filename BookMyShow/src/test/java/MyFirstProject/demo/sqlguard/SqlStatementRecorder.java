@@ -0,0 +1,33 @@
+package MyFirstProject.demo.sqlguard;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector that hands every SQL statement to the SqlCapture
+ * open on the current thread.
+ *
+ * Registration (test scope only):
+ * @SpringBootTest(properties = SqlStatementRecorder.REGISTRATION)
+ *
+ * Hibernate calls inspect() once per statement it prepares, on the thread that
+ * runs the unit of work. Threads without an open capture pay one ThreadLocal read.
+ * The statement is returned unchanged.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    /**
+     * Spring property that installs this inspector into the session factory.
+     */
+    public static final String REGISTRATION =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                    + "MyFirstProject.demo.sqlguard.SqlStatementRecorder";
+
+    @Override
+    public String inspect(String sql) {
+        SqlCapture capture = SqlCapture.current();
+        if (capture != null) {
+            capture.record(sql, Thread.currentThread().getStackTrace());
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,64 @@
+package MyFirstProject.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void samplesLandInPowerOfTwoBuckets() {
+        // [2^(i-1), 2^i) µs is reported as 2^i µs
+        assertEquals(0.001, only(0));
+        assertEquals(0.001, only(999));            // 0µs (rounded down)
+        assertEquals(0.002, only(1_000));          // 1µs
+        assertEquals(0.004, only(2_000));          // 2µs: first sample of the next bucket
+        assertEquals(0.004, only(3_999));          // 3µs
+        assertEquals(1.024, only(TimeUnit.MICROSECONDS.toNanos(1_023)));
+        assertEquals(2.048, only(TimeUnit.MICROSECONDS.toNanos(1_024)));
+        assertEquals(2.048, only(TimeUnit.MILLISECONDS.toNanos(2)));
+
+        // Everything from ~18 minutes up shares the last bucket
+        double last = (1L << 31) / 1000.0;
+        assertEquals(last, only(TimeUnit.MINUTES.toNanos(20)));
+        assertEquals(last, only(TimeUnit.DAYS.toNanos(3)));
+    }
+
+    @Test
+    void percentilesAreUpperBoundsOfTheBucketHoldingTheRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileMillis(0.99));
+        assertEquals(0, histogram.getMeanMillis());
+
+        // 990 fast samples (3 ms) and 10 slow ones (100 ms)
+        for (int i = 0; i < 990; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertEquals(1_000, histogram.getCount());
+        assertEquals((990 * 3 + 10 * 100) / 1000.0, histogram.getMeanMillis(), 1e-9);
+        assertEquals(4.096, histogram.percentileMillis(0.0));
+        assertEquals(4.096, histogram.percentileMillis(0.50));
+        assertEquals(4.096, histogram.percentileMillis(0.99));   // rank 990: the last fast sample
+        assertEquals(131.072, histogram.percentileMillis(0.991)); // rank 991: the first slow one
+        assertEquals(131.072, histogram.percentileMillis(0.999));
+        assertEquals(131.072, histogram.percentileMillis(1.0));
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        // System.nanoTime() differences across cores can come out slightly negative
+        assertEquals(0.001, only(-5_000));
+    }
+
+    private static double only(long nanos) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(nanos);
+        return histogram.percentileMillis(0.5);
+    }
+}
@@ -0,0 +1,97 @@
+package MyFirstProject.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int HERD = 50;
+
+    @Test
+    void herdOnOneKeyRunsOneLoad() throws Exception {
+        SingleFlight<Long, List<String>> flight = new SingleFlight<>("SEAT_LAYOUT");
+        AtomicInteger queries = new AtomicInteger();
+        List<String> layout = List.of("A1", "A2");
+
+        // The leader's "query" lasts until the whole herd has joined it
+        ExecutorService users = Executors.newFixedThreadPool(HERD);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < HERD; i++) {
+            results.add(users.submit(() -> flight.execute(7L, () -> {
+                queries.incrementAndGet();
+                while (flight.snapshot().getCoalesced() < HERD - 1) {
+                    Thread.sleep(1);
+                }
+                return layout;
+            })));
+        }
+        users.shutdown();
+        assertTrue(users.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, queries.get());
+        for (Future<List<String>> result : results) {
+            assertSame(layout, result.get());
+        }
+        assertEquals(HERD, flight.snapshot().getCalls());
+        assertEquals((HERD - 1) / (double) HERD, flight.snapshot().getCoalescingRatio(), 1e-9);
+
+        // Nothing is kept: the next miss loads again
+        flight.execute(7L, () -> {
+            queries.incrementAndGet();
+            return layout;
+        });
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void bulkLoadJoinsKeysInFlightAndLoadsOnlyTheRest() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("AVAILABILITY");
+        CountDownLatch firstLoadStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstLoad = new CountDownLatch(1);
+        List<List<Long>> loadedKeys = new ArrayList<>();
+
+        ExecutorService listingPage = Executors.newSingleThreadExecutor();
+        Future<Map<Long, String>> first = listingPage.submit(() -> flight.executeAll(List.of(1L, 2L), keys -> {
+            synchronized (loadedKeys) {
+                loadedKeys.add(keys);
+            }
+            firstLoadStarted.countDown();
+            releaseFirstLoad.await();
+            return Map.of(1L, "one", 2L, "two");
+        }));
+        assertTrue(firstLoadStarted.await(10, TimeUnit.SECONDS));
+
+        // Shows 1 and 2 are in flight: only show 3 is queried here
+        CountDownLatch secondLoaded = new CountDownLatch(1);
+        ExecutorService otherPage = Executors.newSingleThreadExecutor();
+        Future<Map<Long, String>> second = otherPage.submit(() -> flight.executeAll(List.of(2L, 3L), keys -> {
+            synchronized (loadedKeys) {
+                loadedKeys.add(keys);
+            }
+            secondLoaded.countDown();
+            return Map.of(3L, "three");
+        }));
+        assertTrue(secondLoaded.await(10, TimeUnit.SECONDS));
+        releaseFirstLoad.countDown();
+
+        assertEquals(Map.of(1L, "one", 2L, "two"), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Map.of(2L, "two", 3L, "three"), second.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), loadedKeys);
+        assertEquals(1, flight.snapshot().getCoalesced());
+        listingPage.shutdown();
+        otherPage.shutdown();
+    }
+}